@@ -10,6 +10,7 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -74,4 +75,19 @@ public class KafkaConfig {
                 StringDeserializer.class);
         return new DefaultKafkaConsumerFactory<>(props);
     }
+
+    /**
+     * Listener container factory delivering a whole poll per invocation.
+     *
+     * @return batch listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String>
+            batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        return factory;
+    }
 }
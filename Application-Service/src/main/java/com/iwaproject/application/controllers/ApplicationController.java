@@ -1,5 +1,6 @@
 package com.iwaproject.application.controllers;
 
+import com.iwaproject.application.dtos.ApplicationCountsDto;
 import com.iwaproject.application.dtos.ApplicationRequestDto;
 import com.iwaproject.application.dtos.ApplicationResponseDto;
 import com.iwaproject.application.dtos.ApplicationUpdateStatusDto;
@@ -150,6 +151,34 @@ public final class ApplicationController {
         }
     }
 
+    /**
+     * Gets application counts grouped by status for announcements.
+     *
+     * @param announcementIds the announcement IDs
+     * @return counts per announcement
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<List<ApplicationCountsDto>> getApplicationCounts(
+            final @RequestParam List<Integer> announcementIds) {
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /api/applications/counts"
+                + ", Counting applications for "
+                + announcementIds.size() + " announcements");
+        try {
+            return ResponseEntity.ok(applicationService
+                    .getApplicationCountsByAnnouncementIds(announcementIds));
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Invalid counts request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Error counting applications: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
     /**
      * Updates the status of an application.
      *
@@ -164,6 +193,9 @@ public final class ApplicationController {
         kafkaLogService.info(LOGGER_NAME,
                 "PATCH /api/applications/" + id + "/status"
                 + ", Updating status");
+        if (updateDto.getStatus() == null) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             ApplicationResponseDto response =
                     applicationService.updateApplicationStatus(id, updateDto);
@@ -172,6 +204,10 @@ public final class ApplicationController {
             kafkaLogService.error(LOGGER_NAME,
                     "Application not found with id " + id);
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Status conflict: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             kafkaLogService.error(LOGGER_NAME,
                     "Error updating application status: " + e.getMessage());
@@ -0,0 +1,32 @@
+package com.iwaproject.application.dtos;
+
+import com.iwaproject.application.entities.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for application counts of an announcement, grouped by status.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationCountsDto {
+
+    /**
+     * Announcement ID.
+     */
+    private Integer announcementId;
+
+    /**
+     * Number of applications per status (every status is present).
+     */
+    private Map<ApplicationStatus, Long> counts;
+
+    /**
+     * Total number of applications for the announcement.
+     */
+    private long total;
+}
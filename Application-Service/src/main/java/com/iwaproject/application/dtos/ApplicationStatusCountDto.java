@@ -0,0 +1,31 @@
+package com.iwaproject.application.dtos;
+
+import com.iwaproject.application.entities.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the per-announcement status aggregate
+ * (one announcement, one status, one count).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationStatusCountDto {
+
+    /**
+     * Announcement ID.
+     */
+    private Integer announcementId;
+
+    /**
+     * Application status.
+     */
+    private ApplicationStatus status;
+
+    /**
+     * Number of applications in this status.
+     */
+    private Long count;
+}
@@ -7,11 +7,14 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -19,7 +22,12 @@ import java.time.LocalDateTime;
  * Entity representing an application (candidature).
  */
 @Entity
-@Table(name = "applications")
+@Table(name = "applications", indexes = {
+        @Index(name = "idx_applications_annonce_status",
+                columnList = "annonce_id, status"),
+        @Index(name = "idx_applications_guardian_annonce_status",
+                columnList = "guardian_username, annonce_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -62,6 +70,14 @@ public final class Application {
     @Column(name = "date_candidature", nullable = false)
     private LocalDateTime applicationDate;
 
+    /**
+     * Optimistic locking version.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Sets default values before persisting.
      */
@@ -73,5 +89,8 @@ public final class Application {
         if (status == null) {
             status = ApplicationStatus.SENT;
         }
+        if (version == null) {
+            version = 0L;
+        }
     }
 }
@@ -1,7 +1,12 @@
 package com.iwaproject.application.entities;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Enumeration of application statuses.
+ * Allowed transitions: SENT to ACCEPTED or REFUSED,
+ * ACCEPTED to REFUSED. REFUSED is final.
  */
 public enum ApplicationStatus {
     /**
@@ -57,4 +62,37 @@ public enum ApplicationStatus {
         }
         throw new IllegalArgumentException("Unknown status: " + statusValue);
     }
+
+    /**
+     * Checks whether an application may move from this status
+     * to the target status.
+     *
+     * @param target the target status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(final ApplicationStatus target) {
+        return switch (this) {
+            case SENT -> target == ACCEPTED || target == REFUSED;
+            case ACCEPTED -> target == REFUSED;
+            case REFUSED -> false;
+        };
+    }
+
+    /**
+     * Gets the statuses from which the target status can be reached.
+     *
+     * @param target the target status
+     * @return the allowed source statuses (possibly empty)
+     */
+    public static Set<ApplicationStatus> sourcesOf(
+            final ApplicationStatus target) {
+        Set<ApplicationStatus> sources =
+                EnumSet.noneOf(ApplicationStatus.class);
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -1,10 +1,15 @@
 package com.iwaproject.application.repositories;
 
+import com.iwaproject.application.dtos.ApplicationStatusCountDto;
 import com.iwaproject.application.entities.Application;
 import com.iwaproject.application.entities.ApplicationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -81,4 +86,53 @@ public interface ApplicationRepository
             String guardianUsername,
             Integer announcementId,
             ApplicationStatus status);
+
+    /**
+     * Finds applications with a status among the given guardians and
+     * announcements. Callers match exact (guardian, announcement) pairs.
+     *
+     * @param status the application status
+     * @param guardianUsernames the guardians' usernames
+     * @param announcementIds the announcement IDs
+     * @return list of candidate applications
+     */
+    List<Application> findByStatusAndGuardianUsernameInAndAnnouncementIdIn(
+            ApplicationStatus status,
+            Collection<String> guardianUsernames,
+            Collection<Integer> announcementIds);
+
+    /**
+     * Counts applications grouped by announcement and status.
+     * Served by the (annonce_id, status) index in a single GROUP BY.
+     *
+     * @param announcementIds the announcement IDs
+     * @return one row per (announcement, status) pair having applications
+     */
+    @Query("SELECT new com.iwaproject.application.dtos"
+            + ".ApplicationStatusCountDto("
+            + "a.announcementId, a.status, COUNT(a)) "
+            + "FROM Application a "
+            + "WHERE a.announcementId IN :announcementIds "
+            + "GROUP BY a.announcementId, a.status")
+    List<ApplicationStatusCountDto> countByAnnouncementIdsGroupByStatus(
+            @Param("announcementIds") Collection<Integer> announcementIds);
+
+    /**
+     * Moves an application to a new status if its current status is one
+     * of the expected ones, in a single conditional UPDATE.
+     *
+     * @param id the application ID
+     * @param expectedStatuses the statuses the application may be in
+     * @param newStatus the new status
+     * @return the number of updated rows (0 or 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Application a "
+            + "SET a.status = :newStatus, a.version = a.version + 1 "
+            + "WHERE a.id = :id AND a.status IN :expectedStatuses")
+    int updateStatusIfCurrent(
+            @Param("id") Integer id,
+            @Param("expectedStatuses")
+            Collection<ApplicationStatus> expectedStatuses,
+            @Param("newStatus") ApplicationStatus newStatus);
 }
@@ -1,7 +1,9 @@
 package com.iwaproject.application.services;
 
+import com.iwaproject.application.dtos.ApplicationCountsDto;
 import com.iwaproject.application.dtos.ApplicationRequestDto;
 import com.iwaproject.application.dtos.ApplicationResponseDto;
+import com.iwaproject.application.dtos.ApplicationStatusCountDto;
 import com.iwaproject.application.dtos.ApplicationUpdateStatusDto;
 import com.iwaproject.application.entities.Application;
 import com.iwaproject.application.entities.ApplicationStatus;
@@ -12,7 +14,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +32,11 @@ import java.util.stream.Collectors;
 @Transactional
 public class ApplicationService {
 
+    /**
+     * Maximum number of announcements per counts request.
+     */
+    public static final int MAX_COUNTS_ANNOUNCEMENTS = 100;
+
     /**
      * Application repository.
      */
@@ -218,29 +231,86 @@ public class ApplicationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Gets application counts grouped by status for announcements.
+     * Every requested announcement is returned, with zero counts
+     * for statuses it has no application in.
+     *
+     * @param announcementIds the announcement IDs
+     * @return counts per announcement, in request order
+     * @throws IllegalArgumentException if no or too many IDs are given
+     */
+    @Transactional(readOnly = true)
+    public List<ApplicationCountsDto> getApplicationCountsByAnnouncementIds(
+            final List<Integer> announcementIds) {
+        Set<Integer> ids = new LinkedHashSet<>(announcementIds);
+        ids.remove(null);
+        if (ids.isEmpty() || ids.size() > MAX_COUNTS_ANNOUNCEMENTS) {
+            throw new IllegalArgumentException(
+                    "Between 1 and " + MAX_COUNTS_ANNOUNCEMENTS
+                    + " announcement ids are required");
+        }
+        log.info("Counting applications for {} announcements", ids.size());
+
+        Map<Integer, ApplicationCountsDto> countsById =
+                new LinkedHashMap<>();
+        for (Integer id : ids) {
+            Map<ApplicationStatus, Long> counts =
+                    new EnumMap<>(ApplicationStatus.class);
+            for (ApplicationStatus status : ApplicationStatus.values()) {
+                counts.put(status, 0L);
+            }
+            countsById.put(id, new ApplicationCountsDto(id, counts, 0L));
+        }
+
+        for (ApplicationStatusCountDto row : applicationRepository
+                .countByAnnouncementIdsGroupByStatus(ids)) {
+            ApplicationCountsDto dto = countsById.get(row.getAnnouncementId());
+            dto.getCounts().put(row.getStatus(), row.getCount());
+            dto.setTotal(dto.getTotal() + row.getCount());
+        }
+
+        return new ArrayList<>(countsById.values());
+    }
+
     /**
      * Updates the status of an application.
+     * The transition is checked against the status state machine and
+     * applied with a conditional UPDATE, so concurrent updates cannot
+     * silently overwrite each other.
      *
      * @param id the application ID
      * @param updateDto the status update data
      * @return the updated application
      * @throws IllegalArgumentException if application not found
+     * @throws IllegalStateException if the transition is not allowed
+     *         from the current status
      */
     public ApplicationResponseDto updateApplicationStatus(final Integer id,
             final ApplicationUpdateStatusDto updateDto) {
-        log.info("Updating status of application {} to {}", id,
-                updateDto.getStatus());
+        ApplicationStatus target = updateDto.getStatus();
+        log.info("Updating status of application {} to {}", id, target);
+
+        Set<ApplicationStatus> sources = ApplicationStatus.sourcesOf(target);
+        int updated = sources.isEmpty()
+                ? 0
+                : applicationRepository.updateStatusIfCurrent(
+                        id, sources, target);
 
         Application application = applicationRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Application not found with id: " + id));
 
-        application.setStatus(updateDto.getStatus());
-        Application updatedApplication =
-                applicationRepository.save(application);
+        if (updated == 0 && application.getStatus() != target) {
+            log.warn("Application {} cannot move from {} to {}",
+                    id, application.getStatus(), target);
+            throw new IllegalStateException(
+                    "Application " + id + " cannot move from "
+                    + application.getStatus() + " to " + target);
+        }
 
         log.info("Application {} status updated successfully", id);
-        return mapToResponseDto(updatedApplication);
+        return mapToResponseDto(application);
     }
 
     /**
@@ -6,13 +6,21 @@ import com.iwaproject.application.dtos.ApplicationVerificationResponse;
 import com.iwaproject.application.entities.ApplicationStatus;
 import com.iwaproject.application.repositories.ApplicationRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Kafka listener for application verification requests.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ApplicationVerificationListener {
@@ -38,37 +46,92 @@ public class ApplicationVerificationListener {
     private static final String RESPONSE_TOPIC = "application.verify.response";
 
     /**
-     * Consumes verification requests and sends back responses.
+     * Consumes a poll's worth of verification requests, resolves them
+     * with a single query and sends back the responses in one flush.
      *
-     * @param message the verification request as String
+     * @param messages the verification requests as JSON strings
      */
     @KafkaListener(
             topics = "application.verify.request",
-            groupId = "application-service")
-    public void consumeVerificationRequest(final String message) {
-        try {
-            // Parse JSON string to ApplicationVerificationRequest
-            ApplicationVerificationRequest request =
-                    objectMapper.readValue(message,
-                            ApplicationVerificationRequest.class);
+            groupId = "application-service",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeVerificationRequests(final List<String> messages) {
+        List<ApplicationVerificationRequest> requests =
+                new ArrayList<>(messages.size());
+        for (String message : messages) {
+            try {
+                ApplicationVerificationRequest request =
+                        objectMapper.readValue(message,
+                                ApplicationVerificationRequest.class);
+                if (request.getUsername() == null
+                        || request.getAnnouncementId() == null) {
+                    log.warn("Skipping incomplete verification request {}",
+                            request.getRequestId());
+                    continue;
+                }
+                requests.add(request);
+            } catch (Exception e) {
+                log.error("Skipping unreadable verification request: {}",
+                        e.getMessage());
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
 
-            // Check if user has an accepted application for announcement
-            boolean accepted = repository
-                    .existsByGuardianUsernameAndAnnouncementIdAndStatus(
-                            request.getUsername(),
-                            request.getAnnouncementId().intValue(),
-                            ApplicationStatus.ACCEPTED);
+        Set<String> accepted = findAcceptedPairs(requests);
 
-            ApplicationVerificationResponse response =
+        for (ApplicationVerificationRequest request : requests) {
+            kafkaTemplate.send(RESPONSE_TOPIC,
                     new ApplicationVerificationResponse(
                             request.getRequestId(),
                             request.getUsername(),
                             request.getAnnouncementId(),
-                            accepted);
+                            accepted.contains(pairKey(
+                                    request.getUsername(),
+                                    request.getAnnouncementId()
+                                            .intValue()))));
+        }
+        kafkaTemplate.flush();
+        log.info("Answered {} verification requests", requests.size());
+    }
 
-            kafkaTemplate.send(RESPONSE_TOPIC, response);
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Finds which (username, announcement) pairs have an accepted
+     * application, using one IN-query for the whole batch.
+     *
+     * @param requests the verification requests
+     * @return keys of the accepted pairs
+     */
+    private Set<String> findAcceptedPairs(
+            final List<ApplicationVerificationRequest> requests) {
+        Set<String> usernames = new HashSet<>();
+        Set<Integer> announcementIds = new HashSet<>();
+        for (ApplicationVerificationRequest request : requests) {
+            usernames.add(request.getUsername());
+            announcementIds.add(request.getAnnouncementId().intValue());
         }
+
+        return repository
+                .findByStatusAndGuardianUsernameInAndAnnouncementIdIn(
+                        ApplicationStatus.ACCEPTED, usernames,
+                        announcementIds)
+                .stream()
+                .map(application -> pairKey(
+                        application.getGuardianUsername(),
+                        application.getAnnouncementId()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Builds the lookup key of a (username, announcement) pair.
+     *
+     * @param username the guardian's username
+     * @param announcementId the announcement ID
+     * @return the pair key
+     */
+    private static String pairKey(final String username,
+            final Integer announcementId) {
+        return announcementId + ":" + username;
     }
 }
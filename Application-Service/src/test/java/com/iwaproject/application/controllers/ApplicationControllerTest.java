@@ -1,6 +1,7 @@
 package com.iwaproject.application.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.application.dtos.ApplicationCountsDto;
 import com.iwaproject.application.dtos.ApplicationRequestDto;
 import com.iwaproject.application.dtos.ApplicationResponseDto;
 import com.iwaproject.application.dtos.ApplicationUpdateStatusDto;
@@ -19,7 +20,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -208,4 +211,58 @@ class ApplicationControllerTest {
 
         verify(applicationService, times(1)).deleteApplication(999);
     }
+
+    @Test
+    void getApplicationCounts_Success() throws Exception {
+        Map<ApplicationStatus, Long> counts =
+                new EnumMap<>(ApplicationStatus.class);
+        counts.put(ApplicationStatus.SENT, 3L);
+        counts.put(ApplicationStatus.ACCEPTED, 1L);
+        counts.put(ApplicationStatus.REFUSED, 0L);
+        when(applicationService.getApplicationCountsByAnnouncementIds(
+                List.of(100, 101))).thenReturn(List.of(
+                        new ApplicationCountsDto(100, counts, 4L)));
+
+        mockMvc.perform(get("/api/applications/counts")
+                        .param("announcementIds", "100,101"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].announcementId").value(100))
+                .andExpect(jsonPath("$[0].counts.SENT").value(3))
+                .andExpect(jsonPath("$[0].counts.ACCEPTED").value(1))
+                .andExpect(jsonPath("$[0].total").value(4));
+    }
+
+    @Test
+    void getApplicationCounts_InvalidIds_ReturnsBadRequest() throws Exception {
+        when(applicationService.getApplicationCountsByAnnouncementIds(any()))
+                .thenThrow(new IllegalArgumentException("Too many ids"));
+
+        mockMvc.perform(get("/api/applications/counts")
+                        .param("announcementIds", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateApplicationStatus_Conflict() throws Exception {
+        ApplicationUpdateStatusDto updateDto = new ApplicationUpdateStatusDto();
+        updateDto.setStatus(ApplicationStatus.ACCEPTED);
+
+        when(applicationService.updateApplicationStatus(eq(1), any(ApplicationUpdateStatusDto.class)))
+                .thenThrow(new IllegalStateException("Transition not allowed"));
+
+        mockMvc.perform(patch("/api/applications/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void updateApplicationStatus_MissingStatus_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/applications/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(applicationService, never()).updateApplicationStatus(any(), any());
+    }
 }
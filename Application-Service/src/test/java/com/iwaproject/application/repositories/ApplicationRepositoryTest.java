@@ -1,5 +1,6 @@
 package com.iwaproject.application.repositories;
 
+import com.iwaproject.application.dtos.ApplicationStatusCountDto;
 import com.iwaproject.application.entities.Application;
 import com.iwaproject.application.entities.ApplicationStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -104,4 +106,61 @@ class ApplicationRepositoryTest {
 
         assertFalse(exists);
     }
+
+    @Test
+    void countByAnnouncementIdsGroupByStatus_Success() {
+        Application another = new Application();
+        another.setAnnouncementId(100);
+        another.setGuardianUsername("otherGuardian");
+        another.setStatus(ApplicationStatus.SENT);
+        another.setApplicationDate(LocalDateTime.now());
+        applicationRepository.save(another);
+
+        List<ApplicationStatusCountDto> counts = applicationRepository
+                .countByAnnouncementIdsGroupByStatus(List.of(100, 101, 999));
+
+        assertEquals(2, counts.size());
+        assertTrue(counts.contains(new ApplicationStatusCountDto(
+                100, ApplicationStatus.SENT, 2L)));
+        assertTrue(counts.contains(new ApplicationStatusCountDto(
+                101, ApplicationStatus.ACCEPTED, 1L)));
+    }
+
+    @Test
+    void findByStatusAndGuardianUsernameInAndAnnouncementIdIn_Success() {
+        List<Application> candidatures = applicationRepository
+                .findByStatusAndGuardianUsernameInAndAnnouncementIdIn(
+                        ApplicationStatus.ACCEPTED,
+                        List.of("guardianUsername", "unknown"),
+                        List.of(100, 101));
+
+        assertEquals(1, candidatures.size());
+        assertEquals(101, candidatures.getFirst().getAnnouncementId());
+    }
+
+    @Test
+    void updateStatusIfCurrent_MatchingStatus_UpdatesAndBumpsVersion() {
+        Long version = testCandidature1.getVersion();
+
+        int updated = applicationRepository.updateStatusIfCurrent(
+                testCandidature1.getId(), Set.of(ApplicationStatus.SENT),
+                ApplicationStatus.ACCEPTED);
+
+        assertEquals(1, updated);
+        Application reloaded = applicationRepository
+                .findById(testCandidature1.getId()).orElseThrow();
+        assertEquals(ApplicationStatus.ACCEPTED, reloaded.getStatus());
+        assertEquals(version + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void updateStatusIfCurrent_StaleStatus_UpdatesNothing() {
+        int updated = applicationRepository.updateStatusIfCurrent(
+                testCandidature2.getId(), Set.of(ApplicationStatus.SENT),
+                ApplicationStatus.REFUSED);
+
+        assertEquals(0, updated);
+        assertEquals(ApplicationStatus.ACCEPTED, applicationRepository
+                .findById(testCandidature2.getId()).orElseThrow().getStatus());
+    }
 }
@@ -1,7 +1,9 @@
 package com.iwaproject.application.services;
 
+import com.iwaproject.application.dtos.ApplicationCountsDto;
 import com.iwaproject.application.dtos.ApplicationRequestDto;
 import com.iwaproject.application.dtos.ApplicationResponseDto;
+import com.iwaproject.application.dtos.ApplicationStatusCountDto;
 import com.iwaproject.application.dtos.ApplicationUpdateStatusDto;
 import com.iwaproject.application.entities.Application;
 import com.iwaproject.application.entities.ApplicationStatus;
@@ -14,13 +16,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -164,14 +169,18 @@ class ApplicationServiceTest {
         ApplicationUpdateStatusDto updateDto = new ApplicationUpdateStatusDto();
         updateDto.setStatus(ApplicationStatus.ACCEPTED);
 
+        when(applicationRepository.updateStatusIfCurrent(eq(1),
+                eq(Set.of(ApplicationStatus.SENT)),
+                eq(ApplicationStatus.ACCEPTED))).thenReturn(1);
+        testCandidature.setStatus(ApplicationStatus.ACCEPTED);
         when(applicationRepository.findById(1)).thenReturn(Optional.of(testCandidature));
-        when(applicationRepository.save(any(Application.class))).thenReturn(testCandidature);
 
         ApplicationResponseDto result = applicationService.updateApplicationStatus(1, updateDto);
 
         assertNotNull(result);
+        assertEquals(ApplicationStatus.ACCEPTED, result.getStatus());
         verify(applicationRepository, times(1)).findById(1);
-        verify(applicationRepository, times(1)).save(any(Application.class));
+        verify(applicationRepository, never()).save(any(Application.class));
     }
 
     @Test
@@ -179,6 +188,8 @@ class ApplicationServiceTest {
         ApplicationUpdateStatusDto updateDto = new ApplicationUpdateStatusDto();
         updateDto.setStatus(ApplicationStatus.ACCEPTED);
 
+        when(applicationRepository.updateStatusIfCurrent(eq(999), any(),
+                eq(ApplicationStatus.ACCEPTED))).thenReturn(0);
         when(applicationRepository.findById(999)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> {
@@ -186,6 +197,51 @@ class ApplicationServiceTest {
         });
     }
 
+    @Test
+    void updateApplicationStatus_ConcurrentChange_ThrowsConflict() {
+        ApplicationUpdateStatusDto updateDto = new ApplicationUpdateStatusDto();
+        updateDto.setStatus(ApplicationStatus.ACCEPTED);
+
+        when(applicationRepository.updateStatusIfCurrent(eq(1), any(),
+                eq(ApplicationStatus.ACCEPTED))).thenReturn(0);
+        testCandidature.setStatus(ApplicationStatus.REFUSED);
+        when(applicationRepository.findById(1)).thenReturn(Optional.of(testCandidature));
+
+        assertThrows(IllegalStateException.class, () -> {
+            applicationService.updateApplicationStatus(1, updateDto);
+        });
+    }
+
+    @Test
+    void updateApplicationStatus_SameStatus_IsIdempotent() {
+        ApplicationUpdateStatusDto updateDto = new ApplicationUpdateStatusDto();
+        updateDto.setStatus(ApplicationStatus.ACCEPTED);
+
+        when(applicationRepository.updateStatusIfCurrent(eq(1), any(),
+                eq(ApplicationStatus.ACCEPTED))).thenReturn(0);
+        testCandidature.setStatus(ApplicationStatus.ACCEPTED);
+        when(applicationRepository.findById(1)).thenReturn(Optional.of(testCandidature));
+
+        ApplicationResponseDto result = applicationService.updateApplicationStatus(1, updateDto);
+
+        assertEquals(ApplicationStatus.ACCEPTED, result.getStatus());
+    }
+
+    @Test
+    void updateApplicationStatus_ToSent_NeverUpdates() {
+        ApplicationUpdateStatusDto updateDto = new ApplicationUpdateStatusDto();
+        updateDto.setStatus(ApplicationStatus.SENT);
+
+        testCandidature.setStatus(ApplicationStatus.ACCEPTED);
+        when(applicationRepository.findById(1)).thenReturn(Optional.of(testCandidature));
+
+        assertThrows(IllegalStateException.class, () -> {
+            applicationService.updateApplicationStatus(1, updateDto);
+        });
+        verify(applicationRepository, never())
+                .updateStatusIfCurrent(any(), any(), any());
+    }
+
     @Test
     void deleteApplication_Success() {
         when(applicationRepository.existsById(1)).thenReturn(true);
@@ -339,10 +395,11 @@ class ApplicationServiceTest {
         updatedApp.setStatus(ApplicationStatus.REFUSED);
         updatedApp.setApplicationDate(LocalDateTime.now());
 
+        when(applicationRepository.updateStatusIfCurrent(eq(1),
+                eq(Set.of(ApplicationStatus.SENT, ApplicationStatus.ACCEPTED)),
+                eq(ApplicationStatus.REFUSED))).thenReturn(1);
         when(applicationRepository.findById(1))
-                .thenReturn(Optional.of(testCandidature));
-        when(applicationRepository.save(any(Application.class)))
-                .thenReturn(updatedApp);
+                .thenReturn(Optional.of(updatedApp));
 
         ApplicationResponseDto result =
                 applicationService.updateApplicationStatus(1, updateDto);
@@ -350,7 +407,7 @@ class ApplicationServiceTest {
         assertNotNull(result);
         assertEquals(ApplicationStatus.REFUSED, result.getStatus());
         verify(applicationRepository, times(1)).findById(1);
-        verify(applicationRepository, times(1)).save(any(Application.class));
+        verify(applicationRepository, never()).save(any(Application.class));
     }
 
     @Test
@@ -377,4 +434,44 @@ class ApplicationServiceTest {
         assertEquals(0, result.size());
         verify(applicationRepository, times(1)).findByAnnouncementId(999);
     }
+
+    @Test
+    void getApplicationCountsByAnnouncementIds_FillsMissingStatuses() {
+        when(applicationRepository.countByAnnouncementIdsGroupByStatus(
+                any())).thenReturn(Arrays.asList(
+                        new ApplicationStatusCountDto(
+                                100, ApplicationStatus.SENT, 3L),
+                        new ApplicationStatusCountDto(
+                                100, ApplicationStatus.ACCEPTED, 1L)));
+
+        List<ApplicationCountsDto> result = applicationService
+                .getApplicationCountsByAnnouncementIds(List.of(100, 101, 100));
+
+        assertEquals(2, result.size());
+        assertEquals(100, result.get(0).getAnnouncementId());
+        assertEquals(3L, result.get(0).getCounts().get(ApplicationStatus.SENT));
+        assertEquals(1L, result.get(0).getCounts()
+                .get(ApplicationStatus.ACCEPTED));
+        assertEquals(0L, result.get(0).getCounts()
+                .get(ApplicationStatus.REFUSED));
+        assertEquals(4L, result.get(0).getTotal());
+        assertEquals(101, result.get(1).getAnnouncementId());
+        assertEquals(0L, result.get(1).getTotal());
+        verify(applicationRepository, times(1))
+                .countByAnnouncementIdsGroupByStatus(any());
+    }
+
+    @Test
+    void getApplicationCountsByAnnouncementIds_TooMany_ThrowsException() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i <= ApplicationService.MAX_COUNTS_ANNOUNCEMENTS; i++) {
+            ids.add(i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            applicationService.getApplicationCountsByAnnouncementIds(ids);
+        });
+        verify(applicationRepository, never())
+                .countByAnnouncementIdsGroupByStatus(any());
+    }
 }
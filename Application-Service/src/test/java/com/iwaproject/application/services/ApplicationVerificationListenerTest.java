@@ -0,0 +1,114 @@
+package com.iwaproject.application.services;
+
+import com.iwaproject.application.dtos.ApplicationVerificationResponse;
+import com.iwaproject.application.entities.Application;
+import com.iwaproject.application.entities.ApplicationStatus;
+import com.iwaproject.application.repositories.ApplicationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ApplicationVerificationListener.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApplicationVerificationListener Tests")
+class ApplicationVerificationListenerTest {
+
+    @Mock
+    private ApplicationRepository repository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @InjectMocks
+    private ApplicationVerificationListener listener;
+
+    private static final String RESPONSE_TOPIC = "application.verify.response";
+
+    @Test
+    @DisplayName("Should resolve a batch with one query and one flush")
+    void testBatchResolvedWithSingleQuery() {
+        // Given
+        Application accepted = new Application(1, 10, "alice",
+                ApplicationStatus.ACCEPTED, LocalDateTime.now(), 0L);
+        when(repository.findByStatusAndGuardianUsernameInAndAnnouncementIdIn(
+                eq(ApplicationStatus.ACCEPTED), anyCollection(),
+                anyCollection())).thenReturn(List.of(accepted));
+
+        // When
+        listener.consumeVerificationRequests(List.of(
+                "{\"requestId\":\"r1\",\"username\":\"alice\","
+                        + "\"announcementId\":10}",
+                "{\"requestId\":\"r2\",\"username\":\"alice\","
+                        + "\"announcementId\":11}",
+                "{\"requestId\":\"r3\",\"username\":\"bob\","
+                        + "\"announcementId\":10}"));
+
+        // Then
+        verify(repository, times(1))
+                .findByStatusAndGuardianUsernameInAndAnnouncementIdIn(
+                        eq(ApplicationStatus.ACCEPTED), anyCollection(),
+                        anyCollection());
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate, times(3)).send(eq(RESPONSE_TOPIC),
+                captor.capture());
+        verify(kafkaTemplate, times(1)).flush();
+
+        List<Object> responses = captor.getAllValues();
+        assertTrue(((ApplicationVerificationResponse) responses.get(0))
+                .isAccepted());
+        assertFalse(((ApplicationVerificationResponse) responses.get(1))
+                .isAccepted());
+        assertFalse(((ApplicationVerificationResponse) responses.get(2))
+                .isAccepted());
+        assertEquals("r3",
+                ((ApplicationVerificationResponse) responses.get(2))
+                        .getRequestId());
+    }
+
+    @Test
+    @DisplayName("Should skip unreadable records and keep the rest")
+    void testInvalidRecordsSkipped() {
+        // Given
+        when(repository.findByStatusAndGuardianUsernameInAndAnnouncementIdIn(
+                any(), anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        // When
+        listener.consumeVerificationRequests(List.of(
+                "not json",
+                "{\"requestId\":\"r1\"}",
+                "{\"requestId\":\"r2\",\"username\":\"bob\","
+                        + "\"announcementId\":5}"));
+
+        // Then
+        verify(kafkaTemplate, times(1)).send(eq(RESPONSE_TOPIC), any());
+        verify(kafkaTemplate, times(1)).flush();
+    }
+
+    @Test
+    @DisplayName("Should not query nor send when nothing is readable")
+    void testEmptyBatch() {
+        // When
+        listener.consumeVerificationRequests(List.of("not json"));
+
+        // Then
+        verifyNoInteractions(repository);
+        verifyNoInteractions(kafkaTemplate);
+    }
+}
@@ -3,6 +3,8 @@ package com.iwaproject.chat.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.iwaproject.chat.services.PresenceService;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -10,6 +12,7 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -72,5 +75,18 @@ public class KafkaConfig {
                 StringDeserializer.class);
         return new DefaultKafkaConsumerFactory<>(props);
     }
-}
 
+    /**
+     * Compacted presence topic: only the last-seen time of each user
+     * is kept, so replicas can rebuild the registry on startup.
+     *
+     * @return presence topic definition
+     */
+    @Bean
+    public NewTopic presenceTopic() {
+        return TopicBuilder.name(PresenceService.PRESENCE_TOPIC)
+                .partitions(1)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.iwaproject.chat.config;
+
+import com.iwaproject.chat.entities.Message;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the message ID sequence past existing rows on startup.
+ * Messages used to get IDENTITY ids; the sequence starts at 1 and would
+ * otherwise collide with them. Sequences created for the former pooled
+ * allocation are also brought back to an increment of one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageIdSequenceInitializer {
+
+    /**
+     * Message ID sequence name.
+     */
+    private static final String SEQUENCE_NAME = "messages_seq";
+
+    /**
+     * JDBC template.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Entity manager factory (schema is up to date once injected).
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Restart the sequence above the highest message ID if it is behind.
+     */
+    @PostConstruct
+    public void alignSequence() {
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_NAME
+                + " INCREMENT BY " + Message.ID_ALLOCATION_SIZE);
+
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM messages", Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        Dialect dialect = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME), Long.class);
+
+        long safeStart = maxId + 1;
+        if (next != null && next < safeStart) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_NAME
+                    + " RESTART WITH " + safeStart);
+            log.info("Restarted {} at {} (highest message id: {})",
+                    SEQUENCE_NAME, safeStart, maxId);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.iwaproject.chat.config;
+
+import com.iwaproject.chat.repositories.MessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the full-text index on message content on startup.
+ * The schema is generated by Hibernate, which cannot declare
+ * expression or GIN indexes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageSearchIndexInitializer {
+
+    /**
+     * Full-text index name.
+     */
+    private static final String INDEX_NAME = "idx_messages_contenu_fts";
+
+    /**
+     * JDBC template.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Entity manager factory (schema is up to date once injected).
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Create the GIN index if missing. Other databases have no
+     * equivalent and are left untouched (search is PostgreSQL only).
+     */
+    @PostConstruct
+    public void createIndex() {
+        Dialect dialect = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        if (!(dialect instanceof PostgreSQLDialect)) {
+            log.info("Skipping {}: not a PostgreSQL database", INDEX_NAME);
+            return;
+        }
+
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDEX_NAME
+                + " ON messages USING GIN (to_tsvector("
+                + MessageRepository.SEARCH_CONFIG + ", contenu))");
+    }
+}
@@ -2,13 +2,25 @@ package com.iwaproject.chat.controllers;
 
 import com.iwaproject.chat.dto.CreateMessageDTO;
 import com.iwaproject.chat.dto.DiscussionDTO;
+import com.iwaproject.chat.dto.InboxEntryDTO;
+import com.iwaproject.chat.dto.MessageCursorPageDTO;
 import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.dto.MessageSearchPageDTO;
+import com.iwaproject.chat.dto.PresenceDTO;
+import com.iwaproject.chat.services.ChatEventStreamService;
 import com.iwaproject.chat.services.ChatService;
+import com.iwaproject.chat.services.InboxService;
 import com.iwaproject.chat.services.KafkaLogService;
+import com.iwaproject.chat.services.MessageExportService;
+import com.iwaproject.chat.services.MessageSearchService;
+import com.iwaproject.chat.services.PresenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +31,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.util.List;
 
 /**
  * Main controller for chat operations.
@@ -41,6 +56,31 @@ public class ChatController {
      */
     private final KafkaLogService kafkaLogService;
 
+    /**
+     * Real-time event stream service.
+     */
+    private final ChatEventStreamService chatEventStreamService;
+
+    /**
+     * Inbox read model service.
+     */
+    private final InboxService inboxService;
+
+    /**
+     * Message search service.
+     */
+    private final MessageSearchService messageSearchService;
+
+    /**
+     * Presence and typing service.
+     */
+    private final PresenceService presenceService;
+
+    /**
+     * Transcript export service.
+     */
+    private final MessageExportService messageExportService;
+
     /**
      * Logger name constant.
      */
@@ -85,6 +125,115 @@ public class ChatController {
         }
     }
 
+    /**
+     * Get my inbox: my discussions with last message preview
+     * and unread count, most recent activity first.
+     *
+     * @param userId the user ID (from token)
+     * @param page page number (optional, default: 0)
+     * @param limit page size (optional, default: 20)
+     * @return list of inbox entries
+     */
+    @GetMapping("/me/inbox")
+    public ResponseEntity<List<InboxEntryDTO>> getMyInbox(
+            @RequestHeader("X-Username") final String userId,
+            @RequestParam(value = "page", required = false,
+                    defaultValue = "0") final int page,
+            @RequestParam(value = "limit", required = false,
+                    defaultValue = "20") final int limit) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /me/inbox - User: " + userId
+                + ", page: " + page + ", limit: " + limit);
+
+        try {
+            return ResponseEntity.ok(inboxService.getInbox(
+                    userId, page, limit));
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to get inbox: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Search the messages of my discussions.
+     *
+     * @param userId the user ID (from token)
+     * @param query the search terms
+     * @param cursor cursor from the previous page (optional)
+     * @param limit page size (optional, default: 20, max: 50)
+     * @return page of matches with highlighted snippets
+     */
+    @GetMapping("/me/messages/search")
+    public ResponseEntity<MessageSearchPageDTO> searchMyMessages(
+            @RequestHeader("X-Username") final String userId,
+            @RequestParam("q") final String query,
+            @RequestParam(value = "cursor", required = false)
+                    final String cursor,
+            @RequestParam(value = "limit", required = false,
+                    defaultValue = "20") final int limit) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /me/messages/search - User: " + userId
+                + ", limit: " + limit);
+
+        try {
+            return ResponseEntity.ok(messageSearchService.search(
+                    userId, query, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Invalid search request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to search messages: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Open a Server-Sent Events stream of my chat events
+     * (new messages, created and deleted discussions, typing and
+     * presence of my counterparts). Opening it marks me online.
+     *
+     * @param userId the user ID (from token)
+     * @return the event stream
+     */
+    @GetMapping(value = "/me/events",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMyEvents(
+            @RequestHeader("X-Username") final String userId) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /me/events - User: " + userId);
+
+        SseEmitter emitter = chatEventStreamService.subscribe(userId);
+        presenceService.heartbeat(userId);
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Get discussion by announcement ID and participants.
      * Returns empty discussion if not found.
@@ -205,6 +354,266 @@ public class ChatController {
         }
     }
 
+    /**
+     * Get a slice of message history using a message ID cursor.
+     *
+     * @param id the discussion ID
+     * @param userId the user ID (from token)
+     * @param before return messages older than this ID (optional)
+     * @param after return messages newer than this ID (optional)
+     * @param limit slice size (optional, default: 20, max: 100)
+     * @return cursor page of messages, oldest first
+     */
+    @GetMapping("/discussions/{id}/messages/history")
+    public ResponseEntity<MessageCursorPageDTO> getMessageHistory(
+            @PathVariable("id") final Long id,
+            @RequestHeader("X-Username") final String userId,
+            @RequestParam(value = "before", required = false)
+                    final Long before,
+            @RequestParam(value = "after", required = false)
+                    final Long after,
+            @RequestParam(value = "limit", required = false,
+                    defaultValue = "20") final int limit) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /discussions/" + id + "/messages/history - User: "
+                + userId + ", before: " + before + ", after: " + after
+                + ", limit: " + limit);
+
+        if (before != null && after != null) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Both before and after cursors provided");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            MessageCursorPageDTO messages = chatService.getMessageHistory(
+                    id, userId, before, after, limit);
+            return ResponseEntity.ok(messages);
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Discussion not found or user not participant: "
+                    + e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to get message history: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the messages posted after the last one seen by the client.
+     *
+     * @param id the discussion ID
+     * @param userId the user ID (from token)
+     * @param since last message ID seen by the client (optional, default: 0)
+     * @return cursor page of missed messages, oldest first
+     */
+    @GetMapping("/discussions/{id}/messages/sync")
+    public ResponseEntity<MessageCursorPageDTO> syncMessages(
+            @PathVariable("id") final Long id,
+            @RequestHeader("X-Username") final String userId,
+            @RequestParam(value = "since", required = false,
+                    defaultValue = "0") final long since) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /discussions/" + id + "/messages/sync - User: "
+                + userId + ", since: " + since);
+
+        try {
+            MessageCursorPageDTO messages = chatService.syncMessages(
+                    id, userId, since);
+            return ResponseEntity.ok(messages);
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Discussion not found or user not participant: "
+                    + e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to sync messages: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Export all messages of a discussion as NDJSON, streamed.
+     *
+     * @param id the discussion ID
+     * @param userId the user ID (from token)
+     * @return one JSON message per line, oldest first
+     */
+    @GetMapping(value = "/discussions/{id}/messages/export",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMessages(
+            @PathVariable("id") final Long id,
+            @RequestHeader("X-Username") final String userId) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /discussions/" + id + "/messages/export - User: "
+                + userId);
+
+        try {
+            messageExportService.prepareExport(id, userId);
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Discussion not found or user not participant: "
+                    + e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to export messages: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out ->
+                messageExportService.exportMessages(id, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition
+                        .attachment()
+                        .filename("discussion-" + id + ".ndjson")
+                        .build().toString())
+                .body(body);
+    }
+
+    /**
+     * Get the presence of the participants of a discussion.
+     *
+     * @param id the discussion ID
+     * @param userId the user ID (from token, must be participant)
+     * @return presence of each participant
+     */
+    @GetMapping("/discussions/{id}/presence")
+    public ResponseEntity<List<PresenceDTO>> getDiscussionPresence(
+            @PathVariable("id") final Long id,
+            @RequestHeader("X-Username") final String userId) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "GET /discussions/" + id + "/presence - User: " + userId);
+
+        try {
+            return ResponseEntity.ok(presenceService.getDiscussionPresence(
+                    id, userId));
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Invalid request: " + e.getMessage());
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to get presence: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Notify the other participant that I am typing.
+     *
+     * @param id the discussion ID
+     * @param userId the user ID (from token, must be participant)
+     * @return no content
+     */
+    @PostMapping("/discussions/{id}/typing")
+    public ResponseEntity<Void> sendTyping(
+            @PathVariable("id") final Long id,
+            @RequestHeader("X-Username") final String userId) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // Sent every few seconds while typing: not logged to Kafka
+        log.debug("POST /discussions/{}/typing - User: {}", id, userId);
+
+        try {
+            presenceService.sendTyping(id, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Invalid request: " + e.getMessage());
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to send typing event: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Mark a discussion as read (resets my unread count).
+     *
+     * @param id the discussion ID
+     * @param userId the user ID (from token)
+     * @return no content
+     */
+    @PostMapping("/discussions/{id}/read")
+    public ResponseEntity<Void> markDiscussionAsRead(
+            @PathVariable("id") final Long id,
+            @RequestHeader("X-Username") final String userId) {
+
+        // Validate X-Username header
+        if (userId == null || userId.trim().isEmpty()) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing or empty X-Username header");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "POST /discussions/" + id + "/read - User: " + userId);
+
+        try {
+            inboxService.markAsRead(id, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Discussion not found or user not participant: "
+                    + e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (Exception e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to mark discussion as read: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Send a message without specifying a discussion ID.
      * Creates the discussion automatically based on announcementId and recipientId.
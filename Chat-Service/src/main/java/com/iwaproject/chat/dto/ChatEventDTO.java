@@ -0,0 +1,47 @@
+package com.iwaproject.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a real-time chat event, shared between replicas through Kafka
+ * and pushed to connected participants.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatEventDTO {
+
+    /**
+     * Event type.
+     */
+    private ChatEventType type;
+
+    /**
+     * Discussion ID the event relates to.
+     */
+    private Long discussionId;
+
+    /**
+     * Usernames the event is delivered to.
+     */
+    private List<String> participants;
+
+    /**
+     * Message (set for message events).
+     */
+    private MessageDTO message;
+
+    /**
+     * Discussion (set for discussion events and message events).
+     */
+    private DiscussionDTO discussion;
+
+    /**
+     * Presence of a user (set for presence events).
+     */
+    private PresenceDTO presence;
+}
@@ -0,0 +1,32 @@
+package com.iwaproject.chat.dto;
+
+/**
+ * Types of real-time events pushed to discussion participants.
+ */
+public enum ChatEventType {
+
+    /**
+     * A message was posted in a discussion.
+     */
+    MESSAGE_CREATED,
+
+    /**
+     * A discussion was created.
+     */
+    DISCUSSION_CREATED,
+
+    /**
+     * A discussion was deleted.
+     */
+    DISCUSSION_DELETED,
+
+    /**
+     * A participant is typing in a discussion.
+     */
+    TYPING,
+
+    /**
+     * A counterpart went online or offline.
+     */
+    PRESENCE
+}
@@ -0,0 +1,56 @@
+package com.iwaproject.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for an inbox entry (discussion with last message preview).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxEntryDTO {
+
+    /**
+     * Discussion ID.
+     */
+    private Long discussionId;
+
+    /**
+     * Announcement ID.
+     */
+    private Long announcementId;
+
+    /**
+     * Other participant ID.
+     */
+    private String counterpartId;
+
+    /**
+     * Last message ID (null if no message yet).
+     */
+    private Long lastMessageId;
+
+    /**
+     * Last message author ID.
+     */
+    private String lastMessageAuthorId;
+
+    /**
+     * Last message snippet.
+     */
+    private String lastMessageSnippet;
+
+    /**
+     * Last activity date.
+     */
+    private LocalDateTime lastMessageAt;
+
+    /**
+     * Number of unread messages.
+     */
+    private int unreadCount;
+}
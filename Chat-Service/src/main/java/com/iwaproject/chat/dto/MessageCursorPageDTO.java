@@ -0,0 +1,34 @@
+package com.iwaproject.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a cursor-based slice of messages.
+ * Messages are always ordered from oldest to newest.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageCursorPageDTO {
+
+    /**
+     * Messages in this slice, oldest first.
+     */
+    private List<MessageDTO> messages;
+
+    /**
+     * Whether more messages exist beyond this slice
+     * in the direction that was requested.
+     */
+    private boolean hasMore;
+
+    /**
+     * Cursor to pass back to continue in the same direction
+     * (null when the slice is empty).
+     */
+    private Long nextCursor;
+}
@@ -0,0 +1,32 @@
+package com.iwaproject.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a cursor-based page of search results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchPageDTO {
+
+    /**
+     * Matches, most relevant first.
+     */
+    private List<MessageSearchResultDTO> results;
+
+    /**
+     * Whether more matches exist after this page.
+     */
+    private boolean hasMore;
+
+    /**
+     * Opaque cursor to pass back for the next page
+     * (null when there is none).
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,46 @@
+package com.iwaproject.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a message matching a search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchResultDTO {
+
+    /**
+     * Message ID.
+     */
+    private Long messageId;
+
+    /**
+     * Discussion ID.
+     */
+    private Long discussionId;
+
+    /**
+     * Author ID (username).
+     */
+    private String authorId;
+
+    /**
+     * HTML-escaped excerpt of the content, matches wrapped in mark tags.
+     */
+    private String snippet;
+
+    /**
+     * Relevance of the message for the query.
+     */
+    private float rank;
+
+    /**
+     * Message creation timestamp.
+     */
+    private LocalDateTime createdAt;
+}
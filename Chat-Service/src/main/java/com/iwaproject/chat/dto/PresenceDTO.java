@@ -0,0 +1,31 @@
+package com.iwaproject.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the presence of a discussion participant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDTO {
+
+    /**
+     * User ID (username).
+     */
+    private String userId;
+
+    /**
+     * Whether the user was seen within the presence timeout.
+     */
+    private boolean online;
+
+    /**
+     * Last time the user was seen (null if not seen for a day).
+     */
+    private LocalDateTime lastSeenAt;
+}
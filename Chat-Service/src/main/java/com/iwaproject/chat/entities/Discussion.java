@@ -6,11 +6,15 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,7 +25,12 @@ import java.util.List;
  * Multiple discussions can exist between the same two people, but each discussion is tied to a specific announcement.
  */
 @Entity
-@Table(name = "discussions")
+@Table(name = "discussions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_discussions_annonce_participants",
+        columnNames = {"annonce_id", "participant_low", "participant_high"}),
+        indexes = @Index(name = "idx_discussions_deleted_at",
+                columnList = "deleted_at"))
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,6 +66,18 @@ public class Discussion {
     @Column(name = "destinataire_id", length = MAX_TEXT_LENGTH, nullable = false)
     private String recipientId;
 
+    /**
+     * Lowest of the two participant IDs (canonical pair, set on insert).
+     */
+    @Column(name = "participant_low", length = MAX_TEXT_LENGTH)
+    private String participantLow;
+
+    /**
+     * Highest of the two participant IDs (canonical pair, set on insert).
+     */
+    @Column(name = "participant_high", length = MAX_TEXT_LENGTH)
+    private String participantHigh;
+
     /**
      * Creation date.
      */
@@ -69,10 +90,32 @@ public class Discussion {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    /**
+     * Deletion date. Deleted discussions are hidden from every query
+     * and their messages are purged in the background.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     /**
      * Messages in this discussion.
      */
     @OneToMany(mappedBy = "discussion", fetch = FetchType.LAZY)
     private List<Message> messages;
+
+    /**
+     * Store the participants as an ordered pair so a discussion
+     * is found with one index seek whichever side is asking.
+     */
+    @PrePersist
+    public void assignParticipantPair() {
+        if (senderId.compareTo(recipientId) <= 0) {
+            participantLow = senderId;
+            participantHigh = recipientId;
+        } else {
+            participantLow = recipientId;
+            participantHigh = senderId;
+        }
+    }
 }
 
@@ -0,0 +1,51 @@
+package com.iwaproject.chat.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Discussion archive entity - the messages of an idle discussion,
+ * stored as one gzip-compressed JSON document.
+ */
+@Entity
+@Table(name = "discussion_archives")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscussionArchive {
+
+    /**
+     * Discussion ID (primary key).
+     */
+    @Id
+    @Column(name = "discussion_id")
+    private Long discussionId;
+
+    /**
+     * Number of archived messages.
+     */
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    /**
+     * Archive date.
+     */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Gzip-compressed JSON array of the archived messages.
+     */
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+}
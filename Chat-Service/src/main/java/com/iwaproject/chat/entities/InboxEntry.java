@@ -0,0 +1,105 @@
+package com.iwaproject.chat.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox entry entity - one participant's view of a discussion.
+ * Keeps the last message preview and the participant's unread count
+ * so an inbox can be listed without reading any message.
+ */
+@Entity
+@Table(name = "discussion_inbox",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_discussion_inbox_discussion_user",
+                columnNames = {"discussion_id", "user_id"}),
+        indexes = @Index(name = "idx_discussion_inbox_user_last_message",
+                columnList = "user_id, last_message_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxEntry {
+
+    /**
+     * Maximum length for user ID.
+     */
+    private static final int MAX_USER_ID_LENGTH = 255;
+
+    /**
+     * Maximum length for the last message snippet.
+     */
+    public static final int MAX_SNIPPET_LENGTH = 140;
+
+    /**
+     * Inbox entry ID (primary key).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Discussion ID.
+     */
+    @Column(name = "discussion_id", nullable = false)
+    private Long discussionId;
+
+    /**
+     * Owner of this inbox entry.
+     */
+    @Column(name = "user_id", length = MAX_USER_ID_LENGTH, nullable = false)
+    private String userId;
+
+    /**
+     * Other participant of the discussion.
+     */
+    @Column(name = "counterpart_id", length = MAX_USER_ID_LENGTH,
+            nullable = false)
+    private String counterpartId;
+
+    /**
+     * Announcement ID.
+     */
+    @Column(name = "annonce_id", nullable = false)
+    private Long announcementId;
+
+    /**
+     * Last message ID.
+     */
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    /**
+     * Last message author ID.
+     */
+    @Column(name = "last_message_author_id", length = MAX_USER_ID_LENGTH)
+    private String lastMessageAuthorId;
+
+    /**
+     * Last message snippet.
+     */
+    @Column(name = "last_message_snippet", length = MAX_SNIPPET_LENGTH)
+    private String lastMessageSnippet;
+
+    /**
+     * Last activity date (discussion creation until a message is sent).
+     */
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    /**
+     * Number of messages not read by the owner.
+     */
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+}
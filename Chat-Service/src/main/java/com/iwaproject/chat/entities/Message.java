@@ -2,11 +2,14 @@ package com.iwaproject.chat.entities;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,7 +21,10 @@ import java.time.LocalDateTime;
  * Message entity - represents a message in a discussion.
  */
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_discussion_id",
+                columnList = "discussion_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,17 +40,28 @@ public class Message {
      */
     private static final int MAX_USER_ID_LENGTH = 255;
 
+    /**
+     * Number of IDs reserved per sequence call. One, so the sequence
+     * only ever hands out consecutive values: MessageBatchWriter takes
+     * the IDs of a whole batch in one query, once it holds the locks of
+     * its discussions, and must never collide with a pooled block.
+     */
+    public static final int ID_ALLOCATION_SIZE = 1;
+
     /**
      * Message ID (primary key).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE,
+            generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
      * Discussion this message belongs to.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "discussion_id", nullable = false)
     private Discussion discussion;
 
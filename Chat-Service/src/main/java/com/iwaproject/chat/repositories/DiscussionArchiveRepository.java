@@ -0,0 +1,30 @@
+package com.iwaproject.chat.repositories;
+
+import com.iwaproject.chat.entities.DiscussionArchive;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for DiscussionArchive entity.
+ */
+@Repository
+public interface DiscussionArchiveRepository
+        extends JpaRepository<DiscussionArchive, Long> {
+
+    /**
+     * Find a discussion archive and lock it until the transaction ends.
+     *
+     * @param discussionId the discussion ID
+     * @return Optional containing archive if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM DiscussionArchive a WHERE a.discussionId = :discussionId")
+    Optional<DiscussionArchive> findForUpdate(
+            @Param("discussionId") Long discussionId);
+}
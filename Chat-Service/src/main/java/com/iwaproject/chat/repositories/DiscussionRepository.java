@@ -1,13 +1,19 @@
 package com.iwaproject.chat.repositories;
 
 import com.iwaproject.chat.entities.Discussion;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,18 +34,52 @@ public interface DiscussionRepository extends JpaRepository<Discussion, Long> {
             @Param("userId") String userId, Pageable pageable);
 
     /**
-     * Find discussion by announcement ID, sender ID and recipient ID.
+     * Find discussion by announcement ID and participants, in either order.
      *
      * @param announcementId the announcement ID
      * @param senderId the sender ID
      * @param recipientId the recipient ID
      * @return Optional containing discussion if found
      */
-    @Query("SELECT d FROM Discussion d WHERE d.announcementId = :announcementId AND ((d.senderId = :senderId AND d.recipientId = :recipientId) OR (d.senderId = :recipientId AND d.recipientId = :senderId))")
-    Optional<Discussion> findByAnnouncementIdAndParticipants(
-            @Param("announcementId") Long announcementId,
-            @Param("senderId") String senderId,
-            @Param("recipientId") String recipientId);
+    default Optional<Discussion> findByAnnouncementIdAndParticipants(
+            final Long announcementId, final String senderId,
+            final String recipientId) {
+        if (senderId.compareTo(recipientId) <= 0) {
+            return findByAnnouncementIdAndParticipantLowAndParticipantHigh(
+                    announcementId, senderId, recipientId);
+        }
+        return findByAnnouncementIdAndParticipantLowAndParticipantHigh(
+                announcementId, recipientId, senderId);
+    }
+
+    /**
+     * Find discussion by announcement ID and canonical participant pair.
+     *
+     * @param announcementId the announcement ID
+     * @param participantLow the lowest participant ID
+     * @param participantHigh the highest participant ID
+     * @return Optional containing discussion if found
+     */
+    Optional<Discussion> findByAnnouncementIdAndParticipantLowAndParticipantHigh(
+            Long announcementId, String participantLow, String participantHigh);
+
+    /**
+     * Find discussions created before the canonical participant pair existed.
+     *
+     * @param pageable batch information
+     * @return list of discussions without participant pair, oldest first
+     */
+    List<Discussion> findByParticipantLowIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Find discussions created before the inbox existed, which have no
+     * inbox entry yet.
+     *
+     * @param pageable batch information
+     * @return list of discussions without inbox entries, oldest first
+     */
+    @Query("SELECT d FROM Discussion d WHERE NOT EXISTS (SELECT e FROM InboxEntry e WHERE e.discussionId = d.id) ORDER BY d.id ASC")
+    List<Discussion> findWithoutInboxEntries(Pageable pageable);
 
     /**
      * Check if user is participant in discussion.
@@ -51,5 +91,107 @@ public interface DiscussionRepository extends JpaRepository<Discussion, Long> {
     @Query("SELECT CASE WHEN COUNT(d) > 0 THEN true ELSE false END FROM Discussion d WHERE d.id = :discussionId AND (d.senderId = :userId OR d.recipientId = :userId)")
     boolean isParticipant(@Param("discussionId") Long discussionId,
             @Param("userId") String userId);
-}
 
+    /**
+     * Set the last update date of several discussions at once.
+     *
+     * @param ids the discussion IDs
+     * @param updatedAt the new last update date
+     * @return number of updated discussions
+     */
+    @Modifying
+    @Query("UPDATE Discussion d SET d.updatedAt = :updatedAt WHERE d.id IN :ids")
+    int touchUpdatedAt(@Param("ids") Collection<Long> ids,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Find discussions idle since a date and not archived yet.
+     *
+     * @param idleSince last update date threshold
+     * @param pageable batch information
+     * @return list of discussion IDs
+     */
+    @Query("SELECT d.id FROM Discussion d WHERE d.updatedAt < :idleSince AND NOT EXISTS (SELECT a FROM DiscussionArchive a WHERE a.discussionId = d.id) ORDER BY d.updatedAt ASC")
+    List<Long> findIdleDiscussionIds(@Param("idleSince") LocalDateTime idleSince,
+            Pageable pageable);
+
+    /**
+     * Find a discussion and lock it until the transaction ends.
+     *
+     * @param id the discussion ID
+     * @return Optional containing discussion if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Discussion d WHERE d.id = :id")
+    Optional<Discussion> findForUpdate(@Param("id") Long id);
+
+    /**
+     * Lock several discussions until the transaction ends, in ID order
+     * so concurrent writers never wait on each other in a cycle.
+     *
+     * @param ids the discussion IDs
+     * @return IDs of the locked discussions
+     */
+    @Query(value = "SELECT id FROM discussions WHERE id IN (:ids) "
+            + "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForWrite(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Mark a discussion as deleted. Its participant pair is released
+     * so the same participants can start a new discussion right away.
+     *
+     * @param id the discussion ID
+     * @param deletedAt the deletion date
+     * @return number of updated discussions
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE discussions SET deleted_at = :deletedAt, "
+            + "participant_low = NULL, participant_high = NULL "
+            + "WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int markDeleted(@Param("id") Long id,
+            @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Find the oldest discussion waiting to be purged.
+     * Native query: deleted discussions are hidden from entity queries.
+     *
+     * @return Optional containing the discussion ID if any
+     */
+    @Query(value = "SELECT id FROM discussions WHERE deleted_at IS NOT NULL "
+            + "ORDER BY deleted_at ASC LIMIT 1", nativeQuery = true)
+    Optional<Long> findNextDeletedId();
+
+    /**
+     * Find the oldest discussion waiting to be purged, except some.
+     *
+     * @param skippedIds IDs of discussions not to purge now (not empty)
+     * @return Optional containing the discussion ID if any
+     */
+    @Query(value = "SELECT id FROM discussions WHERE deleted_at IS NOT NULL "
+            + "AND id NOT IN (:skippedIds) "
+            + "ORDER BY deleted_at ASC LIMIT 1", nativeQuery = true)
+    Optional<Long> findNextDeletedIdExcept(
+            @Param("skippedIds") Collection<Long> skippedIds);
+
+    /**
+     * Count discussions waiting to be purged.
+     *
+     * @return number of deleted discussions still stored
+     */
+    @Query(value = "SELECT COUNT(*) FROM discussions "
+            + "WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countDeleted();
+
+    /**
+     * Remove a deleted discussion once it has no message left.
+     *
+     * @param id the discussion ID
+     * @return number of removed discussions
+     */
+    @Modifying
+    @Query(value = "DELETE FROM discussions WHERE id = :id "
+            + "AND deleted_at IS NOT NULL AND NOT EXISTS "
+            + "(SELECT 1 FROM messages m WHERE m.discussion_id = :id)",
+            nativeQuery = true)
+    int deleteIfPurged(@Param("id") Long id);
+}
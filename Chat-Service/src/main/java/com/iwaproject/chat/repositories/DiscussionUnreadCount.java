@@ -0,0 +1,23 @@
+package com.iwaproject.chat.repositories;
+
+/**
+ * Projection of the number of messages a discussion participant has
+ * not read yet.
+ */
+public interface DiscussionUnreadCount {
+
+    /**
+     * @return the discussion ID
+     */
+    Long getDiscussionId();
+
+    /**
+     * @return the author of the unread messages
+     */
+    String getAuthorId();
+
+    /**
+     * @return number of unread messages
+     */
+    Long getUnreadCount();
+}
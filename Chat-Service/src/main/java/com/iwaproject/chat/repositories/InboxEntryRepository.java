@@ -0,0 +1,95 @@
+package com.iwaproject.chat.repositories;
+
+import com.iwaproject.chat.entities.InboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for InboxEntry entity.
+ */
+@Repository
+public interface InboxEntryRepository extends JpaRepository<InboxEntry, Long> {
+
+    /**
+     * Find a user's inbox entries, most recent activity first.
+     *
+     * @param userId the user ID
+     * @param pageable pagination information
+     * @return list of inbox entries
+     */
+    @Query("SELECT e FROM InboxEntry e WHERE e.userId = :userId ORDER BY e.lastMessageAt DESC, e.discussionId DESC")
+    List<InboxEntry> findByUserId(@Param("userId") String userId,
+            Pageable pageable);
+
+    /**
+     * Find the inbox entries of a discussion.
+     *
+     * @param discussionId the discussion ID
+     * @return list of inbox entries
+     */
+    List<InboxEntry> findByDiscussionId(Long discussionId);
+
+    /**
+     * Find the users a user has a discussion with.
+     *
+     * @param userId the user ID
+     * @return distinct counterpart IDs
+     */
+    @Query("SELECT DISTINCT e.counterpartId FROM InboxEntry e WHERE e.userId = :userId")
+    List<String> findCounterpartIds(@Param("userId") String userId);
+
+    /**
+     * Record the messages a batch added to a discussion, in one
+     * statement: the preview shows the last one, its author has read
+     * everything, and the other participant gains the messages written
+     * since they last wrote. Runs under the discussion lock, so the
+     * last message of the batch is the newest of the discussion.
+     *
+     * @param discussionId the discussion ID
+     * @param messageId the last message ID
+     * @param authorId the last message author ID
+     * @param snippet the last message snippet
+     * @param sentAt the last message date
+     * @param added messages the other participant has not read yet
+     * @param reset whether the other participant wrote in the batch, so
+     *              earlier messages are read
+     * @return number of updated entries
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InboxEntry e SET e.lastMessageId = :messageId, e.lastMessageAuthorId = :authorId, e.lastMessageSnippet = :snippet, e.lastMessageAt = :sentAt, e.unreadCount = CASE WHEN e.userId = :authorId THEN 0 WHEN :reset = true THEN :added ELSE e.unreadCount + :added END WHERE e.discussionId = :discussionId")
+    int recordMessages(@Param("discussionId") Long discussionId,
+            @Param("messageId") Long messageId,
+            @Param("authorId") String authorId,
+            @Param("snippet") String snippet,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("added") int added,
+            @Param("reset") boolean reset);
+
+    /**
+     * Reset the unread count of a user in a discussion.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the user ID
+     * @return number of updated entries
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InboxEntry e SET e.unreadCount = 0 WHERE e.discussionId = :discussionId AND e.userId = :userId")
+    int markAsRead(@Param("discussionId") Long discussionId,
+            @Param("userId") String userId);
+
+    /**
+     * Delete the inbox entries of a discussion.
+     *
+     * @param discussionId the discussion ID
+     */
+    @Modifying
+    @Query("DELETE FROM InboxEntry e WHERE e.discussionId = :discussionId")
+    void deleteByDiscussionId(@Param("discussionId") Long discussionId);
+}
@@ -1,15 +1,23 @@
 package com.iwaproject.chat.repositories;
 
+import com.iwaproject.chat.dto.MessageDTO;
 import com.iwaproject.chat.entities.Message;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository for Message entity.
@@ -17,6 +25,63 @@ import java.util.List;
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
+    /**
+     * Text search configuration used by the content index and queries.
+     * Must stay identical in both for PostgreSQL to use the index.
+     */
+    String SEARCH_CONFIG = "'simple'";
+
+    /**
+     * Indexed full-text expression on message content.
+     */
+    String SEARCH_VECTOR = "to_tsvector(" + SEARCH_CONFIG + ", m.contenu)";
+
+    /**
+     * Marker placed before each match of a search snippet.
+     * Plain text characters, swapped for HTML tags once the snippet is
+     * escaped, so message content can never inject markup.
+     */
+    String SNIPPET_START = "\uE000";
+
+    /**
+     * Marker placed after each match of a search snippet.
+     */
+    String SNIPPET_END = "\uE001";
+
+    /**
+     * Common part of the search queries: matches in the caller's
+     * discussions, with rank and raw snippet, matches between markers.
+     * CamelCase aliases are quoted: PostgreSQL folds unquoted aliases to
+     * lower case and the projection would not find them.
+     */
+    String SEARCH_SELECT = "SELECT * FROM (SELECT m.id AS id, "
+            + "m.discussion_id AS \"discussionId\", "
+            + "m.auteur_id AS \"authorId\", "
+            + "m.created_at AS \"createdAt\", "
+            + "ts_rank(" + SEARCH_VECTOR + ", q) AS rank, "
+            + "ts_headline(" + SEARCH_CONFIG + ", m.contenu, q, "
+            + "'StartSel=" + SNIPPET_START + ", StopSel=" + SNIPPET_END
+            + ", MaxWords=20, MinWords=8') "
+            + "AS snippet "
+            + "FROM messages m "
+            + "JOIN discussions d ON d.id = m.discussion_id, "
+            + "plainto_tsquery(" + SEARCH_CONFIG + ", :query) q "
+            + "WHERE (d.expediteur_id = :userId OR d.destinataire_id = :userId) "
+            + "AND d.deleted_at IS NULL AND " + SEARCH_VECTOR + " @@ q) hits ";
+
+    /**
+     * Ordering of search results: most relevant first, newest on ties.
+     */
+    String SEARCH_ORDER = "ORDER BY rank DESC, id DESC LIMIT :limit";
+
+    /**
+     * Projection of message columns straight into MessageDTO.
+     * Reads the discussion foreign key without loading the discussion.
+     */
+    String MESSAGE_DTO_SELECT = "SELECT new com.iwaproject.chat.dto.MessageDTO("
+            + "m.id, m.discussion.id, m.authorId, m.content, m.createdAt) "
+            + "FROM Message m ";
+
     /**
      * Find messages by discussion ID, ordered by creation date.
      *
@@ -24,8 +89,11 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * @param pageable pagination information
      * @return page of messages
      */
-    @Query("SELECT m FROM Message m WHERE m.discussion.id = :discussionId ORDER BY m.createdAt ASC")
-    Page<Message> findByDiscussionId(@Param("discussionId") Long discussionId,
+    @Query(value = MESSAGE_DTO_SELECT
+            + "WHERE m.discussion.id = :discussionId ORDER BY m.createdAt ASC",
+            countQuery = "SELECT COUNT(m) FROM Message m "
+            + "WHERE m.discussion.id = :discussionId")
+    Page<MessageDTO> findByDiscussionId(@Param("discussionId") Long discussionId,
             Pageable pageable);
 
     /**
@@ -34,8 +102,152 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * @param discussionId the discussion ID
      * @return list of messages
      */
-    @Query("SELECT m FROM Message m WHERE m.discussion.id = :discussionId ORDER BY m.createdAt ASC")
-    List<Message> findAllByDiscussionId(@Param("discussionId") Long discussionId);
+    @Query(MESSAGE_DTO_SELECT
+            + "WHERE m.discussion.id = :discussionId ORDER BY m.createdAt ASC")
+    List<MessageDTO> findAllByDiscussionId(@Param("discussionId") Long discussionId);
+
+    /**
+     * Find the latest messages of a discussion, newest first.
+     * Returns a plain list so no count query is issued.
+     *
+     * @param discussionId the discussion ID
+     * @param pageable limit information (page 0 only)
+     * @return list of messages
+     */
+    @Query(MESSAGE_DTO_SELECT
+            + "WHERE m.discussion.id = :discussionId ORDER BY m.id DESC")
+    List<MessageDTO> findLatestByDiscussionId(
+            @Param("discussionId") Long discussionId, Pageable pageable);
+
+    /**
+     * Find messages of a discussion older than a message ID, newest first.
+     *
+     * @param discussionId the discussion ID
+     * @param beforeId exclusive upper bound on message ID
+     * @param pageable limit information (page 0 only)
+     * @return list of messages
+     */
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.discussion.id = :discussionId "
+            + "AND m.id < :beforeId ORDER BY m.id DESC")
+    List<MessageDTO> findByDiscussionIdAndIdBefore(
+            @Param("discussionId") Long discussionId,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Find messages of a discussion newer than a message ID, oldest first.
+     *
+     * @param discussionId the discussion ID
+     * @param afterId exclusive lower bound on message ID
+     * @param pageable limit information (page 0 only)
+     * @return list of messages
+     */
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.discussion.id = :discussionId "
+            + "AND m.id > :afterId ORDER BY m.id ASC")
+    List<MessageDTO> findByDiscussionIdAndIdAfter(
+            @Param("discussionId") Long discussionId,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find the last message of each of several discussions.
+     *
+     * @param discussionIds the discussion IDs
+     * @return last messages (none for discussions without messages)
+     */
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.discussion.id IN :discussionIds "
+            + "AND m.id = (SELECT MAX(l.id) FROM Message l "
+            + "WHERE l.discussion.id = m.discussion.id)")
+    List<MessageDTO> findLastByDiscussionIds(
+            @Param("discussionIds") Collection<Long> discussionIds);
+
+    /**
+     * Count, per discussion, the messages written since the other
+     * participant last wrote: the messages that participant has not
+     * read yet.
+     *
+     * @param discussionIds the discussion IDs
+     * @return unread counts (none for discussions without messages)
+     */
+    @Query("SELECT m.discussion.id AS discussionId, m.authorId AS authorId, "
+            + "COUNT(m) AS unreadCount FROM Message m "
+            + "WHERE m.discussion.id IN :discussionIds "
+            + "AND m.id > COALESCE((SELECT MAX(o.id) FROM Message o "
+            + "WHERE o.discussion.id = m.discussion.id "
+            + "AND o.authorId <> m.authorId), 0) "
+            + "GROUP BY m.discussion.id, m.authorId")
+    List<DiscussionUnreadCount> countUnreadByDiscussionIds(
+            @Param("discussionIds") Collection<Long> discussionIds);
+
+    /**
+     * Take several message IDs from the sequence in one round trip.
+     *
+     * @param count number of IDs
+     * @return new IDs, in no particular order
+     */
+    @Query(value = "SELECT nextval('messages_seq') "
+            + "FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> nextIds(@Param("count") int count);
+
+    /**
+     * Move every message of a discussion to another discussion.
+     *
+     * @param sourceId the discussion the messages leave
+     * @param targetId the discussion the messages join
+     * @return number of moved messages
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE messages SET discussion_id = :targetId "
+            + "WHERE discussion_id = :sourceId", nativeQuery = true)
+    int moveToDiscussion(@Param("sourceId") Long sourceId,
+            @Param("targetId") Long targetId);
+
+    /**
+     * Stream all messages of a discussion, oldest first, as DTOs so
+     * nothing accumulates in the persistence context. Rows are fetched
+     * from a server-side cursor; must run inside a read-only transaction
+     * and the stream must be closed.
+     *
+     * @param discussionId the discussion ID
+     * @return stream of messages
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(MESSAGE_DTO_SELECT
+            + "WHERE m.discussion.id = :discussionId ORDER BY m.id ASC")
+    Stream<MessageDTO> streamByDiscussionId(
+            @Param("discussionId") Long discussionId);
+
+    /**
+     * Full-text search in the discussions of a user, first page.
+     * PostgreSQL only (backed by the GIN index on message content).
+     *
+     * @param userId the user ID
+     * @param query the search terms
+     * @param limit maximum number of results
+     * @return matches, most relevant first
+     */
+    @Query(value = SEARCH_SELECT + SEARCH_ORDER, nativeQuery = true)
+    List<MessageSearchHit> search(@Param("userId") String userId,
+            @Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Full-text search in the discussions of a user, after a cursor.
+     * PostgreSQL only (backed by the GIN index on message content).
+     *
+     * @param userId the user ID
+     * @param query the search terms
+     * @param rank rank of the last result already returned
+     * @param lastId ID of the last result already returned
+     * @param limit maximum number of results
+     * @return matches, most relevant first
+     */
+    @Query(value = SEARCH_SELECT
+            + "WHERE rank < :rank OR (rank = :rank AND id < :lastId) "
+            + SEARCH_ORDER, nativeQuery = true)
+    List<MessageSearchHit> searchAfter(@Param("userId") String userId,
+            @Param("query") String query, @Param("rank") float rank,
+            @Param("lastId") Long lastId, @Param("limit") int limit);
 
     /**
      * Delete all messages by discussion ID.
@@ -45,5 +257,18 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Modifying
     @Query("DELETE FROM Message m WHERE m.discussion.id = :discussionId")
     void deleteByDiscussionId(@Param("discussionId") Long discussionId);
-}
 
+    /**
+     * Delete a bounded chunk of the messages of a discussion.
+     *
+     * @param discussionId the discussion ID
+     * @param limit maximum number of messages to delete
+     * @return number of deleted messages
+     */
+    @Modifying
+    @Query(value = "DELETE FROM messages WHERE id IN (SELECT id FROM messages "
+            + "WHERE discussion_id = :discussionId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByDiscussionId(@Param("discussionId") Long discussionId,
+            @Param("limit") int limit);
+}
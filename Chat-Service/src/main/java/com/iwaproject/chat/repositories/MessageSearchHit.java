@@ -0,0 +1,39 @@
+package com.iwaproject.chat.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a full-text search match on a message.
+ */
+public interface MessageSearchHit {
+
+    /**
+     * @return the message ID
+     */
+    Long getId();
+
+    /**
+     * @return the discussion ID
+     */
+    Long getDiscussionId();
+
+    /**
+     * @return the message author
+     */
+    String getAuthorId();
+
+    /**
+     * @return the message creation date
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * @return relevance of the message for the query
+     */
+    Float getRank();
+
+    /**
+     * @return unescaped excerpt of the content, matches between markers
+     */
+    String getSnippet();
+}
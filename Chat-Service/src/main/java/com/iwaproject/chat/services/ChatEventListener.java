@@ -0,0 +1,59 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.chat.dto.ChatEventDTO;
+import com.iwaproject.chat.dto.ChatEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Kafka listener fanning chat events out to the users connected to this
+ * replica. Every replica uses its own consumer group, named after its
+ * host, so each one sees every event whichever replica handled the
+ * original request. The group starts from the latest event and commits
+ * no offsets: events sent while a replica is down are of no use to it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatEventListener {
+
+    /**
+     * SSE connection registry.
+     */
+    private final ChatEventStreamService chatEventStreamService;
+
+    /**
+     * Presence service, caching discussion participants.
+     */
+    private final PresenceService presenceService;
+
+    /**
+     * ObjectMapper for JSON deserialization.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Consume chat events and push them to connected participants.
+     *
+     * @param message the chat event as JSON string
+     */
+    @KafkaListener(topics = ChatEventPublisher.EVENTS_TOPIC,
+            groupId = "chat-events-${chat.instance-id}",
+            properties = {"auto.offset.reset=latest",
+                    "enable.auto.commit=false"})
+    public void consumeChatEvent(final String message) {
+        try {
+            ChatEventDTO event = objectMapper.readValue(message,
+                    ChatEventDTO.class);
+            if (event.getType() == ChatEventType.DISCUSSION_DELETED) {
+                presenceService.forgetDiscussion(event.getDiscussionId());
+            }
+            chatEventStreamService.deliver(event);
+        } catch (Exception e) {
+            log.error("Failed to deliver chat event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.chat.dto.ChatEventDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes chat events to Kafka so every Chat-Service replica can push
+ * them to its connected participants.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatEventPublisher {
+
+    /**
+     * Topic carrying chat events between replicas.
+     */
+    public static final String EVENTS_TOPIC = "chat.events";
+
+    /**
+     * Logger name constant.
+     */
+    private static final String LOGGER_NAME = "ChatEventPublisher";
+
+    /**
+     * Kafka producer service.
+     */
+    private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * Kafka log service.
+     */
+    private final KafkaLogService kafkaLogService;
+
+    /**
+     * ObjectMapper for JSON serialization.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Publish an event, after commit when a transaction is active so
+     * clients are never told about rolled back changes.
+     *
+     * @param event the chat event
+     */
+    public void publish(final ChatEventDTO event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            send(event);
+                        }
+                    });
+        } else {
+            send(event);
+        }
+    }
+
+    /**
+     * Send the event to Kafka, keyed by discussion ID.
+     *
+     * @param event the chat event
+     */
+    private void send(final ChatEventDTO event) {
+        try {
+            kafkaProducerService.sendMessage(EVENTS_TOPIC,
+                    String.valueOf(event.getDiscussionId()),
+                    objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.error("Failed to publish chat event {} for discussion {}",
+                    event.getType(), event.getDiscussionId(), e);
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to publish chat event: " + e.getMessage());
+        }
+    }
+}
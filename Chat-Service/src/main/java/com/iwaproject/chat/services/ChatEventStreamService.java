@@ -0,0 +1,151 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.ChatEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Registry of the Server-Sent Events connections opened on this replica,
+ * pushing chat events to the connected users.
+ */
+@Slf4j
+@Service
+public class ChatEventStreamService {
+
+    /**
+     * Connection timeout in milliseconds (clients reconnect after it).
+     */
+    private static final long EMITTER_TIMEOUT_MS = 30L * 60L * 1000L;
+
+    /**
+     * Heartbeat interval in milliseconds, below common proxy idle timeouts.
+     */
+    private static final long HEARTBEAT_INTERVAL_MS = 25000L;
+
+    /**
+     * Open connections per username.
+     */
+    private final Map<String, Set<SseEmitter>> emitters =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Open an event stream for a user.
+     *
+     * @param userId the user ID
+     * @return the SSE emitter
+     */
+    public SseEmitter subscribe(final String userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.computeIfAbsent(userId,
+                key -> new CopyOnWriteArraySet<>()).add(emitter);
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        log.debug("User {} subscribed to chat events", userId);
+        return emitter;
+    }
+
+    /**
+     * Deliver a chat event to the participants connected to this replica.
+     *
+     * @param event the chat event
+     */
+    public void deliver(final ChatEventDTO event) {
+        if (event.getParticipants() == null) {
+            return;
+        }
+        for (String userId : event.getParticipants()) {
+            sendToUser(userId, event.getType().name(), event);
+        }
+    }
+
+    /**
+     * Send a named event to every connection of a user on this replica.
+     *
+     * @param userId the user ID
+     * @param eventName the SSE event name
+     * @param data the event payload
+     */
+    public void sendToUser(final String userId, final String eventName,
+            final Object data) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data));
+            } catch (IOException | IllegalStateException e) {
+                remove(userId, emitter);
+            }
+        }
+    }
+
+    /**
+     * Check whether a user has an open connection on this replica.
+     *
+     * @param userId the user ID
+     * @return true if connected
+     */
+    public boolean isConnected(final String userId) {
+        return emitters.containsKey(userId);
+    }
+
+    /**
+     * Get the users with an open connection on this replica.
+     *
+     * @return connected usernames
+     */
+    public Set<String> getConnectedUsers() {
+        return Set.copyOf(emitters.keySet());
+    }
+
+    /**
+     * Get the number of open connections on this replica.
+     *
+     * @return the connection count
+     */
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Send a comment to every connection so idle streams stay open and
+     * dead ones are detected.
+     */
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL_MS)
+    public void sendHeartbeats() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a connection, dropping the user entry once empty.
+     *
+     * @param userId the user ID
+     * @param emitter the emitter
+     */
+    private void remove(final String userId, final SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (key, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
@@ -1,6 +1,9 @@
 package com.iwaproject.chat.services;
 
+import com.iwaproject.chat.dto.ChatEventDTO;
+import com.iwaproject.chat.dto.ChatEventType;
 import com.iwaproject.chat.dto.DiscussionDTO;
+import com.iwaproject.chat.dto.MessageCursorPageDTO;
 import com.iwaproject.chat.dto.MessageDTO;
 import com.iwaproject.chat.entities.Discussion;
 import com.iwaproject.chat.entities.Message;
@@ -8,6 +11,7 @@ import com.iwaproject.chat.repositories.DiscussionRepository;
 import com.iwaproject.chat.repositories.MessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,9 +19,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Service for chat operations.
@@ -38,24 +43,54 @@ public class ChatService {
     private final MessageRepository messageRepository;
 
     /**
-     * Kafka consumer service.
+     * User existence service (cached Kafka lookups).
      */
-    private final KafkaConsumerService kafkaConsumerService;
+    private final UserExistenceService userExistenceService;
 
     /**
      * Kafka log service.
      */
     private final KafkaLogService kafkaLogService;
 
+    /**
+     * Real-time chat event publisher.
+     */
+    private final ChatEventPublisher chatEventPublisher;
+
+    /**
+     * Inbox read model service.
+     */
+    private final InboxService inboxService;
+
+    /**
+     * Discussion creation service (atomic insert).
+     */
+    private final DiscussionCreationService discussionCreationService;
+
+    /**
+     * Group-commit message writer.
+     */
+    private final MessageBatchWriter messageBatchWriter;
+
+    /**
+     * Message archive service (restores archived discussions on read).
+     */
+    private final MessageArchiveService messageArchiveService;
+
     /**
      * Logger name constant.
      */
     private static final String LOGGER_NAME = "ChatService";
 
     /**
-     * Timeout for Kafka requests in seconds.
+     * Maximum number of messages returned by a history slice.
+     */
+    private static final int MAX_HISTORY_LIMIT = 100;
+
+    /**
+     * Maximum number of messages returned by a single sync call.
      */
-    private static final int KAFKA_TIMEOUT_SECONDS = 5;
+    private static final int MAX_SYNC_LIMIT = 500;
 
     /**
      * Get discussions for a user (where user is sender or recipient).
@@ -80,47 +115,24 @@ public class ChatService {
     /**
      * Create or get existing discussion.
      * Creates discussion if it doesn't exist, returns existing one otherwise.
+     * Runs without transaction: each lookup and the insert take a pooled
+     * connection only for their own statement.
      *
      * @param senderId the sender ID (current user)
      * @param announcementId the announcement ID
      * @param recipientId the recipient ID
      * @return discussion DTO
      */
-    @Transactional
     public DiscussionDTO createOrGetDiscussion(final String senderId,
             final Long announcementId, final String recipientId) {
-        log.info("Creating or getting discussion for sender: {}, "
-                + "recipient: {}, announcement: {}",
-                senderId, recipientId, announcementId);
-
         // Verify recipient exists via Kafka
         if (!verifyUserExists(recipientId)) {
             throw new IllegalArgumentException(
                     "Recipient user does not exist: " + recipientId);
         }
 
-        // Check if discussion already exists
-        Optional<Discussion> existing = discussionRepository
-                .findByAnnouncementIdAndParticipants(announcementId,
-                        senderId, recipientId);
-
-        if (existing.isPresent()) {
-            log.debug("Discussion already exists: {}", existing.get().getId());
-            return mapToDiscussionDTO(existing.get());
-        }
-
-        // Create new discussion
-        Discussion discussion = new Discussion();
-        discussion.setAnnouncementId(announcementId);
-        discussion.setSenderId(senderId);
-        discussion.setRecipientId(recipientId);
-        discussion.setCreatedAt(LocalDateTime.now());
-        discussion.setUpdatedAt(LocalDateTime.now());
-
-        Discussion saved = discussionRepository.save(discussion);
-        log.info("Created new discussion: {}", saved.getId());
-
-        return mapToDiscussionDTO(saved);
+        return mapToDiscussionDTO(createOrGetDiscussionInternal(senderId,
+                announcementId, recipientId));
     }
 
     /**
@@ -227,18 +239,120 @@ public class ChatService {
             throw new IllegalArgumentException(
                     "User is not a participant in this discussion");
         }
+        messageArchiveService.restoreIfArchived(discussionId);
 
         Pageable pageable = PageRequest.of(page, limit);
-        Page<Message> messages = messageRepository
-                .findByDiscussionId(discussionId, pageable);
+        return messageRepository.findByDiscussionId(discussionId, pageable);
+    }
 
-        return messages.map(this::mapToMessageDTO);
+    /**
+     * Get a slice of message history using a message ID cursor.
+     * Without cursor, returns the latest messages. With beforeId,
+     * returns older messages; with afterId, returns newer messages.
+     * No count query is issued: one extra row is fetched to detect
+     * whether more messages exist.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the user ID (must be a participant)
+     * @param beforeId exclusive upper bound on message ID (optional)
+     * @param afterId exclusive lower bound on message ID (optional)
+     * @param limit maximum number of messages
+     * @return cursor page of messages, oldest first
+     */
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO getMessageHistory(final Long discussionId,
+            final String userId, final Long beforeId, final Long afterId,
+            final int limit) {
+        log.debug("Fetching message history for discussion: {} "
+                + "(before: {}, after: {}, limit: {})",
+                discussionId, beforeId, afterId, limit);
+
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException(
+                    "Cannot page before and after a message at once");
+        }
+
+        if (!discussionRepository.isParticipant(discussionId, userId)) {
+            throw new IllegalArgumentException(
+                    "User is not a participant in this discussion");
+        }
+        messageArchiveService.restoreIfArchived(discussionId);
+
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT));
+        Pageable probe = PageRequest.of(0, size + 1);
+
+        if (afterId != null) {
+            return toForwardPage(messageRepository.findByDiscussionIdAndIdAfter(
+                    discussionId, afterId, probe), size, afterId);
+        }
+
+        List<MessageDTO> newestFirst = beforeId != null
+                ? messageRepository.findByDiscussionIdAndIdBefore(
+                        discussionId, beforeId, probe)
+                : messageRepository.findLatestByDiscussionId(
+                        discussionId, probe);
+
+        boolean hasMore = newestFirst.size() > size;
+        List<MessageDTO> messages = new ArrayList<>(
+                newestFirst.subList(0, Math.min(size, newestFirst.size())));
+        Collections.reverse(messages);
+        Long nextCursor = messages.isEmpty() ? beforeId
+                : messages.get(0).getId();
+        return new MessageCursorPageDTO(messages, hasMore, nextCursor);
+    }
+
+    /**
+     * Get every message posted after the last one seen by the client.
+     * Results are capped; clients call again with the returned cursor
+     * while hasMore is true.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the user ID (must be a participant)
+     * @param lastSeenId last message ID known by the client (0 for none)
+     * @return cursor page of missed messages, oldest first
+     */
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO syncMessages(final Long discussionId,
+            final String userId, final long lastSeenId) {
+        log.debug("Syncing messages for discussion: {} after: {}",
+                discussionId, lastSeenId);
+
+        if (!discussionRepository.isParticipant(discussionId, userId)) {
+            throw new IllegalArgumentException(
+                    "User is not a participant in this discussion");
+        }
+        messageArchiveService.restoreIfArchived(discussionId);
+
+        return toForwardPage(messageRepository.findByDiscussionIdAndIdAfter(
+                discussionId, lastSeenId, PageRequest.of(0, MAX_SYNC_LIMIT + 1)),
+                MAX_SYNC_LIMIT, lastSeenId);
+    }
+
+    /**
+     * Build a cursor page from messages fetched oldest first.
+     *
+     * @param oldestFirst fetched messages (up to size + 1)
+     * @param size requested slice size
+     * @param afterId cursor the messages were fetched after
+     * @return cursor page of messages
+     */
+    private MessageCursorPageDTO toForwardPage(
+            final List<MessageDTO> oldestFirst, final int size,
+            final Long afterId) {
+        boolean hasMore = oldestFirst.size() > size;
+        List<MessageDTO> messages = oldestFirst.subList(0,
+                Math.min(size, oldestFirst.size()));
+        Long nextCursor = messages.isEmpty() ? afterId
+                : messages.get(messages.size() - 1).getId();
+        return new MessageCursorPageDTO(messages, hasMore, nextCursor);
     }
 
     /**
      * Create a new message in a discussion.
      * Creates the discussion automatically if it doesn't exist
      * (requires announcementId and recipientId in the request).
+     * Not transactional: the message is written by MessageBatchWriter,
+     * so no connection is held while waiting for its batch.
      *
      * @param discussionId the discussion ID (can be null if creating new discussion)
      * @param authorId the author ID (must match userId from token)
@@ -247,7 +361,6 @@ public class ChatService {
      * @param recipientId the recipient ID (required if discussionId is null)
      * @return message DTO
      */
-    @Transactional
     public MessageDTO createMessage(final Long discussionId,
             final String authorId, final String content,
             final Long announcementId, final String recipientId) {
@@ -299,16 +412,20 @@ public class ChatService {
         message.setContent(content);
         message.setCreatedAt(LocalDateTime.now());
 
-        Message saved = messageRepository.save(message);
-
-        // Update discussion updatedAt
-        discussion.setUpdatedAt(LocalDateTime.now());
-        discussionRepository.save(discussion);
+        // Batched with concurrent messages; also bumps updatedAt and inboxes
+        Message saved = messageBatchWriter.write(message);
+        discussion.setUpdatedAt(saved.getCreatedAt());
 
         log.info("Created message: {} in discussion: {}", saved.getId(),
                 discussion.getId());
 
-        return mapToMessageDTO(saved);
+        MessageDTO messageDTO = mapToMessageDTO(saved);
+        chatEventPublisher.publish(new ChatEventDTO(
+                ChatEventType.MESSAGE_CREATED, discussion.getId(),
+                participantsOf(discussion), messageDTO,
+                mapToDiscussionDTO(discussion), null));
+
+        return messageDTO;
     }
 
     /**
@@ -343,8 +460,20 @@ public class ChatService {
         discussion.setCreatedAt(LocalDateTime.now());
         discussion.setUpdatedAt(LocalDateTime.now());
 
-        Discussion saved = discussionRepository.save(discussion);
+        Discussion saved;
+        try {
+            saved = discussionCreationService.insert(discussion);
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by the other participant
+            log.debug("Discussion created concurrently for announcement: {}",
+                    announcementId);
+            return discussionRepository.findByAnnouncementIdAndParticipants(
+                    announcementId, senderId, recipientId)
+                    .orElseThrow(() -> e);
+        }
         log.info("Created new discussion: {}", saved.getId());
+        inboxService.createEntries(saved);
+        publishDiscussionEvent(ChatEventType.DISCUSSION_CREATED, saved);
 
         return saved;
     }
@@ -371,45 +500,47 @@ public class ChatService {
                     "User is not a participant in this discussion");
         }
 
-        // Delete all messages first (cascade might not be configured)
-        messageRepository.deleteByDiscussionId(discussionId);
+        // Hide the discussion now, messages are purged in the background
+        discussionRepository.markDeleted(discussionId, LocalDateTime.now());
+        messageArchiveService.deleteArchive(discussionId);
+        inboxService.removeDiscussion(discussionId);
+        publishDiscussionEvent(ChatEventType.DISCUSSION_DELETED, discussion);
 
-        // Delete discussion
-        discussionRepository.delete(discussion);
-
-        log.info("Deleted discussion: {}", discussionId);
+        log.info("Marked discussion as deleted: {}", discussionId);
     }
 
     /**
-     * Verify if a user exists via Kafka.
-     * Returns true on timeout to allow degraded mode operation.
+     * Verify if a user exists (cached, see UserExistenceService
+     * for the degraded mode used when User-Service does not answer).
      *
      * @param userId the user ID to verify
      * @return true if user exists, false otherwise
      */
     private boolean verifyUserExists(final String userId) {
-        try {
-            CompletableFuture<String> future = kafkaConsumerService
-                    .checkUserExists(userId)
-                    .orTimeout(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            String result = future.get();
-            return "true".equals(result);
-        } catch (Exception e) {
-            // Check if it's a timeout exception (wrapped or direct)
-            if (e instanceof java.util.concurrent.TimeoutException 
-                    || (e.getCause() instanceof java.util.concurrent.TimeoutException)) {
-                // Accept by default on timeout (degraded mode)
-                log.warn("Kafka timeout verifying user {}, accepting by default", userId);
-                kafkaLogService.warn(LOGGER_NAME,
-                        "Kafka timeout for user verification: " + userId + " - accepting");
-                return true;
-            }
-            // Reject on other errors (network, format, etc.)
-            log.error("Error verifying user existence for: {}", userId, e);
-            kafkaLogService.error(LOGGER_NAME,
-                    "Failed to verify user existence for: " + userId);
-            return false;
-        }
+        return userExistenceService.userExists(userId);
+    }
+
+    /**
+     * Publish a discussion-level event to its participants.
+     *
+     * @param type the event type
+     * @param discussion the discussion
+     */
+    private void publishDiscussionEvent(final ChatEventType type,
+            final Discussion discussion) {
+        chatEventPublisher.publish(new ChatEventDTO(type, discussion.getId(),
+                participantsOf(discussion), null,
+                mapToDiscussionDTO(discussion), null));
+    }
+
+    /**
+     * Get the participants of a discussion.
+     *
+     * @param discussion the discussion
+     * @return sender and recipient IDs
+     */
+    private List<String> participantsOf(final Discussion discussion) {
+        return List.of(discussion.getSenderId(), discussion.getRecipientId());
     }
 
     /**
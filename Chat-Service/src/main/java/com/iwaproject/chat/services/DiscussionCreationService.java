@@ -0,0 +1,39 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service inserting discussions in their own short transaction.
+ * Callers must not hold a transaction: a unique violation (the same
+ * discussion created concurrently) then only rolls back the insert, and
+ * no second pooled connection is taken while the caller's is held.
+ */
+@Service
+@RequiredArgsConstructor
+public class DiscussionCreationService {
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Insert a discussion and commit it immediately.
+     *
+     * @param discussion the discussion to insert
+     * @return saved discussion
+     * @throws org.springframework.dao.DataIntegrityViolationException
+     *         if the discussion already exists
+     * @throws org.springframework.transaction.IllegalTransactionStateException
+     *         if called within a transaction
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public Discussion insert(final Discussion discussion) {
+        return discussionRepository.saveAndFlush(discussion);
+    }
+}
@@ -0,0 +1,169 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service filling the canonical participant pair of discussions
+ * created before it was stored. The pair is computed in Java so it
+ * matches lookups exactly, whatever the database collation.
+ *
+ * Discussions duplicated by the old creation race share a pair: they
+ * are merged into the oldest one before the pair is stored, so the
+ * unique index never sees two rows for the same participants.
+ * Runs before the inbox backfill, which rebuilds the merged entries.
+ */
+@Slf4j
+@Service
+public class DiscussionPairBackfillService {
+
+    /**
+     * Number of discussions handled per batch.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Message archive service.
+     */
+    private final MessageArchiveService messageArchiveService;
+
+    /**
+     * Inbox read model service.
+     */
+    private final InboxService inboxService;
+
+    /**
+     * Transaction template running each discussion on its own.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param discussionRepo discussion repository
+     * @param messageRepo message repository
+     * @param archiveService message archive service
+     * @param inbox inbox read model service
+     * @param transactionManager transaction manager
+     */
+    public DiscussionPairBackfillService(
+            final DiscussionRepository discussionRepo,
+            final MessageRepository messageRepo,
+            final MessageArchiveService archiveService,
+            final InboxService inbox,
+            final PlatformTransactionManager transactionManager) {
+        this.discussionRepository = discussionRepo;
+        this.messageRepository = messageRepo;
+        this.messageArchiveService = archiveService;
+        this.inboxService = inbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Backfill missing participant pairs once the application is ready.
+     * Stops early if a whole batch fails, instead of fetching it forever.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillParticipantPairs() {
+        int total = 0;
+        int merged = 0;
+        int done;
+        List<Discussion> batch;
+        do {
+            batch = discussionRepository.findByParticipantLowIsNullOrderByIdAsc(
+                    PageRequest.of(0, BATCH_SIZE));
+            done = 0;
+            for (Discussion discussion : batch) {
+                try {
+                    if (backfill(discussion)) {
+                        merged++;
+                    }
+                    done++;
+                } catch (DataAccessException e) {
+                    log.warn("Could not backfill participant pair of "
+                            + "discussion {}: {}", discussion.getId(),
+                            e.getMessage());
+                }
+            }
+            total += done;
+        } while (batch.size() == BATCH_SIZE && done > 0);
+
+        if (total > 0) {
+            log.info("Backfilled participant pair of {} discussions "
+                    + "({} duplicates merged)", total, merged);
+        }
+    }
+
+    /**
+     * Store the participant pair of a discussion, merging it with the
+     * discussion already holding that pair, if any.
+     *
+     * @param discussion discussion without participant pair
+     * @return true if a duplicate was merged
+     */
+    boolean backfill(final Discussion discussion) {
+        Optional<Discussion> holder = discussionRepository
+                .findByAnnouncementIdAndParticipants(
+                        discussion.getAnnouncementId(),
+                        discussion.getSenderId(),
+                        discussion.getRecipientId());
+        if (holder.isEmpty()) {
+            discussion.assignParticipantPair();
+            discussionRepository.save(discussion);
+            return false;
+        }
+
+        Discussion other = holder.get();
+        Discussion keeper = other.getId() < discussion.getId()
+                ? other : discussion;
+        Discussion duplicate = keeper == other ? discussion : other;
+        // Archived messages must be back in the table to be moved
+        messageArchiveService.restoreIfArchived(duplicate.getId());
+        messageArchiveService.restoreIfArchived(keeper.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Frees the pair when the duplicate is the one holding it
+            discussionRepository.markDeleted(duplicate.getId(),
+                    LocalDateTime.now());
+            int moved = messageRepository.moveToDiscussion(
+                    duplicate.getId(), keeper.getId());
+            if (duplicate.getUpdatedAt().isAfter(keeper.getUpdatedAt())) {
+                keeper.setUpdatedAt(duplicate.getUpdatedAt());
+            }
+            keeper.assignParticipantPair();
+            discussionRepository.save(keeper);
+            // Rebuilt from the merged messages by the inbox backfill
+            inboxService.removeDiscussion(duplicate.getId());
+            inboxService.removeDiscussion(keeper.getId());
+            log.info("Merged duplicate discussion {} into {} ({} messages)",
+                    duplicate.getId(), keeper.getId(), moved);
+        });
+        return true;
+    }
+}
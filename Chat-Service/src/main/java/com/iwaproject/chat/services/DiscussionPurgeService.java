@@ -0,0 +1,282 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background purge of deleted discussions.
+ * Each run deletes one bounded chunk of messages in its own short
+ * transaction; the delay between runs throttles the purge so it
+ * never competes with live traffic. A discussion whose purge fails is
+ * set aside with an exponential backoff, so it cannot hold up the
+ * discussions deleted after it.
+ */
+@Slf4j
+@Service
+public class DiscussionPurgeService {
+
+    /**
+     * Logger name constant.
+     */
+    private static final String LOGGER_NAME = "DiscussionPurgeService";
+
+    /**
+     * Delay before retrying a discussion after its first failure,
+     * doubled on each further failure.
+     */
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    /**
+     * Longest delay between two attempts on a failing discussion.
+     */
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Kafka log service.
+     */
+    private final KafkaLogService kafkaLogService;
+
+    /**
+     * Transaction template (one transaction per chunk).
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Maximum number of messages deleted per run.
+     */
+    private final int chunkSize;
+
+    /**
+     * Messages purged since startup.
+     */
+    private final LongAdder purgedMessages = new LongAdder();
+
+    /**
+     * Discussions fully purged since startup.
+     */
+    private final LongAdder purgedDiscussions = new LongAdder();
+
+    /**
+     * Messages purged since the last report.
+     */
+    private final LongAdder purgedSinceReport = new LongAdder();
+
+    /**
+     * Failed purge attempts since startup.
+     */
+    private final LongAdder failedAttempts = new LongAdder();
+
+    /**
+     * Discussions whose purge failed, by ID.
+     */
+    private final Map<Long, PurgeFailure> failures =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param discussionRepo discussion repository
+     * @param messageRepo message repository
+     * @param logService kafka log service
+     * @param transactionManager transaction manager
+     * @param purgeChunkSize maximum number of messages deleted per run
+     */
+    public DiscussionPurgeService(final DiscussionRepository discussionRepo,
+            final MessageRepository messageRepo,
+            final KafkaLogService logService,
+            final PlatformTransactionManager transactionManager,
+            @Value("${chat.purge.chunk-size:1000}") final int purgeChunkSize) {
+        this.discussionRepository = discussionRepo;
+        this.messageRepository = messageRepo;
+        this.kafkaLogService = logService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = purgeChunkSize;
+    }
+
+    /**
+     * Purge one chunk of the oldest deleted discussion not backing off,
+     * and remove the discussion itself once it has no message left.
+     */
+    @Scheduled(fixedDelayString = "${chat.purge.interval-millis:500}")
+    public void purgeNextChunk() {
+        List<Long> skipped = backingOff(Instant.now());
+        Optional<Long> discussionId = skipped.isEmpty()
+                ? discussionRepository.findNextDeletedId()
+                : discussionRepository.findNextDeletedIdExcept(skipped);
+        if (discussionId.isEmpty()) {
+            return;
+        }
+
+        try {
+            purgeChunk(discussionId.get());
+            failures.remove(discussionId.get());
+        } catch (Exception e) {
+            failedAttempts.increment();
+            PurgeFailure failure = failures.merge(discussionId.get(),
+                    PurgeFailure.first(Instant.now()),
+                    (previous, first) -> previous.next(Instant.now()));
+            log.error("Failed to purge discussion {} (attempt {})",
+                    discussionId.get(), failure.attempts(), e);
+            kafkaLogService.error(LOGGER_NAME, "Failed to purge discussion "
+                    + discussionId.get() + " (attempt " + failure.attempts()
+                    + ", next after " + failure.retryAt() + "): "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the IDs of the failed discussions not to retry yet.
+     *
+     * @param now current time
+     * @return discussion IDs
+     */
+    private List<Long> backingOff(final Instant now) {
+        return failures.entrySet().stream()
+                .filter(entry -> entry.getValue().retryAt().isAfter(now))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Purge one chunk of a deleted discussion.
+     *
+     * @param discussionId the discussion ID
+     */
+    void purgeChunk(final Long discussionId) {
+        Integer deleted = transactionTemplate.execute(status -> messageRepository
+                .deleteChunkByDiscussionId(discussionId, chunkSize));
+        int count = deleted == null ? 0 : deleted;
+        purgedMessages.add(count);
+        purgedSinceReport.add(count);
+
+        if (count < chunkSize) {
+            Integer removed = transactionTemplate.execute(status ->
+                    discussionRepository.deleteIfPurged(discussionId));
+            if (removed != null && removed > 0) {
+                purgedDiscussions.increment();
+                log.info("Purged discussion {}", discussionId);
+            }
+        }
+    }
+
+    /**
+     * Get the number of messages purged since startup.
+     *
+     * @return purged message count
+     */
+    public long getPurgedMessages() {
+        return purgedMessages.sum();
+    }
+
+    /**
+     * Get the number of discussions fully purged since startup.
+     *
+     * @return purged discussion count
+     */
+    public long getPurgedDiscussions() {
+        return purgedDiscussions.sum();
+    }
+
+    /**
+     * Get the number of failed purge attempts since startup.
+     *
+     * @return failed attempt count
+     */
+    public long getFailedAttempts() {
+        return failedAttempts.sum();
+    }
+
+    /**
+     * Get the number of discussions set aside after a failed purge.
+     *
+     * @return failing discussion count
+     */
+    public int getFailingDiscussions() {
+        return failures.size();
+    }
+
+    /**
+     * Get the number of deleted discussions still waiting to be purged.
+     *
+     * @return pending discussion count
+     */
+    public long getPendingDiscussions() {
+        return discussionRepository.countDeleted();
+    }
+
+    /**
+     * Report purge progress to the log service every five minutes.
+     */
+    @Scheduled(fixedRate = 300000)
+    public void reportStats() {
+        long recent = purgedSinceReport.sumThenReset();
+        if (recent == 0) {
+            return;
+        }
+        kafkaLogService.info(LOGGER_NAME, String.format(
+                "Discussion purge - messages purged: %d (total: %d), "
+                + "discussions purged: %d, pending: %d, failing: %d "
+                + "(failed attempts: %d)",
+                recent, getPurgedMessages(), getPurgedDiscussions(),
+                getPendingDiscussions(), getFailingDiscussions(),
+                getFailedAttempts()));
+    }
+
+    /**
+     * Failed purge attempts of a discussion and when to retry it.
+     *
+     * @param attempts number of consecutive failed attempts
+     * @param retryAt earliest time of the next attempt
+     */
+    record PurgeFailure(int attempts, Instant retryAt) {
+
+        /**
+         * First failure of a discussion.
+         *
+         * @param now failure time
+         * @return failure retried after the base delay
+         */
+        static PurgeFailure first(final Instant now) {
+            return new PurgeFailure(1, now.plus(RETRY_DELAY));
+        }
+
+        /**
+         * Next failure of the same discussion, doubling the delay.
+         *
+         * @param now failure time
+         * @return failure retried after a longer delay
+         */
+        PurgeFailure next(final Instant now) {
+            Duration delay = RETRY_DELAY.multipliedBy(
+                    1L << Math.min(attempts, 6));
+            if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+                delay = MAX_RETRY_DELAY;
+            }
+            return new PurgeFailure(attempts + 1, now.plus(delay));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.DiscussionUnreadCount;
+import com.iwaproject.chat.repositories.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service creating the inbox entries of discussions started before the
+ * inbox existed, so they are listed without waiting for a new message.
+ * The last message and unread counts are rebuilt from the messages
+ * table; archived discussions get entries without a preview.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InboxBackfillService {
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Inbox read model service.
+     */
+    private final InboxService inboxService;
+
+    /**
+     * Number of discussions handled per batch.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Backfill missing inbox entries once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInboxEntries() {
+        int total = 0;
+        int restored;
+        List<Discussion> batch;
+        do {
+            batch = discussionRepository.findWithoutInboxEntries(
+                    PageRequest.of(0, BATCH_SIZE));
+            restored = backfillBatch(batch);
+            total += restored;
+        } while (batch.size() == BATCH_SIZE && restored > 0);
+
+        if (total > 0) {
+            log.info("Backfilled inbox entries of {} discussions", total);
+        }
+    }
+
+    /**
+     * Create the inbox entries of a batch of discussions.
+     *
+     * @param batch discussions without inbox entries
+     * @return number of discussions whose entries were created
+     */
+    private int backfillBatch(final List<Discussion> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(Discussion::getId).toList();
+        Map<Long, MessageDTO> lastMessages = messageRepository
+                .findLastByDiscussionIds(ids).stream()
+                .collect(Collectors.toMap(MessageDTO::getDiscussionId,
+                        Function.identity()));
+        Map<Long, DiscussionUnreadCount> unreadCounts = messageRepository
+                .countUnreadByDiscussionIds(ids).stream()
+                .collect(Collectors.toMap(
+                        DiscussionUnreadCount::getDiscussionId,
+                        Function.identity()));
+
+        int restored = 0;
+        for (Discussion discussion : batch) {
+            DiscussionUnreadCount unread =
+                    unreadCounts.get(discussion.getId());
+            try {
+                inboxService.restoreEntries(discussion,
+                        lastMessages.get(discussion.getId()),
+                        unread != null ? unread.getUnreadCount().intValue()
+                                : 0);
+                restored++;
+            } catch (DataIntegrityViolationException e) {
+                // A new message created the entries in the meantime
+                log.debug("Inbox entries of discussion {} already exist",
+                        discussion.getId());
+            }
+        }
+        return restored;
+    }
+}
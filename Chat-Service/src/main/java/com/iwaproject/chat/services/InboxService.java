@@ -0,0 +1,246 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.InboxEntryDTO;
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.InboxEntry;
+import com.iwaproject.chat.entities.Message;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.InboxEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the per-participant inbox read model.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InboxService {
+
+    /**
+     * Inbox entry repository.
+     */
+    private final InboxEntryRepository inboxEntryRepository;
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Number of participants in a discussion.
+     */
+    private static final int PARTICIPANTS_PER_DISCUSSION = 2;
+
+    /**
+     * Get a user's inbox, most recent activity first.
+     *
+     * @param userId the user ID
+     * @param page page number (0-based)
+     * @param limit page size
+     * @return list of inbox entries
+     */
+    @Transactional(readOnly = true)
+    public List<InboxEntryDTO> getInbox(final String userId, final int page,
+            final int limit) {
+        log.debug("Fetching inbox for user: {} (page: {}, limit: {})",
+                userId, page, limit);
+
+        return inboxEntryRepository.findByUserId(userId,
+                        PageRequest.of(page, limit))
+                .stream()
+                .map(this::mapToInboxEntryDTO)
+                .toList();
+    }
+
+    /**
+     * Create the inbox entries of a new discussion.
+     *
+     * @param discussion the discussion
+     */
+    @Transactional
+    public void createEntries(final Discussion discussion) {
+        inboxEntryRepository.saveAll(List.of(
+                newEntry(discussion, discussion.getSenderId(), 0),
+                newEntry(discussion, discussion.getRecipientId(), 0)));
+    }
+
+    /**
+     * Create the inbox entries of a discussion started before the inbox
+     * existed, from its last message.
+     *
+     * @param discussion the discussion
+     * @param lastMessage its last message, or null if it has none
+     * @param unreadCount messages the participant who did not write the
+     *                    last message has not read yet
+     */
+    @Transactional
+    public void restoreEntries(final Discussion discussion,
+            final MessageDTO lastMessage, final int unreadCount) {
+        List<InboxEntry> entries = new ArrayList<>();
+        for (String userId : List.of(discussion.getSenderId(),
+                discussion.getRecipientId())) {
+            if (lastMessage == null) {
+                entries.add(newEntry(discussion, userId, 0));
+                continue;
+            }
+            InboxEntry entry = newEntry(discussion, userId,
+                    userId.equals(lastMessage.getAuthorId())
+                            ? 0 : unreadCount);
+            entry.setLastMessageId(lastMessage.getId());
+            entry.setLastMessageAuthorId(lastMessage.getAuthorId());
+            entry.setLastMessageSnippet(toSnippet(lastMessage.getContent()));
+            entry.setLastMessageAt(lastMessage.getCreatedAt());
+            entries.add(entry);
+        }
+        inboxEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Record new messages of a discussion in the inbox of both
+     * participants, with one statement whatever their number.
+     * Unread counts are incremented in the database so concurrent
+     * messages are never lost.
+     *
+     * @param discussion the discussion
+     * @param messages the saved messages, oldest first
+     */
+    @Transactional
+    public void recordMessages(final Discussion discussion,
+            final List<Message> messages) {
+        Message last = messages.get(messages.size() - 1);
+        // Messages since the other participant last wrote in the batch
+        int added = 0;
+        while (added < messages.size() && messages.get(messages.size() - 1
+                - added).getAuthorId().equals(last.getAuthorId())) {
+            added++;
+        }
+        boolean reset = added < messages.size();
+
+        int updated = inboxEntryRepository.recordMessages(discussion.getId(),
+                last.getId(), last.getAuthorId(),
+                toSnippet(last.getContent()), last.getCreatedAt(), added,
+                reset);
+
+        if (updated < PARTICIPANTS_PER_DISCUSSION) {
+            // Discussion created before the inbox existed
+            createMissingEntries(discussion, last, added);
+        }
+    }
+
+    /**
+     * Mark a discussion as read for a user.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the user ID
+     */
+    @Transactional
+    public void markAsRead(final Long discussionId, final String userId) {
+        log.debug("Marking discussion: {} as read for user: {}",
+                discussionId, userId);
+
+        if (inboxEntryRepository.markAsRead(discussionId, userId) == 0
+                && !discussionRepository.isParticipant(discussionId, userId)) {
+            throw new IllegalArgumentException(
+                    "User is not a participant in this discussion");
+        }
+    }
+
+    /**
+     * Remove the inbox entries of a deleted discussion.
+     *
+     * @param discussionId the discussion ID
+     */
+    @Transactional
+    public void removeDiscussion(final Long discussionId) {
+        inboxEntryRepository.deleteByDiscussionId(discussionId);
+    }
+
+    /**
+     * Create the entries missing for a discussion, as left by the
+     * messages being recorded.
+     *
+     * @param discussion the discussion
+     * @param last the last message being recorded
+     * @param added messages the other participant has not read yet
+     */
+    private void createMissingEntries(final Discussion discussion,
+            final Message last, final int added) {
+        Set<String> existing = inboxEntryRepository
+                .findByDiscussionId(discussion.getId())
+                .stream()
+                .map(InboxEntry::getUserId)
+                .collect(Collectors.toSet());
+
+        for (String userId : List.of(discussion.getSenderId(),
+                discussion.getRecipientId())) {
+            if (!existing.contains(userId)) {
+                InboxEntry entry = newEntry(discussion, userId,
+                        userId.equals(last.getAuthorId()) ? 0 : added);
+                entry.setLastMessageId(last.getId());
+                entry.setLastMessageAuthorId(last.getAuthorId());
+                entry.setLastMessageSnippet(toSnippet(last.getContent()));
+                entry.setLastMessageAt(last.getCreatedAt());
+                inboxEntryRepository.save(entry);
+            }
+        }
+    }
+
+    /**
+     * Build an inbox entry for a participant.
+     *
+     * @param discussion the discussion
+     * @param userId the participant ID
+     * @param unreadCount initial unread count
+     * @return inbox entry
+     */
+    private InboxEntry newEntry(final Discussion discussion,
+            final String userId, final int unreadCount) {
+        InboxEntry entry = new InboxEntry();
+        entry.setDiscussionId(discussion.getId());
+        entry.setUserId(userId);
+        entry.setCounterpartId(userId.equals(discussion.getSenderId())
+                ? discussion.getRecipientId() : discussion.getSenderId());
+        entry.setAnnouncementId(discussion.getAnnouncementId());
+        entry.setLastMessageAt(discussion.getUpdatedAt());
+        entry.setUnreadCount(unreadCount);
+        return entry;
+    }
+
+    /**
+     * Build the preview snippet of a message.
+     *
+     * @param content the message content
+     * @return snippet on a single line
+     */
+    static String toSnippet(final String content) {
+        String flat = content.strip().replaceAll("\\s+", " ");
+        if (flat.length() <= InboxEntry.MAX_SNIPPET_LENGTH) {
+            return flat;
+        }
+        return flat.substring(0, InboxEntry.MAX_SNIPPET_LENGTH - 1) + "…";
+    }
+
+    /**
+     * Map InboxEntry entity to InboxEntryDTO.
+     *
+     * @param entry the inbox entry entity
+     * @return inbox entry DTO
+     */
+    private InboxEntryDTO mapToInboxEntryDTO(final InboxEntry entry) {
+        return new InboxEntryDTO(entry.getDiscussionId(),
+                entry.getAnnouncementId(), entry.getCounterpartId(),
+                entry.getLastMessageId(), entry.getLastMessageAuthorId(),
+                entry.getLastMessageSnippet(), entry.getLastMessageAt(),
+                entry.getUnreadCount());
+    }
+}
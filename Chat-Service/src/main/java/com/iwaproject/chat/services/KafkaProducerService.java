@@ -1,12 +1,14 @@
 package com.iwaproject.chat.services;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 /**
  * Kafka producer service.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaProducerService {
@@ -27,5 +29,17 @@ public class KafkaProducerService {
         System.out.println("Message sent to topic "
                 + topic + ": " + message);
     }
-}
 
+    /**
+     * Send keyed message to Kafka topic.
+     *
+     * @param topic the topic name
+     * @param key the record key
+     * @param message the message to send
+     */
+    public void sendMessage(final String topic, final String key,
+            final Object message) {
+        kafkaTemplate.send(topic, key, message);
+        log.debug("Message sent to topic {} [{}]", topic, key);
+    }
+}
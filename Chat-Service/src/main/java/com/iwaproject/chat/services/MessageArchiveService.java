@@ -0,0 +1,276 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.DiscussionArchive;
+import com.iwaproject.chat.repositories.DiscussionArchiveRepository;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service moving the messages of idle discussions out of the messages
+ * table into one compressed archive row per discussion, and restoring
+ * them transparently when the discussion is opened again.
+ */
+@Slf4j
+@Service
+public class MessageArchiveService {
+
+    /**
+     * Logger name constant.
+     */
+    private static final String LOGGER_NAME = "MessageArchiveService";
+
+    /**
+     * Maximum number of discussions archived per run.
+     */
+    private static final int ARCHIVE_BATCH_SIZE = 50;
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Discussion archive repository.
+     */
+    private final DiscussionArchiveRepository discussionArchiveRepository;
+
+    /**
+     * JDBC template (restores messages with their original IDs).
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * ObjectMapper for archive serialization.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Kafka log service.
+     */
+    private final KafkaLogService kafkaLogService;
+
+    /**
+     * Transaction template running each archive or restore on its own.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Number of days without activity before a discussion is archived.
+     */
+    private final int idleDays;
+
+    /**
+     * Constructor.
+     *
+     * @param discussionRepo discussion repository
+     * @param messageRepo message repository
+     * @param archiveRepo discussion archive repository
+     * @param jdbc JDBC template
+     * @param mapper object mapper
+     * @param logService kafka log service
+     * @param transactionManager transaction manager
+     * @param idleDaysBeforeArchive days without activity before archiving
+     */
+    public MessageArchiveService(final DiscussionRepository discussionRepo,
+            final MessageRepository messageRepo,
+            final DiscussionArchiveRepository archiveRepo,
+            final JdbcTemplate jdbc,
+            final ObjectMapper mapper,
+            final KafkaLogService logService,
+            final PlatformTransactionManager transactionManager,
+            @Value("${chat.archive.idle-days:180}")
+            final int idleDaysBeforeArchive) {
+        this.discussionRepository = discussionRepo;
+        this.messageRepository = messageRepo;
+        this.discussionArchiveRepository = archiveRepo;
+        this.jdbcTemplate = jdbc;
+        this.objectMapper = mapper;
+        this.kafkaLogService = logService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idleDays = idleDaysBeforeArchive;
+    }
+
+    /**
+     * Archive discussions idle for longer than the threshold.
+     * Runs every hour, a bounded batch at a time.
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void archiveIdleDiscussions() {
+        LocalDateTime idleSince = LocalDateTime.now().minusDays(idleDays);
+        List<Long> discussionIds = discussionRepository.findIdleDiscussionIds(
+                idleSince, PageRequest.of(0, ARCHIVE_BATCH_SIZE));
+
+        int archived = 0;
+        for (Long discussionId : discussionIds) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(
+                        status -> archive(discussionId, idleSince)))) {
+                    archived++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to archive discussion {}", discussionId, e);
+                kafkaLogService.error(LOGGER_NAME,
+                        "Failed to archive discussion " + discussionId
+                        + ": " + e.getMessage());
+            }
+        }
+
+        if (archived > 0) {
+            kafkaLogService.info(LOGGER_NAME,
+                    "Archived " + archived + " idle discussions");
+        }
+    }
+
+    /**
+     * Restore the messages of a discussion if it was archived.
+     * Costs one primary key lookup when it was not.
+     *
+     * @param discussionId the discussion ID
+     */
+    public void restoreIfArchived(final Long discussionId) {
+        if (!discussionArchiveRepository.existsById(discussionId)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(
+                status -> restore(discussionId));
+    }
+
+    /**
+     * Delete the archive of a discussion, if any.
+     *
+     * @param discussionId the discussion ID
+     */
+    public void deleteArchive(final Long discussionId) {
+        if (discussionArchiveRepository.existsById(discussionId)) {
+            discussionArchiveRepository.deleteById(discussionId);
+        }
+    }
+
+    /**
+     * Archive one discussion. MessageBatchWriter locks the discussion row
+     * before inserting and bumps its updated_at in the same transaction,
+     * so once the lock is held here, any message committed since the idle
+     * scan shows up in the re-checked updated_at and the discussion is
+     * skipped. Messages written after this commit stay in the messages
+     * table and are merged back on restore.
+     *
+     * @param discussionId the discussion ID
+     * @param idleSince last update date threshold
+     * @return true if the discussion was archived
+     */
+    boolean archive(final Long discussionId, final LocalDateTime idleSince) {
+        Optional<Discussion> discussion = discussionRepository
+                .findForUpdate(discussionId);
+        if (discussion.isEmpty()
+                || !discussion.get().getUpdatedAt().isBefore(idleSince)
+                || discussionArchiveRepository.existsById(discussionId)) {
+            return false;
+        }
+
+        List<MessageDTO> messages = messageRepository
+                .findAllByDiscussionId(discussionId);
+        if (messages.isEmpty()) {
+            return false;
+        }
+
+        discussionArchiveRepository.save(new DiscussionArchive(discussionId,
+                messages.size(), LocalDateTime.now(), compress(messages)));
+        messageRepository.deleteByDiscussionId(discussionId);
+        log.debug("Archived {} messages of discussion {}", messages.size(),
+                discussionId);
+        return true;
+    }
+
+    /**
+     * Move archived messages back to the messages table.
+     *
+     * @param discussionId the discussion ID
+     */
+    private void restore(final Long discussionId) {
+        // Locked: a concurrent reader waits, then finds nothing to restore
+        Optional<DiscussionArchive> archive = discussionArchiveRepository
+                .findForUpdate(discussionId);
+        if (archive.isEmpty()) {
+            return;
+        }
+
+        List<MessageDTO> messages = decompress(archive.get().getPayload());
+        jdbcTemplate.batchUpdate("INSERT INTO messages (id, discussion_id, "
+                + "auteur_id, contenu, created_at) VALUES (?, ?, ?, ?, ?)",
+                messages, messages.size(), (ps, message) -> {
+                    ps.setLong(1, message.getId());
+                    ps.setLong(2, discussionId);
+                    ps.setString(3, message.getAuthorId());
+                    ps.setString(4, message.getContent());
+                    ps.setTimestamp(5, Timestamp.valueOf(message.getCreatedAt()));
+                });
+        discussionArchiveRepository.delete(archive.get());
+        log.debug("Restored {} messages of discussion {}", messages.size(),
+                discussionId);
+    }
+
+    /**
+     * Serialize and gzip messages.
+     *
+     * @param messages the messages
+     * @return compressed JSON
+     */
+    byte[] compress(final List<MessageDTO> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Gunzip and deserialize messages.
+     *
+     * @param payload compressed JSON
+     * @return the messages
+     */
+    List<MessageDTO> decompress(final byte[] payload) {
+        try (InputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(gzip,
+                    new TypeReference<List<MessageDTO>>() { });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.entities.Message;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Group-commit writer for chat messages.
+ * Concurrent callers enqueue their message and wait; a single writer
+ * thread drains whatever has accumulated and persists it in one
+ * transaction: a lock on the discussions, one sequence query for every
+ * ID, one batched INSERT, one UPDATE of the discussions' updated_at and
+ * one inbox UPDATE per discussion. Batches grow with load, so bursts cost a few round
+ * trips instead of several per message.
+ *
+ * IDs are taken once the discussions are locked, so writers of the same
+ * discussion on any replica commit in ID order and the ID cursors of the
+ * history and sync endpoints never skip a message.
+ */
+@Slf4j
+@Service
+public class MessageBatchWriter {
+
+    /**
+     * Insert of a message with its sequence-assigned ID.
+     */
+    private static final String INSERT_MESSAGE = "INSERT INTO messages "
+            + "(id, discussion_id, auteur_id, contenu, created_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Maximum number of messages written per transaction.
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * How long a caller waits for its message to be written.
+     */
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * How long the writer waits for work before checking for shutdown.
+     */
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Inbox read model service.
+     */
+    private final InboxService inboxService;
+
+    /**
+     * JDBC template (inserts messages with the IDs taken per batch).
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Transaction template for batch transactions.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * How long a caller waits before giving up on a queued message.
+     */
+    private final Duration writeTimeout;
+
+    /**
+     * Messages waiting to be written.
+     */
+    private final BlockingQueue<PendingMessage> queue =
+            new LinkedBlockingQueue<>();
+
+    /**
+     * Writer thread.
+     */
+    private final Thread writerThread;
+
+    /**
+     * Whether the writer keeps running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Constructor.
+     *
+     * @param messageRepo message repository
+     * @param discussionRepo discussion repository
+     * @param inbox inbox read model service
+     * @param jdbc JDBC template
+     * @param transactionManager transaction manager
+     */
+    @Autowired
+    public MessageBatchWriter(final MessageRepository messageRepo,
+            final DiscussionRepository discussionRepo,
+            final InboxService inbox,
+            final JdbcTemplate jdbc,
+            final PlatformTransactionManager transactionManager) {
+        this(messageRepo, discussionRepo, inbox, jdbc, transactionManager,
+                WRITE_TIMEOUT);
+    }
+
+    /**
+     * Constructor with a custom write timeout.
+     *
+     * @param messageRepo message repository
+     * @param discussionRepo discussion repository
+     * @param inbox inbox read model service
+     * @param jdbc JDBC template
+     * @param transactionManager transaction manager
+     * @param timeout how long a caller waits for a queued message
+     */
+    MessageBatchWriter(final MessageRepository messageRepo,
+            final DiscussionRepository discussionRepo,
+            final InboxService inbox,
+            final JdbcTemplate jdbc,
+            final PlatformTransactionManager transactionManager,
+            final Duration timeout) {
+        this.writeTimeout = timeout;
+        this.messageRepository = messageRepo;
+        this.discussionRepository = discussionRepo;
+        this.inboxService = inbox;
+        this.jdbcTemplate = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writerThread = new Thread(this::runWriter, "chat-message-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * Start the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer thread once queued messages are written.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writerThread.interrupt();
+    }
+
+    /**
+     * Write a message and wait until it is committed.
+     * A caller giving up takes its message back out of the queue, so a
+     * reported failure never commits later and a retry cannot duplicate
+     * it. Once the writer has taken the message its batch is already
+     * running, and the caller waits one more timeout for the outcome; past
+     * that the caller fails, and the message may still commit.
+     *
+     * @param message the message to write (discussion must exist)
+     * @return persisted message with its ID
+     */
+    public Message write(final Message message) {
+        PendingMessage pending = new PendingMessage(message,
+                new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            try {
+                return pending.result().get(writeTimeout.toMillis(),
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    throw new IllegalStateException(
+                            "Timed out writing message", e);
+                }
+                try {
+                    return pending.result().get(writeTimeout.toMillis(),
+                            TimeUnit.MILLISECONDS);
+                } catch (TimeoutException stillRunning) {
+                    throw new IllegalStateException(
+                            "Timed out waiting for message commit",
+                            stillRunning);
+                }
+            }
+        } catch (InterruptedException e) {
+            queue.remove(pending);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted writing message", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(
+                    "Failed to write message: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Writer loop: take everything queued and write it as one batch.
+     * Only shutdown ends the loop, once the queue is drained; any other
+     * interrupt is ignored so callers are never left without a writer.
+     */
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(POLL_TIMEOUT_MILLIS,
+                        TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (running) {
+                    log.warn("Message writer interrupted, still running");
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch; if it fails, write its messages one by one so a
+     * single bad message does not fail the others.
+     *
+     * @param batch pending messages
+     */
+    void flush(final List<PendingMessage> batch) {
+        try {
+            List<Message> saved = transactionTemplate.execute(
+                    status -> writeBatch(batch.stream()
+                            .map(PendingMessage::message)
+                            .toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+            log.debug("Wrote batch of {} messages", batch.size());
+        } catch (Exception batchError) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(batchError);
+                return;
+            }
+            log.warn("Batch of {} messages failed, retrying one by one: {}",
+                    batch.size(), batchError.getMessage());
+            for (PendingMessage pending : batch) {
+                pending.message().setId(null);
+                flush(List.of(pending));
+            }
+        }
+    }
+
+    /**
+     * Persist messages, bump their discussions once and update inboxes.
+     *
+     * @param messages messages to write
+     * @return persisted messages, in the same order
+     */
+    private List<Message> writeBatch(final List<Message> messages) {
+        Set<Long> discussionIds = messages.stream()
+                .map(m -> m.getDiscussion().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        // Writers of these discussions wait here until we commit, so the
+        // IDs taken below are above every ID already committed in them
+        discussionRepository.lockForWrite(discussionIds);
+
+        List<Long> ids = messageRepository.nextIds(messages.size()).stream()
+                .sorted()
+                .toList();
+        for (int i = 0; i < messages.size(); i++) {
+            messages.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, messages, messages.size(),
+                (ps, message) -> {
+                    ps.setLong(1, message.getId());
+                    ps.setLong(2, message.getDiscussion().getId());
+                    ps.setString(3, message.getAuthorId());
+                    ps.setString(4, message.getContent());
+                    ps.setTimestamp(5,
+                            Timestamp.valueOf(message.getCreatedAt()));
+                });
+
+        discussionRepository.touchUpdatedAt(discussionIds,
+                LocalDateTime.now());
+
+        messages.stream()
+                .collect(Collectors.groupingBy(m -> m.getDiscussion().getId(),
+                        LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(written -> inboxService.recordMessages(
+                        written.get(0).getDiscussion(), written));
+        return messages;
+    }
+
+    /**
+     * Message waiting to be written with the caller's result.
+     *
+     * @param message the message to write
+     * @param result completed with the persisted message
+     */
+    record PendingMessage(Message message, CompletableFuture<Message> result) {
+    }
+}
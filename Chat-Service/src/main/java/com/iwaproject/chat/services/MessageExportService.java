@@ -0,0 +1,100 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service exporting discussion transcripts as NDJSON (one message per
+ * line). Messages are read from a database cursor and written as they
+ * come: memory use does not depend on the discussion length, and a
+ * slow client slows the cursor down through the blocking output stream.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageExportService {
+
+    /**
+     * Number of lines written between two flushes.
+     */
+    private static final int FLUSH_EVERY = 100;
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Message archive service.
+     */
+    private final MessageArchiveService messageArchiveService;
+
+    /**
+     * ObjectMapper for JSON serialization.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Check the user may export a discussion and bring its messages
+     * back if it was archived. Called before the response starts so
+     * errors still get a proper status.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the user ID
+     * @throws IllegalArgumentException if user is not a participant
+     */
+    public void prepareExport(final Long discussionId, final String userId) {
+        if (!discussionRepository.isParticipant(discussionId, userId)) {
+            throw new IllegalArgumentException(
+                    "User is not a participant in this discussion");
+        }
+        messageArchiveService.restoreIfArchived(discussionId);
+    }
+
+    /**
+     * Write every message of a discussion, oldest first, as NDJSON.
+     *
+     * @param discussionId the discussion ID
+     * @param out the response stream
+     * @return number of exported messages
+     * @throws IOException if the client goes away
+     */
+    @Transactional(readOnly = true)
+    public long exportMessages(final Long discussionId,
+            final OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<MessageDTO> messages = messageRepository
+                .streamByDiscussionId(discussionId)) {
+            Iterator<MessageDTO> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                // Not writeValue(out): it would close the response stream
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+
+        log.debug("Exported {} messages of discussion {}", count,
+                discussionId);
+        return count;
+    }
+}
@@ -0,0 +1,152 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.MessageSearchPageDTO;
+import com.iwaproject.chat.dto.MessageSearchResultDTO;
+import com.iwaproject.chat.repositories.MessageRepository;
+import com.iwaproject.chat.repositories.MessageSearchHit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service for full-text search across the discussions of a user.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+
+    /**
+     * Maximum number of results per page.
+     */
+    private static final int MAX_LIMIT = 50;
+
+    /**
+     * Maximum length of a search query.
+     */
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    /**
+     * Separator between rank and message ID in a cursor.
+     */
+    private static final char CURSOR_SEPARATOR = ':';
+
+    /**
+     * Message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Search messages of the discussions the user takes part in.
+     *
+     * @param userId the user ID
+     * @param query the search terms
+     * @param cursor cursor returned by the previous page (optional)
+     * @param limit page size (capped)
+     * @return page of matches, most relevant first
+     * @throws IllegalArgumentException if the query or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public MessageSearchPageDTO search(final String userId,
+            final String query, final String cursor, final int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query is too long");
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        log.debug("Searching messages of {} (cursor: {}, limit: {})",
+                userId, cursor, size);
+
+        // Fetch one extra row to know whether a next page exists
+        List<MessageSearchHit> hits;
+        if (cursor == null || cursor.isEmpty()) {
+            hits = messageRepository.search(userId, query, size + 1);
+        } else {
+            String decoded = decodeCursor(cursor);
+            int separator = decoded.indexOf(CURSOR_SEPARATOR);
+            try {
+                hits = messageRepository.searchAfter(userId, query,
+                        Float.parseFloat(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)),
+                        size + 1);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+        }
+
+        boolean hasMore = hits.size() > size;
+        List<MessageSearchResultDTO> results = hits.stream()
+                .limit(size)
+                .map(this::toResult)
+                .toList();
+        String nextCursor = hasMore
+                ? encodeCursor(results.get(results.size() - 1))
+                : null;
+        return new MessageSearchPageDTO(results, hasMore, nextCursor);
+    }
+
+    /**
+     * Map a search hit to its DTO.
+     *
+     * @param hit the search hit
+     * @return search result DTO
+     */
+    private MessageSearchResultDTO toResult(final MessageSearchHit hit) {
+        return new MessageSearchResultDTO(hit.getId(), hit.getDiscussionId(),
+                hit.getAuthorId(), highlight(hit.getSnippet()), hit.getRank(),
+                hit.getCreatedAt());
+    }
+
+    /**
+     * Turn a raw snippet into safe HTML: the message text is escaped and
+     * only the match markers become mark tags.
+     *
+     * @param snippet snippet with matches between markers
+     * @return escaped snippet, matches wrapped in mark tags
+     */
+    static String highlight(final String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet)
+                .replace(MessageRepository.SNIPPET_START, "<mark>")
+                .replace(MessageRepository.SNIPPET_END, "</mark>");
+    }
+
+    /**
+     * Build the cursor pointing after a result.
+     *
+     * @param last the last result of the page
+     * @return opaque cursor
+     */
+    static String encodeCursor(final MessageSearchResultDTO last) {
+        String raw = Float.toString(last.getRank()) + CURSOR_SEPARATOR
+                + last.getMessageId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor.
+     *
+     * @param cursor the cursor
+     * @return rank and message ID, separated by a colon
+     */
+    private static String decodeCursor(final String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+}
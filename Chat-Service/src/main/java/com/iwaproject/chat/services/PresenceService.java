@@ -0,0 +1,350 @@
+package com.iwaproject.chat.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iwaproject.chat.dto.ChatEventDTO;
+import com.iwaproject.chat.dto.ChatEventType;
+import com.iwaproject.chat.dto.PresenceDTO;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.InboxEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory presence registry. Users are online while they keep an
+ * event stream open (refreshed on every stream heartbeat) or type.
+ * Last-seen times are shared between replicas through a compacted
+ * Kafka topic keyed by username; nothing is written to the database.
+ * Users going online or offline are announced over the event stream
+ * to their counterparts, by the replica that saw them come online.
+ */
+@Slf4j
+@Service
+public class PresenceService {
+
+    /**
+     * Compacted topic holding the last-seen time of each user.
+     */
+    public static final String PRESENCE_TOPIC = "chat.presence";
+
+    /**
+     * Logger name constant.
+     */
+    private static final String LOGGER_NAME = "PresenceService";
+
+    /**
+     * Heartbeat interval in milliseconds, below the presence timeout.
+     */
+    private static final long HEARTBEAT_INTERVAL_MS = 20000L;
+
+    /**
+     * Interval in milliseconds between checks for users gone offline.
+     */
+    private static final long OFFLINE_CHECK_INTERVAL_MS = 10000L;
+
+    /**
+     * Maximum number of discussions whose participants are cached.
+     */
+    private static final long MAX_CACHED_DISCUSSIONS = 10_000L;
+
+    /**
+     * How long unused discussion participants stay cached.
+     */
+    private static final Duration PARTICIPANTS_TTL = Duration.ofMinutes(10);
+
+    /**
+     * How long a last-seen time is kept once the user is offline.
+     */
+    private static final long RETENTION_MS = 24L * 60L * 60L * 1000L;
+
+    /**
+     * Last-seen time (epoch millis) per username.
+     */
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+
+    /**
+     * Users this replica announced online and has not announced offline.
+     */
+    private final Set<String> announcedOnline = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Participants of recently used discussions, which never change, so
+     * typing pings do not read the discussion each time.
+     */
+    private final Cache<Long, List<String>> discussionParticipants =
+            Caffeine.newBuilder()
+                    .maximumSize(MAX_CACHED_DISCUSSIONS)
+                    .expireAfterAccess(PARTICIPANTS_TTL)
+                    .build();
+
+    /**
+     * Discussion repository.
+     */
+    private final DiscussionRepository discussionRepository;
+
+    /**
+     * Inbox entry repository, listing the counterparts of a user.
+     */
+    private final InboxEntryRepository inboxEntryRepository;
+
+    /**
+     * SSE connection registry.
+     */
+    private final ChatEventStreamService chatEventStreamService;
+
+    /**
+     * Real-time chat event publisher.
+     */
+    private final ChatEventPublisher chatEventPublisher;
+
+    /**
+     * Kafka producer service.
+     */
+    private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * Kafka log service.
+     */
+    private final KafkaLogService kafkaLogService;
+
+    /**
+     * Time after which a user without heartbeat is offline.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param discussionRepo discussion repository
+     * @param inboxEntryRepo inbox entry repository
+     * @param streamService SSE connection registry
+     * @param eventPublisher chat event publisher
+     * @param producerService kafka producer service
+     * @param logService kafka log service
+     * @param timeout time after which a silent user is offline
+     */
+    public PresenceService(final DiscussionRepository discussionRepo,
+            final InboxEntryRepository inboxEntryRepo,
+            final ChatEventStreamService streamService,
+            final ChatEventPublisher eventPublisher,
+            final KafkaProducerService producerService,
+            final KafkaLogService logService,
+            @Value("${chat.presence.timeout:PT1M}") final Duration timeout) {
+        this.discussionRepository = discussionRepo;
+        this.inboxEntryRepository = inboxEntryRepo;
+        this.chatEventStreamService = streamService;
+        this.chatEventPublisher = eventPublisher;
+        this.kafkaProducerService = producerService;
+        this.kafkaLogService = logService;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Record that a user is active and share it with other replicas.
+     * A user coming online is announced to their counterparts.
+     *
+     * @param userId the user ID
+     */
+    public void heartbeat(final String userId) {
+        long now = System.currentTimeMillis();
+        boolean wasOnline = isOnline(userId);
+        lastSeen.merge(userId, now, Math::max);
+        if (!wasOnline && announcedOnline.add(userId)) {
+            announcePresence(userId);
+        }
+        try {
+            kafkaProducerService.sendMessage(PRESENCE_TOPIC, userId,
+                    String.valueOf(now));
+        } catch (Exception e) {
+            log.warn("Failed to share presence of {}: {}", userId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the presence of every user connected to this replica.
+     */
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL_MS)
+    public void heartbeatConnectedUsers() {
+        chatEventStreamService.getConnectedUsers().forEach(this::heartbeat);
+    }
+
+    /**
+     * Consume last-seen times published by every replica. Each replica
+     * uses its own consumer group, named after its host, and commits no
+     * offsets: it reads the compacted topic from the start on every
+     * startup, so it knows every recent user right away.
+     *
+     * @param record username and last-seen time (epoch millis)
+     */
+    @KafkaListener(topics = PRESENCE_TOPIC,
+            groupId = "chat-presence-${chat.instance-id}",
+            properties = {"auto.offset.reset=earliest",
+                    "enable.auto.commit=false"})
+    public void consumePresence(final ConsumerRecord<String, String> record) {
+        if (record.key() == null || record.value() == null) {
+            return;
+        }
+        try {
+            long seenAt = Long.parseLong(record.value());
+            if (System.currentTimeMillis() - seenAt < RETENTION_MS) {
+                lastSeen.merge(record.key(), seenAt, Math::max);
+            }
+        } catch (NumberFormatException e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Invalid presence record for " + record.key());
+        }
+    }
+
+    /**
+     * Check whether a user was seen within the presence timeout.
+     *
+     * @param userId the user ID
+     * @return true if online
+     */
+    public boolean isOnline(final String userId) {
+        Long seenAt = lastSeen.get(userId);
+        return seenAt != null
+                && System.currentTimeMillis() - seenAt < timeoutMillis;
+    }
+
+    /**
+     * Get the presence of both participants of a discussion.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the requesting user (must be participant)
+     * @return presence of each participant
+     * @throws IllegalArgumentException if not found or not participant
+     */
+    public List<PresenceDTO> getDiscussionPresence(final Long discussionId,
+            final String userId) {
+        return findParticipants(discussionId, userId).stream()
+                .map(this::toPresence)
+                .toList();
+    }
+
+    /**
+     * Tell the other participant of a discussion that a user is typing.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the typing user (must be participant)
+     * @throws IllegalArgumentException if not found or not participant
+     */
+    public void sendTyping(final Long discussionId, final String userId) {
+        List<String> participants = findParticipants(discussionId, userId);
+        String counterpart = userId.equals(participants.get(0))
+                ? participants.get(1)
+                : participants.get(0);
+
+        heartbeat(userId);
+        chatEventPublisher.publish(new ChatEventDTO(ChatEventType.TYPING,
+                discussionId, List.of(counterpart), null, null, null));
+    }
+
+    /**
+     * Announce the users this replica saw come online and who are now
+     * offline. Only the announcing replica checks, so each change is
+     * sent once.
+     */
+    @Scheduled(fixedRate = OFFLINE_CHECK_INTERVAL_MS)
+    public void announceOfflineUsers() {
+        for (String userId : announcedOnline) {
+            if (!isOnline(userId) && announcedOnline.remove(userId)) {
+                announcePresence(userId);
+            }
+        }
+    }
+
+    /**
+     * Forget the cached participants of a deleted discussion.
+     *
+     * @param discussionId the discussion ID
+     */
+    public void forgetDiscussion(final Long discussionId) {
+        discussionParticipants.invalidate(discussionId);
+    }
+
+    /**
+     * Forget users not seen for a day, keeping the registry bounded
+     * by the number of recently active users.
+     */
+    @Scheduled(fixedRate = 600000)
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - RETENTION_MS;
+        lastSeen.values().removeIf(seenAt -> seenAt < threshold);
+    }
+
+    /**
+     * Get the participants of a discussion the user takes part in,
+     * reading the discussion only on cache miss.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the user ID
+     * @return sender and recipient IDs
+     */
+    private List<String> findParticipants(final Long discussionId,
+            final String userId) {
+        List<String> participants = discussionParticipants.get(discussionId,
+                id -> discussionRepository.findById(id)
+                        .map(d -> List.of(d.getSenderId(), d.getRecipientId()))
+                        .orElse(null));
+        if (participants == null) {
+            throw new IllegalArgumentException(
+                    "Discussion not found: " + discussionId);
+        }
+        if (!participants.contains(userId)) {
+            throw new IllegalArgumentException(
+                    "User is not a participant in this discussion");
+        }
+        return participants;
+    }
+
+    /**
+     * Push the presence of a user to the counterparts of their
+     * discussions.
+     *
+     * @param userId the user ID
+     */
+    private void announcePresence(final String userId) {
+        try {
+            List<String> counterparts =
+                    inboxEntryRepository.findCounterpartIds(userId);
+            if (!counterparts.isEmpty()) {
+                chatEventPublisher.publish(new ChatEventDTO(
+                        ChatEventType.PRESENCE, null, counterparts, null,
+                        null, toPresence(userId)));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to announce presence of {}: {}", userId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Build the presence of a user.
+     *
+     * @param userId the user ID
+     * @return presence DTO
+     */
+    private PresenceDTO toPresence(final String userId) {
+        Long seenAt = lastSeen.get(userId);
+        LocalDateTime lastSeenAt = seenAt == null ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(seenAt),
+                        ZoneId.systemDefault());
+        return new PresenceDTO(userId, isOnline(userId), lastSeenAt);
+    }
+}
@@ -0,0 +1,253 @@
+package com.iwaproject.chat.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service checking that users exist, with a bounded TTL cache in front
+ * of the Kafka round trip to User-Service. Both answers are cached:
+ * known users for a long time, unknown users briefly. Entries are
+ * invalidated by user lifecycle events.
+ */
+@Slf4j
+@Service
+public class UserExistenceService {
+
+    /**
+     * Topic carrying user lifecycle events.
+     * Message format: CREATED|DELETED:<username>
+     */
+    public static final String USER_LIFECYCLE_TOPIC = "user-lifecycle-topic";
+
+    /**
+     * Logger name constant.
+     */
+    private static final String LOGGER_NAME = "UserExistenceService";
+
+    /**
+     * Timeout for Kafka requests in seconds.
+     */
+    private static final int KAFKA_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Maximum number of usernames kept per cache.
+     */
+    private static final long MAX_ENTRIES = 10_000L;
+
+    /**
+     * Nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Kafka consumer service.
+     */
+    private final KafkaConsumerService kafkaConsumerService;
+
+    /**
+     * Kafka log service.
+     */
+    private final KafkaLogService kafkaLogService;
+
+    /**
+     * Whether users are accepted when User-Service does not answer.
+     */
+    private final boolean acceptOnTimeout;
+
+    /**
+     * Users known to exist.
+     */
+    private final Cache<String, Boolean> knownUsers;
+
+    /**
+     * Users known not to exist.
+     */
+    private final Cache<String, Boolean> unknownUsers;
+
+    /**
+     * Number of lookups sent to User-Service.
+     */
+    private final LongAdder remoteLookups = new LongAdder();
+
+    /**
+     * Total time spent in lookups sent to User-Service.
+     */
+    private final LongAdder remoteLookupNanos = new LongAdder();
+
+    /**
+     * Number of decisions taken without an answer from User-Service.
+     */
+    private final LongAdder degradedDecisions = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param consumerService kafka consumer service
+     * @param logService kafka log service
+     * @param knownTtl how long a user known to exist is cached
+     * @param unknownTtl how long a user known not to exist is cached
+     * @param acceptWhenUnavailable accept users when User-Service times out
+     */
+    public UserExistenceService(
+            final KafkaConsumerService consumerService,
+            final KafkaLogService logService,
+            @Value("${chat.user-cache.known-ttl:PT10M}")
+            final Duration knownTtl,
+            @Value("${chat.user-cache.unknown-ttl:PT1M}")
+            final Duration unknownTtl,
+            @Value("${chat.user-cache.accept-on-timeout:true}")
+            final boolean acceptWhenUnavailable) {
+        this.kafkaConsumerService = consumerService;
+        this.kafkaLogService = logService;
+        this.acceptOnTimeout = acceptWhenUnavailable;
+        this.knownUsers = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(knownTtl)
+                .recordStats()
+                .build();
+        this.unknownUsers = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(unknownTtl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Check whether a user exists, asking User-Service on cache miss.
+     * When User-Service does not answer in time, the configured
+     * degraded mode decides and the answer is not cached.
+     *
+     * @param username the username
+     * @return true if the user exists
+     */
+    public boolean userExists(final String username) {
+        if (knownUsers.getIfPresent(username) != null) {
+            return true;
+        }
+        if (unknownUsers.getIfPresent(username) != null) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            String result = kafkaConsumerService.checkUserExists(username)
+                    .orTimeout(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .get();
+            boolean exists = "true".equals(result);
+            (exists ? knownUsers : unknownUsers).put(username, Boolean.TRUE);
+            return exists;
+        } catch (Exception e) {
+            if (e instanceof TimeoutException
+                    || e.getCause() instanceof TimeoutException) {
+                degradedDecisions.increment();
+                log.warn("Kafka timeout verifying user {}, degraded mode: {}",
+                        username, acceptOnTimeout ? "accept" : "reject");
+                kafkaLogService.warn(LOGGER_NAME,
+                        "Kafka timeout for user verification: " + username
+                        + " - " + (acceptOnTimeout ? "accepting" : "rejecting"));
+                return acceptOnTimeout;
+            }
+            // Reject on other errors (network, format, etc.)
+            log.error("Error verifying user existence for: {}", username, e);
+            kafkaLogService.error(LOGGER_NAME,
+                    "Failed to verify user existence for: " + username);
+            return false;
+        } finally {
+            remoteLookups.increment();
+            remoteLookupNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Consume user lifecycle events and drop the cached answer.
+     * Every replica uses its own consumer group, named after its host,
+     * since each one holds its own cache. A restarted replica starts
+     * with an empty cache, so the group reads from the latest event and
+     * commits no offsets.
+     *
+     * @param message the kafka message (CREATED|DELETED:<username>)
+     */
+    @KafkaListener(topics = USER_LIFECYCLE_TOPIC,
+            groupId = "chat-user-lifecycle-${chat.instance-id}",
+            properties = {"auto.offset.reset=latest",
+                    "enable.auto.commit=false"})
+    public void consumeUserLifecycle(final String message) {
+        String[] parts = message.split(":", 2);
+        if (parts.length < 2 || parts[1].isBlank()) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Invalid message format. Expected format: "
+                    + "CREATED|DELETED:<username>");
+            return;
+        }
+        invalidate(parts[1]);
+    }
+
+    /**
+     * Forget what is known about a user.
+     *
+     * @param username the username
+     */
+    public void invalidate(final String username) {
+        knownUsers.invalidate(username);
+        unknownUsers.invalidate(username);
+    }
+
+    /**
+     * Fraction of checks answered from the cache.
+     *
+     * @return hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        CacheStats stats = knownUsers.stats().plus(unknownUsers.stats());
+        long checks = stats.hitCount() + remoteLookups.sum();
+        return checks == 0 ? 0.0 : (double) stats.hitCount() / checks;
+    }
+
+    /**
+     * Average duration of lookups sent to User-Service.
+     *
+     * @return average latency in milliseconds
+     */
+    public double getAverageLookupMillis() {
+        long lookups = remoteLookups.sum();
+        return lookups == 0 ? 0.0
+                : remoteLookupNanos.sum() / NANOS_PER_MILLI / lookups;
+    }
+
+    /**
+     * Number of checks decided by the degraded mode.
+     *
+     * @return degraded decision count
+     */
+    public long getDegradedDecisions() {
+        return degradedDecisions.sum();
+    }
+
+    /**
+     * Report cache metrics to the log service every five minutes.
+     */
+    @Scheduled(fixedRate = 300000)
+    public void reportStats() {
+        if (remoteLookups.sum() == 0) {
+            return;
+        }
+        kafkaLogService.info(LOGGER_NAME, String.format(
+                "User cache - hit ratio: %.2f, remote lookups: %d, "
+                + "avg latency: %.1f ms, degraded: %d, "
+                + "known: %d, unknown: %d",
+                getHitRatio(), remoteLookups.sum(), getAverageLookupMillis(),
+                getDegradedDecisions(), knownUsers.estimatedSize(),
+                unknownUsers.estimatedSize()));
+    }
+}
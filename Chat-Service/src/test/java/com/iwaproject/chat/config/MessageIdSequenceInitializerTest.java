@@ -0,0 +1,114 @@
+package com.iwaproject.chat.config;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.Message;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for MessageIdSequenceInitializer.
+ */
+@DataJpaTest
+@Import(MessageIdSequenceInitializer.class)
+@TestPropertySource(locations = "classpath:application-test.properties")
+class MessageIdSequenceInitializerTest {
+
+    /**
+     * Initializer under test.
+     */
+    @Autowired
+    private MessageIdSequenceInitializer initializer;
+
+    /**
+     * Repositories and JDBC access.
+     */
+    @Autowired
+    private DiscussionRepository discussionRepository;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Test new messages get IDs above rows written with IDENTITY ids.
+     */
+    @Test
+    @DisplayName("alignSequence should move the sequence past existing ids")
+    void alignSequence_shouldSkipExistingIds() {
+        // Given
+        Discussion discussion = new Discussion();
+        discussion.setAnnouncementId(1L);
+        discussion.setSenderId("alice");
+        discussion.setRecipientId("bob");
+        discussion = discussionRepository.saveAndFlush(discussion);
+        jdbcTemplate.update("INSERT INTO messages (id, discussion_id, "
+                + "auteur_id, contenu, created_at) VALUES (?, ?, ?, ?, ?)",
+                1000L, discussion.getId(), "alice", "legacy",
+                LocalDateTime.now());
+
+        // When
+        initializer.alignSequence();
+        Message message = new Message();
+        message.setDiscussion(discussion);
+        message.setAuthorId("bob");
+        message.setContent("new");
+        Message saved = messageRepository.saveAndFlush(message);
+
+        // Then
+        assertTrue(saved.getId() > 1000L);
+    }
+
+    /**
+     * Test a sequence created for pooled allocation hands out
+     * consecutive IDs again.
+     */
+    @Test
+    @DisplayName("alignSequence should reset the increment to one")
+    void alignSequence_shouldResetPooledIncrement() {
+        // Given
+        Discussion discussion = new Discussion();
+        discussion.setAnnouncementId(1L);
+        discussion.setSenderId("alice");
+        discussion.setRecipientId("bob");
+        discussion = discussionRepository.saveAndFlush(discussion);
+        jdbcTemplate.execute("ALTER SEQUENCE messages_seq INCREMENT BY 50");
+
+        // When
+        initializer.alignSequence();
+        Message first = messageRepository.saveAndFlush(
+                message(discussion, "first"));
+        Message second = messageRepository.saveAndFlush(
+                message(discussion, "second"));
+
+        // Then
+        assertEquals(first.getId() + 1, second.getId());
+    }
+
+    /**
+     * Create a message.
+     *
+     * @param discussion the discussion
+     * @param content the content
+     * @return unsaved message
+     */
+    private Message message(final Discussion discussion,
+            final String content) {
+        Message message = new Message();
+        message.setDiscussion(discussion);
+        message.setAuthorId("alice");
+        message.setContent(content);
+        return message;
+    }
+}
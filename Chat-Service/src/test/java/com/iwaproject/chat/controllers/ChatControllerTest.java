@@ -3,9 +3,19 @@ package com.iwaproject.chat.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iwaproject.chat.dto.CreateMessageDTO;
 import com.iwaproject.chat.dto.DiscussionDTO;
+import com.iwaproject.chat.dto.InboxEntryDTO;
+import com.iwaproject.chat.dto.MessageCursorPageDTO;
 import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.dto.MessageSearchPageDTO;
+import com.iwaproject.chat.dto.MessageSearchResultDTO;
+import com.iwaproject.chat.dto.PresenceDTO;
+import com.iwaproject.chat.services.ChatEventStreamService;
 import com.iwaproject.chat.services.ChatService;
+import com.iwaproject.chat.services.InboxService;
 import com.iwaproject.chat.services.KafkaLogService;
+import com.iwaproject.chat.services.MessageExportService;
+import com.iwaproject.chat.services.MessageSearchService;
+import com.iwaproject.chat.services.PresenceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,7 +27,9 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,10 +38,15 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -54,6 +71,16 @@ class ChatControllerTest {
     private ChatService chatService;
     @Mock
     private KafkaLogService kafkaLogService;
+    @Mock
+    private ChatEventStreamService chatEventStreamService;
+    @Mock
+    private InboxService inboxService;
+    @Mock
+    private MessageSearchService messageSearchService;
+    @Mock
+    private PresenceService presenceService;
+    @Mock
+    private MessageExportService messageExportService;
 
     /**
      * Controller under test.
@@ -318,6 +345,257 @@ class ChatControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    /**
+     * Test GET /api/discussions/{id}/messages/history returns a slice.
+     */
+    @Test
+    @DisplayName("GET /api/discussions/{id}/messages/history returns a slice")
+    void getMessageHistory_ok() throws Exception {
+        // Given
+        MessageCursorPageDTO slice = new MessageCursorPageDTO(
+                List.of(createTestMessageDTO()), true, 1L);
+        given(chatService.getMessageHistory(1L, TEST_USER_ID, 50L, null, 20))
+                .willReturn(slice);
+
+        // When / Then
+        mockMvc.perform(get("/api/discussions/1/messages/history")
+                .param("before", "50")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+    }
+
+    /**
+     * Test history rejects combined before and after cursors.
+     */
+    @Test
+    @DisplayName("GET /api/discussions/{id}/messages/history rejects two cursors")
+    void getMessageHistory_bothCursors() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/discussions/1/messages/history")
+                .param("before", "50")
+                .param("after", "10")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test GET /api/discussions/{id}/messages/sync when not participant.
+     */
+    @Test
+    @DisplayName("GET /api/discussions/{id}/messages/sync returns 403 when not participant")
+    void syncMessages_forbidden() throws Exception {
+        // Given
+        given(chatService.syncMessages(1L, TEST_USER_ID, 5L))
+                .willThrow(new IllegalArgumentException(
+                        "User is not a participant in this discussion"));
+
+        // When / Then
+        mockMvc.perform(get("/api/discussions/1/messages/sync")
+                .param("since", "5")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * Test GET /api/me/inbox returns inbox entries.
+     */
+    @Test
+    @DisplayName("GET /api/me/inbox returns inbox entries")
+    void getMyInbox_ok() throws Exception {
+        // Given
+        InboxEntryDTO entry = new InboxEntryDTO(1L, 2L, "recipient-456",
+                10L, "recipient-456", "Hi", LocalDateTime.now(), 3);
+        given(inboxService.getInbox(TEST_USER_ID, 0, 20))
+                .willReturn(List.of(entry));
+
+        // When / Then
+        mockMvc.perform(get("/api/me/inbox")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].discussionId").value(1))
+                .andExpect(jsonPath("$[0].lastMessageSnippet").value("Hi"))
+                .andExpect(jsonPath("$[0].unreadCount").value(3));
+    }
+
+    /**
+     * Test GET /api/me/messages/search returns ranked matches.
+     */
+    @Test
+    @DisplayName("GET /api/me/messages/search returns ranked matches")
+    void searchMyMessages_ok() throws Exception {
+        // Given
+        MessageSearchResultDTO result = new MessageSearchResultDTO(
+                TEST_MESSAGE_ID, TEST_DISCUSSION_ID, TEST_RECIPIENT_ID,
+                "walk the <mark>dog</mark>", 0.5f, LocalDateTime.now());
+        given(messageSearchService.search(TEST_USER_ID, "dog", null, 20))
+                .willReturn(new MessageSearchPageDTO(
+                        List.of(result), true, "next"));
+
+        // When / Then
+        mockMvc.perform(get("/api/me/messages/search")
+                .param("q", "dog")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].messageId")
+                        .value(TEST_MESSAGE_ID))
+                .andExpect(jsonPath("$.results[0].snippet")
+                        .value("walk the <mark>dog</mark>"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    /**
+     * Test GET /api/me/messages/search rejects an invalid cursor.
+     */
+    @Test
+    @DisplayName("GET /api/me/messages/search returns 400 on invalid cursor")
+    void searchMyMessages_invalidCursor() throws Exception {
+        // Given
+        given(messageSearchService.search(TEST_USER_ID, "dog", "bad", 20))
+                .willThrow(new IllegalArgumentException("Invalid search cursor"));
+
+        // When / Then
+        mockMvc.perform(get("/api/me/messages/search")
+                .param("q", "dog")
+                .param("cursor", "bad")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test GET /api/discussions/{id}/messages/export streams the transcript.
+     */
+    @Test
+    @DisplayName("GET /api/discussions/{id}/messages/export streams NDJSON")
+    void exportMessages_ok() throws Exception {
+        // Given
+        given(messageExportService.exportMessages(eq(TEST_DISCUSSION_ID),
+                any())).willReturn(0L);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/discussions/"
+                + TEST_DISCUSSION_ID + "/messages/export")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        verify(messageExportService).exportMessages(eq(TEST_DISCUSSION_ID),
+                any());
+    }
+
+    /**
+     * Test GET /api/discussions/{id}/messages/export when not participant.
+     */
+    @Test
+    @DisplayName("GET /api/discussions/{id}/messages/export returns 403 when not participant")
+    void exportMessages_forbidden() throws Exception {
+        // Given
+        willThrow(new IllegalArgumentException(
+                "User is not a participant in this discussion"))
+                .given(messageExportService).prepareExport(TEST_DISCUSSION_ID,
+                        TEST_USER_ID);
+
+        // When / Then
+        mockMvc.perform(get("/api/discussions/" + TEST_DISCUSSION_ID
+                + "/messages/export")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * Test GET /api/discussions/{id}/presence returns participants presence.
+     */
+    @Test
+    @DisplayName("GET /api/discussions/{id}/presence returns presence")
+    void getDiscussionPresence_ok() throws Exception {
+        // Given
+        given(presenceService.getDiscussionPresence(TEST_DISCUSSION_ID,
+                TEST_USER_ID)).willReturn(List.of(
+                        new PresenceDTO(TEST_USER_ID, true, LocalDateTime.now()),
+                        new PresenceDTO(TEST_RECIPIENT_ID, false, null)));
+
+        // When / Then
+        mockMvc.perform(get("/api/discussions/" + TEST_DISCUSSION_ID
+                + "/presence")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].online").value(true))
+                .andExpect(jsonPath("$[1].userId").value(TEST_RECIPIENT_ID))
+                .andExpect(jsonPath("$[1].online").value(false));
+    }
+
+    /**
+     * Test POST /api/discussions/{id}/typing when not participant.
+     */
+    @Test
+    @DisplayName("POST /api/discussions/{id}/typing returns 403 when not participant")
+    void sendTyping_forbidden() throws Exception {
+        // Given
+        willThrow(new IllegalArgumentException(
+                "User is not a participant in this discussion"))
+                .given(presenceService).sendTyping(TEST_DISCUSSION_ID,
+                        TEST_USER_ID);
+
+        // When / Then
+        mockMvc.perform(post("/api/discussions/" + TEST_DISCUSSION_ID
+                + "/typing")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * Test POST /api/discussions/{id}/read when not participant.
+     */
+    @Test
+    @DisplayName("POST /api/discussions/{id}/read returns 403 when not participant")
+    void markDiscussionAsRead_forbidden() throws Exception {
+        // Given
+        willThrow(new IllegalArgumentException(
+                "User is not a participant in this discussion"))
+                .given(inboxService).markAsRead(1L, TEST_USER_ID);
+
+        // When / Then
+        mockMvc.perform(post("/api/discussions/1/read")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * Test GET /api/me/events opens an event stream.
+     */
+    @Test
+    @DisplayName("GET /api/me/events opens an event stream")
+    void streamMyEvents_ok() throws Exception {
+        // Given
+        given(chatEventStreamService.subscribe(TEST_USER_ID))
+                .willReturn(new SseEmitter());
+
+        // When / Then
+        mockMvc.perform(get("/api/me/events")
+                .header(X_USERNAME_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        verify(presenceService).heartbeat(TEST_USER_ID);
+    }
+
+    /**
+     * Test GET /api/me/events rejects a blank username.
+     */
+    @Test
+    @DisplayName("GET /api/me/events rejects a blank username")
+    void streamMyEvents_unauthorized() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/me/events")
+                .header(X_USERNAME_HEADER, " "))
+                .andExpect(status().isUnauthorized());
+    }
+
     /**
      * Create test discussion DTO.
      *
@@ -0,0 +1,207 @@
+package com.iwaproject.chat.repositories;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for DiscussionRepository.
+ */
+@DataJpaTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DiscussionRepositoryTest {
+
+    /**
+     * Repository under test.
+     */
+    @Autowired
+    private DiscussionRepository discussionRepository;
+
+    /**
+     * Message repository.
+     */
+    @Autowired
+    private MessageRepository messageRepository;
+
+    /**
+     * Test constants.
+     */
+    private static final Long ANNOUNCEMENT_ID = 1L;
+    private static final String ALICE = "alice";
+    private static final String BOB = "bob";
+
+    /**
+     * Saved discussion started by bob.
+     */
+    private Discussion saved;
+
+    /**
+     * Setup one discussion.
+     */
+    @BeforeEach
+    void setUp() {
+        messageRepository.deleteAll();
+        discussionRepository.deleteAll();
+        saved = discussionRepository.saveAndFlush(
+                discussion(ANNOUNCEMENT_ID, BOB, ALICE));
+    }
+
+    /**
+     * Test the participant pair is stored in canonical order.
+     */
+    @Test
+    @DisplayName("save should store the participants in canonical order")
+    void save_shouldStoreCanonicalPair() {
+        // Then
+        assertEquals(ALICE, saved.getParticipantLow());
+        assertEquals(BOB, saved.getParticipantHigh());
+    }
+
+    /**
+     * Test lookup works whichever participant is asking.
+     */
+    @Test
+    @DisplayName("findByAnnouncementIdAndParticipants should ignore participant order")
+    void findByAnnouncementIdAndParticipants_shouldIgnoreOrder() {
+        // When
+        Optional<Discussion> fromAlice = discussionRepository
+                .findByAnnouncementIdAndParticipants(ANNOUNCEMENT_ID, ALICE, BOB);
+        Optional<Discussion> fromBob = discussionRepository
+                .findByAnnouncementIdAndParticipants(ANNOUNCEMENT_ID, BOB, ALICE);
+
+        // Then
+        assertTrue(fromAlice.isPresent());
+        assertEquals(saved.getId(), fromAlice.get().getId());
+        assertEquals(saved.getId(), fromBob.orElseThrow().getId());
+    }
+
+    /**
+     * Test a second discussion between the same pair is rejected.
+     */
+    @Test
+    @DisplayName("save should reject a duplicate discussion in reverse order")
+    void save_shouldRejectDuplicatePair() {
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class, () ->
+                discussionRepository.saveAndFlush(
+                        discussion(ANNOUNCEMENT_ID, ALICE, BOB)));
+    }
+
+    /**
+     * Test a deleted discussion is hidden and frees its participant pair.
+     */
+    @Test
+    @DisplayName("markDeleted should hide the discussion and free the pair")
+    void markDeleted_shouldHideDiscussion() {
+        // When
+        discussionRepository.markDeleted(saved.getId(), LocalDateTime.now());
+
+        // Then
+        assertTrue(discussionRepository.findById(saved.getId()).isEmpty());
+        assertFalse(discussionRepository.isParticipant(saved.getId(), ALICE));
+        assertEquals(Optional.of(saved.getId()),
+                discussionRepository.findNextDeletedId());
+        discussionRepository.saveAndFlush(
+                discussion(ANNOUNCEMENT_ID, ALICE, BOB));
+    }
+
+    /**
+     * Test a deleted discussion is removed only once its messages are gone.
+     */
+    @Test
+    @DisplayName("deleteIfPurged should wait for all messages to be purged")
+    void deleteIfPurged_shouldWaitForMessages() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            Message message = new Message();
+            message.setDiscussion(saved);
+            message.setAuthorId(ALICE);
+            message.setContent("message " + i);
+            messageRepository.saveAndFlush(message);
+        }
+        discussionRepository.markDeleted(saved.getId(), LocalDateTime.now());
+
+        // When / Then
+        assertEquals(0, discussionRepository.deleteIfPurged(saved.getId()));
+        assertEquals(2, messageRepository.deleteChunkByDiscussionId(
+                saved.getId(), 2));
+        assertEquals(1, messageRepository.deleteChunkByDiscussionId(
+                saved.getId(), 2));
+        assertEquals(1, discussionRepository.deleteIfPurged(saved.getId()));
+        assertEquals(0, discussionRepository.countDeleted());
+    }
+
+    /**
+     * Test skipped discussions are passed over by the purge lookup.
+     */
+    @Test
+    @DisplayName("findNextDeletedIdExcept should pass over skipped discussions")
+    void findNextDeletedIdExcept_shouldSkipIds() {
+        // Given
+        Discussion other = discussionRepository.saveAndFlush(
+                discussion(ANNOUNCEMENT_ID, ALICE, "carol"));
+        LocalDateTime deletedAt = LocalDateTime.now();
+        discussionRepository.markDeleted(saved.getId(), deletedAt);
+        discussionRepository.markDeleted(other.getId(),
+                deletedAt.plusSeconds(1));
+
+        // When / Then
+        assertEquals(Optional.of(other.getId()), discussionRepository
+                .findNextDeletedIdExcept(List.of(saved.getId())));
+        assertTrue(discussionRepository.findNextDeletedIdExcept(
+                List.of(saved.getId(), other.getId())).isEmpty());
+    }
+
+    /**
+     * Test discussions are locked by ID, in ID order.
+     */
+    @Test
+    @DisplayName("lockForWrite should lock the existing discussions in ID order")
+    void lockForWrite_shouldReturnLockedIds() {
+        // Given
+        Discussion other = discussionRepository.saveAndFlush(
+                discussion(ANNOUNCEMENT_ID, ALICE, "carol"));
+
+        // When
+        List<Long> locked = discussionRepository.lockForWrite(
+                Set.of(other.getId(), saved.getId(), -1L));
+
+        // Then
+        assertEquals(List.of(saved.getId(), other.getId()), locked);
+    }
+
+    /**
+     * Create a discussion.
+     *
+     * @param announcementId the announcement ID
+     * @param senderId the sender ID
+     * @param recipientId the recipient ID
+     * @return discussion
+     */
+    private Discussion discussion(final Long announcementId,
+            final String senderId, final String recipientId) {
+        Discussion discussion = new Discussion();
+        discussion.setAnnouncementId(announcementId);
+        discussion.setSenderId(senderId);
+        discussion.setRecipientId(recipientId);
+        discussion.setCreatedAt(LocalDateTime.now());
+        discussion.setUpdatedAt(LocalDateTime.now());
+        return discussion;
+    }
+}
@@ -0,0 +1,164 @@
+package com.iwaproject.chat.repositories;
+
+import com.iwaproject.chat.entities.InboxEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for InboxEntryRepository.
+ */
+@DataJpaTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class InboxEntryRepositoryTest {
+
+    /**
+     * Repository under test.
+     */
+    @Autowired
+    private InboxEntryRepository inboxEntryRepository;
+
+    /**
+     * Test constants.
+     */
+    private static final Long DISCUSSION_ID = 1L;
+    private static final String ALICE = "alice";
+    private static final String BOB = "bob";
+
+    /**
+     * Setup inbox entries for one discussion.
+     */
+    @BeforeEach
+    void setUp() {
+        inboxEntryRepository.deleteAll();
+        inboxEntryRepository.save(entry(DISCUSSION_ID, ALICE, BOB, 2));
+        inboxEntryRepository.save(entry(DISCUSSION_ID, BOB, ALICE, 0));
+    }
+
+    /**
+     * Test recordMessages resets the author and adds to the reader.
+     */
+    @Test
+    @DisplayName("recordMessages should add to the reader and reset the author")
+    void recordMessages_shouldAddToReaderAndResetAuthor() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        int updated = inboxEntryRepository.recordMessages(DISCUSSION_ID, 20L,
+                ALICE, "hello", now, 3, false);
+
+        // Then
+        assertEquals(2, updated);
+        assertEquals(0, unreadOf(ALICE));
+        assertEquals(3, unreadOf(BOB));
+        inboxEntryRepository.findByDiscussionId(DISCUSSION_ID).forEach(e -> {
+            assertEquals(20L, e.getLastMessageId());
+            assertEquals("hello", e.getLastMessageSnippet());
+        });
+    }
+
+    /**
+     * Test recordMessages restarts the count of a reader who wrote in
+     * the batch.
+     */
+    @Test
+    @DisplayName("recordMessages should restart the count of a reader who wrote")
+    void recordMessages_readerWrote_shouldRestartCount() {
+        // Given
+        inboxEntryRepository.recordMessages(DISCUSSION_ID, 10L, ALICE,
+                "first", LocalDateTime.now(), 4, false);
+
+        // When
+        inboxEntryRepository.recordMessages(DISCUSSION_ID, 30L, BOB,
+                "reply", LocalDateTime.now(), 1, true);
+
+        // Then
+        assertEquals(1, unreadOf(ALICE));
+        assertEquals(0, unreadOf(BOB));
+    }
+
+    /**
+     * Test findByUserId orders by last activity.
+     */
+    @Test
+    @DisplayName("findByUserId should list most recent activity first")
+    void findByUserId_shouldOrderByLastActivity() {
+        // Given
+        InboxEntry older = entry(2L, ALICE, "carol", 0);
+        older.setLastMessageAt(LocalDateTime.now().minusDays(1));
+        inboxEntryRepository.save(older);
+
+        // When
+        List<InboxEntry> inbox = inboxEntryRepository.findByUserId(ALICE,
+                PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of(DISCUSSION_ID, 2L), inbox.stream()
+                .map(InboxEntry::getDiscussionId).toList());
+    }
+
+    /**
+     * Test findCounterpartIds lists each counterpart once.
+     */
+    @Test
+    @DisplayName("findCounterpartIds should list distinct counterparts")
+    void findCounterpartIds_shouldListDistinctCounterparts() {
+        // Given
+        inboxEntryRepository.save(entry(2L, ALICE, BOB, 0));
+        inboxEntryRepository.save(entry(3L, ALICE, "carol", 0));
+
+        // When
+        List<String> counterparts =
+                inboxEntryRepository.findCounterpartIds(ALICE);
+
+        // Then
+        assertEquals(Set.of(BOB, "carol"), Set.copyOf(counterparts));
+        assertEquals(2, counterparts.size());
+    }
+
+    /**
+     * Read the unread count of a user in the test discussion.
+     *
+     * @param userId the user ID
+     * @return unread count
+     */
+    private int unreadOf(final String userId) {
+        return inboxEntryRepository.findByDiscussionId(DISCUSSION_ID).stream()
+                .filter(e -> e.getUserId().equals(userId))
+                .findFirst()
+                .orElseThrow()
+                .getUnreadCount();
+    }
+
+    /**
+     * Create an inbox entry.
+     *
+     * @param discussionId the discussion ID
+     * @param userId the owner ID
+     * @param counterpartId the other participant ID
+     * @param unread the unread count
+     * @return inbox entry
+     */
+    private InboxEntry entry(final Long discussionId, final String userId,
+            final String counterpartId, final int unread) {
+        InboxEntry entry = new InboxEntry();
+        entry.setDiscussionId(discussionId);
+        entry.setUserId(userId);
+        entry.setCounterpartId(counterpartId);
+        entry.setAnnouncementId(1L);
+        entry.setLastMessageAt(LocalDateTime.now());
+        entry.setUnreadCount(unread);
+        return entry;
+    }
+}
@@ -0,0 +1,212 @@
+package com.iwaproject.chat.repositories;
+
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.Message;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for MessageRepository reads: pages of messages are projected
+ * straight into DTOs, without loading any entity.
+ */
+@DataJpaTest
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MessageRepositoryTest {
+
+    /**
+     * Repository under test.
+     */
+    @Autowired
+    private MessageRepository messageRepository;
+
+    /**
+     * Discussion repository.
+     */
+    @Autowired
+    private DiscussionRepository discussionRepository;
+
+    /**
+     * Entity manager.
+     */
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Test constants.
+     */
+    private static final int MESSAGE_COUNT = 30;
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * Saved discussion.
+     */
+    private Discussion discussion;
+
+    /**
+     * Hibernate statistics.
+     */
+    private Statistics statistics;
+
+    /**
+     * Setup one discussion with messages and an empty persistence context.
+     */
+    @BeforeEach
+    void setUp() {
+        discussion = new Discussion();
+        discussion.setAnnouncementId(1L);
+        discussion.setSenderId("alice");
+        discussion.setRecipientId("bob");
+        discussion = discussionRepository.save(discussion);
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            Message message = new Message();
+            message.setDiscussion(discussion);
+            message.setAuthorId(i % 2 == 0 ? "alice" : "bob");
+            message.setContent("message " + i);
+            messageRepository.save(message);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Test a history slice costs one query and no entity load.
+     */
+    @Test
+    @DisplayName("findLatestByDiscussionId should run one query and load no entity")
+    void findLatestByDiscussionId_shouldLoadNoEntity() {
+        // When
+        List<MessageDTO> messages = messageRepository.findLatestByDiscussionId(
+                discussion.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        // Then
+        assertEquals(PAGE_SIZE, messages.size());
+        assertEquals(discussion.getId(), messages.get(0).getDiscussionId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Test a classic page costs the page and count queries only.
+     */
+    @Test
+    @DisplayName("findByDiscussionId should run page and count queries only")
+    void findByDiscussionId_shouldLoadNoEntity() {
+        // When
+        Page<MessageDTO> page = messageRepository.findByDiscussionId(
+                discussion.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        // Then
+        assertEquals(MESSAGE_COUNT, page.getTotalElements());
+        assertEquals(PAGE_SIZE, page.getContent().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Baseline: reading the same page as entities loads every message,
+     * while the discussion stays a lazy proxy.
+     */
+    @Test
+    @DisplayName("entity reads load every message but not the discussion")
+    void entityRead_shouldNotLoadDiscussion() {
+        // When
+        List<Message> messages = entityManager.createQuery(
+                "SELECT m FROM Message m WHERE m.discussion.id = :id",
+                Message.class)
+                .setParameter("id", discussion.getId())
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+
+        // Then
+        assertEquals(PAGE_SIZE, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(entityManager.getEntityManagerFactory()
+                .getPersistenceUnitUtil()
+                .isLoaded(messages.get(0).getDiscussion()));
+    }
+
+    /**
+     * Test the inbox backfill reads: last message and unread run of
+     * each discussion.
+     */
+    @Test
+    @DisplayName("last message and unread counts should be read per discussion")
+    void findLastAndCountUnread_shouldSummariseDiscussions() {
+        // Given: a second discussion where only alice wrote
+        Discussion monologue = new Discussion();
+        monologue.setAnnouncementId(2L);
+        monologue.setSenderId("alice");
+        monologue.setRecipientId("bob");
+        monologue = discussionRepository.save(monologue);
+        for (int i = 0; i < 3; i++) {
+            Message message = new Message();
+            message.setDiscussion(monologue);
+            message.setAuthorId("alice");
+            message.setContent("ping " + i);
+            messageRepository.save(message);
+        }
+        entityManager.flush();
+        List<Long> ids = List.of(discussion.getId(), monologue.getId());
+
+        // When
+        Map<Long, MessageDTO> last = messageRepository
+                .findLastByDiscussionIds(ids).stream()
+                .collect(Collectors.toMap(MessageDTO::getDiscussionId,
+                        m -> m));
+        Map<Long, DiscussionUnreadCount> unread = messageRepository
+                .countUnreadByDiscussionIds(ids).stream()
+                .collect(Collectors.toMap(
+                        DiscussionUnreadCount::getDiscussionId, u -> u));
+
+        // Then
+        assertEquals("message 29", last.get(discussion.getId()).getContent());
+        assertEquals("ping 2", last.get(monologue.getId()).getContent());
+        assertEquals("bob", unread.get(discussion.getId()).getAuthorId());
+        assertEquals(1L, unread.get(discussion.getId()).getUnreadCount());
+        assertEquals(3L, unread.get(monologue.getId()).getUnreadCount());
+    }
+
+    /**
+     * Test a batch of IDs is taken from the sequence in one query.
+     */
+    @Test
+    @DisplayName("nextIds should return distinct new IDs in one query")
+    void nextIds_shouldReturnDistinctNewIds() {
+        // Given
+        long highest = messageRepository.findAll().stream()
+                .mapToLong(Message::getId).max().orElse(0L);
+        statistics.clear();
+
+        // When
+        List<Long> ids = messageRepository.nextIds(5);
+
+        // Then
+        assertEquals(5, Set.copyOf(ids).size());
+        assertTrue(ids.stream().allMatch(id -> id > highest));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
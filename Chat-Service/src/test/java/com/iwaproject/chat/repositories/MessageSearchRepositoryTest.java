@@ -0,0 +1,155 @@
+package com.iwaproject.chat.repositories;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.Message;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.DockerClientFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the MessageRepository full-text search, which is PostgreSQL
+ * only: runs against a PostgreSQL container, skipped without Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = {
+                "spring.datasource.url=jdbc:tc:postgresql:16-alpine:///chat",
+                "spring.datasource.driver-class-name="
+                        + "org.testcontainers.jdbc.ContainerDatabaseDriver",
+                "spring.jpa.database-platform="
+                        + "org.hibernate.dialect.PostgreSQLDialect"
+        })
+@EnabledIf("dockerAvailable")
+class MessageSearchRepositoryTest {
+
+    /**
+     * Repository under test.
+     */
+    @Autowired
+    private MessageRepository messageRepository;
+
+    /**
+     * Discussion repository.
+     */
+    @Autowired
+    private DiscussionRepository discussionRepository;
+
+    /**
+     * Entity manager.
+     */
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Saved discussion.
+     */
+    private Discussion discussion;
+
+    /**
+     * Whether a Docker daemon is available to start PostgreSQL.
+     *
+     * @return true if Docker is available
+     */
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    /**
+     * Setup one discussion with a few messages.
+     */
+    @BeforeEach
+    void setUp() {
+        discussion = new Discussion();
+        discussion.setAnnouncementId(1L);
+        discussion.setSenderId("alice");
+        discussion.setRecipientId("bob");
+        discussion = discussionRepository.save(discussion);
+        save("alice", "see you at the park tomorrow");
+        save("bob", "the park is closed, let us meet at the park cafe");
+        save("alice", "nothing to find here");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test every projection column is mapped from the native query.
+     */
+    @Test
+    @DisplayName("search should map every column of the hits")
+    void search_shouldMapEveryColumn() {
+        // When
+        List<MessageSearchHit> hits = messageRepository.search("alice",
+                "park", 10);
+
+        // Then
+        assertEquals(2, hits.size());
+        for (MessageSearchHit hit : hits) {
+            assertNotNull(hit.getId());
+            assertEquals(discussion.getId(), hit.getDiscussionId());
+            assertNotNull(hit.getAuthorId());
+            assertNotNull(hit.getCreatedAt());
+            assertNotNull(hit.getRank());
+            assertTrue(hit.getSnippet().contains(
+                    MessageRepository.SNIPPET_START + "park"
+                    + MessageRepository.SNIPPET_END));
+        }
+        assertEquals("bob", hits.get(0).getAuthorId());
+    }
+
+    /**
+     * Test the cursor query returns the hits after the given one.
+     */
+    @Test
+    @DisplayName("searchAfter should return the hits after the cursor")
+    void searchAfter_shouldContinueAfterCursor() {
+        // Given
+        MessageSearchHit first = messageRepository.search("bob", "park", 1)
+                .get(0);
+
+        // When
+        List<MessageSearchHit> next = messageRepository.searchAfter("bob",
+                "park", first.getRank(), first.getId(), 10);
+
+        // Then
+        assertEquals(1, next.size());
+        assertEquals("alice", next.get(0).getAuthorId());
+    }
+
+    /**
+     * Test the search only covers the caller's discussions.
+     */
+    @Test
+    @DisplayName("search should ignore discussions of other users")
+    void search_otherUser_shouldFindNothing() {
+        // When / Then
+        assertTrue(messageRepository.search("carol", "park", 10).isEmpty());
+    }
+
+    /**
+     * Save a message in the discussion.
+     *
+     * @param authorId the author
+     * @param content the content
+     */
+    private void save(final String authorId, final String content) {
+        Message message = new Message();
+        message.setDiscussion(discussion);
+        message.setAuthorId(authorId);
+        message.setContent(content);
+        messageRepository.save(message);
+    }
+}
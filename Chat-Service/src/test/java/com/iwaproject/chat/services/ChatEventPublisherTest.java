@@ -0,0 +1,150 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.chat.dto.ChatEventDTO;
+import com.iwaproject.chat.dto.ChatEventType;
+import com.iwaproject.chat.dto.MessageDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for ChatEventPublisher and ChatEventListener.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatEventPublisherTest {
+
+    /**
+     * Mock services.
+     */
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+    @Mock
+    private KafkaLogService kafkaLogService;
+    @Mock
+    private ChatEventStreamService chatEventStreamService;
+    @Mock
+    private PresenceService presenceService;
+
+    /**
+     * ObjectMapper with Java time support.
+     */
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().findAndRegisterModules();
+
+    /**
+     * Publisher under test.
+     */
+    private ChatEventPublisher chatEventPublisher;
+
+    /**
+     * Setup publisher.
+     */
+    @BeforeEach
+    void setUp() {
+        chatEventPublisher = new ChatEventPublisher(kafkaProducerService,
+                kafkaLogService, objectMapper);
+    }
+
+    /**
+     * Clear transaction synchronization.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test publish outside a transaction sends immediately.
+     */
+    @Test
+    @DisplayName("publish should send keyed by discussion outside a transaction")
+    void publish_shouldSendImmediately() {
+        // When
+        chatEventPublisher.publish(createEvent());
+
+        // Then
+        verify(kafkaProducerService).sendMessage(
+                eq(ChatEventPublisher.EVENTS_TOPIC), eq("7"), anyString());
+    }
+
+    /**
+     * Test publish inside a transaction waits for commit.
+     */
+    @Test
+    @DisplayName("publish should wait for commit inside a transaction")
+    void publish_shouldWaitForCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        chatEventPublisher.publish(createEvent());
+
+        // Then
+        verify(kafkaProducerService, never()).sendMessage(
+                anyString(), anyString(), any());
+        for (TransactionSynchronization sync
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        verify(kafkaProducerService).sendMessage(
+                eq(ChatEventPublisher.EVENTS_TOPIC), eq("7"), anyString());
+    }
+
+    /**
+     * Test a published event round-trips through the listener.
+     */
+    @Test
+    @DisplayName("listener should deliver the event it reads from Kafka")
+    void listener_shouldDeliverPublishedEvent() {
+        // Given
+        ChatEventListener listener = new ChatEventListener(
+                chatEventStreamService, presenceService, objectMapper);
+        chatEventPublisher.publish(createEvent());
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducerService).sendMessage(anyString(), anyString(),
+                payload.capture());
+
+        // When
+        listener.consumeChatEvent((String) payload.getValue());
+
+        // Then
+        ArgumentCaptor<ChatEventDTO> delivered =
+                ArgumentCaptor.forClass(ChatEventDTO.class);
+        verify(chatEventStreamService).deliver(delivered.capture());
+        assertEquals(ChatEventType.MESSAGE_CREATED,
+                delivered.getValue().getType());
+        assertEquals("hello", delivered.getValue().getMessage().getContent());
+    }
+
+    /**
+     * Create a test event.
+     *
+     * @return test event
+     */
+    private ChatEventDTO createEvent() {
+        MessageDTO message = new MessageDTO(1L, 7L, "alice", "hello",
+                LocalDateTime.now());
+        return new ChatEventDTO(ChatEventType.MESSAGE_CREATED, 7L,
+                List.of("alice", "bob"), message, null, null);
+    }
+}
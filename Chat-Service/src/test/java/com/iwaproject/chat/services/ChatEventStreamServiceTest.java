@@ -0,0 +1,88 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.ChatEventDTO;
+import com.iwaproject.chat.dto.ChatEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ChatEventStreamService.
+ */
+class ChatEventStreamServiceTest {
+
+    /**
+     * Service under test.
+     */
+    private ChatEventStreamService chatEventStreamService;
+
+    /**
+     * Setup service.
+     */
+    @BeforeEach
+    void setUp() {
+        chatEventStreamService = new ChatEventStreamService();
+    }
+
+    /**
+     * Test subscribe registers a connection.
+     */
+    @Test
+    @DisplayName("subscribe should register a connection per call")
+    void subscribe_shouldRegisterConnection() {
+        // When
+        SseEmitter first = chatEventStreamService.subscribe("alice");
+        chatEventStreamService.subscribe("alice");
+        chatEventStreamService.subscribe("bob");
+
+        // Then
+        assertNotNull(first);
+        assertTrue(chatEventStreamService.isConnected("alice"));
+        assertEquals(3, chatEventStreamService.getConnectionCount());
+    }
+
+    /**
+     * Test deliver to connected and disconnected participants.
+     */
+    @Test
+    @DisplayName("deliver should ignore participants not connected here")
+    void deliver_shouldIgnoreDisconnectedParticipants() {
+        // Given
+        chatEventStreamService.subscribe("alice");
+        ChatEventDTO event = new ChatEventDTO(ChatEventType.MESSAGE_CREATED,
+                1L, List.of("alice", "bob"), null, null, null);
+
+        // When
+        chatEventStreamService.deliver(event);
+
+        // Then
+        assertTrue(chatEventStreamService.isConnected("alice"));
+        assertFalse(chatEventStreamService.isConnected("bob"));
+    }
+
+    /**
+     * Test completed connections are dropped on next send.
+     */
+    @Test
+    @DisplayName("sendToUser should drop completed connections")
+    void sendToUser_shouldDropCompletedConnections() {
+        // Given
+        SseEmitter emitter = chatEventStreamService.subscribe("alice");
+        emitter.complete();
+
+        // When
+        chatEventStreamService.sendToUser("alice", "TEST", "payload");
+
+        // Then
+        assertFalse(chatEventStreamService.isConnected("alice"));
+        assertEquals(0, chatEventStreamService.getConnectionCount());
+    }
+}
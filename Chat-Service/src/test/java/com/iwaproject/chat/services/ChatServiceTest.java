@@ -1,6 +1,8 @@
 package com.iwaproject.chat.services;
 
+import com.iwaproject.chat.dto.ChatEventType;
 import com.iwaproject.chat.dto.DiscussionDTO;
+import com.iwaproject.chat.dto.MessageCursorPageDTO;
 import com.iwaproject.chat.dto.MessageDTO;
 import com.iwaproject.chat.entities.Discussion;
 import com.iwaproject.chat.entities.Message;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,15 +24,16 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,9 +51,20 @@ class ChatServiceTest {
     @Mock
     private MessageRepository messageRepository;
     @Mock
-    private KafkaConsumerService kafkaConsumerService;
+    private UserExistenceService userExistenceService;
     @Mock
     private KafkaLogService kafkaLogService;
+    @Mock
+    private ChatEventPublisher chatEventPublisher;
+    @Mock
+    private InboxService inboxService;
+    @Mock
+    private DiscussionCreationService discussionCreationService;
+    @Mock
+    private MessageBatchWriter messageBatchWriter;
+
+    @Mock
+    private MessageArchiveService messageArchiveService;
 
     /**
      * Service under test.
@@ -121,14 +136,12 @@ class ChatServiceTest {
     @DisplayName("createOrGetDiscussion should create new discussion when not exists")
     void createOrGetDiscussion_shouldCreateNewDiscussion() {
         // Given
-        CompletableFuture<String> future = CompletableFuture
-                .completedFuture("true");
-        when(kafkaConsumerService.checkUserExists(TEST_RECIPIENT_ID))
-                .thenReturn(future);
+        when(userExistenceService.userExists(TEST_RECIPIENT_ID))
+                .thenReturn(true);
         when(discussionRepository.findByAnnouncementIdAndParticipants(
                 TEST_ANNOUNCEMENT_ID, TEST_SENDER_ID, TEST_RECIPIENT_ID))
                 .thenReturn(Optional.empty());
-        when(discussionRepository.save(any(Discussion.class)))
+        when(discussionCreationService.insert(any(Discussion.class)))
                 .thenReturn(testDiscussion);
 
         // When
@@ -138,7 +151,34 @@ class ChatServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(TEST_DISCUSSION_ID, result.getId());
-        verify(discussionRepository).save(any(Discussion.class));
+        verify(discussionCreationService).insert(any(Discussion.class));
+        verify(inboxService).createEntries(testDiscussion);
+    }
+
+    /**
+     * Test createOrGetDiscussion when the discussion is created concurrently.
+     */
+    @Test
+    @DisplayName("createOrGetDiscussion should return the discussion created concurrently")
+    void createOrGetDiscussion_shouldReturnConcurrentlyCreatedDiscussion() {
+        // Given
+        when(userExistenceService.userExists(TEST_RECIPIENT_ID))
+                .thenReturn(true);
+        when(discussionRepository.findByAnnouncementIdAndParticipants(
+                TEST_ANNOUNCEMENT_ID, TEST_SENDER_ID, TEST_RECIPIENT_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(testDiscussion));
+        when(discussionCreationService.insert(any(Discussion.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // When
+        DiscussionDTO result = chatService.createOrGetDiscussion(
+                TEST_SENDER_ID, TEST_ANNOUNCEMENT_ID, TEST_RECIPIENT_ID);
+
+        // Then
+        assertEquals(TEST_DISCUSSION_ID, result.getId());
+        verify(inboxService, never()).createEntries(any());
+        verify(chatEventPublisher, never()).publish(any());
     }
 
     /**
@@ -148,10 +188,8 @@ class ChatServiceTest {
     @DisplayName("createOrGetDiscussion should return existing discussion")
     void createOrGetDiscussion_shouldReturnExistingDiscussion() {
         // Given
-        CompletableFuture<String> future = CompletableFuture
-                .completedFuture("true");
-        when(kafkaConsumerService.checkUserExists(TEST_RECIPIENT_ID))
-                .thenReturn(future);
+        when(userExistenceService.userExists(TEST_RECIPIENT_ID))
+                .thenReturn(true);
         when(discussionRepository.findByAnnouncementIdAndParticipants(
                 TEST_ANNOUNCEMENT_ID, TEST_SENDER_ID, TEST_RECIPIENT_ID))
                 .thenReturn(Optional.of(testDiscussion));
@@ -163,7 +201,7 @@ class ChatServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(TEST_DISCUSSION_ID, result.getId());
-        verify(discussionRepository, never()).save(any(Discussion.class));
+        verify(discussionCreationService, never()).insert(any(Discussion.class));
     }
 
     /**
@@ -173,10 +211,8 @@ class ChatServiceTest {
     @DisplayName("createOrGetDiscussion should throw when recipient does not exist")
     void createOrGetDiscussion_shouldThrowWhenRecipientNotFound() {
         // Given
-        CompletableFuture<String> future = CompletableFuture
-                .completedFuture("false");
-        when(kafkaConsumerService.checkUserExists(TEST_RECIPIENT_ID))
-                .thenReturn(future);
+        when(userExistenceService.userExists(TEST_RECIPIENT_ID))
+                .thenReturn(false);
 
         // When / Then
         assertThrows(IllegalArgumentException.class, () -> {
@@ -300,8 +336,8 @@ class ChatServiceTest {
         int page = 0;
         int limit = 10;
         Pageable pageable = PageRequest.of(page, limit);
-        Page<Message> messagePage = new PageImpl<>(
-                List.of(testMessage), pageable, 1);
+        Page<MessageDTO> messagePage = new PageImpl<>(
+                List.of(createMessageDTO(TEST_MESSAGE_ID)), pageable, 1);
 
         when(discussionRepository.isParticipant(
                 TEST_DISCUSSION_ID, TEST_SENDER_ID))
@@ -342,6 +378,125 @@ class ChatServiceTest {
                 any(), any(Pageable.class));
     }
 
+    /**
+     * Test getMessageHistory returns the latest messages oldest first.
+     */
+    @Test
+    @DisplayName("getMessageHistory should return latest messages oldest first")
+    void getMessageHistory_shouldReturnLatestMessages() {
+        // Given
+        when(discussionRepository.isParticipant(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID))
+                .thenReturn(true);
+        when(messageRepository.findLatestByDiscussionId(
+                TEST_DISCUSSION_ID, PageRequest.of(0, 3)))
+                .thenReturn(List.of(createMessageDTO(30L), createMessageDTO(20L),
+                        createMessageDTO(10L)));
+
+        // When
+        MessageCursorPageDTO result = chatService.getMessageHistory(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID, null, null, 2);
+
+        // Then
+        assertEquals(List.of(20L, 30L), result.getMessages().stream()
+                .map(MessageDTO::getId).toList());
+        assertTrue(result.isHasMore());
+        assertEquals(20L, result.getNextCursor());
+    }
+
+    /**
+     * Test getMessageHistory pages backwards from a cursor.
+     */
+    @Test
+    @DisplayName("getMessageHistory should page before a message ID")
+    void getMessageHistory_shouldPageBeforeCursor() {
+        // Given
+        when(discussionRepository.isParticipant(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID))
+                .thenReturn(true);
+        when(messageRepository.findByDiscussionIdAndIdBefore(
+                TEST_DISCUSSION_ID, 20L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(createMessageDTO(10L)));
+
+        // When
+        MessageCursorPageDTO result = chatService.getMessageHistory(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID, 20L, null, 2);
+
+        // Then
+        assertEquals(1, result.getMessages().size());
+        assertFalse(result.isHasMore());
+        assertEquals(10L, result.getNextCursor());
+    }
+
+    /**
+     * Test getMessageHistory pages forwards from a cursor.
+     */
+    @Test
+    @DisplayName("getMessageHistory should page after a message ID")
+    void getMessageHistory_shouldPageAfterCursor() {
+        // Given
+        when(discussionRepository.isParticipant(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID))
+                .thenReturn(true);
+        when(messageRepository.findByDiscussionIdAndIdAfter(
+                TEST_DISCUSSION_ID, 10L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(createMessageDTO(20L), createMessageDTO(30L),
+                        createMessageDTO(40L)));
+
+        // When
+        MessageCursorPageDTO result = chatService.getMessageHistory(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID, null, 10L, 2);
+
+        // Then
+        assertEquals(List.of(20L, 30L), result.getMessages().stream()
+                .map(MessageDTO::getId).toList());
+        assertTrue(result.isHasMore());
+        assertEquals(30L, result.getNextCursor());
+    }
+
+    /**
+     * Test getMessageHistory when user is not participant.
+     */
+    @Test
+    @DisplayName("getMessageHistory should throw when user is not participant")
+    void getMessageHistory_shouldThrowWhenNotParticipant() {
+        // Given
+        when(discussionRepository.isParticipant(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID))
+                .thenReturn(false);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () ->
+                chatService.getMessageHistory(TEST_DISCUSSION_ID,
+                        TEST_SENDER_ID, null, null, 20));
+        verify(messageRepository, never()).findLatestByDiscussionId(
+                any(), any(Pageable.class));
+    }
+
+    /**
+     * Test syncMessages returns nothing when the client is up to date.
+     */
+    @Test
+    @DisplayName("syncMessages should keep the cursor when nothing was missed")
+    void syncMessages_shouldKeepCursorWhenUpToDate() {
+        // Given
+        when(discussionRepository.isParticipant(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID))
+                .thenReturn(true);
+        when(messageRepository.findByDiscussionIdAndIdAfter(
+                any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        MessageCursorPageDTO result = chatService.syncMessages(
+                TEST_DISCUSSION_ID, TEST_SENDER_ID, TEST_MESSAGE_ID);
+
+        // Then
+        assertTrue(result.getMessages().isEmpty());
+        assertFalse(result.isHasMore());
+        assertEquals(TEST_MESSAGE_ID, result.getNextCursor());
+    }
+
     /**
      * Test createMessage creates new message.
      */
@@ -352,10 +507,8 @@ class ChatServiceTest {
         String content = "Hello, test message";
         when(discussionRepository.findById(TEST_DISCUSSION_ID))
                 .thenReturn(Optional.of(testDiscussion));
-        when(messageRepository.save(any(Message.class)))
+        when(messageBatchWriter.write(any(Message.class)))
                 .thenReturn(testMessage);
-        when(discussionRepository.save(any(Discussion.class)))
-                .thenReturn(testDiscussion);
 
         // When
         MessageDTO result = chatService.createMessage(
@@ -364,8 +517,14 @@ class ChatServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(TEST_MESSAGE_ID, result.getId());
-        verify(messageRepository).save(any(Message.class));
-        verify(discussionRepository).save(any(Discussion.class));
+        verify(messageBatchWriter).write(argThat(message ->
+                message.getDiscussion() == testDiscussion
+                && content.equals(message.getContent())));
+        verify(discussionRepository, never()).save(any(Discussion.class));
+        verify(chatEventPublisher).publish(argThat(event ->
+                event.getType() == ChatEventType.MESSAGE_CREATED
+                && event.getParticipants().contains(TEST_RECIPIENT_ID)
+                && TEST_MESSAGE_ID.equals(event.getMessage().getId())));
     }
 
     /**
@@ -382,9 +541,9 @@ class ChatServiceTest {
         when(discussionRepository.findByAnnouncementIdAndParticipants(
                 TEST_ANNOUNCEMENT_ID, TEST_SENDER_ID, TEST_RECIPIENT_ID))
                 .thenReturn(Optional.empty());
-        when(discussionRepository.save(any(Discussion.class)))
+        when(discussionCreationService.insert(any(Discussion.class)))
                 .thenReturn(testDiscussion);
-        when(messageRepository.save(any(Message.class)))
+        when(messageBatchWriter.write(any(Message.class)))
                 .thenReturn(testMessage);
 
         // When
@@ -395,9 +554,8 @@ class ChatServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(TEST_MESSAGE_ID, result.getId());
-        // Discussion is saved twice: once when created, once when updatedAt is set
-        verify(discussionRepository, times(2)).save(any(Discussion.class));
-        verify(messageRepository).save(any(Message.class));
+        verify(discussionCreationService).insert(any(Discussion.class));
+        verify(messageBatchWriter).write(any(Message.class));
     }
 
     /**
@@ -419,29 +577,33 @@ class ChatServiceTest {
             chatService.createMessage(
                     TEST_DISCUSSION_ID, TEST_SENDER_ID, content, null, null);
         });
-        verify(messageRepository, never()).save(any(Message.class));
+        verify(messageBatchWriter, never()).write(any(Message.class));
     }
 
     /**
      * Test deleteDiscussion deletes discussion successfully.
      */
     @Test
-    @DisplayName("deleteDiscussion should delete discussion successfully")
+    @DisplayName("deleteDiscussion should mark discussion as deleted")
     void deleteDiscussion_shouldDeleteSuccessfully() {
         // Given
         when(discussionRepository.findById(TEST_DISCUSSION_ID))
                 .thenReturn(Optional.of(testDiscussion));
-        willDoNothing().given(messageRepository)
-                .deleteByDiscussionId(TEST_DISCUSSION_ID);
-        willDoNothing().given(discussionRepository)
-                .delete(testDiscussion);
+        when(discussionRepository.markDeleted(eq(TEST_DISCUSSION_ID),
+                any(LocalDateTime.class))).thenReturn(1);
 
         // When
         chatService.deleteDiscussion(TEST_DISCUSSION_ID, TEST_SENDER_ID);
 
         // Then
-        verify(messageRepository).deleteByDiscussionId(TEST_DISCUSSION_ID);
-        verify(discussionRepository).delete(testDiscussion);
+        verify(discussionRepository).markDeleted(eq(TEST_DISCUSSION_ID),
+                any(LocalDateTime.class));
+        verify(inboxService).removeDiscussion(TEST_DISCUSSION_ID);
+        // Messages are left to the background purge
+        verify(messageRepository, never()).deleteByDiscussionId(any());
+        verify(discussionRepository, never()).delete(any());
+        verify(chatEventPublisher).publish(argThat(event ->
+                event.getType() == ChatEventType.DISCUSSION_DELETED));
     }
 
     /**
@@ -458,8 +620,7 @@ class ChatServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             chatService.deleteDiscussion(TEST_DISCUSSION_ID, TEST_SENDER_ID);
         });
-        verify(messageRepository, never()).deleteByDiscussionId(any());
-        verify(discussionRepository, never()).delete(any());
+        verify(discussionRepository, never()).markDeleted(any(), any());
     }
 
     /**
@@ -477,8 +638,7 @@ class ChatServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             chatService.deleteDiscussion(TEST_DISCUSSION_ID, otherUserId);
         });
-        verify(messageRepository, never()).deleteByDiscussionId(any());
-        verify(discussionRepository, never()).delete(any());
+        verify(discussionRepository, never()).markDeleted(any(), any());
     }
 
     /**
@@ -511,5 +671,16 @@ class ChatServiceTest {
         message.setCreatedAt(LocalDateTime.now());
         return message;
     }
+
+    /**
+     * Create a message projection with a given ID.
+     *
+     * @param id the message ID
+     * @return message DTO
+     */
+    private MessageDTO createMessageDTO(final Long id) {
+        return new MessageDTO(id, TEST_DISCUSSION_ID, TEST_SENDER_ID,
+                "Test message content", LocalDateTime.now());
+    }
 }
 
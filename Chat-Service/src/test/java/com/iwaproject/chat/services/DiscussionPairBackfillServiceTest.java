@@ -0,0 +1,157 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for DiscussionPairBackfillService, against the real schema so
+ * the unique participant pair index is enforced.
+ */
+@DataJpaTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DiscussionPairBackfillServiceTest {
+
+    /**
+     * Repositories and JDBC access.
+     */
+    @Autowired
+    private DiscussionRepository discussionRepository;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Mock collaborators.
+     */
+    private final MessageArchiveService messageArchiveService =
+            mock(MessageArchiveService.class);
+    private final InboxService inboxService = mock(InboxService.class);
+
+    /**
+     * Service under test.
+     */
+    private DiscussionPairBackfillService backfillService;
+
+    /**
+     * Setup service.
+     */
+    @BeforeEach
+    void setUp() {
+        backfillService = new DiscussionPairBackfillService(
+                discussionRepository, messageRepository,
+                messageArchiveService, inboxService, transactionManager);
+    }
+
+    /**
+     * Test two discussions created for the same pair by the old race
+     * are merged into the oldest one.
+     */
+    @Test
+    @DisplayName("backfillParticipantPairs should merge duplicates into the oldest discussion")
+    void backfillParticipantPairs_duplicates_shouldMergeIntoOldest() {
+        // Given
+        long oldest = legacyDiscussion("alice", "bob");
+        long duplicate = legacyDiscussion("bob", "alice");
+        long other = legacyDiscussion("alice", "carol");
+        legacyMessage(oldest, "alice", "hello");
+        legacyMessage(duplicate, "bob", "hello too");
+        legacyMessage(duplicate, "bob", "still there?");
+
+        // When
+        backfillService.backfillParticipantPairs();
+
+        // Then
+        Discussion kept = discussionRepository.findById(oldest).orElseThrow();
+        assertEquals("alice", kept.getParticipantLow());
+        assertEquals("bob", kept.getParticipantHigh());
+        assertTrue(discussionRepository.findById(duplicate).isEmpty());
+        assertEquals(3, messageRepository.findAllByDiscussionId(oldest).size());
+        assertTrue(messageRepository.findAllByDiscussionId(duplicate)
+                .isEmpty());
+        assertEquals("carol", discussionRepository.findById(other)
+                .orElseThrow().getParticipantHigh());
+        verify(inboxService).removeDiscussion(duplicate);
+        verify(inboxService).removeDiscussion(oldest);
+        verify(messageArchiveService).restoreIfArchived(duplicate);
+    }
+
+    /**
+     * Test a legacy duplicate of a discussion created since the pair
+     * existed is merged too, the oldest one keeping the pair.
+     */
+    @Test
+    @DisplayName("backfillParticipantPairs should take the pair over from a newer discussion")
+    void backfillParticipantPairs_newerHolder_shouldMoveItsMessages() {
+        // Given
+        long legacy = legacyDiscussion("alice", "bob");
+        Discussion recent = new Discussion();
+        recent.setAnnouncementId(1L);
+        recent.setSenderId("bob");
+        recent.setRecipientId("alice");
+        recent = discussionRepository.saveAndFlush(recent);
+        legacyMessage(recent.getId(), "bob", "new message");
+
+        // When
+        backfillService.backfillParticipantPairs();
+
+        // Then
+        assertTrue(discussionRepository.findById(recent.getId()).isEmpty());
+        assertEquals(legacy, discussionRepository
+                .findByAnnouncementIdAndParticipants(1L, "alice", "bob")
+                .orElseThrow().getId());
+        assertEquals(1, messageRepository.findAllByDiscussionId(legacy).size());
+    }
+
+    /**
+     * Insert a discussion as stored before the participant pair existed.
+     *
+     * @param senderId the sender ID
+     * @param recipientId the recipient ID
+     * @return discussion ID
+     */
+    private long legacyDiscussion(final String senderId,
+            final String recipientId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO discussions (annonce_id, "
+                + "expediteur_id, destinataire_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?)", 1L, senderId, recipientId, now,
+                now);
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM discussions", Long.class);
+    }
+
+    /**
+     * Insert a message.
+     *
+     * @param discussionId the discussion ID
+     * @param authorId the author ID
+     * @param content the content
+     */
+    private void legacyMessage(final long discussionId, final String authorId,
+            final String content) {
+        jdbcTemplate.update("INSERT INTO messages (id, discussion_id, "
+                + "auteur_id, contenu, created_at) VALUES "
+                + "(NEXT VALUE FOR messages_seq, ?, ?, ?, ?)", discussionId,
+                authorId, content, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,179 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for DiscussionPurgeService.
+ */
+@ExtendWith(MockitoExtension.class)
+class DiscussionPurgeServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private DiscussionRepository discussionRepository;
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private KafkaLogService kafkaLogService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Service under test.
+     */
+    private DiscussionPurgeService discussionPurgeService;
+
+    /**
+     * Test constants.
+     */
+    private static final Long DISCUSSION_ID = 1L;
+    private static final Long NEXT_DISCUSSION_ID = 2L;
+    private static final int CHUNK_SIZE = 100;
+
+    /**
+     * Setup service.
+     */
+    @BeforeEach
+    void setUp() {
+        discussionPurgeService = new DiscussionPurgeService(
+                discussionRepository, messageRepository, kafkaLogService,
+                transactionManager, CHUNK_SIZE);
+    }
+
+    /**
+     * Test a full chunk leaves the discussion for the next run.
+     */
+    @Test
+    @DisplayName("purgeNextChunk should keep the discussion after a full chunk")
+    void purgeNextChunk_fullChunk_shouldKeepDiscussion() {
+        // Given
+        when(discussionRepository.findNextDeletedId())
+                .thenReturn(Optional.of(DISCUSSION_ID));
+        when(messageRepository.deleteChunkByDiscussionId(DISCUSSION_ID,
+                CHUNK_SIZE)).thenReturn(CHUNK_SIZE);
+
+        // When
+        discussionPurgeService.purgeNextChunk();
+
+        // Then
+        verify(discussionRepository, never()).deleteIfPurged(anyLong());
+        assertEquals(CHUNK_SIZE, discussionPurgeService.getPurgedMessages());
+        assertEquals(0, discussionPurgeService.getPurgedDiscussions());
+    }
+
+    /**
+     * Test the last chunk removes the discussion.
+     */
+    @Test
+    @DisplayName("purgeNextChunk should remove the discussion after the last chunk")
+    void purgeNextChunk_lastChunk_shouldRemoveDiscussion() {
+        // Given
+        when(discussionRepository.findNextDeletedId())
+                .thenReturn(Optional.of(DISCUSSION_ID));
+        when(messageRepository.deleteChunkByDiscussionId(DISCUSSION_ID,
+                CHUNK_SIZE)).thenReturn(7);
+        when(discussionRepository.deleteIfPurged(DISCUSSION_ID)).thenReturn(1);
+
+        // When
+        discussionPurgeService.purgeNextChunk();
+
+        // Then
+        assertEquals(7, discussionPurgeService.getPurgedMessages());
+        assertEquals(1, discussionPurgeService.getPurgedDiscussions());
+    }
+
+    /**
+     * Test nothing happens when no discussion is waiting.
+     */
+    @Test
+    @DisplayName("purgeNextChunk should do nothing without deleted discussions")
+    void purgeNextChunk_nothingPending_shouldDoNothing() {
+        // Given
+        when(discussionRepository.findNextDeletedId())
+                .thenReturn(Optional.empty());
+
+        // When
+        discussionPurgeService.purgeNextChunk();
+
+        // Then
+        verify(messageRepository, never())
+                .deleteChunkByDiscussionId(anyLong(), anyInt());
+    }
+
+    /**
+     * Test a failing discussion is set aside so later ones get purged.
+     */
+    @Test
+    @DisplayName("purgeNextChunk should skip a discussion whose purge failed")
+    void purgeNextChunk_failure_shouldSkipDiscussion() {
+        // Given
+        when(discussionRepository.findNextDeletedId())
+                .thenReturn(Optional.of(DISCUSSION_ID));
+        when(discussionRepository.findNextDeletedIdExcept(
+                List.of(DISCUSSION_ID)))
+                .thenReturn(Optional.of(NEXT_DISCUSSION_ID));
+        when(messageRepository.deleteChunkByDiscussionId(DISCUSSION_ID,
+                CHUNK_SIZE)).thenThrow(new IllegalStateException("locked"));
+        when(messageRepository.deleteChunkByDiscussionId(NEXT_DISCUSSION_ID,
+                CHUNK_SIZE)).thenReturn(CHUNK_SIZE);
+
+        // When
+        discussionPurgeService.purgeNextChunk();
+        discussionPurgeService.purgeNextChunk();
+
+        // Then
+        verify(messageRepository, times(1))
+                .deleteChunkByDiscussionId(DISCUSSION_ID, CHUNK_SIZE);
+        assertEquals(CHUNK_SIZE, discussionPurgeService.getPurgedMessages());
+        assertEquals(1, discussionPurgeService.getFailedAttempts());
+        assertEquals(1, discussionPurgeService.getFailingDiscussions());
+    }
+
+    /**
+     * Test the retry delay doubles with each failure, up to a cap.
+     */
+    @Test
+    @DisplayName("PurgeFailure should back off exponentially up to a cap")
+    void purgeFailure_shouldBackOff() {
+        // Given
+        Instant now = Instant.now();
+
+        // When
+        DiscussionPurgeService.PurgeFailure first =
+                DiscussionPurgeService.PurgeFailure.first(now);
+        DiscussionPurgeService.PurgeFailure second = first.next(now);
+        DiscussionPurgeService.PurgeFailure capped = second;
+        for (int i = 0; i < 10; i++) {
+            capped = capped.next(now);
+        }
+
+        // Then
+        assertEquals(now.plus(Duration.ofMinutes(1)), first.retryAt());
+        assertEquals(now.plus(Duration.ofMinutes(2)), second.retryAt());
+        assertEquals(12, capped.attempts());
+        assertEquals(now.plus(Duration.ofHours(1)), capped.retryAt());
+    }
+}
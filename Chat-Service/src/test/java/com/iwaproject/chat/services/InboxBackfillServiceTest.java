@@ -0,0 +1,141 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.DiscussionUnreadCount;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for InboxBackfillService.
+ */
+@ExtendWith(MockitoExtension.class)
+class InboxBackfillServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private DiscussionRepository discussionRepository;
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private InboxService inboxService;
+
+    /**
+     * Service under test.
+     */
+    @InjectMocks
+    private InboxBackfillService inboxBackfillService;
+
+    /**
+     * Test entries are restored from the last message and unread run.
+     */
+    @Test
+    @DisplayName("backfillInboxEntries should restore entries from messages")
+    void backfillInboxEntries_shouldRestoreFromMessages() {
+        // Given
+        Discussion withMessages = discussion(1L);
+        Discussion empty = discussion(2L);
+        MessageDTO last = new MessageDTO(10L, 1L, "bob", "hi",
+                LocalDateTime.now());
+        when(discussionRepository.findWithoutInboxEntries(any(Pageable.class)))
+                .thenReturn(List.of(withMessages, empty));
+        when(messageRepository.findLastByDiscussionIds(List.of(1L, 2L)))
+                .thenReturn(List.of(last));
+        when(messageRepository.countUnreadByDiscussionIds(List.of(1L, 2L)))
+                .thenReturn(List.of(unread(1L, 2L)));
+
+        // When
+        inboxBackfillService.backfillInboxEntries();
+
+        // Then
+        verify(inboxService).restoreEntries(withMessages, last, 2);
+        verify(inboxService).restoreEntries(empty, null, 0);
+    }
+
+    /**
+     * Test the backfill stops when a full batch cannot be restored.
+     */
+    @Test
+    @DisplayName("backfillInboxEntries should stop when a batch makes no progress")
+    void backfillInboxEntries_noProgress_shouldStop() {
+        // Given
+        List<Discussion> batch = new ArrayList<>();
+        LongStream.rangeClosed(1, 500).forEach(id -> batch.add(discussion(id)));
+        when(discussionRepository.findWithoutInboxEntries(any(Pageable.class)))
+                .thenReturn(batch);
+        doThrow(new DataIntegrityViolationException("duplicate"))
+                .when(inboxService).restoreEntries(any(), isNull(), anyInt());
+
+        // When
+        inboxBackfillService.backfillInboxEntries();
+
+        // Then
+        verify(discussionRepository, times(1))
+                .findWithoutInboxEntries(any(Pageable.class));
+    }
+
+    /**
+     * Create a discussion between alice and bob.
+     *
+     * @param id the discussion ID
+     * @return discussion
+     */
+    private Discussion discussion(final long id) {
+        Discussion discussion = new Discussion();
+        discussion.setId(id);
+        discussion.setAnnouncementId(1L);
+        discussion.setSenderId("alice");
+        discussion.setRecipientId("bob");
+        return discussion;
+    }
+
+    /**
+     * Create an unread count projection.
+     *
+     * @param discussionId the discussion ID
+     * @param count number of unread messages
+     * @return projection
+     */
+    private DiscussionUnreadCount unread(final Long discussionId,
+            final long count) {
+        return new DiscussionUnreadCount() {
+            @Override
+            public Long getDiscussionId() {
+                return discussionId;
+            }
+
+            @Override
+            public String getAuthorId() {
+                return "bob";
+            }
+
+            @Override
+            public Long getUnreadCount() {
+                return count;
+            }
+        };
+    }
+}
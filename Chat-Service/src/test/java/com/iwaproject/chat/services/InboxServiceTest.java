@@ -0,0 +1,249 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.InboxEntry;
+import com.iwaproject.chat.entities.Message;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.InboxEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for InboxService.
+ */
+@ExtendWith(MockitoExtension.class)
+class InboxServiceTest {
+
+    /**
+     * Mock repositories.
+     */
+    @Mock
+    private InboxEntryRepository inboxEntryRepository;
+    @Mock
+    private DiscussionRepository discussionRepository;
+
+    /**
+     * Service under test.
+     */
+    @InjectMocks
+    private InboxService inboxService;
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_SENDER_ID = "sender-123";
+    private static final String TEST_RECIPIENT_ID = "recipient-456";
+    private static final Long TEST_DISCUSSION_ID = 100L;
+
+    /**
+     * Test discussion.
+     */
+    private Discussion testDiscussion;
+
+    /**
+     * Test message.
+     */
+    private Message testMessage;
+
+    /**
+     * Setup test data.
+     */
+    @BeforeEach
+    void setUp() {
+        testDiscussion = new Discussion();
+        testDiscussion.setId(TEST_DISCUSSION_ID);
+        testDiscussion.setAnnouncementId(1L);
+        testDiscussion.setSenderId(TEST_SENDER_ID);
+        testDiscussion.setRecipientId(TEST_RECIPIENT_ID);
+
+        testMessage = new Message();
+        testMessage.setId(200L);
+        testMessage.setDiscussion(testDiscussion);
+        testMessage.setAuthorId(TEST_SENDER_ID);
+        testMessage.setContent("Hello\n  there");
+        testMessage.setCreatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Test recordMessages updates existing entries with one statement.
+     */
+    @Test
+    @DisplayName("recordMessages should update counters and preview at once")
+    void recordMessages_shouldUpdateCountersAndPreview() {
+        // Given
+        Message reply = message(201L, TEST_RECIPIENT_ID, "Hi");
+        Message last = message(202L, TEST_RECIPIENT_ID, "How are you?");
+        when(inboxEntryRepository.recordMessages(TEST_DISCUSSION_ID, 202L,
+                TEST_RECIPIENT_ID, "How are you?", last.getCreatedAt(), 2,
+                true)).thenReturn(2);
+
+        // When
+        inboxService.recordMessages(testDiscussion,
+                List.of(testMessage, reply, last));
+
+        // Then
+        verify(inboxEntryRepository, times(1)).recordMessages(any(), any(),
+                any(), any(), any(), anyInt(), anyBoolean());
+        verify(inboxEntryRepository, never()).save(any(InboxEntry.class));
+    }
+
+    /**
+     * Test messages of a single author add to the unread count.
+     */
+    @Test
+    @DisplayName("recordMessages should add messages of one author to the unread count")
+    void recordMessages_singleAuthor_shouldAddToUnread() {
+        // Given
+        Message next = message(201L, TEST_SENDER_ID, "Anyone?");
+        when(inboxEntryRepository.recordMessages(TEST_DISCUSSION_ID, 201L,
+                TEST_SENDER_ID, "Anyone?", next.getCreatedAt(), 2, false))
+                .thenReturn(2);
+
+        // When
+        inboxService.recordMessages(testDiscussion,
+                List.of(testMessage, next));
+
+        // Then
+        verify(inboxEntryRepository, never()).findByDiscussionId(any());
+    }
+
+    /**
+     * Test recordMessages backfills entries of older discussions.
+     */
+    @Test
+    @DisplayName("recordMessages should create entries missing for a discussion")
+    void recordMessages_shouldCreateMissingEntries() {
+        // Given
+        when(inboxEntryRepository.recordMessages(any(), any(), any(), any(),
+                any(), anyInt(), anyBoolean())).thenReturn(0);
+        when(inboxEntryRepository.findByDiscussionId(TEST_DISCUSSION_ID))
+                .thenReturn(List.of());
+
+        // When
+        inboxService.recordMessages(testDiscussion, List.of(testMessage));
+
+        // Then
+        verify(inboxEntryRepository).save(argThat(e ->
+                e.getUserId().equals(TEST_SENDER_ID)
+                        && e.getUnreadCount() == 0));
+        verify(inboxEntryRepository).save(argThat(e ->
+                e.getUserId().equals(TEST_RECIPIENT_ID)
+                        && e.getCounterpartId().equals(TEST_SENDER_ID)
+                        && e.getUnreadCount() == 1
+                        && e.getLastMessageId().equals(200L)));
+    }
+
+    /**
+     * Test restoreEntries rebuilds both entries from the last message.
+     */
+    @Test
+    @DisplayName("restoreEntries should give the unread count to the reader only")
+    void restoreEntries_shouldPreviewLastMessage() {
+        // Given
+        MessageDTO last = new MessageDTO(200L, TEST_DISCUSSION_ID,
+                TEST_SENDER_ID, "Hello\n  there", LocalDateTime.now());
+
+        // When
+        inboxService.restoreEntries(testDiscussion, last, 3);
+
+        // Then
+        verify(inboxEntryRepository).saveAll(argThat(entries -> {
+            List<InboxEntry> list = (List<InboxEntry>) entries;
+            return list.size() == 2
+                    && list.get(0).getUserId().equals(TEST_SENDER_ID)
+                    && list.get(0).getUnreadCount() == 0
+                    && list.get(1).getUnreadCount() == 3
+                    && list.get(1).getLastMessageId() == 200L
+                    && list.get(1).getLastMessageSnippet()
+                            .equals("Hello there");
+        }));
+    }
+
+    /**
+     * Test markAsRead rejects non participants.
+     */
+    @Test
+    @DisplayName("markAsRead should throw when user is not participant")
+    void markAsRead_shouldThrowWhenNotParticipant() {
+        // Given
+        when(inboxEntryRepository.markAsRead(TEST_DISCUSSION_ID, "intruder"))
+                .thenReturn(0);
+        when(discussionRepository.isParticipant(TEST_DISCUSSION_ID,
+                "intruder")).thenReturn(false);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () ->
+                inboxService.markAsRead(TEST_DISCUSSION_ID, "intruder"));
+    }
+
+    /**
+     * Test markAsRead does not look up the discussion when an entry exists.
+     */
+    @Test
+    @DisplayName("markAsRead should reset the entry of a participant")
+    void markAsRead_shouldResetEntry() {
+        // Given
+        when(inboxEntryRepository.markAsRead(TEST_DISCUSSION_ID,
+                TEST_RECIPIENT_ID)).thenReturn(1);
+
+        // When / Then
+        assertDoesNotThrow(() ->
+                inboxService.markAsRead(TEST_DISCUSSION_ID, TEST_RECIPIENT_ID));
+        verify(discussionRepository, never()).isParticipant(any(), any());
+    }
+
+    /**
+     * Test long contents are truncated in snippets.
+     */
+    @Test
+    @DisplayName("toSnippet should truncate long messages")
+    void toSnippet_shouldTruncateLongMessages() {
+        // When
+        String snippet = InboxService.toSnippet("a".repeat(500));
+
+        // Then
+        assertEquals(InboxEntry.MAX_SNIPPET_LENGTH, snippet.length());
+        assertTrue(snippet.endsWith("…"));
+    }
+
+    /**
+     * Create a message of the test discussion.
+     *
+     * @param id the message ID
+     * @param authorId the author ID
+     * @param content the content
+     * @return message
+     */
+    private Message message(final Long id, final String authorId,
+            final String content) {
+        Message message = new Message();
+        message.setId(id);
+        message.setDiscussion(testDiscussion);
+        message.setAuthorId(authorId);
+        message.setContent(content);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+}
@@ -0,0 +1,210 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.DiscussionArchive;
+import com.iwaproject.chat.repositories.DiscussionArchiveRepository;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for MessageArchiveService.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageArchiveServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private DiscussionRepository discussionRepository;
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private DiscussionArchiveRepository discussionArchiveRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private KafkaLogService kafkaLogService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Service under test.
+     */
+    private MessageArchiveService messageArchiveService;
+
+    /**
+     * Test constants.
+     */
+    private static final Long DISCUSSION_ID = 1L;
+    private static final LocalDateTime IDLE_SINCE =
+            LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /**
+     * Setup service.
+     */
+    @BeforeEach
+    void setUp() {
+        messageArchiveService = new MessageArchiveService(discussionRepository,
+                messageRepository, discussionArchiveRepository, jdbcTemplate,
+                new ObjectMapper().findAndRegisterModules(), kafkaLogService,
+                transactionManager, 180);
+    }
+
+    /**
+     * Test compressed payloads round-trip.
+     */
+    @Test
+    @DisplayName("compress and decompress should round-trip messages")
+    void compress_shouldRoundTrip() {
+        // Given
+        List<MessageDTO> messages = List.of(
+                new MessageDTO(1L, null, "alice", "Hello", IDLE_SINCE),
+                new MessageDTO(2L, null, "bob", "Hi", IDLE_SINCE.plusMinutes(1)));
+
+        // When
+        List<MessageDTO> restored = messageArchiveService.decompress(
+                messageArchiveService.compress(messages));
+
+        // Then
+        assertEquals(messages, restored);
+    }
+
+    /**
+     * Test an idle discussion is archived and its messages deleted.
+     */
+    @Test
+    @DisplayName("archive should store messages and delete them from the table")
+    void archive_idleDiscussion_shouldArchive() {
+        // Given
+        Discussion discussion = discussion(IDLE_SINCE.minusDays(1));
+        when(discussionRepository.findForUpdate(DISCUSSION_ID))
+                .thenReturn(Optional.of(discussion));
+        when(messageRepository.findAllByDiscussionId(DISCUSSION_ID))
+                .thenReturn(List.of(message(10L), message(11L)));
+
+        // When
+        boolean archived = messageArchiveService.archive(
+                DISCUSSION_ID, IDLE_SINCE);
+
+        // Then
+        assertTrue(archived);
+        ArgumentCaptor<DiscussionArchive> captor =
+                ArgumentCaptor.forClass(DiscussionArchive.class);
+        verify(discussionArchiveRepository).save(captor.capture());
+        assertEquals(2, captor.getValue().getMessageCount());
+        assertEquals(2, messageArchiveService.decompress(
+                captor.getValue().getPayload()).size());
+        verify(messageRepository).deleteByDiscussionId(DISCUSSION_ID);
+    }
+
+    /**
+     * Test a discussion updated since selection is left alone.
+     */
+    @Test
+    @DisplayName("archive should skip a discussion that became active")
+    void archive_activeDiscussion_shouldSkip() {
+        // Given
+        when(discussionRepository.findForUpdate(DISCUSSION_ID))
+                .thenReturn(Optional.of(discussion(IDLE_SINCE.plusDays(1))));
+
+        // When
+        boolean archived = messageArchiveService.archive(
+                DISCUSSION_ID, IDLE_SINCE);
+
+        // Then
+        assertFalse(archived);
+        verify(discussionArchiveRepository, never()).save(any());
+        verify(messageRepository, never()).deleteByDiscussionId(anyLong());
+    }
+
+    /**
+     * Test reading a live discussion costs a single lookup.
+     */
+    @Test
+    @DisplayName("restoreIfArchived should do nothing when not archived")
+    void restoreIfArchived_notArchived_shouldDoNothing() {
+        // Given
+        when(discussionArchiveRepository.existsById(DISCUSSION_ID))
+                .thenReturn(false);
+
+        // When
+        messageArchiveService.restoreIfArchived(DISCUSSION_ID);
+
+        // Then
+        verifyNoInteractions(transactionManager, jdbcTemplate);
+    }
+
+    /**
+     * Test an archive is restored then removed.
+     */
+    @Test
+    @DisplayName("restoreIfArchived should reinsert messages and drop the archive")
+    void restoreIfArchived_archived_shouldRestore() {
+        // Given
+        DiscussionArchive archive = new DiscussionArchive(DISCUSSION_ID, 1,
+                IDLE_SINCE, messageArchiveService.compress(List.of(
+                        new MessageDTO(10L, null, "alice", "Hello", IDLE_SINCE))));
+        when(discussionArchiveRepository.existsById(DISCUSSION_ID))
+                .thenReturn(true);
+        when(discussionArchiveRepository.findForUpdate(DISCUSSION_ID))
+                .thenReturn(Optional.of(archive));
+
+        // When
+        messageArchiveService.restoreIfArchived(DISCUSSION_ID);
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(any(String.class), any(List.class),
+                any(Integer.class), any());
+        verify(discussionArchiveRepository).delete(archive);
+    }
+
+    /**
+     * Build a discussion.
+     *
+     * @param updatedAt last update date
+     * @return discussion
+     */
+    private Discussion discussion(final LocalDateTime updatedAt) {
+        Discussion discussion = new Discussion();
+        discussion.setId(DISCUSSION_ID);
+        discussion.setUpdatedAt(updatedAt);
+        return discussion;
+    }
+
+    /**
+     * Build a message.
+     *
+     * @param id message ID
+     * @return message
+     */
+    private MessageDTO message(final Long id) {
+        return new MessageDTO(id, DISCUSSION_ID, "alice", "Hello " + id,
+                IDLE_SINCE.minusDays(2));
+    }
+}
@@ -0,0 +1,353 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.entities.Message;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for MessageBatchWriter.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageBatchWriterTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private DiscussionRepository discussionRepository;
+    @Mock
+    private InboxService inboxService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Writer under test.
+     */
+    private MessageBatchWriter messageBatchWriter;
+
+    /**
+     * Write timeout shorter than a slow batch.
+     */
+    private static final Duration SHORT_TIMEOUT = Duration.ofMillis(200);
+    private static final long SLOW_BATCH_MILLIS = 300;
+    private static final long STUCK_BATCH_MILLIS = 1000;
+
+    /**
+     * Sequence used to assign message IDs.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Setup writer.
+     */
+    @BeforeEach
+    void setUp() {
+        messageBatchWriter = new MessageBatchWriter(messageRepository,
+                discussionRepository, inboxService, jdbcTemplate,
+                transactionManager);
+    }
+
+    /**
+     * Stop the writer thread.
+     */
+    @AfterEach
+    void tearDown() {
+        messageBatchWriter.stop();
+    }
+
+    /**
+     * Test a batch is written with one insert and one discussion update.
+     */
+    @Test
+    @DisplayName("flush should write a batch with one discussion update")
+    void flush_shouldWriteBatchOnce() {
+        // Given
+        stubSequence();
+        Discussion discussion = discussion(1L);
+        List<MessageBatchWriter.PendingMessage> batch = List.of(
+                pending(discussion), pending(discussion),
+                pending(discussion(2L)));
+
+        // When
+        messageBatchWriter.flush(batch);
+
+        // Then
+        verify(discussionRepository, times(1)).lockForWrite(Set.of(1L, 2L));
+        verify(messageRepository, times(1)).nextIds(3);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(),
+                eq(3), any());
+        verify(discussionRepository, times(1)).touchUpdatedAt(
+                eq(Set.of(1L, 2L)), any(LocalDateTime.class));
+        verify(inboxService).recordMessages(eq(discussion),
+                argThat(written -> written.size() == 2));
+        verify(inboxService, times(2)).recordMessages(any(), any());
+        assertEquals(1L, batch.get(0).result().join().getId());
+        assertEquals(2L, batch.get(1).result().join().getId());
+        assertEquals(3L, batch.get(2).result().join().getId());
+    }
+
+    /**
+     * Test a failing batch is retried message by message.
+     */
+    @Test
+    @DisplayName("flush should isolate the failing message of a batch")
+    void flush_shouldIsolateFailingMessage() {
+        // Given
+        Discussion discussion = discussion(1L);
+        MessageBatchWriter.PendingMessage good = pending(discussion);
+        MessageBatchWriter.PendingMessage bad = pending(discussion);
+        stubSequence();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any())).thenAnswer(invocation -> {
+                    List<Message> messages = invocation.getArgument(1);
+                    if (messages.contains(bad.message())) {
+                        throw new IllegalStateException("constraint violation");
+                    }
+                    return new int[0][];
+                });
+
+        // When
+        messageBatchWriter.flush(List.of(good, bad));
+
+        // Then
+        assertSame(good.message(), good.result().join());
+        assertTrue(bad.result().isCompletedExceptionally());
+        verify(inboxService).recordMessages(eq(discussion),
+                argThat(written -> written.equals(List.of(good.message()))));
+    }
+
+    /**
+     * Test concurrent callers each get their own persisted message.
+     */
+    @Test
+    @DisplayName("write should return each caller its persisted message")
+    void write_shouldReturnPersistedMessage() throws Exception {
+        // Given
+        stubSequence();
+        messageBatchWriter.start();
+        Discussion discussion = discussion(1L);
+
+        // When
+        CompletableFuture<Message> first = CompletableFuture.supplyAsync(() ->
+                messageBatchWriter.write(message(discussion)));
+        CompletableFuture<Message> second = CompletableFuture.supplyAsync(() ->
+                messageBatchWriter.write(message(discussion)));
+
+        // Then
+        assertEquals(Set.of(1L, 2L),
+                Set.of(first.get().getId(), second.get().getId()));
+    }
+
+    /**
+     * Test write reports failures to the caller.
+     */
+    @Test
+    @DisplayName("write should throw when the message cannot be written")
+    void write_shouldThrowOnFailure() {
+        // Given
+        when(messageRepository.nextIds(anyInt()))
+                .thenThrow(new IllegalStateException("database down"));
+        messageBatchWriter.start();
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () ->
+                messageBatchWriter.write(message(discussion(1L))));
+    }
+
+    /**
+     * Test a message the caller gave up on is never written afterwards,
+     * so a retry by the client cannot duplicate it.
+     */
+    @Test
+    @DisplayName("write should take a timed out message back out of the queue")
+    void write_timedOut_shouldNotWriteLater() {
+        // Given
+        MessageBatchWriter slowWriter = writerWithTimeout();
+        stubSequence();
+        Message abandoned = message(discussion(1L));
+        Message retried = message(discussion(1L));
+
+        // When
+        assertThrows(IllegalStateException.class, () ->
+                slowWriter.write(abandoned));
+        slowWriter.start();
+        slowWriter.write(retried);
+        slowWriter.stop();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                argThat((List<Message> messages) -> messages.size() == 1
+                        && messages.get(0) == retried), eq(1), any());
+        assertNull(abandoned.getId());
+    }
+
+    /**
+     * Test a caller whose message is already being written waits for the
+     * commit instead of reporting a failure.
+     */
+    @Test
+    @DisplayName("write should wait for a batch already running past the timeout")
+    void write_takenByWriter_shouldWaitForCommit() {
+        // Given
+        MessageBatchWriter slowWriter = writerWithTimeout();
+        stubSequence();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any())).thenAnswer(invocation -> {
+                    Thread.sleep(SLOW_BATCH_MILLIS);
+                    return new int[0][];
+                });
+        slowWriter.start();
+
+        // When
+        Message saved = slowWriter.write(message(discussion(1L)));
+        slowWriter.stop();
+
+        // Then
+        assertEquals(1L, saved.getId());
+    }
+
+    /**
+     * Test a caller stops waiting for a batch that never commits.
+     */
+    @Test
+    @DisplayName("write should give up on a batch stuck past two timeouts")
+    void write_stuckBatch_shouldTimeOut() {
+        // Given
+        MessageBatchWriter slowWriter = writerWithTimeout();
+        stubSequence();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any())).thenAnswer(invocation -> {
+                    Thread.sleep(STUCK_BATCH_MILLIS);
+                    return new int[0][];
+                });
+        slowWriter.start();
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () ->
+                slowWriter.write(message(discussion(1L))));
+        slowWriter.stop();
+    }
+
+    /**
+     * Test an interrupt of the writer thread does not stop the writer.
+     */
+    @Test
+    @DisplayName("writer should keep writing after being interrupted")
+    void write_afterWriterInterrupted_shouldStillWrite() {
+        // Given
+        stubSequence();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any())).thenAnswer(invocation -> {
+                    Thread.currentThread().interrupt();
+                    return new int[0][];
+                });
+        messageBatchWriter.start();
+
+        // When
+        Message first = messageBatchWriter.write(message(discussion(1L)));
+        Message second = messageBatchWriter.write(message(discussion(1L)));
+
+        // Then
+        assertEquals(1L, first.getId());
+        assertEquals(2L, second.getId());
+    }
+
+    /**
+     * Create a writer with a short write timeout.
+     *
+     * @return writer, not started
+     */
+    private MessageBatchWriter writerWithTimeout() {
+        return new MessageBatchWriter(messageRepository, discussionRepository,
+                inboxService, jdbcTemplate, transactionManager, SHORT_TIMEOUT);
+    }
+
+    /**
+     * Make the repository hand out IDs from the test sequence.
+     */
+    private void stubSequence() {
+        when(messageRepository.nextIds(anyInt())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<Integer>getArgument(0))
+                        .map(i -> sequence.incrementAndGet())
+                        .boxed()
+                        .toList());
+    }
+
+    /**
+     * Create a pending message.
+     *
+     * @param discussion the discussion
+     * @return pending message
+     */
+    private MessageBatchWriter.PendingMessage pending(
+            final Discussion discussion) {
+        return new MessageBatchWriter.PendingMessage(message(discussion),
+                new CompletableFuture<>());
+    }
+
+    /**
+     * Create a message.
+     *
+     * @param discussion the discussion
+     * @return message
+     */
+    private Message message(final Discussion discussion) {
+        Message message = new Message();
+        message.setDiscussion(discussion);
+        message.setAuthorId("sender-123");
+        message.setContent("Hello");
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+
+    /**
+     * Create a discussion.
+     *
+     * @param id the discussion ID
+     * @return discussion
+     */
+    private Discussion discussion(final Long id) {
+        Discussion discussion = new Discussion();
+        discussion.setId(id);
+        discussion.setSenderId("sender-123");
+        discussion.setRecipientId("recipient-456");
+        return discussion;
+    }
+}
@@ -0,0 +1,127 @@
+package com.iwaproject.chat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.iwaproject.chat.dto.MessageDTO;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for MessageExportService.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageExportServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private DiscussionRepository discussionRepository;
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private MessageArchiveService messageArchiveService;
+
+    /**
+     * Service under test.
+     */
+    private MessageExportService messageExportService;
+
+    /**
+     * Test constants.
+     */
+    private static final Long DISCUSSION_ID = 1L;
+    private static final String USER_ID = "alice";
+
+    /**
+     * Setup service.
+     */
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        messageExportService = new MessageExportService(discussionRepository,
+                messageRepository, messageArchiveService, objectMapper);
+    }
+
+    /**
+     * Test messages are written one JSON object per line.
+     */
+    @Test
+    @DisplayName("exportMessages should write one line per message")
+    void exportMessages_shouldWriteNdjson() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(messageRepository.streamByDiscussionId(DISCUSSION_ID))
+                .thenReturn(Stream.of(
+                        new MessageDTO(1L, DISCUSSION_ID, "alice", "Hi", createdAt),
+                        new MessageDTO(2L, DISCUSSION_ID, "bob", "Hello", createdAt))
+                        .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = messageExportService.exportMessages(DISCUSSION_ID, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"content\":\"Hi\""));
+        assertTrue(lines[1].contains("\"createdAt\":\"2025-01-01T12:00:00\""));
+        assertTrue(closed.get());
+    }
+
+    /**
+     * Test a non participant cannot export.
+     */
+    @Test
+    @DisplayName("prepareExport should reject a non participant")
+    void prepareExport_notParticipant_shouldThrow() {
+        // Given
+        when(discussionRepository.isParticipant(DISCUSSION_ID, USER_ID))
+                .thenReturn(false);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> messageExportService.prepareExport(DISCUSSION_ID, USER_ID));
+        verify(messageArchiveService, never()).restoreIfArchived(any());
+    }
+
+    /**
+     * Test archived messages are restored before export.
+     */
+    @Test
+    @DisplayName("prepareExport should restore an archived discussion")
+    void prepareExport_shouldRestoreArchive() {
+        // Given
+        when(discussionRepository.isParticipant(DISCUSSION_ID, USER_ID))
+                .thenReturn(true);
+
+        // When
+        messageExportService.prepareExport(DISCUSSION_ID, USER_ID);
+
+        // Then
+        verify(messageArchiveService).restoreIfArchived(DISCUSSION_ID);
+    }
+}
@@ -0,0 +1,179 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.MessageSearchPageDTO;
+import com.iwaproject.chat.repositories.MessageRepository;
+import com.iwaproject.chat.repositories.MessageSearchHit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for MessageSearchService.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageSearchServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private MessageRepository messageRepository;
+
+    /**
+     * Service under test.
+     */
+    @InjectMocks
+    private MessageSearchService messageSearchService;
+
+    /**
+     * Test constants.
+     */
+    private static final String USER_ID = "alice";
+    private static final String QUERY = "dog walk";
+
+    /**
+     * Test a full page returns a cursor that resumes after its last match.
+     */
+    @Test
+    @DisplayName("search should return a cursor resuming after the last match")
+    void search_fullPage_shouldReturnCursor() {
+        // Given
+        when(messageRepository.search(USER_ID, QUERY, 3)).thenReturn(List.of(
+                hit(10L, 0.9f), hit(8L, 0.5f), hit(7L, 0.5f)));
+        when(messageRepository.searchAfter(USER_ID, QUERY, 0.5f, 8L, 3))
+                .thenReturn(List.of(hit(7L, 0.5f)));
+
+        // When
+        MessageSearchPageDTO first = messageSearchService.search(
+                USER_ID, QUERY, null, 2);
+        MessageSearchPageDTO second = messageSearchService.search(
+                USER_ID, QUERY, first.getNextCursor(), 2);
+
+        // Then
+        assertEquals(2, first.getResults().size());
+        assertTrue(first.isHasMore());
+        assertEquals(7L, second.getResults().get(0).getMessageId());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    /**
+     * Test a blank query is rejected before hitting the database.
+     */
+    @Test
+    @DisplayName("search should reject a blank query")
+    void search_blankQuery_shouldThrow() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> messageSearchService.search(USER_ID, "  ", null, 20));
+        verifyNoInteractions(messageRepository);
+    }
+
+    /**
+     * Test a malformed cursor is rejected.
+     */
+    @Test
+    @DisplayName("search should reject a malformed cursor")
+    void search_invalidCursor_shouldThrow() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> messageSearchService.search(USER_ID, QUERY, "%%%", 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> messageSearchService.search(USER_ID, QUERY,
+                        "bm9zZXBhcmF0b3I", 20));
+        verifyNoInteractions(messageRepository);
+    }
+
+    /**
+     * Test markup in a matched message comes back escaped, only the
+     * match highlighting being HTML.
+     */
+    @Test
+    @DisplayName("search should escape message markup in snippets")
+    void search_scriptMessage_shouldEscapeSnippet() {
+        // Given
+        when(messageRepository.search(USER_ID, "alert", 21)).thenReturn(
+                List.of(hit(1L, 0.5f, "<script>"
+                        + MessageRepository.SNIPPET_START + "alert"
+                        + MessageRepository.SNIPPET_END
+                        + "('x')</script>")));
+
+        // When
+        MessageSearchPageDTO page = messageSearchService.search(
+                USER_ID, "alert", null, 20);
+
+        // Then
+        assertEquals("&lt;script&gt;<mark>alert</mark>"
+                + "(&#39;x&#39;)&lt;/script&gt;",
+                page.getResults().get(0).getSnippet());
+    }
+
+    /**
+     * Build a search hit.
+     *
+     * @param id message ID
+     * @param rank match rank
+     * @return search hit
+     */
+    private MessageSearchHit hit(final Long id, final float rank) {
+        return hit(id, rank, MessageRepository.SNIPPET_START + "dog"
+                + MessageRepository.SNIPPET_END + " walk");
+    }
+
+    /**
+     * Build a search hit with a raw snippet.
+     *
+     * @param id message ID
+     * @param rank match rank
+     * @param snippet raw snippet, matches between markers
+     * @return search hit
+     */
+    private MessageSearchHit hit(final Long id, final float rank,
+            final String snippet) {
+        return new MessageSearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getDiscussionId() {
+                return 1L;
+            }
+
+            @Override
+            public String getAuthorId() {
+                return "bob";
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return LocalDateTime.of(2025, 1, 1, 12, 0);
+            }
+
+            @Override
+            public Float getRank() {
+                return rank;
+            }
+
+            @Override
+            public String getSnippet() {
+                return snippet;
+            }
+        };
+    }
+}
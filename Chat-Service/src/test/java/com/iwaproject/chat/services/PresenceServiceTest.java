@@ -0,0 +1,258 @@
+package com.iwaproject.chat.services;
+
+import com.iwaproject.chat.dto.ChatEventType;
+import com.iwaproject.chat.dto.PresenceDTO;
+import com.iwaproject.chat.entities.Discussion;
+import com.iwaproject.chat.repositories.DiscussionRepository;
+import com.iwaproject.chat.repositories.InboxEntryRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for PresenceService.
+ */
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private DiscussionRepository discussionRepository;
+    @Mock
+    private InboxEntryRepository inboxEntryRepository;
+    @Mock
+    private ChatEventStreamService chatEventStreamService;
+    @Mock
+    private ChatEventPublisher chatEventPublisher;
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+    @Mock
+    private KafkaLogService kafkaLogService;
+
+    /**
+     * Service under test.
+     */
+    private PresenceService presenceService;
+
+    /**
+     * Test constants.
+     */
+    private static final Long DISCUSSION_ID = 1L;
+    private static final String ALICE = "alice";
+    private static final String BOB = "bob";
+
+    /**
+     * Setup service.
+     */
+    @BeforeEach
+    void setUp() {
+        presenceService = new PresenceService(discussionRepository,
+                inboxEntryRepository, chatEventStreamService, chatEventPublisher,
+                kafkaProducerService, kafkaLogService, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Test connected users are marked online and shared with replicas.
+     */
+    @Test
+    @DisplayName("heartbeatConnectedUsers should mark connected users online")
+    void heartbeatConnectedUsers_shouldMarkOnline() {
+        // Given
+        when(chatEventStreamService.getConnectedUsers())
+                .thenReturn(Set.of(ALICE));
+
+        // When
+        presenceService.heartbeatConnectedUsers();
+
+        // Then
+        assertTrue(presenceService.isOnline(ALICE));
+        assertFalse(presenceService.isOnline(BOB));
+        verify(kafkaProducerService).sendMessage(
+                eq(PresenceService.PRESENCE_TOPIC), eq(ALICE), any());
+    }
+
+    /**
+     * Test presence records from other replicas are applied.
+     */
+    @Test
+    @DisplayName("consumePresence should apply recent records only")
+    void consumePresence_shouldApplyRecentRecords() {
+        // Given
+        long now = System.currentTimeMillis();
+
+        // When
+        presenceService.consumePresence(new ConsumerRecord<>(
+                PresenceService.PRESENCE_TOPIC, 0, 0L, ALICE,
+                String.valueOf(now)));
+        presenceService.consumePresence(new ConsumerRecord<>(
+                PresenceService.PRESENCE_TOPIC, 0, 1L, BOB,
+                String.valueOf(now - Duration.ofMinutes(5).toMillis())));
+
+        // Then
+        assertTrue(presenceService.isOnline(ALICE));
+        assertFalse(presenceService.isOnline(BOB));
+    }
+
+    /**
+     * Test typing is sent to the other participant only.
+     */
+    @Test
+    @DisplayName("sendTyping should notify the other participant")
+    void sendTyping_shouldNotifyCounterpart() {
+        // Given
+        when(discussionRepository.findById(DISCUSSION_ID))
+                .thenReturn(Optional.of(discussion()));
+
+        // When
+        presenceService.sendTyping(DISCUSSION_ID, ALICE);
+
+        // Then
+        verify(chatEventPublisher).publish(argThat(event ->
+                event.getType() == ChatEventType.TYPING
+                && event.getParticipants().equals(List.of(BOB))));
+        assertTrue(presenceService.isOnline(ALICE));
+    }
+
+    /**
+     * Test repeated typing pings read the discussion only once.
+     */
+    @Test
+    @DisplayName("sendTyping should cache the discussion participants")
+    void sendTyping_repeated_shouldReadDiscussionOnce() {
+        // Given
+        when(discussionRepository.findById(DISCUSSION_ID))
+                .thenReturn(Optional.of(discussion()));
+
+        // When
+        presenceService.sendTyping(DISCUSSION_ID, ALICE);
+        presenceService.sendTyping(DISCUSSION_ID, BOB);
+        presenceService.sendTyping(DISCUSSION_ID, ALICE);
+
+        // Then
+        verify(discussionRepository, times(1)).findById(DISCUSSION_ID);
+        verify(chatEventPublisher).publish(argThat(event ->
+                event.getType() == ChatEventType.TYPING
+                && event.getParticipants().equals(List.of(ALICE))));
+    }
+
+    /**
+     * Test a user coming online is announced to their counterparts once.
+     */
+    @Test
+    @DisplayName("heartbeat should announce a user coming online once")
+    void heartbeat_comingOnline_shouldAnnounceOnce() {
+        // Given
+        when(inboxEntryRepository.findCounterpartIds(ALICE))
+                .thenReturn(List.of(BOB));
+
+        // When
+        presenceService.heartbeat(ALICE);
+        presenceService.heartbeat(ALICE);
+
+        // Then
+        verify(chatEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ChatEventType.PRESENCE
+                && event.getParticipants().equals(List.of(BOB))
+                && event.getPresence().getUserId().equals(ALICE)
+                && event.getPresence().isOnline()));
+    }
+
+    /**
+     * Test a user whose heartbeats stop is announced offline once.
+     */
+    @Test
+    @DisplayName("announceOfflineUsers should announce users gone offline")
+    void announceOfflineUsers_shouldAnnounceOffline() throws Exception {
+        // Given
+        presenceService = new PresenceService(discussionRepository,
+                inboxEntryRepository, chatEventStreamService,
+                chatEventPublisher, kafkaProducerService, kafkaLogService,
+                Duration.ofMillis(50));
+        when(inboxEntryRepository.findCounterpartIds(ALICE))
+                .thenReturn(List.of(BOB));
+        presenceService.heartbeat(ALICE);
+        Thread.sleep(100);
+
+        // When
+        presenceService.announceOfflineUsers();
+        presenceService.announceOfflineUsers();
+
+        // Then
+        verify(chatEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ChatEventType.PRESENCE
+                && !event.getPresence().isOnline()));
+    }
+
+    /**
+     * Test typing in someone else's discussion is rejected.
+     */
+    @Test
+    @DisplayName("sendTyping should reject a non participant")
+    void sendTyping_notParticipant_shouldThrow() {
+        // Given
+        when(discussionRepository.findById(DISCUSSION_ID))
+                .thenReturn(Optional.of(discussion()));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> presenceService.sendTyping(DISCUSSION_ID, "mallory"));
+        verify(chatEventPublisher, never()).publish(any());
+    }
+
+    /**
+     * Test discussion presence lists both participants.
+     */
+    @Test
+    @DisplayName("getDiscussionPresence should list both participants")
+    void getDiscussionPresence_shouldListParticipants() {
+        // Given
+        when(discussionRepository.findById(DISCUSSION_ID))
+                .thenReturn(Optional.of(discussion()));
+        presenceService.heartbeat(BOB);
+
+        // When
+        List<PresenceDTO> presence = presenceService.getDiscussionPresence(
+                DISCUSSION_ID, ALICE);
+
+        // Then
+        assertEquals(2, presence.size());
+        assertFalse(presence.get(0).isOnline());
+        assertTrue(presence.get(1).isOnline());
+    }
+
+    /**
+     * Build a discussion between alice and bob.
+     *
+     * @return discussion
+     */
+    private Discussion discussion() {
+        Discussion discussion = new Discussion();
+        discussion.setId(DISCUSSION_ID);
+        discussion.setSenderId(ALICE);
+        discussion.setRecipientId(BOB);
+        return discussion;
+    }
+}
@@ -0,0 +1,128 @@
+package com.iwaproject.chat.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for UserExistenceService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserExistenceServiceTest {
+
+    /**
+     * Mock services.
+     */
+    @Mock
+    private KafkaConsumerService kafkaConsumerService;
+    @Mock
+    private KafkaLogService kafkaLogService;
+
+    /**
+     * Service under test.
+     */
+    private UserExistenceService userExistenceService;
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_USER_ID = "user-123";
+
+    /**
+     * Setup service accepting users on timeout.
+     */
+    @BeforeEach
+    void setUp() {
+        userExistenceService = createService(true);
+    }
+
+    /**
+     * Test repeated checks are answered from the cache.
+     */
+    @Test
+    @DisplayName("userExists should ask User-Service only once per user")
+    void userExists_shouldCacheKnownUsers() {
+        // Given
+        when(kafkaConsumerService.checkUserExists(TEST_USER_ID))
+                .thenReturn(CompletableFuture.completedFuture("true"));
+
+        // When
+        boolean first = userExistenceService.userExists(TEST_USER_ID);
+        boolean second = userExistenceService.userExists(TEST_USER_ID);
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        verify(kafkaConsumerService, times(1)).checkUserExists(TEST_USER_ID);
+        assertEquals(0.5, userExistenceService.getHitRatio());
+    }
+
+    /**
+     * Test unknown users are cached until a lifecycle event arrives.
+     */
+    @Test
+    @DisplayName("userExists should forget unknown users on lifecycle event")
+    void userExists_shouldInvalidateOnLifecycleEvent() {
+        // Given
+        when(kafkaConsumerService.checkUserExists(TEST_USER_ID))
+                .thenReturn(CompletableFuture.completedFuture("false"))
+                .thenReturn(CompletableFuture.completedFuture("true"));
+        assertFalse(userExistenceService.userExists(TEST_USER_ID));
+        assertFalse(userExistenceService.userExists(TEST_USER_ID));
+
+        // When
+        userExistenceService.consumeUserLifecycle("CREATED:" + TEST_USER_ID);
+
+        // Then
+        assertTrue(userExistenceService.userExists(TEST_USER_ID));
+        verify(kafkaConsumerService, times(2)).checkUserExists(TEST_USER_ID);
+    }
+
+    /**
+     * Test timeouts follow the degraded mode and are not cached.
+     */
+    @Test
+    @DisplayName("userExists should apply degraded mode on timeout without caching")
+    void userExists_shouldApplyDegradedModeOnTimeout() {
+        // Given
+        userExistenceService = createService(false);
+        when(kafkaConsumerService.checkUserExists(TEST_USER_ID))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new TimeoutException("timeout")));
+
+        // When
+        boolean first = userExistenceService.userExists(TEST_USER_ID);
+        boolean second = userExistenceService.userExists(TEST_USER_ID);
+
+        // Then
+        assertFalse(first);
+        assertFalse(second);
+        verify(kafkaConsumerService, times(2)).checkUserExists(TEST_USER_ID);
+        assertEquals(2, userExistenceService.getDegradedDecisions());
+    }
+
+    /**
+     * Create the service under test.
+     *
+     * @param acceptOnTimeout degraded mode
+     * @return user existence service
+     */
+    private UserExistenceService createService(final boolean acceptOnTimeout) {
+        return new UserExistenceService(kafkaConsumerService, kafkaLogService,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), acceptOnTimeout);
+    }
+}
@@ -0,0 +1,69 @@
+package com.iwaproject.rating.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.iwaproject.rating.services.RatingSummaryPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * Kafka configuration for Rating Service.
+ */
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Kafka bootstrap servers.
+     */
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    /**
+     * Producer factory configuration.
+     *
+     * @return ProducerFactory for Kafka producer
+     */
+    @Bean
+    public ProducerFactory<String, String> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+                bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
+                StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                StringSerializer.class);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * Kafka template bean.
+     *
+     * @return KafkaTemplate for sending messages
+     */
+    @Bean
+    public KafkaTemplate<String, String> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    /**
+     * Compacted topic holding the latest rating summary of each user.
+     *
+     * @return rating summary topic definition
+     */
+    @Bean
+    public NewTopic ratingSummaryTopic() {
+        return TopicBuilder.name(RatingSummaryPublisher.RATING_SUMMARY_TOPIC)
+                .partitions(1)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.iwaproject.rating.config;
+
+import com.iwaproject.rating.repositories.RatingRepository;
+import com.iwaproject.rating.services.RatingSummaryPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes the rating summary of every rated user on the
+ * rating.summary topic, for ratings given before the events existed or
+ * after the topic was reset. Disabled unless
+ * rating.summary-events.backfill is true.
+ */
+@Component
+public class RatingSummaryBackfill implements CommandLineRunner {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(RatingSummaryBackfill.class);
+
+    /**
+     * Rating repository.
+     */
+    private final RatingRepository ratingRepository;
+
+    /**
+     * Rating summary publisher.
+     */
+    private final RatingSummaryPublisher ratingSummaryPublisher;
+
+    /**
+     * Whether to run the backfill.
+     */
+    private final boolean enabled;
+
+    /**
+     * Constructor.
+     *
+     * @param ratingRepository rating repository
+     * @param ratingSummaryPublisher rating summary publisher
+     * @param enabled whether to run the backfill
+     */
+    public RatingSummaryBackfill(final RatingRepository ratingRepository,
+            final RatingSummaryPublisher ratingSummaryPublisher,
+            @Value("${rating.summary-events.backfill:false}")
+                final boolean enabled) {
+        this.ratingRepository = ratingRepository;
+        this.ratingSummaryPublisher = ratingSummaryPublisher;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Publish every recipient's summary.
+     *
+     * @param args command line arguments
+     */
+    @Override
+    public void run(final String... args) {
+        if (!enabled) {
+            return;
+        }
+        List<String> recipients = ratingRepository.findDistinctRecipientIds();
+        recipients.forEach(ratingSummaryPublisher::publish);
+        LOG.info("Published {} rating summaries", recipients.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.iwaproject.rating.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rating summary of a recipient, published on the compacted
+ * rating.summary topic after every rating change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDTO {
+
+    /**
+     * Recipient ID (also the record key).
+     */
+    private String recipientId;
+
+    /**
+     * Average rating (0.0 without ratings).
+     */
+    private Double average;
+
+    /**
+     * Number of ratings.
+     */
+    private Long count;
+
+    /**
+     * Version of the summary: database time of the read, in epoch
+     * microseconds. A summary with a lower version is older.
+     */
+    private Long version;
+}
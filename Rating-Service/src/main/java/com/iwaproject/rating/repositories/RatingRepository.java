@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -83,5 +84,25 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
      */
     @Query("SELECT COUNT(r) FROM Rating r WHERE r.recipientId = :recipientId")
     Long countByRecipientId(@Param("recipientId") String recipientId);
-}
 
+    /**
+     * Read a recipient's average and count in one statement, along with
+     * the database time, which orders summaries read by any replica.
+     *
+     * @param recipientId the recipient ID
+     * @return the summary
+     */
+    @Query("SELECT COALESCE(AVG(r.note), 0.0) AS average, "
+            + "COUNT(r) AS count, CURRENT_TIMESTAMP AS readAt "
+            + "FROM Rating r WHERE r.recipientId = :recipientId")
+    RatingSummaryView summarizeByRecipientId(
+            @Param("recipientId") String recipientId);
+
+    /**
+     * List every recipient having at least one rating.
+     *
+     * @return recipient IDs
+     */
+    @Query("SELECT DISTINCT r.recipientId FROM Rating r")
+    List<String> findDistinctRecipientIds();
+}
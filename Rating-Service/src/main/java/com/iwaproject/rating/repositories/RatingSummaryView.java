@@ -0,0 +1,24 @@
+package com.iwaproject.rating.repositories;
+
+import java.time.Instant;
+
+/**
+ * Projection of a recipient's rating summary, read in one statement.
+ */
+public interface RatingSummaryView {
+
+    /**
+     * @return average rating (0.0 without ratings)
+     */
+    Double getAverage();
+
+    /**
+     * @return number of ratings
+     */
+    Long getCount();
+
+    /**
+     * @return database time of the read
+     */
+    Instant getReadAt();
+}
@@ -25,6 +25,11 @@ public class RatingService {
      */
     private final RatingRepository ratingRepository;
 
+    /**
+     * Rating summary publisher.
+     */
+    private final RatingSummaryPublisher ratingSummaryPublisher;
+
     /**
      * Create a new rating.
      *
@@ -63,6 +68,7 @@ public class RatingService {
         Rating saved = ratingRepository.save(rating);
         log.info("Created rating: {} from {} to {}", saved.getId(),
                 authorId, recipientId);
+        ratingSummaryPublisher.publishAfterCommit(recipientId);
 
         return mapToRatingDTO(saved);
     }
@@ -154,6 +160,7 @@ public class RatingService {
 
         Rating saved = ratingRepository.save(rating);
         log.info("Updated rating: {}", saved.getId());
+        ratingSummaryPublisher.publishAfterCommit(saved.getRecipientId());
 
         return mapToRatingDTO(saved);
     }
@@ -181,6 +188,7 @@ public class RatingService {
 
         ratingRepository.delete(rating);
         log.info("Deleted rating: {}", ratingId);
+        ratingSummaryPublisher.publishAfterCommit(rating.getRecipientId());
     }
 
     /**
@@ -0,0 +1,95 @@
+package com.iwaproject.rating.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.rating.dto.RatingSummaryDTO;
+import com.iwaproject.rating.repositories.RatingRepository;
+import com.iwaproject.rating.repositories.RatingSummaryView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Publishes the rating summary (average and count) of a recipient on a
+ * compacted topic keyed by recipient, so other services can show it
+ * without calling Rating-Service. Summaries published after concurrent
+ * commits may be sent out of order; each one carries the database time
+ * of its read as version, so consumers keep the latest one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingSummaryPublisher {
+
+    /**
+     * Compacted topic holding the latest summary of each recipient.
+     */
+    public static final String RATING_SUMMARY_TOPIC = "rating.summary";
+
+    /**
+     * Rating repository.
+     */
+    private final RatingRepository ratingRepository;
+
+    /**
+     * Kafka template.
+     */
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Publish a recipient's summary once the surrounding transaction
+     * commits (immediately without transaction), computed from the
+     * committed ratings.
+     *
+     * @param recipientId the recipient ID
+     */
+    public void publishAfterCommit(final String recipientId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(recipientId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        publish(recipientId);
+                    }
+                });
+    }
+
+    /**
+     * Compute and send a recipient's summary, logging failures: the next
+     * rating change of the same recipient supersedes it.
+     *
+     * @param recipientId the recipient ID
+     */
+    public void publish(final String recipientId) {
+        try {
+            RatingSummaryView view = ratingRepository
+                    .summarizeByRecipientId(recipientId);
+            RatingSummaryDTO summary = new RatingSummaryDTO(recipientId,
+                    view.getAverage(), view.getCount(),
+                    ChronoUnit.MICROS.between(Instant.EPOCH,
+                            view.getReadAt()));
+            kafkaTemplate.send(RATING_SUMMARY_TOPIC, recipientId,
+                    objectMapper.writeValueAsString(summary));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize rating summary of {}",
+                    recipientId, e);
+        } catch (Exception e) {
+            log.warn("Failed to publish rating summary of {}: {}",
+                    recipientId, e.getMessage());
+        }
+    }
+}
@@ -26,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -49,6 +51,12 @@ class RatingServiceTest {
     @Mock
     private RatingRepository ratingRepository;
 
+    /**
+     * Rating summary publisher mock.
+     */
+    @Mock
+    private RatingSummaryPublisher ratingSummaryPublisher;
+
     /**
      * Rating service (under test).
      */
@@ -103,6 +111,22 @@ class RatingServiceTest {
         assertEquals(TEST_RECIPIENT_ID, result.getRecipientId());
         assertEquals(TEST_NOTE, result.getNote());
         assertEquals(TEST_COMMENTAIRE, result.getCommentaire());
+        verify(ratingSummaryPublisher).publishAfterCommit(TEST_RECIPIENT_ID);
+    }
+
+    @Test
+    @DisplayName("deleteRating should publish the recipient summary")
+    void deleteRating_shouldPublishSummary() {
+        // Given
+        when(ratingRepository.findById(TEST_RATING_ID))
+                .thenReturn(Optional.of(testRating));
+
+        // When
+        ratingService.deleteRating(TEST_RATING_ID, TEST_AUTHOR_ID);
+
+        // Then
+        verify(ratingRepository).delete(testRating);
+        verify(ratingSummaryPublisher).publishAfterCommit(TEST_RECIPIENT_ID);
     }
 
     @Test
@@ -126,6 +150,7 @@ class RatingServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             ratingService.createRating(TEST_AUTHOR_ID, TEST_RECIPIENT_ID, testCreateDTO);
         });
+        verify(ratingSummaryPublisher, never()).publishAfterCommit(any());
     }
 
     @Test
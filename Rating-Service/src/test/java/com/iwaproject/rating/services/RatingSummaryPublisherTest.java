@@ -0,0 +1,151 @@
+package com.iwaproject.rating.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.rating.repositories.RatingRepository;
+import com.iwaproject.rating.repositories.RatingSummaryView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RatingSummaryPublisher.
+ */
+@ExtendWith(MockitoExtension.class)
+class RatingSummaryPublisherTest {
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_RECIPIENT_ID = "recipient1";
+    private static final Instant READ_AT = Instant.ofEpochSecond(1, 2000);
+
+    /**
+     * Rating repository mock.
+     */
+    @Mock
+    private RatingRepository ratingRepository;
+
+    /**
+     * Kafka template mock.
+     */
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Publisher (under test).
+     */
+    private RatingSummaryPublisher publisher;
+
+    /**
+     * Setup before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        publisher = new RatingSummaryPublisher(ratingRepository,
+                kafkaTemplate, objectMapper);
+    }
+
+    /**
+     * Clear any transaction synchronization left by a test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("publish should send the recipient summary keyed by recipient")
+    void publish_shouldSendKeyedSummary() throws Exception {
+        // Given
+        when(ratingRepository.summarizeByRecipientId(TEST_RECIPIENT_ID))
+                .thenReturn(summary(4.5, 2L));
+
+        // When
+        publisher.publish(TEST_RECIPIENT_ID);
+
+        // Then
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(
+                eq(RatingSummaryPublisher.RATING_SUMMARY_TOPIC),
+                eq(TEST_RECIPIENT_ID), payload.capture());
+        JsonNode summary = objectMapper.readTree(payload.getValue());
+        assertEquals(TEST_RECIPIENT_ID, summary.get("recipientId").asText());
+        assertEquals(4.5, summary.get("average").asDouble());
+        assertEquals(2L, summary.get("count").asLong());
+        assertEquals(1_000_002L, summary.get("version").asLong());
+    }
+
+    @Test
+    @DisplayName("publishAfterCommit should wait for the transaction to commit")
+    void publishAfterCommit_shouldWaitForCommit() {
+        // Given
+        when(ratingRepository.summarizeByRecipientId(TEST_RECIPIENT_ID))
+                .thenReturn(summary(0.0, 0L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        publisher.publishAfterCommit(TEST_RECIPIENT_ID);
+
+        // Then
+        verify(kafkaTemplate, never()).send(anyString(), anyString(),
+                anyString());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        verify(kafkaTemplate).send(
+                eq(RatingSummaryPublisher.RATING_SUMMARY_TOPIC),
+                eq(TEST_RECIPIENT_ID), eq("{\"recipientId\":\"recipient1\","
+                        + "\"average\":0.0,\"count\":0,"
+                        + "\"version\":1000002}"));
+    }
+
+    /**
+     * Create a summary read at READ_AT.
+     *
+     * @param average the average rating
+     * @param count the number of ratings
+     * @return summary view
+     */
+    private RatingSummaryView summary(final Double average, final Long count) {
+        return new RatingSummaryView() {
+            @Override
+            public Double getAverage() {
+                return average;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public Instant getReadAt() {
+                return READ_AT;
+            }
+        };
+    }
+}
@@ -2,11 +2,13 @@ package com.iwaproject.user;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for User Service.
  */
 @SpringBootApplication
+@EnableScheduling
 public class UserServiceApplication {
 
     /**
@@ -3,6 +3,8 @@ package com.iwaproject.user.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.iwaproject.user.services.UserProfileEventPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -10,6 +12,8 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -72,4 +76,32 @@ public class KafkaConfig {
                 StringDeserializer.class);
         return new DefaultKafkaConsumerFactory<>(props);
     }
+
+    /**
+     * Listener container factory delivering a whole poll per invocation.
+     *
+     * @return batch listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String>
+            batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Compacted topic holding the latest profile summary of each user.
+     *
+     * @return user profile topic definition
+     */
+    @Bean
+    public NewTopic userProfileTopic() {
+        return TopicBuilder.name(UserProfileEventPublisher.USER_PROFILE_TOPIC)
+                .partitions(1)
+                .compact()
+                .build();
+    }
 }
@@ -0,0 +1,62 @@
+package com.iwaproject.user.config;
+
+import com.iwaproject.user.repositories.UserProfileCardRepository;
+import com.iwaproject.user.services.UserProfileCardService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the profile card of users registered before cards existed.
+ * Does nothing once every user has one.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProfileCardBackfill implements CommandLineRunner {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(ProfileCardBackfill.class);
+
+    /**
+     * Number of users handled per query.
+     */
+    private static final int BATCH_SIZE = 200;
+
+    /**
+     * User profile card repository.
+     */
+    private final UserProfileCardRepository userProfileCardRepository;
+
+    /**
+     * User profile card service.
+     */
+    private final UserProfileCardService userProfileCardService;
+
+    /**
+     * Create missing cards in batches.
+     *
+     * @param args command line arguments
+     */
+    @Override
+    public void run(final String... args) {
+        int created = 0;
+        List<String> batch;
+        do {
+            batch = userProfileCardRepository
+                    .findUsernamesWithoutCard(Limit.of(BATCH_SIZE));
+            batch.forEach(userProfileCardService::createMissingCard);
+            created += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        if (created > 0) {
+            LOG.info("Created {} profile cards", created);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.iwaproject.user.config;
+
+import com.iwaproject.user.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets users.profile_complete on profiles completed before the flag
+ * was maintained on write. Does nothing once every row is up to date.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProfileCompletionBackfill implements CommandLineRunner {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(ProfileCompletionBackfill.class);
+
+    /**
+     * User repository.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Flag complete profiles.
+     *
+     * @param args command line arguments
+     */
+    @Override
+    public void run(final String... args) {
+        int flagged = userRepository.flagCompleteProfiles();
+        if (flagged > 0) {
+            LOG.info("Flagged {} existing profiles as complete", flagged);
+        }
+    }
+}
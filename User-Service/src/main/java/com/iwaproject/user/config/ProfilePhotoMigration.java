@@ -0,0 +1,91 @@
+package com.iwaproject.user.config;
+
+import com.iwaproject.user.services.UserPhotoService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves photos left in the legacy users.profile_photo column into
+ * user_photos. Does nothing once the column is empty or dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProfilePhotoMigration implements CommandLineRunner {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(ProfilePhotoMigration.class);
+
+    /**
+     * Number of legacy photos read per query.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * JDBC template (the legacy column is no longer mapped).
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * User photo service.
+     */
+    private final UserPhotoService userPhotoService;
+
+    /**
+     * Migrate legacy photos in batches.
+     *
+     * @param args command line arguments
+     */
+    @Override
+    public void run(final String... args) {
+        List<Map<String, Object>> batch;
+        try {
+            batch = nextBatch();
+        } catch (DataAccessException e) {
+            LOG.debug("No legacy profile_photo column, skipping migration");
+            return;
+        }
+
+        int migrated = 0;
+        while (!batch.isEmpty()) {
+            for (Map<String, Object> row : batch) {
+                String username = (String) row.get("username");
+                try {
+                    userPhotoService.storePhoto(username,
+                            (byte[]) row.get("profile_photo"));
+                    migrated++;
+                } catch (IllegalArgumentException e) {
+                    LOG.warn("Dropping unreadable profile photo of {}",
+                            username);
+                }
+                jdbcTemplate.update("UPDATE users SET profile_photo = NULL "
+                        + "WHERE username = ?", username);
+            }
+            batch = nextBatch();
+        }
+        if (migrated > 0) {
+            LOG.info("Migrated {} profile photos to user_photos", migrated);
+        }
+    }
+
+    /**
+     * Read the next batch of legacy photos.
+     *
+     * @return rows with username and profile_photo
+     */
+    private List<Map<String, Object>> nextBatch() {
+        return jdbcTemplate.queryForList("SELECT username, profile_photo "
+                + "FROM users WHERE profile_photo IS NOT NULL LIMIT "
+                + BATCH_SIZE);
+    }
+}
@@ -0,0 +1,88 @@
+package com.iwaproject.user.config;
+
+import com.iwaproject.user.entities.User;
+import com.iwaproject.user.repositories.UserRepository;
+import com.iwaproject.user.services.UserProfileEventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes the profile of every existing user on the user.profile
+ * topic, for users created before the events existed or after the topic
+ * was reset. Disabled unless user.profile-events.backfill is true.
+ */
+@Component
+public class UserProfileEventBackfill implements CommandLineRunner {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(UserProfileEventBackfill.class);
+
+    /**
+     * Number of users read per page.
+     */
+    private static final int PAGE_SIZE = 200;
+
+    /**
+     * User repository.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * User profile event publisher.
+     */
+    private final UserProfileEventPublisher userProfileEventPublisher;
+
+    /**
+     * Whether to run the backfill.
+     */
+    private final boolean enabled;
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository user repository
+     * @param userProfileEventPublisher user profile event publisher
+     * @param enabled whether to run the backfill
+     */
+    public UserProfileEventBackfill(final UserRepository userRepository,
+            final UserProfileEventPublisher userProfileEventPublisher,
+            @Value("${user.profile-events.backfill:false}")
+                final boolean enabled) {
+        this.userRepository = userRepository;
+        this.userProfileEventPublisher = userProfileEventPublisher;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Publish every user, page by page.
+     *
+     * @param args command line arguments
+     */
+    @Override
+    public void run(final String... args) {
+        if (!enabled) {
+            return;
+        }
+        String after = "";
+        int published = 0;
+        List<User> page;
+        do {
+            page = userRepository.findUsersAfter(after, Limit.of(PAGE_SIZE));
+            page.forEach(userProfileEventPublisher::publishAfterCommit);
+            published += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getUsername();
+            }
+        } while (page.size() == PAGE_SIZE);
+        LOG.info("Published {} user profiles", published);
+    }
+}
@@ -0,0 +1,76 @@
+package com.iwaproject.user.config;
+
+import com.iwaproject.user.services.UserService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Rewrites usernames stored before they were normalised on write, in
+ * users and in every table keyed by username. A row whose normalised
+ * form already exists is left alone and logged for manual merge. Does
+ * nothing once every username is normalised.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameNormalization implements CommandLineRunner {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(UsernameNormalization.class);
+
+    /**
+     * Tables holding a username column, users last.
+     */
+    private static final List<String> TABLES = List.of("user_languages",
+            "user_specialisations", "user_photos", "user_profile_cards",
+            "users");
+
+    /**
+     * JDBC template.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Normalise stored usernames.
+     *
+     * @param args command line arguments
+     */
+    @Override
+    @Transactional
+    public void run(final String... args) {
+        List<String> pending = jdbcTemplate.queryForList(
+                "SELECT username FROM users "
+                + "WHERE username <> LOWER(TRIM(username))", String.class);
+
+        int normalised = 0;
+        for (String username : pending) {
+            String target = UserService.normalizeUsername(username);
+            Integer clashes = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE username = ?",
+                    Integer.class, target);
+            if (clashes != null && clashes > 0) {
+                LOG.warn("Cannot normalise username {}: {} already exists",
+                        username, target);
+                continue;
+            }
+            for (String table : TABLES) {
+                jdbcTemplate.update("UPDATE " + table
+                        + " SET username = ? WHERE username = ?",
+                        target, username);
+            }
+            normalised++;
+        }
+        if (normalised > 0) {
+            LOG.info("Normalised {} usernames", normalised);
+        }
+    }
+}
@@ -4,18 +4,28 @@ import com.iwaproject.user.dto.LanguageDTO;
 import com.iwaproject.user.dto.PrivateUserDTO;
 import com.iwaproject.user.dto.PublicUserDTO;
 import com.iwaproject.user.dto.SpecialisationDTO;
+import com.iwaproject.user.dto.UserBatchDTO;
+import com.iwaproject.user.dto.UserDirectoryPageDTO;
 import com.iwaproject.user.dto.UserLanguageDTO;
+import com.iwaproject.user.dto.UserProfileCardDTO;
 import com.iwaproject.user.dto.UserSpecialisationDTO;
 import com.iwaproject.user.dto.UserProfileCompletionDTO;
 import com.iwaproject.user.entities.Language;
 import com.iwaproject.user.entities.Specialisation;
 import com.iwaproject.user.entities.User;
+import com.iwaproject.user.entities.UserPhoto;
 import com.iwaproject.user.services.KafkaLogService;
 import com.iwaproject.user.services.LanguageService;
 import com.iwaproject.user.services.SpecialisationService;
+import com.iwaproject.user.services.UserPhotoService;
+import com.iwaproject.user.services.UserProfileCardService;
 import com.iwaproject.user.services.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -31,6 +41,8 @@ import com.iwaproject.user.dto.UserExistenceDTO;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.net.URI;
 
@@ -63,6 +75,16 @@ public class UserController {
      */
     private final KafkaLogService kafkaLogService;
 
+    /**
+     * User photo service.
+     */
+    private final UserPhotoService userPhotoService;
+
+    /**
+     * User profile card service.
+     */
+    private final UserProfileCardService userProfileCardService;
+
     /**
      * Logger name constant.
      */
@@ -73,6 +95,16 @@ public class UserController {
      */
     private static final int HTTP_STATUS_CONFLICT = 409;
 
+    /**
+     * Cache lifetime of a versioned photo URL, in days.
+     */
+    private static final long PHOTO_MAX_AGE_DAYS = 365;
+
+    /**
+     * Cache lifetime of the language and specialisation lists, in hours.
+     */
+    private static final long REFERENCE_MAX_AGE_HOURS = 24;
+
     /**
      * Create a new user profile.
      *
@@ -133,6 +165,72 @@ public class UserController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Get public summaries of several users in one call.
+     *
+     * @param request the request containing usernames
+     * @return found summaries and missing usernames
+     */
+    @PostMapping("/users/batch")
+    public ResponseEntity<UserBatchDTO> getUsersBatch(
+            @RequestBody final Map<String, List<String>> request) {
+
+        List<String> usernames = request.get("usernames");
+        if (usernames == null) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Missing 'usernames' field in request");
+            return ResponseEntity.badRequest().build();
+        }
+
+        kafkaLogService.info(LOGGER_NAME,
+                "POST /users/batch - " + usernames.size() + " usernames");
+
+        try {
+            return ResponseEntity.ok(userService.getUserSummaries(usernames));
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Invalid batch lookup: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Search the guardian directory.
+     *
+     * @param specialisations required specialisations (repeatable)
+     * @param languages required languages (repeatable)
+     * @param location location prefix
+     * @param after cursor from the previous page
+     * @param limit page size
+     * @return one page of guardians
+     */
+    @GetMapping("/users/directory")
+    public ResponseEntity<UserDirectoryPageDTO> searchDirectory(
+            @RequestParam(value = "specialisation", required = false)
+                final List<String> specialisations,
+            @RequestParam(value = "language", required = false)
+                final List<String> languages,
+            @RequestParam(value = "location", required = false)
+                final String location,
+            @RequestParam(value = "after", required = false)
+                final String after,
+            @RequestParam(value = "limit", required = false)
+                final Integer limit) {
+
+        kafkaLogService.info(LOGGER_NAME, "GET /users/directory - "
+                + "specialisations=" + specialisations
+                + ", languages=" + languages + ", location=" + location);
+
+        try {
+            return ResponseEntity.ok(userService.searchDirectory(
+                    specialisations, languages, location, after, limit));
+        } catch (IllegalArgumentException e) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Invalid directory search: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get current user profile.
      *
@@ -177,8 +275,7 @@ public class UserController {
                 + ", phoneNumber=" + dto.getPhoneNumber()
                 + ", location=" + dto.getLocation()
                 + ", description=" + dto.getDescription()
-                + ", profilePhoto=" + formatProfilePhotoLog(
-                        dto.getProfilePhoto())
+                + ", profilePhotoHash=" + dto.getProfilePhotoHash()
                 + ", identityVerification=" + dto.getIdentityVerification()
                 + ", preferences=" + dto.getPreferences()
                 + ", registrationDate=" + dto.getRegistrationDate());
@@ -208,6 +305,99 @@ public class UserController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Get a user's public profile card: profile fields, photo, languages,
+     * specialisations and rating summary in one response.
+     *
+     * @param username the username
+     * @param ifNoneMatch ETag held by the client (optional)
+     * @return the card, 304 if unchanged or 404 if the user doesn't exist
+     */
+    @GetMapping("/users/{username}/card")
+    public ResponseEntity<UserProfileCardDTO> getUserProfileCard(
+            @PathVariable final String username,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false)
+                final String ifNoneMatch) {
+
+        kafkaLogService.debug(LOGGER_NAME, "GET /users/" + username + "/card");
+
+        Optional<UserProfileCardDTO> card =
+                userProfileCardService.getCard(username);
+        if (card.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = UserProfileCardService.etag(card.get());
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePublic())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(card.get());
+    }
+
+    /**
+     * Get a user's profile photo at one of the fixed avatar sizes.
+     * Versioned URLs (v matching the current hash) are cacheable forever;
+     * other requests are revalidated through the ETag.
+     *
+     * @param username the username
+     * @param size the avatar size in pixels
+     * @param version the photo hash from the profile URL (optional)
+     * @param ifNoneMatch ETag held by the client (optional)
+     * @return photo bytes, 304 if unchanged or 404 if none
+     */
+    @GetMapping("/users/{username}/photo")
+    public ResponseEntity<byte[]> getUserPhoto(
+            @PathVariable final String username,
+            @RequestParam(value = "size",
+                    defaultValue = "" + UserPhotoService.DEFAULT_SIZE)
+                final int size,
+            @RequestParam(value = "v", required = false)
+                final String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false)
+                final String ifNoneMatch) {
+
+        kafkaLogService.debug(LOGGER_NAME,
+                "GET /users/" + username + "/photo - size=" + size);
+
+        if (!userPhotoService.isSupportedSize(size)) {
+            kafkaLogService.warn(LOGGER_NAME,
+                    "Unsupported photo size: " + size);
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (ifNoneMatch != null) {
+            Optional<String> hash = userPhotoService.getContentHash(username);
+            if (hash.isPresent()
+                    && ifNoneMatch.equals(photoETag(hash.get(), size))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(photoETag(hash.get(), size))
+                        .cacheControl(photoCacheControl(hash.get(), version))
+                        .build();
+            }
+        }
+
+        Optional<UserPhoto> photo = userPhotoService.getPhoto(username, size);
+        if (photo.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        UserPhoto p = photo.get();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(p.getContentType()))
+                .contentLength(p.getData().length)
+                .eTag(photoETag(p.getContentHash(), size))
+                .cacheControl(photoCacheControl(p.getContentHash(), version))
+                .body(p.getData());
+    }
+
     /**
      * Update user profile.
      *
@@ -239,36 +429,66 @@ public class UserController {
     /**
      * Get all available languages.
      *
-     * @return list of languages
+     * @param ifNoneMatch ETag held by the client
+     * @return list of languages, or 304 if the client copy is current
      */
     @GetMapping("/languages")
-    public ResponseEntity<List<LanguageDTO>> getLanguages() {
+    public ResponseEntity<List<LanguageDTO>> getLanguages(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false)
+                final String ifNoneMatch) {
         kafkaLogService.info(LOGGER_NAME, "GET /languages");
 
+        String etag = languageService.getETag();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(referenceCacheControl())
+                    .build();
+        }
+
         List<Language> languages = languageService.getAllLanguages();
         List<LanguageDTO> dtos = languages.stream()
                 .map(lang -> new LanguageDTO(lang.getLabel()))
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(referenceCacheControl())
+                .body(dtos);
     }
 
     /**
      * Get all available specialisations.
      *
-     * @return list of specialisations
+     * @param ifNoneMatch ETag held by the client
+     * @return list of specialisations, or 304 if the client copy is current
      */
     @GetMapping("/specialisations")
-    public ResponseEntity<List<SpecialisationDTO>> getSpecialisations() {
+    public ResponseEntity<List<SpecialisationDTO>> getSpecialisations(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                    required = false)
+                final String ifNoneMatch) {
         kafkaLogService.info(LOGGER_NAME, "GET /specialisations");
 
+        String etag = specialisationService.getETag();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(referenceCacheControl())
+                    .build();
+        }
+
         List<Specialisation> specialisations =
                 specialisationService.getAllSpecialisations();
         List<SpecialisationDTO> dtos = specialisations.stream()
                 .map(spec -> new SpecialisationDTO(spec.getLabel()))
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(referenceCacheControl())
+                .body(dtos);
     }
 
     /**
@@ -386,13 +606,14 @@ public class UserController {
         kafkaLogService.info(LOGGER_NAME,
                 "GET /users/" + username + "/profile-complete");
 
-        if (userService.getUserByUsername(username).isEmpty()) {
+        Optional<Boolean> complete =
+                userService.findProfileComplete(username);
+        if (complete.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        boolean complete = userService.isUserProfileComplete(username);
         return ResponseEntity.ok(
-                new UserProfileCompletionDTO(username, complete));
+                new UserProfileCompletionDTO(username, complete.get()));
     }
 
     /**
@@ -410,7 +631,8 @@ public class UserController {
         dto.setPhoneNumber(user.getPhoneNumber());
         dto.setLocation(user.getLocation());
         dto.setDescription(user.getDescription());
-        dto.setProfilePhoto(user.getProfilePhoto());
+        setProfilePhoto(user.getUsername(), dto::setProfilePhotoUrl,
+                dto::setProfilePhotoHash);
         dto.setIdentityVerification(user.getIdentityVerification());
         dto.setPreferences(user.getPreferences());
         dto.setRegistrationDate(user.getRegistrationDate());
@@ -430,22 +652,63 @@ public class UserController {
         dto.setLastName(user.getLastName());
         dto.setLocation(user.getLocation());
         dto.setDescription(user.getDescription());
-        dto.setProfilePhoto(user.getProfilePhoto());
+        setProfilePhoto(user.getUsername(), dto::setProfilePhotoUrl,
+                dto::setProfilePhotoHash);
         dto.setIdentityVerification(user.getIdentityVerification());
         dto.setRegistrationDate(user.getRegistrationDate());
         return dto;
     }
 
     /**
-     * Provide readable info about profile photo contents for logs.
+     * Fill the photo URL and hash of a profile DTO.
+     *
+     * @param username the username
+     * @param urlSetter setter for the photo URL
+     * @param hashSetter setter for the photo hash
+     */
+    private void setProfilePhoto(final String username,
+            final Consumer<String> urlSetter,
+            final Consumer<String> hashSetter) {
+        userPhotoService.getContentHash(username).ifPresent(hash -> {
+            urlSetter.accept(UserPhotoService.photoUrl(username, hash));
+            hashSetter.accept(hash);
+        });
+    }
+
+    /**
+     * Build the ETag of a photo variant.
+     *
+     * @param hash the photo content hash
+     * @param size the avatar size
+     * @return quoted ETag
+     */
+    private String photoETag(final String hash, final int size) {
+        return "\"" + hash + "-" + size + "\"";
+    }
+
+    /**
+     * Cache policy of the language and specialisation lists.
+     *
+     * @return cache control
+     */
+    private CacheControl referenceCacheControl() {
+        return CacheControl.maxAge(REFERENCE_MAX_AGE_HOURS, TimeUnit.HOURS)
+                .cachePublic();
+    }
+
+    /**
+     * Choose the caching policy of a photo response.
      *
-     * @param data profile photo bytes
-     * @return readable description
+     * @param hash the current photo hash
+     * @param version the hash requested by the client
+     * @return immutable caching for versioned URLs, revalidation otherwise
      */
-    private String formatProfilePhotoLog(final byte[] data) {
-        if (data == null) {
-            return "null";
+    private CacheControl photoCacheControl(final String hash,
+            final String version) {
+        if (hash.equals(version)) {
+            return CacheControl.maxAge(PHOTO_MAX_AGE_DAYS, TimeUnit.DAYS)
+                    .cachePublic().immutable();
         }
-        return data.length + " bytes";
+        return CacheControl.noCache().cachePublic();
     }
 }
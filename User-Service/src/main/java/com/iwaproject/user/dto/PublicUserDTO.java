@@ -40,9 +40,14 @@ public class PublicUserDTO {
     private String description;
 
     /**
-     * Profile photo binary blob (base64-encoded in JSON).
+     * Profile photo URL (null if the user has no photo).
      */
-    private byte[] profilePhoto;
+    private String profilePhotoUrl;
+
+    /**
+     * Profile photo content hash, changes whenever the photo does.
+     */
+    private String profilePhotoHash;
 
     /**
      * Identity verification status.
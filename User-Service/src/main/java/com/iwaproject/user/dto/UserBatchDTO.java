@@ -0,0 +1,26 @@
+package com.iwaproject.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a batch public-profile lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchDTO {
+
+    /**
+     * Summaries of the users found, in request order.
+     */
+    private List<UserSummaryDTO> users;
+
+    /**
+     * Requested usernames that do not exist.
+     */
+    private List<String> missing;
+}
@@ -0,0 +1,26 @@
+package com.iwaproject.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of guardian directory results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDirectoryPageDTO {
+
+    /**
+     * Matching guardians, ordered by username.
+     */
+    private List<UserSummaryDTO> users;
+
+    /**
+     * Cursor to pass as "after" for the next page, null on the last one.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,140 @@
+package com.iwaproject.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Public profile card: everything a profile page shows, in one call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileCardDTO {
+
+    /**
+     * Separator of the stored label lists.
+     */
+    public static final String LABEL_SEPARATOR = "\n";
+
+    /**
+     * Username.
+     */
+    private String username;
+
+    /**
+     * First name.
+     */
+    private String firstName;
+
+    /**
+     * Last name.
+     */
+    private String lastName;
+
+    /**
+     * Location.
+     */
+    private String location;
+
+    /**
+     * Personal description.
+     */
+    private String description;
+
+    /**
+     * Identity verification status.
+     */
+    private Boolean identityVerification;
+
+    /**
+     * Whether the profile is complete.
+     */
+    private boolean profileComplete;
+
+    /**
+     * Registration date.
+     */
+    private LocalDateTime registrationDate;
+
+    /**
+     * Versioned profile photo URL, null without photo.
+     */
+    private String profilePhotoUrl;
+
+    /**
+     * Profile photo hash, null without photo.
+     */
+    private String profilePhotoHash;
+
+    /**
+     * Chosen language labels.
+     */
+    private List<String> languages;
+
+    /**
+     * Chosen specialisation labels.
+     */
+    private List<String> specialisations;
+
+    /**
+     * Average rating received (0.0 without ratings).
+     */
+    private Double ratingAverage;
+
+    /**
+     * Number of ratings received.
+     */
+    private Long ratingCount;
+
+    /**
+     * Projection constructor used by the card query, which reads the
+     * label lists in their stored form.
+     *
+     * @param username the username
+     * @param firstName the first name
+     * @param lastName the last name
+     * @param location the location
+     * @param description the description
+     * @param identityVerification identity verification status
+     * @param profileComplete whether the profile is complete
+     * @param registrationDate the registration date
+     * @param profilePhotoHash the photo hash, null without photo
+     * @param languages stored language labels, null if none
+     * @param specialisations stored specialisation labels, null if none
+     * @param ratingAverage average rating, null without ratings
+     * @param ratingCount number of ratings, null without ratings
+     */
+    public UserProfileCardDTO(final String username, final String firstName,
+            final String lastName, final String location,
+            final String description, final Boolean identityVerification,
+            final boolean profileComplete,
+            final LocalDateTime registrationDate,
+            final String profilePhotoHash, final String languages,
+            final String specialisations, final Double ratingAverage,
+            final Long ratingCount) {
+        this(username, firstName, lastName, location, description,
+                identityVerification, profileComplete, registrationDate,
+                null, profilePhotoHash, splitLabels(languages),
+                splitLabels(specialisations),
+                ratingAverage != null ? ratingAverage : 0.0,
+                ratingCount != null ? ratingCount : 0L);
+    }
+
+    /**
+     * Split a stored label list.
+     *
+     * @param labels labels joined with LABEL_SEPARATOR, or null
+     * @return the labels
+     */
+    private static List<String> splitLabels(final String labels) {
+        if (labels == null || labels.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(labels.split(LABEL_SEPARATOR));
+    }
+}
@@ -0,0 +1,55 @@
+package com.iwaproject.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latest public state of a user, published on the compacted
+ * user.profile topic so other services can keep a local copy.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileEventDTO {
+
+    /**
+     * Username (also the record key).
+     */
+    private String username;
+
+    /**
+     * First name.
+     */
+    private String firstName;
+
+    /**
+     * Last name.
+     */
+    private String lastName;
+
+    /**
+     * Identity verification status.
+     */
+    private Boolean identityVerification;
+
+    /**
+     * Whether the profile is complete.
+     */
+    private boolean profileComplete;
+
+    /**
+     * Hash of the current profile photo, null without photo.
+     */
+    private String profilePhotoHash;
+
+    /**
+     * Versioned URL of the profile photo, null without photo.
+     */
+    private String profilePhotoUrl;
+
+    /**
+     * Time of the change, in epoch milliseconds.
+     */
+    private long updatedAt;
+}
@@ -0,0 +1,60 @@
+package com.iwaproject.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lean public user summary used to render names and avatars in lists.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    /**
+     * Username.
+     */
+    private String username;
+
+    /**
+     * First name.
+     */
+    private String firstName;
+
+    /**
+     * Last name.
+     */
+    private String lastName;
+
+    /**
+     * Identity verification status.
+     */
+    private Boolean identityVerification;
+
+    /**
+     * Profile photo URL (null if the user has no photo).
+     */
+    private String profilePhotoUrl;
+
+    /**
+     * Profile photo content hash (null if the user has no photo).
+     */
+    private String profilePhotoHash;
+
+    /**
+     * Projection constructor, the photo URL is derived from the hash.
+     *
+     * @param username the username
+     * @param firstName the first name
+     * @param lastName the last name
+     * @param identityVerification identity verification status
+     * @param profilePhotoHash the photo hash (nullable)
+     */
+    public UserSummaryDTO(final String username, final String firstName,
+            final String lastName, final Boolean identityVerification,
+            final String profilePhotoHash) {
+        this(username, firstName, lastName, identityVerification, null,
+                profilePhotoHash);
+    }
+}
@@ -4,8 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -86,13 +85,6 @@ public class User {
     @Column(name = "description", length = MAX_DESCRIPTION_LENGTH)
     private String description;
 
-    /**
-     * User's profile photo binary data.
-     */
-    @JdbcTypeCode(SqlTypes.BINARY)
-    @Column(name = "profile_photo", columnDefinition = "BYTEA")
-    private byte[] profilePhoto;
-
     /**
      * Identity verification status.
      */
@@ -105,6 +97,14 @@ public class User {
     @Column(name = "preferences", length = MAX_PREFERENCES_LENGTH)
     private String preferences;
 
+    /**
+     * Whether the profile is complete, maintained on every profile,
+     * language and specialisation write.
+     */
+    @ColumnDefault("false")
+    @Column(name = "profile_complete", nullable = false)
+    private boolean profileComplete = false;
+
     /**
      * Registration date.
      */
@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,11 @@ import lombok.NoArgsConstructor;
  * User language entity - links users to their chosen languages.
  */
 @Entity
-@Table(name = "user_languages")
+@Table(name = "user_languages", indexes = {
+        @Index(name = "idx_user_languages_username",
+                columnList = "username, language_label"),
+        @Index(name = "idx_user_languages_label",
+                columnList = "language_label, username")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
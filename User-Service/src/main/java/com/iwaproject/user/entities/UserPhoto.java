@@ -0,0 +1,84 @@
+package com.iwaproject.user.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * UserPhoto entity - one resized variant of a user's profile photo.
+ * Kept out of the users table so profile reads never load image bytes.
+ */
+@Entity
+@Table(name = "user_photos", uniqueConstraints = @UniqueConstraint(
+        name = "uk_user_photos_username_size",
+        columnNames = {"username", "size_px"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPhoto {
+
+    /**
+     * Maximum length for standard text fields.
+     */
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * Length of a hex-encoded SHA-256 hash.
+     */
+    private static final int HASH_LENGTH = 64;
+
+    /**
+     * Photo ID (primary key).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Owner username.
+     */
+    @Column(name = "username", length = MAX_TEXT_LENGTH, nullable = false)
+    private String username;
+
+    /**
+     * Avatar size in pixels (width and height bound).
+     */
+    @Column(name = "size_px", nullable = false)
+    private int size;
+
+    /**
+     * Image media type.
+     */
+    @Column(name = "content_type", length = MAX_TEXT_LENGTH, nullable = false)
+    private String contentType;
+
+    /**
+     * SHA-256 of the uploaded photo, shared by all its variants.
+     */
+    @Column(name = "content_hash", length = HASH_LENGTH, nullable = false)
+    private String contentHash;
+
+    /**
+     * Image bytes.
+     */
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "data", columnDefinition = "BYTEA", nullable = false)
+    private byte[] data;
+
+    /**
+     * Upload date.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,69 @@
+package com.iwaproject.user.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * UserProfileCard entity - per-user data of the public profile card that
+ * would otherwise take several queries or calls: chosen labels and the
+ * rating summary published by Rating-Service.
+ */
+@Entity
+@Table(name = "user_profile_cards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileCard {
+
+    /**
+     * Maximum length for standard text fields.
+     */
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * Maximum length for a joined label list.
+     */
+    private static final int MAX_LABELS_LENGTH = 2000;
+
+    /**
+     * Username (primary key).
+     */
+    @Id
+    @Column(name = "username", length = MAX_TEXT_LENGTH, nullable = false)
+    private String username;
+
+    /**
+     * Chosen language labels, newline-separated.
+     */
+    @Column(name = "languages", length = MAX_LABELS_LENGTH)
+    private String languages;
+
+    /**
+     * Chosen specialisation labels, newline-separated.
+     */
+    @Column(name = "specialisations", length = MAX_LABELS_LENGTH)
+    private String specialisations;
+
+    /**
+     * Average rating received.
+     */
+    @Column(name = "rating_average")
+    private Double ratingAverage;
+
+    /**
+     * Number of ratings received.
+     */
+    @Column(name = "rating_count")
+    private Long ratingCount;
+
+    /**
+     * Version of the stored rating summary (see Rating-Service).
+     */
+    @Column(name = "rating_version")
+    private Long ratingVersion;
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,11 @@ import lombok.NoArgsConstructor;
  * User specialisation entity - links users to their chosen specialisations.
  */
 @Entity
-@Table(name = "user_specialisations")
+@Table(name = "user_specialisations", indexes = {
+        @Index(name = "idx_user_specialisations_username",
+                columnList = "username, specialisation_label"),
+        @Index(name = "idx_user_specialisations_label",
+                columnList = "specialisation_label, username")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
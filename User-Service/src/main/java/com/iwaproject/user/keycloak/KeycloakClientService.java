@@ -113,7 +113,7 @@ public class KeycloakClientService {
         try {
             List<UserRepresentation> users = keycloak.realm(realm)
                     .users()
-                    .search(username);
+                    .searchByUsername(username, true);
 
             LOGGER.debug(
                     "Keycloak search for username='{}' returned {} result(s)",
@@ -139,4 +139,22 @@ public class KeycloakClientService {
             return null;
         }
     }
+
+    /**
+     * List one page of realm users, ordered by Keycloak.
+     *
+     * @param first index of the first user
+     * @param max maximum number of users
+     * @return users of the page (fewer than max on the last page)
+     * @throws RuntimeException if Keycloak cannot be reached
+     */
+    public List<UserRepresentation> listUsers(final int first,
+            final int max) {
+        List<UserRepresentation> users = keycloak.realm(realm)
+                .users()
+                .list(first, max);
+        LOGGER.debug("Keycloak users page first={} returned {} result(s)",
+                first, users.size());
+        return users;
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,6 +25,36 @@ public interface UserLanguageRepository
      */
     List<UserLanguage> findByUsername(String username);
 
+    /**
+     * Check if a user has chosen any languages.
+     *
+     * @param username the username
+     * @return true if the user has at least one
+     */
+    boolean existsByUsername(String username);
+
+    /**
+     * Get the language labels chosen by a user.
+     *
+     * @param username the username
+     * @return chosen labels
+     */
+    @Query("SELECT ul.language.label FROM UserLanguage ul "
+            + "WHERE ul.username = :username")
+    List<String> findLabelsByUsername(@Param("username") String username);
+
+    /**
+     * Delete some of a user's languages.
+     *
+     * @param username the username
+     * @param labels the labels to remove
+     */
+    @Modifying
+    @Query("DELETE FROM UserLanguage ul WHERE ul.username = :username "
+            + "AND ul.language.label IN :labels")
+    void deleteByUsernameAndLabelIn(@Param("username") String username,
+            @Param("labels") Collection<String> labels);
+
     /**
      * Delete all languages for a user.
      *
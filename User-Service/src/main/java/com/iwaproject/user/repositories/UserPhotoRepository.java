@@ -0,0 +1,47 @@
+package com.iwaproject.user.repositories;
+
+import com.iwaproject.user.entities.UserPhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for UserPhoto entity.
+ */
+@Repository
+public interface UserPhotoRepository extends JpaRepository<UserPhoto, Long> {
+
+    /**
+     * Find one variant of a user's photo.
+     *
+     * @param username the username
+     * @param size the avatar size in pixels
+     * @return Optional containing the photo if found
+     */
+    Optional<UserPhoto> findByUsernameAndSize(String username, int size);
+
+    /**
+     * Get the content hash of a user's photo without loading its bytes.
+     *
+     * @param username the username
+     * @param size the avatar size in pixels
+     * @return Optional containing the hash if the user has a photo
+     */
+    @Query("SELECT p.contentHash FROM UserPhoto p "
+            + "WHERE p.username = :username AND p.size = :size")
+    Optional<String> findContentHash(@Param("username") String username,
+            @Param("size") int size);
+
+    /**
+     * Delete every variant of a user's photo.
+     *
+     * @param username the username
+     */
+    @Modifying
+    @Query("DELETE FROM UserPhoto p WHERE p.username = :username")
+    void deleteByUsername(@Param("username") String username);
+}
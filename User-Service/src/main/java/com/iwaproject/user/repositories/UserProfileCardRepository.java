@@ -0,0 +1,69 @@
+package com.iwaproject.user.repositories;
+
+import com.iwaproject.user.dto.UserProfileCardDTO;
+import com.iwaproject.user.entities.UserProfileCard;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for UserProfileCard entity.
+ */
+@Repository
+public interface UserProfileCardRepository
+        extends JpaRepository<UserProfileCard, String> {
+
+    /**
+     * Load a complete profile card in one query: profile fields, photo
+     * hash at the given size, labels and rating summary.
+     *
+     * @param username the username
+     * @param photoSize the photo size whose hash is returned
+     * @return the card if the user exists
+     */
+    @Query("SELECT new com.iwaproject.user.dto.UserProfileCardDTO("
+            + "u.username, u.firstName, u.lastName, u.location, "
+            + "u.description, u.identityVerification, u.profileComplete, "
+            + "u.registrationDate, p.contentHash, c.languages, "
+            + "c.specialisations, c.ratingAverage, c.ratingCount) "
+            + "FROM User u LEFT JOIN UserPhoto p "
+            + "ON p.username = u.username AND p.size = :photoSize "
+            + "LEFT JOIN UserProfileCard c ON c.username = u.username "
+            + "WHERE u.username = :username")
+    Optional<UserProfileCardDTO> findCard(@Param("username") String username,
+            @Param("photoSize") int photoSize);
+
+    /**
+     * Page through users that have no card row yet.
+     *
+     * @param limit page size
+     * @return usernames without card
+     */
+    @Query("SELECT u.username FROM User u WHERE NOT EXISTS ("
+            + "SELECT c.username FROM UserProfileCard c "
+            + "WHERE c.username = u.username) ORDER BY u.username")
+    List<String> findUsernamesWithoutCard(Limit limit);
+
+    /**
+     * Insert a card unless the user already has one.
+     *
+     * @param username the username
+     * @param languages the joined language labels
+     * @param specialisations the joined specialisation labels
+     * @return 1 if inserted, 0 if the card existed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_profile_cards (username, languages, "
+            + "specialisations) VALUES (:username, :languages, "
+            + ":specialisations) ON CONFLICT (username) DO NOTHING",
+            nativeQuery = true)
+    int insertIfMissing(@Param("username") String username,
+            @Param("languages") String languages,
+            @Param("specialisations") String specialisations);
+}
@@ -1,9 +1,17 @@
 package com.iwaproject.user.repositories;
 
+import com.iwaproject.user.dto.UserSummaryDTO;
 import com.iwaproject.user.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,4 +35,156 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @return true if user exists
      */
     boolean existsByUsername(String username);
+
+    /**
+     * Keep only the usernames that exist.
+     *
+     * @param usernames the usernames to check
+     * @return existing usernames
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(
+            @Param("usernames") Collection<String> usernames);
+
+    /**
+     * Page through usernames in order.
+     *
+     * @param after last username of the previous page ("" to start)
+     * @param limit page size
+     * @return next usernames
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username > :after "
+            + "ORDER BY u.username")
+    List<String> findUsernamesAfter(@Param("after") String after,
+            Limit limit);
+
+    /**
+     * Page through users in username order.
+     *
+     * @param after last username of the previous page ("" to start)
+     * @param limit page size
+     * @return next users
+     */
+    @Query("SELECT u FROM User u WHERE u.username > :after "
+            + "ORDER BY u.username")
+    List<User> findUsersAfter(@Param("after") String after, Limit limit);
+
+    /**
+     * Read a user's profile completion flag.
+     *
+     * @param username the username
+     * @return Optional containing the flag if the user exists
+     */
+    @Query("SELECT u.profileComplete FROM User u "
+            + "WHERE u.username = :username")
+    Optional<Boolean> findProfileCompleteByUsername(
+            @Param("username") String username);
+
+    /**
+     * Flag every complete profile that is not flagged yet. Used to
+     * backfill rows written before the flag existed.
+     *
+     * @return number of profiles flagged
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.profileComplete = true "
+            + "WHERE u.profileComplete = false "
+            + "AND TRIM(u.firstName) <> '' AND TRIM(u.lastName) <> '' "
+            + "AND TRIM(u.phoneNumber) <> '' AND TRIM(u.location) <> '' "
+            + "AND EXISTS (SELECT 1 FROM UserLanguage l "
+            + "WHERE l.username = u.username) "
+            + "AND EXISTS (SELECT 1 FROM UserSpecialisation s "
+            + "WHERE s.username = u.username)")
+    int flagCompleteProfiles();
+
+    /**
+     * Get a user's stored email without loading the entity.
+     *
+     * @param username the username
+     * @return Optional containing the email if the user has one
+     */
+    @Query("SELECT u.email FROM User u WHERE u.username = :username")
+    Optional<String> findEmailByUsername(@Param("username") String username);
+
+    /**
+     * Store a user's email if it changed.
+     *
+     * @param username the username
+     * @param email the email
+     * @return number of rows updated (0 if unchanged or unknown user)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.email = :email "
+            + "WHERE u.username = :username "
+            + "AND (u.email IS NULL OR u.email <> :email)")
+    int updateEmail(@Param("username") String username,
+            @Param("email") String email);
+
+    /**
+     * Load public summaries of several users in one query, joined with
+     * the hash of their photo at the given size.
+     *
+     * @param usernames the usernames
+     * @param photoSize the photo size whose hash is returned
+     * @return summaries of the users found (unordered)
+     */
+    @Query("SELECT new com.iwaproject.user.dto.UserSummaryDTO("
+            + "u.username, u.firstName, u.lastName, "
+            + "u.identityVerification, p.contentHash) "
+            + "FROM User u LEFT JOIN UserPhoto p "
+            + "ON p.username = u.username AND p.size = :photoSize "
+            + "WHERE u.username IN :usernames")
+    List<UserSummaryDTO> findSummaries(
+            @Param("usernames") Collection<String> usernames,
+            @Param("photoSize") int photoSize);
+
+    /**
+     * Search the guardian directory: complete profiles having every
+     * requested specialisation and language, optionally filtered by
+     * location, in username order after a keyset cursor.
+     *
+     * @param specialisations required specialisation labels
+     * @param specialisationCount number of distinct labels required
+     *        (0 for no filter)
+     * @param languages required language labels
+     * @param languageCount number of distinct labels required
+     *        (0 for no filter)
+     * @param location lower-case LIKE pattern escaped with a backslash,
+     *        or null for any location
+     * @param after last username of the previous page ("" for the first)
+     * @param photoSize the photo size whose hash is returned
+     * @param limit maximum number of results
+     * @return matching summaries ordered by username
+     */
+    @Query("SELECT new com.iwaproject.user.dto.UserSummaryDTO("
+            + "u.username, u.firstName, u.lastName, "
+            + "u.identityVerification, p.contentHash) "
+            + "FROM User u LEFT JOIN UserPhoto p "
+            + "ON p.username = u.username AND p.size = :photoSize "
+            + "WHERE u.profileComplete = true "
+            + "AND u.username > :after "
+            + "AND (:location IS NULL "
+            + "OR LOWER(u.location) LIKE :location ESCAPE '\\') "
+            + "AND (:specialisationCount = 0 OR u.username IN ("
+            + "SELECT us.username FROM UserSpecialisation us "
+            + "WHERE us.specialisation.label IN :specialisations "
+            + "GROUP BY us.username "
+            + "HAVING COUNT(us.id) = :specialisationCount)) "
+            + "AND (:languageCount = 0 OR u.username IN ("
+            + "SELECT ul.username FROM UserLanguage ul "
+            + "WHERE ul.language.label IN :languages "
+            + "GROUP BY ul.username "
+            + "HAVING COUNT(ul.id) = :languageCount)) "
+            + "ORDER BY u.username")
+    List<UserSummaryDTO> searchDirectory(
+            @Param("specialisations") Collection<String> specialisations,
+            @Param("specialisationCount") long specialisationCount,
+            @Param("languages") Collection<String> languages,
+            @Param("languageCount") long languageCount,
+            @Param("location") String location,
+            @Param("after") String after,
+            @Param("photoSize") int photoSize,
+            Limit limit);
 }
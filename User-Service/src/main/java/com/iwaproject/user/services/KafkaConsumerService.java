@@ -1,12 +1,19 @@
 package com.iwaproject.user.services;
 
 import com.iwaproject.user.keycloak.KeycloakClientService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Kafka consumer service for user-related messages.
  */
@@ -50,36 +57,48 @@ public class KafkaConsumerService {
     private final ObjectMapper objectMapper;
 
     /**
-     * Consume user existence check requests.
-     * Message format: <correlationId>:<replyTopic>:<token>
+     * User profile card service.
+     */
+    private final UserProfileCardService userProfileCardService;
+
+    /**
+     * Consume a poll's worth of user existence check requests, resolve
+     * them against the username index and reply in one flush.
+     * Message format: <correlationId>:<replyTopic>:<username>
      * Replies with: <correlationId>:true|false
      *
-     * @param message the kafka message
+     * @param messages the kafka messages
      */
     @KafkaListener(topics = "user-exists-topic",
-            groupId = "user-exists-group")
-    public void consumeUserExists(final String message) {
-        kafkaLogService.info(LOGGER_NAME,
-                "Received message on 'user-exists-topic': " + message);
-
-        String[] parts = message.split(":", MESSAGE_PARTS_COUNT);
-        if (parts.length < MESSAGE_PARTS_COUNT) {
-            kafkaLogService.error(LOGGER_NAME,
-                    "Invalid message format. Expected format: "
-                    + "<correlationId>:<replyTopic>:<username>");
+            groupId = "user-exists-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeUserExists(final List<String> messages) {
+        List<String[]> requests = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            String[] parts = message.split(":", MESSAGE_PARTS_COUNT);
+            if (parts.length < MESSAGE_PARTS_COUNT) {
+                kafkaLogService.error(LOGGER_NAME,
+                        "Invalid message format. Expected format: "
+                        + "<correlationId>:<replyTopic>:<username>");
+                continue;
+            }
+            requests.add(parts);
+        }
+        if (requests.isEmpty()) {
             return;
         }
 
-        String correlationId = parts[0];
-        String replyTopic = parts[1];
-        String username = parts[2];
+        Set<String> existing = userService.findExistingUsernames(
+                requests.stream().map(parts -> parts[2]).toList());
 
-        boolean exists = userService.userExists(username);
-        String response = correlationId + ":" + (exists ? "true" : "false");
-        kafkaTemplate.send(replyTopic, response);
-        kafkaLogService.info(LOGGER_NAME,
-                "Sent user exists response to '" + replyTopic
-                + "' for correlationId " + correlationId + " -> " + exists);
+        for (String[] parts : requests) {
+            kafkaTemplate.send(parts[1], parts[0] + ":"
+                    + existing.contains(
+                            UserService.normalizeUsername(parts[2])));
+        }
+        kafkaTemplate.flush();
+        kafkaLogService.info(LOGGER_NAME, "Answered " + requests.size()
+                + " user exists requests on 'user-exists-topic'");
     }
 
     /**
@@ -107,7 +126,9 @@ public class KafkaConsumerService {
         String replyTopic = parts[1];
         String username = parts[2];
 
-        if (!userService.userExists(username)) {
+        Optional<Boolean> completeOpt =
+                userService.findProfileComplete(username);
+        if (completeOpt.isEmpty()) {
             String response = correlationId + ":false";
             kafkaTemplate.send(replyTopic, response);
             kafkaLogService.info(
@@ -117,7 +138,7 @@ public class KafkaConsumerService {
                     + " -> false (user does not exist)");
             return;
         }
-        boolean complete = userService.isUserProfileComplete(username);
+        boolean complete = completeOpt.get();
         String response = correlationId + ":" + (complete ? "true" : "false");
         kafkaTemplate.send(replyTopic, response);
         kafkaLogService.info(LOGGER_NAME,
@@ -126,4 +147,35 @@ public class KafkaConsumerService {
                 + " -> " + complete);
     }
 
+    /**
+     * Consume rating summaries published by Rating-Service and store
+     * them on the recipients' profile cards.
+     * Message format:
+     * {"recipientId":..., "average":..., "count":..., "version":...}
+     *
+     * @param message the kafka message
+     */
+    @KafkaListener(topics = "rating.summary",
+            groupId = "user-rating-summary-group")
+    public void consumeRatingSummary(final String message) {
+        JsonNode summary;
+        try {
+            summary = objectMapper.readTree(message);
+        } catch (JsonProcessingException e) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Invalid rating summary: " + message);
+            return;
+        }
+        JsonNode recipientId = summary.get("recipientId");
+        if (recipientId == null || recipientId.asText().isBlank()) {
+            kafkaLogService.error(LOGGER_NAME,
+                    "Rating summary without recipientId: " + message);
+            return;
+        }
+        userProfileCardService.updateRating(recipientId.asText(),
+                summary.path("average").asDouble(),
+                summary.path("count").asLong(),
+                summary.hasNonNull("version")
+                        ? summary.get("version").asLong() : null);
+    }
 }
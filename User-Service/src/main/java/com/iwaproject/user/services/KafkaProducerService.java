@@ -25,4 +25,16 @@ public class KafkaProducerService {
     public void sendMessage(final String topic, final Object message) {
         kafkaTemplate.send(topic, message);
     }
+
+    /**
+     * Send keyed message to Kafka topic.
+     *
+     * @param topic the topic name
+     * @param key the record key
+     * @param message the message to send (null for a tombstone)
+     */
+    public void sendMessage(final String topic, final String key,
+            final Object message) {
+        kafkaTemplate.send(topic, key, message);
+    }
 }
@@ -3,13 +3,19 @@ package com.iwaproject.user.services;
 import com.iwaproject.user.entities.Language;
 import com.iwaproject.user.repositories.LanguageRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 /**
- * Service for language operations.
+ * Service for language operations. The table is served from an
+ * in-memory snapshot, reloaded at startup and periodically.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class LanguageService {
@@ -19,12 +25,71 @@ public class LanguageService {
      */
     private final LanguageRepository languageRepository;
 
+    /**
+     * Current snapshot of the table (null until first load).
+     */
+    private volatile ReferenceSnapshot<Language> snapshot;
+
     /**
      * Get all languages.
      *
      * @return list of all languages
      */
     public List<Language> getAllLanguages() {
-        return languageRepository.findAll();
+        return snapshot().all();
+    }
+
+    /**
+     * Resolve a language label without querying the database.
+     *
+     * @param label the language label
+     * @return the language
+     * @throws IllegalArgumentException if the label is unknown
+     */
+    public Language getLanguage(final String label) {
+        return snapshot().find(label)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Language not found: " + label));
+    }
+
+    /**
+     * Get the version of the languages list, for HTTP caching.
+     *
+     * @return quoted ETag
+     */
+    public String getETag() {
+        return snapshot().etag();
+    }
+
+    /**
+     * Reload the snapshot from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${user.reference-data.refresh-millis:600000}",
+            initialDelayString = "${user.reference-data.refresh-millis:600000}")
+    public void refresh() {
+        ReferenceSnapshot<Language> loaded = new ReferenceSnapshot<>(
+                languageRepository.findAll(), Language::getLabel);
+        ReferenceSnapshot<Language> previous = snapshot;
+        snapshot = loaded;
+        if (previous == null || !previous.etag().equals(loaded.etag())) {
+            log.info("Loaded {} languages", loaded.all().size());
+        }
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use. An empty table
+     * is not kept so data seeded after startup is picked up.
+     *
+     * @return current snapshot
+     */
+    private ReferenceSnapshot<Language> snapshot() {
+        ReferenceSnapshot<Language> current = snapshot;
+        if (current == null || current.isEmpty()) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
     }
 }
@@ -0,0 +1,85 @@
+package com.iwaproject.user.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable copy of a reference table (languages, specialisations),
+ * indexed by label and tagged with a version for HTTP caching.
+ *
+ * @param <T> the reference entity type
+ */
+final class ReferenceSnapshot<T> {
+
+    /**
+     * Entries in table order.
+     */
+    private final List<T> all;
+
+    /**
+     * Entries by label.
+     */
+    private final Map<String, T> byLabel;
+
+    /**
+     * Quoted ETag, SHA-256 of the labels.
+     */
+    private final String etag;
+
+    /**
+     * Build a snapshot.
+     *
+     * @param entries the table rows
+     * @param label function giving the label of a row
+     */
+    ReferenceSnapshot(final List<T> entries,
+            final Function<T, String> label) {
+        Map<String, T> index = new LinkedHashMap<>();
+        entries.forEach(entry -> index.put(label.apply(entry), entry));
+        this.all = List.copyOf(entries);
+        this.byLabel = Map.copyOf(index);
+        this.etag = "\"" + UserPhotoService.sha256(String.join("\n",
+                index.keySet()).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Get every entry.
+     *
+     * @return entries in table order
+     */
+    List<T> all() {
+        return all;
+    }
+
+    /**
+     * Find an entry by label.
+     *
+     * @param label the label
+     * @return Optional containing the entry if it exists
+     */
+    Optional<T> find(final String label) {
+        return Optional.ofNullable(label).map(byLabel::get);
+    }
+
+    /**
+     * Get the snapshot version.
+     *
+     * @return quoted ETag
+     */
+    String etag() {
+        return etag;
+    }
+
+    /**
+     * Check whether the snapshot holds no entry.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return all.isEmpty();
+    }
+}
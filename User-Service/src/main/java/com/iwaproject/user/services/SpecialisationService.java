@@ -3,13 +3,19 @@ package com.iwaproject.user.services;
 import com.iwaproject.user.entities.Specialisation;
 import com.iwaproject.user.repositories.SpecialisationRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 /**
- * Service for specialisation operations.
+ * Service for specialisation operations. The table is served from an
+ * in-memory snapshot, reloaded at startup and periodically.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SpecialisationService {
@@ -19,12 +25,71 @@ public class SpecialisationService {
      */
     private final SpecialisationRepository specialisationRepository;
 
+    /**
+     * Current snapshot of the table (null until first load).
+     */
+    private volatile ReferenceSnapshot<Specialisation> snapshot;
+
     /**
      * Get all specialisations.
      *
      * @return list of all specialisations
      */
     public List<Specialisation> getAllSpecialisations() {
-        return specialisationRepository.findAll();
+        return snapshot().all();
+    }
+
+    /**
+     * Resolve a specialisation label without querying the database.
+     *
+     * @param label the specialisation label
+     * @return the specialisation
+     * @throws IllegalArgumentException if the label is unknown
+     */
+    public Specialisation getSpecialisation(final String label) {
+        return snapshot().find(label)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Specialisation not found: " + label));
+    }
+
+    /**
+     * Get the version of the specialisations list, for HTTP caching.
+     *
+     * @return quoted ETag
+     */
+    public String getETag() {
+        return snapshot().etag();
+    }
+
+    /**
+     * Reload the snapshot from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${user.reference-data.refresh-millis:600000}",
+            initialDelayString = "${user.reference-data.refresh-millis:600000}")
+    public void refresh() {
+        ReferenceSnapshot<Specialisation> loaded = new ReferenceSnapshot<>(
+                specialisationRepository.findAll(), Specialisation::getLabel);
+        ReferenceSnapshot<Specialisation> previous = snapshot;
+        snapshot = loaded;
+        if (previous == null || !previous.etag().equals(loaded.etag())) {
+            log.info("Loaded {} specialisations", loaded.all().size());
+        }
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use. An empty table
+     * is not kept so data seeded after startup is picked up.
+     *
+     * @return current snapshot
+     */
+    private ReferenceSnapshot<Specialisation> snapshot() {
+        ReferenceSnapshot<Specialisation> current = snapshot;
+        if (current == null || current.isEmpty()) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
     }
 }
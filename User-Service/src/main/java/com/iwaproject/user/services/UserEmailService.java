@@ -0,0 +1,259 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.keycloak.KeycloakClientService;
+import com.iwaproject.user.repositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Username to email lookups backed by Keycloak.
+ *
+ * Reads are served from memory or from the users.email column and never
+ * wait for Keycloak: entries close to expiry are refreshed in the
+ * background, and a scheduled job walks the Keycloak realm page by page
+ * to keep the column up to date.
+ */
+@Slf4j
+@Service
+public class UserEmailService {
+
+    /**
+     * Share of the TTL after which an entry is refreshed ahead of expiry.
+     */
+    private static final double REFRESH_AHEAD_RATIO = 0.8;
+
+    /**
+     * Keycloak client service.
+     */
+    private final KeycloakClientService keycloakClientService;
+
+    /**
+     * User repository.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Executor running Keycloak refreshes.
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * Clock used to age cache entries.
+     */
+    private final Clock clock;
+
+    /**
+     * Cache entry lifetime.
+     */
+    private final Duration ttl;
+
+    /**
+     * Age after which an entry is refreshed in the background.
+     */
+    private final Duration refreshAfter;
+
+    /**
+     * Number of Keycloak users read per sync run.
+     */
+    private final int syncPageSize;
+
+    /**
+     * Cached emails by username.
+     */
+    private final Map<String, CachedEmail> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Usernames with a refresh in flight.
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Offset of the next Keycloak page to sync.
+     */
+    private int syncOffset;
+
+    /**
+     * Create the service with its own refresh thread.
+     *
+     * @param keycloakClientService Keycloak client service
+     * @param userRepository user repository
+     * @param ttl cache entry lifetime
+     * @param syncPageSize number of Keycloak users read per sync run
+     */
+    @Autowired
+    public UserEmailService(final KeycloakClientService keycloakClientService,
+            final UserRepository userRepository,
+            @Value("${user.email-cache.ttl:PT1H}") final Duration ttl,
+            @Value("${user.email-sync.page-size:100}")
+                final int syncPageSize) {
+        this(keycloakClientService, userRepository,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "email-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }), Clock.systemUTC(), ttl, syncPageSize);
+    }
+
+    /**
+     * Create the service.
+     *
+     * @param keycloakClientService Keycloak client service
+     * @param userRepository user repository
+     * @param refreshExecutor executor running Keycloak refreshes
+     * @param clock clock used to age entries
+     * @param ttl cache entry lifetime
+     * @param syncPageSize number of Keycloak users read per sync run
+     */
+    UserEmailService(final KeycloakClientService keycloakClientService,
+            final UserRepository userRepository,
+            final Executor refreshExecutor, final Clock clock,
+            final Duration ttl, final int syncPageSize) {
+        this.keycloakClientService = keycloakClientService;
+        this.userRepository = userRepository;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.refreshAfter = Duration.ofMillis(
+                (long) (ttl.toMillis() * REFRESH_AHEAD_RATIO));
+        this.syncPageSize = syncPageSize;
+    }
+
+    /**
+     * Get a user's email without calling Keycloak on the caller thread.
+     *
+     * Contract:
+     * - Fresh entry: returned as is
+     * - Entry past the refresh-ahead age: returned, refresh scheduled
+     * - Expired or unknown: users.email returned, refresh scheduled
+     *
+     * @param username the username
+     * @return email or null if not known yet
+     */
+    public String getEmail(final String username) {
+        if (username == null || username.isBlank()) {
+            return null;
+        }
+        Instant now = clock.instant();
+        CachedEmail cached = cache.get(username);
+        if (cached != null) {
+            Duration age = Duration.between(cached.loadedAt(), now);
+            if (age.compareTo(ttl) < 0) {
+                if (age.compareTo(refreshAfter) >= 0) {
+                    scheduleRefresh(username);
+                }
+                return cached.email();
+            }
+        }
+
+        scheduleRefresh(username);
+        return userRepository.findEmailByUsername(username).orElse(null);
+    }
+
+    /**
+     * Sync one page of Keycloak users into users.email, then move on to
+     * the next page (back to the first one after the last).
+     */
+    @Scheduled(fixedDelayString = "${user.email-sync.interval-millis:60000}")
+    public synchronized void syncNextPage() {
+        List<UserRepresentation> page;
+        try {
+            page = keycloakClientService.listUsers(syncOffset, syncPageSize);
+        } catch (Exception e) {
+            log.warn("Email sync skipped, Keycloak unavailable: {}",
+                    e.getMessage());
+            return;
+        }
+
+        int updated = 0;
+        Instant now = clock.instant();
+        for (UserRepresentation user : page) {
+            String username = user.getUsername();
+            String email = user.getEmail();
+            if (username == null || email == null) {
+                continue;
+            }
+            updated += userRepository.updateEmail(username, email);
+            cache.computeIfPresent(username,
+                    (key, old) -> new CachedEmail(email, now));
+        }
+        log.debug("Email sync of Keycloak users {}-{}: {} updated",
+                syncOffset, syncOffset + page.size(), updated);
+
+        syncOffset = page.size() < syncPageSize ? 0
+                : syncOffset + page.size();
+    }
+
+    /**
+     * Stop the refresh thread.
+     */
+    @PreDestroy
+    public void stop() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Refresh an entry from Keycloak in the background, at most once at
+     * a time per username.
+     *
+     * @param username the username
+     */
+    private void scheduleRefresh(final String username) {
+        if (!refreshing.add(username)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(username));
+        } catch (RuntimeException e) {
+            refreshing.remove(username);
+            log.warn("Could not schedule email refresh for {}", username, e);
+        }
+    }
+
+    /**
+     * Load an email from Keycloak and store it in the cache and column.
+     *
+     * @param username the username
+     */
+    private void refresh(final String username) {
+        try {
+            String email = keycloakClientService.getEmailByUsername(username);
+            if (email == null) {
+                return;
+            }
+            cache.put(username, new CachedEmail(email, clock.instant()));
+            userRepository.updateEmail(username, email);
+        } catch (Exception e) {
+            log.warn("Could not refresh email of {} from Keycloak: {}",
+                    username, e.getMessage());
+        } finally {
+            refreshing.remove(username);
+        }
+    }
+
+    /**
+     * Cached email with its load time.
+     *
+     * @param email the email
+     * @param loadedAt when it was read from Keycloak
+     */
+    private record CachedEmail(String email, Instant loadedAt) {
+    }
+}
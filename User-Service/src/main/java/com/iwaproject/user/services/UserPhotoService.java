@@ -0,0 +1,210 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.entities.UserPhoto;
+import com.iwaproject.user.repositories.UserPhotoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service for profile photos. Uploads are resized once to fixed avatar
+ * sizes and stored apart from the user row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserPhotoService {
+
+    /**
+     * Avatar sizes served, in pixels.
+     */
+    public static final List<Integer> AVATAR_SIZES = List.of(64, 256);
+
+    /**
+     * Avatar size used when none is requested.
+     */
+    public static final int DEFAULT_SIZE = 256;
+
+    /**
+     * Media type of stored avatars.
+     */
+    private static final String CONTENT_TYPE = "image/jpeg";
+
+    /**
+     * User photo repository.
+     */
+    private final UserPhotoRepository userPhotoRepository;
+
+    /**
+     * Replace a user's photo. A null photo removes it.
+     *
+     * @param username the username
+     * @param photo the uploaded image bytes (null to remove)
+     * @return content hash of the stored photo, null if removed
+     * @throws IllegalArgumentException if the bytes are not an image
+     */
+    @Transactional
+    public String storePhoto(final String username, final byte[] photo) {
+        userPhotoRepository.deleteByUsername(username);
+        if (photo == null) {
+            log.debug("Removed profile photo of {}", username);
+            return null;
+        }
+
+        BufferedImage image = readImage(photo);
+        String hash = sha256(photo);
+        LocalDateTime now = LocalDateTime.now();
+        for (int size : AVATAR_SIZES) {
+            userPhotoRepository.save(new UserPhoto(null, username, size,
+                    CONTENT_TYPE, hash, toJpeg(resize(image, size)), now));
+        }
+        log.debug("Stored profile photo of {} ({} bytes, hash {})",
+                username, photo.length, hash);
+        return hash;
+    }
+
+    /**
+     * Get one variant of a user's photo.
+     *
+     * @param username the username
+     * @param size the avatar size in pixels
+     * @return Optional containing the photo if found
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserPhoto> getPhoto(final String username,
+            final int size) {
+        return userPhotoRepository.findByUsernameAndSize(
+                UserService.normalizeUsername(username), size);
+    }
+
+    /**
+     * Get the content hash of a user's photo without loading it.
+     *
+     * @param username the username
+     * @return Optional containing the hash if the user has a photo
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getContentHash(final String username) {
+        return userPhotoRepository.findContentHash(
+                UserService.normalizeUsername(username), DEFAULT_SIZE);
+    }
+
+    /**
+     * Check whether an avatar size is served.
+     *
+     * @param size the requested size
+     * @return true if supported
+     */
+    public boolean isSupportedSize(final int size) {
+        return AVATAR_SIZES.contains(size);
+    }
+
+    /**
+     * Build the URL of a user's photo. The hash is part of the URL so
+     * clients can cache it forever and pick up changes on their own.
+     *
+     * @param username the username
+     * @param hash the photo content hash
+     * @return photo URL
+     */
+    public static String photoUrl(final String username, final String hash) {
+        return "/api/users/" + username + "/photo?v=" + hash;
+    }
+
+    /**
+     * Decode uploaded bytes.
+     *
+     * @param photo the uploaded bytes
+     * @return decoded image
+     */
+    private BufferedImage readImage(final byte[] photo) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(photo));
+            if (image == null) {
+                throw new IllegalArgumentException(
+                        "Unsupported profile photo format");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "Unreadable profile photo", e);
+        }
+    }
+
+    /**
+     * Scale an image down to fit a square, keeping its aspect ratio.
+     * Transparent areas are flattened on white since JPEG has no alpha.
+     *
+     * @param image the source image
+     * @param size the bounding square side in pixels
+     * @return resized image
+     */
+    static BufferedImage resize(final BufferedImage image, final int size) {
+        double scale = Math.min(1.0, (double) size
+                / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage resized = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * Encode an image as JPEG.
+     *
+     * @param image the image
+     * @return JPEG bytes
+     */
+    private byte[] toJpeg(final BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpg", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Hash bytes with SHA-256.
+     *
+     * @param data the bytes
+     * @return hex-encoded hash
+     */
+    static String sha256(final byte[] data) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.dto.UserProfileCardDTO;
+import com.iwaproject.user.entities.UserProfileCard;
+import com.iwaproject.user.repositories.UserLanguageRepository;
+import com.iwaproject.user.repositories.UserProfileCardRepository;
+import com.iwaproject.user.repositories.UserSpecialisationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Public profile cards. Labels are copied into the card row when a user
+ * changes them and the rating summary when Rating-Service publishes it,
+ * so a card is read with a single query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProfileCardService {
+
+    /**
+     * User profile card repository.
+     */
+    private final UserProfileCardRepository userProfileCardRepository;
+
+    /**
+     * User language repository.
+     */
+    private final UserLanguageRepository userLanguageRepository;
+
+    /**
+     * User specialisation repository.
+     */
+    private final UserSpecialisationRepository userSpecialisationRepository;
+
+    /**
+     * Get a user's profile card.
+     *
+     * @param username the username, in any case
+     * @return the card, empty if the user doesn't exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserProfileCardDTO> getCard(final String username) {
+        Optional<UserProfileCardDTO> card = userProfileCardRepository
+                .findCard(UserService.normalizeUsername(username),
+                        UserPhotoService.DEFAULT_SIZE);
+        card.ifPresent(c -> {
+            if (c.getProfilePhotoHash() != null) {
+                c.setProfilePhotoUrl(UserPhotoService.photoUrl(
+                        c.getUsername(), c.getProfilePhotoHash()));
+            }
+        });
+        return card;
+    }
+
+    /**
+     * Version of a card, for HTTP caching: SHA-256 of every field, so
+     * two different cards never share an ETag in practice.
+     *
+     * @param card the card
+     * @return quoted ETag
+     */
+    public static String etag(final UserProfileCardDTO card) {
+        return "\"" + UserPhotoService.sha256(card.toString()
+                .getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Store a user's language labels on their card.
+     *
+     * @param username the normalised username
+     * @param labels the chosen labels
+     */
+    @Transactional
+    public void updateLanguages(final String username,
+            final List<String> labels) {
+        UserProfileCard card = card(username);
+        card.setLanguages(joinLabels(labels));
+        userProfileCardRepository.save(card);
+    }
+
+    /**
+     * Store a user's specialisation labels on their card.
+     *
+     * @param username the normalised username
+     * @param labels the chosen labels
+     */
+    @Transactional
+    public void updateSpecialisations(final String username,
+            final List<String> labels) {
+        UserProfileCard card = card(username);
+        card.setSpecialisations(joinLabels(labels));
+        userProfileCardRepository.save(card);
+    }
+
+    /**
+     * Store a user's rating summary on their card, unless the card
+     * already holds a newer one.
+     *
+     * @param username the username, in any case
+     * @param average the average rating
+     * @param count the number of ratings
+     * @param version version of the summary, null if unknown
+     */
+    @Transactional
+    public void updateRating(final String username, final Double average,
+            final Long count, final Long version) {
+        UserProfileCard card = card(UserService.normalizeUsername(username));
+        if (version != null && card.getRatingVersion() != null
+                && version < card.getRatingVersion()) {
+            log.debug("Ignoring outdated rating summary of {}", username);
+            return;
+        }
+        card.setRatingAverage(average);
+        card.setRatingCount(count);
+        card.setRatingVersion(version);
+        userProfileCardRepository.save(card);
+        log.debug("Rating summary of {}: {} over {} ratings", username,
+                average, count);
+    }
+
+    /**
+     * Create the card of a user who has none yet.
+     *
+     * @param username the normalised username
+     */
+    @Transactional
+    public void createMissingCard(final String username) {
+        if (!userProfileCardRepository.existsById(username)) {
+            insertCard(username);
+        }
+    }
+
+    /**
+     * Load a user's card, creating it from their current labels first
+     * so a card row never misses them.
+     *
+     * @param username the normalised username
+     * @return managed card
+     */
+    private UserProfileCard card(final String username) {
+        return userProfileCardRepository.findById(username)
+                .orElseGet(() -> {
+                    insertCard(username);
+                    return userProfileCardRepository.findById(username)
+                            .orElseThrow();
+                });
+    }
+
+    /**
+     * Insert a user's card with their current labels. Concurrent first
+     * writes for the same user both succeed: the loser's insert waits
+     * for the winner and then does nothing.
+     *
+     * @param username the normalised username
+     */
+    private void insertCard(final String username) {
+        userProfileCardRepository.insertIfMissing(username,
+                joinLabels(userLanguageRepository
+                        .findLabelsByUsername(username)),
+                joinLabels(userSpecialisationRepository
+                        .findLabelsByUsername(username)));
+    }
+
+    /**
+     * Join labels in their stored form.
+     *
+     * @param labels the labels
+     * @return joined labels
+     */
+    private static String joinLabels(final List<String> labels) {
+        return String.join(UserProfileCardDTO.LABEL_SEPARATOR, labels);
+    }
+}
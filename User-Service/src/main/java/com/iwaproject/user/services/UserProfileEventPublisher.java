@@ -0,0 +1,107 @@
+package com.iwaproject.user.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.user.dto.UserProfileEventDTO;
+import com.iwaproject.user.entities.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes user profile summaries on a compacted topic keyed by
+ * username. Consumers reading it from the start get the latest state
+ * of every user without calling User-Service.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProfileEventPublisher {
+
+    /**
+     * Compacted topic holding the latest summary of each user.
+     */
+    public static final String USER_PROFILE_TOPIC = "user.profile";
+
+    /**
+     * Kafka producer service.
+     */
+    private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * User photo service.
+     */
+    private final UserPhotoService userPhotoService;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Publish the current state of a user once the surrounding
+     * transaction commits (immediately without transaction), so
+     * consumers never see a change that was rolled back.
+     *
+     * @param user the user as written
+     */
+    public void publishAfterCommit(final User user) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(toEvent(user));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize profile event of {}",
+                    user.getUsername(), e);
+            return;
+        }
+        String username = user.getUsername();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(username, payload);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        send(username, payload);
+                    }
+                });
+    }
+
+    /**
+     * Build the event of a user, reading the current photo hash.
+     *
+     * @param user the user
+     * @return profile event
+     */
+    UserProfileEventDTO toEvent(final User user) {
+        String hash = userPhotoService.getContentHash(user.getUsername())
+                .orElse(null);
+        return new UserProfileEventDTO(user.getUsername(),
+                user.getFirstName(), user.getLastName(),
+                user.getIdentityVerification(), user.isProfileComplete(),
+                hash,
+                hash == null ? null
+                        : UserPhotoService.photoUrl(user.getUsername(), hash),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Send an event, logging failures: the next change of the same user
+     * supersedes it on the compacted topic.
+     *
+     * @param username the record key
+     * @param payload the JSON event
+     */
+    private void send(final String username, final String payload) {
+        try {
+            kafkaProducerService.sendMessage(USER_PROFILE_TOPIC, username,
+                    payload);
+        } catch (Exception e) {
+            log.warn("Failed to publish profile of {}: {}", username,
+                    e.getMessage());
+        }
+    }
+}
@@ -1,25 +1,33 @@
 package com.iwaproject.user.services;
 
+import com.iwaproject.user.dto.UserBatchDTO;
+import com.iwaproject.user.dto.UserDirectoryPageDTO;
 import com.iwaproject.user.dto.UserLanguageDTO;
 import com.iwaproject.user.dto.UserSpecialisationDTO;
+import com.iwaproject.user.dto.UserSummaryDTO;
 import com.iwaproject.user.entities.User;
-import com.iwaproject.user.entities.UserLanguage;
-import com.iwaproject.user.entities.UserSpecialisation;
-import com.iwaproject.user.keycloak.KeycloakClientService;
-import com.iwaproject.user.repositories.LanguageRepository;
-import com.iwaproject.user.repositories.SpecialisationRepository;
 import com.iwaproject.user.repositories.UserLanguageRepository;
 import com.iwaproject.user.repositories.UserRepository;
 import com.iwaproject.user.repositories.UserSpecialisationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -46,43 +54,142 @@ public class UserService {
     private final UserSpecialisationRepository userSpecialisationRepository;
 
     /**
-     * Language repository.
+     * Language service.
      */
-    private final LanguageRepository languageRepository;
+    private final LanguageService languageService;
 
     /**
-     * Specialisation repository.
+     * Specialisation service.
      */
-    private final SpecialisationRepository specialisationRepository;
+    private final SpecialisationService specialisationService;
 
     /**
-     * Keycloak client service.
+     * JDBC template, used for batched link inserts.
      */
-    private final KeycloakClientService keycloakClientService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
-     * Determine if a user's profile is complete based on required fields.
+     * User email service.
+     */
+    private final UserEmailService userEmailService;
+
+    /**
+     * Kafka producer service.
+     */
+    private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * User photo service.
+     */
+    private final UserPhotoService userPhotoService;
+
+    /**
+     * In-memory index of existing usernames.
+     */
+    private final UsernameIndex usernameIndex;
+
+    /**
+     * User profile event publisher.
+     */
+    private final UserProfileEventPublisher userProfileEventPublisher;
+
+    /**
+     * User profile card service.
+     */
+    private final UserProfileCardService userProfileCardService;
+
+    /**
+     * Topic carrying user lifecycle events.
+     * Message format: CREATED|DELETED:<username>
+     */
+    private static final String USER_LIFECYCLE_TOPIC = "user-lifecycle-topic";
+
+    /**
+     * Maximum number of usernames in a batch lookup.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * Default number of guardians per directory page.
+     */
+    public static final int DEFAULT_DIRECTORY_PAGE_SIZE = 20;
+
+    /**
+     * Maximum number of guardians per directory page.
+     */
+    public static final int MAX_DIRECTORY_PAGE_SIZE = 50;
+
+    /**
+     * Insert of a user language link.
+     */
+    private static final String INSERT_USER_LANGUAGE_SQL =
+            "INSERT INTO user_languages (username, language_label) "
+            + "VALUES (?, ?)";
+
+    /**
+     * Insert of a user specialisation link.
+     */
+    private static final String INSERT_USER_SPECIALISATION_SQL =
+            "INSERT INTO user_specialisations (username, "
+            + "specialisation_label) VALUES (?, ?)";
+
+    /**
+     * Normalise a username to the form stored in every table: trimmed
+     * and lower-cased, as Keycloak does. All lookups go through it so
+     * mixed-case input hits the primary key instead of missing.
      *
-     * Contract:
-     * - Input: username (non-null)
-     * - Output: true if all required fields are present/valid, else false
-     * - Required fields (assumed): firstName, lastName, phoneNumber, location
-     *   and at least one language and one specialisation.
+     * @param username the username as received
+     * @return normalised username, null for null
+     */
+    public static String normalizeUsername(final String username) {
+        if (username == null) {
+            return null;
+        }
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Check whether a user's profile is complete.
+     *
+     * Reads the profile_complete flag maintained on every profile,
+     * language and specialisation write.
      * - If user doesn't exist: returns false.
      *
      * @param username the username to evaluate
      * @return true if the profile is complete, otherwise false
      */
     public boolean isUserProfileComplete(final String username) {
+        return findProfileComplete(username).orElse(false);
+    }
+
+    /**
+     * Read a user's profile completion flag.
+     *
+     * @param username the username
+     * @return Optional containing the flag, empty if the user doesn't exist
+     */
+    public Optional<Boolean> findProfileComplete(final String username) {
         if (username == null || username.isBlank()) {
-            return false;
+            return Optional.empty();
         }
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isEmpty()) {
-            return false;
-        }
-        User user = userOpt.get();
+        return userRepository.findProfileCompleteByUsername(
+                normalizeUsername(username));
+    }
 
+    /**
+     * Determine if a profile is complete based on required fields.
+     *
+     * Contract:
+     * - Required fields (assumed): firstName, lastName, phoneNumber, location
+     *   and at least one language and one specialisation.
+     *
+     * @param user the user
+     * @param hasLanguages whether the user has at least one language
+     * @param hasSpecialisations whether the user has a specialisation
+     * @return true if the profile is complete, otherwise false
+     */
+    static boolean isComplete(final User user, final boolean hasLanguages,
+            final boolean hasSpecialisations) {
         boolean hasNames =
                 (user.getFirstName() != null
                         && !user.getFirstName().isBlank())
@@ -95,11 +202,6 @@ public class UserService {
                 user.getLocation() != null
                         && !user.getLocation().isBlank();
 
-        boolean hasLanguages = !userLanguageRepository
-                .findByUsername(username).isEmpty();
-        boolean hasSpecialisations = !userSpecialisationRepository
-                .findByUsername(username).isEmpty();
-
         return hasNames && hasPhone && hasLocation
                 && hasLanguages && hasSpecialisations;
     }
@@ -112,7 +214,7 @@ public class UserService {
      */
     public Optional<User> getUserByUsername(final String username) {
         log.debug("Fetching user: {}", username);
-        return userRepository.findByUsername(username);
+        return userRepository.findByUsername(normalizeUsername(username));
     }
 
     /**
@@ -121,46 +223,198 @@ public class UserService {
      * Contract:
      * - Input: non-null username
      * - Output: true if a user row exists, false otherwise
-     * - Errors: none, delegates to repository which returns boolean
+     * - Known users are answered from the username index, only unknown
+     *   ones reach the repository
      *
-     * @param username the username to check
+     * @param requestedUsername the username to check, in any case
      * @return true if user exists, otherwise false
      */
-    public boolean userExists(final String username) {
-        if (username == null || username.isBlank()) {
+    public boolean userExists(final String requestedUsername) {
+        if (requestedUsername == null || requestedUsername.isBlank()) {
             return false;
         }
+        String username = normalizeUsername(requestedUsername);
+        if (usernameIndex.contains(username)) {
+            return true;
+        }
         boolean exists = userRepository.existsByUsername(username);
+        if (exists) {
+            usernameIndex.addAll(List.of(username));
+        }
         log.debug("User exists check for '{}': {}", username, exists);
         return exists;
     }
 
     /**
-     * Get user email from Keycloak.
+     * Check which of several usernames exist, with at most one query
+     * for those missing from the username index.
+     *
+     * @param usernames the usernames to check, in any case
+     * @return the existing usernames, normalised
+     */
+    public Set<String> findExistingUsernames(
+            final Collection<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        Set<String> unknown = new HashSet<>();
+        for (String requested : usernames) {
+            if (requested == null || requested.isBlank()) {
+                continue;
+            }
+            String username = normalizeUsername(requested);
+            if (usernameIndex.contains(username)) {
+                existing.add(username);
+            } else {
+                unknown.add(username);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            List<String> found = userRepository.findExistingUsernames(unknown);
+            usernameIndex.addAll(found);
+            existing.addAll(found);
+        }
+        return existing;
+    }
+
+    /**
+     * Get public summaries of several users at once.
+     *
+     * Contract:
+     * - Input: up to MAX_BATCH_SIZE usernames; blanks and duplicates
+     *   are ignored
+     * - Output: summaries in request order, plus the usernames not found
+     * - Errors: IllegalArgumentException if too many usernames
+     *
+     * @param usernames the usernames to look up
+     * @return found summaries and missing usernames
+     */
+    @Transactional(readOnly = true)
+    public UserBatchDTO getUserSummaries(final List<String> usernames) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (usernames != null) {
+            usernames.stream()
+                    .filter(u -> u != null && !u.isBlank())
+                    .map(UserService::normalizeUsername)
+                    .forEach(requested::add);
+        }
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "At most " + MAX_BATCH_SIZE + " usernames per batch");
+        }
+        if (requested.isEmpty()) {
+            return new UserBatchDTO(List.of(), List.of());
+        }
+
+        Map<String, UserSummaryDTO> found = userRepository
+                .findSummaries(requested, UserPhotoService.DEFAULT_SIZE)
+                .stream()
+                .collect(Collectors.toMap(UserSummaryDTO::getUsername,
+                        summary -> summary));
+
+        List<UserSummaryDTO> users = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String username : requested) {
+            UserSummaryDTO summary = found.get(username);
+            if (summary == null) {
+                missing.add(username);
+                continue;
+            }
+            if (summary.getProfilePhotoHash() != null) {
+                summary.setProfilePhotoUrl(UserPhotoService.photoUrl(
+                        username, summary.getProfilePhotoHash()));
+            }
+            users.add(summary);
+        }
+        log.debug("Batch lookup of {} users: {} missing",
+                requested.size(), missing.size());
+        return new UserBatchDTO(users, missing);
+    }
+
+    /**
+     * Search the guardian directory with keyset pagination.
+     *
+     * Contract:
+     * - Only complete profiles are listed
+     * - A guardian must have every requested specialisation and language
+     * - location matches case-insensitively on a prefix
+     * - Results are ordered by username, resuming after the cursor
+     *
+     * @param specialisations required specialisation labels (may be empty)
+     * @param languages required language labels (may be empty)
+     * @param location location prefix, or null/blank for any
+     * @param after cursor returned with the previous page, or null
+     * @param limit page size, or null for the default
+     * @return one page of guardians
+     * @throws IllegalArgumentException on an unknown label or bad limit
+     */
+    public UserDirectoryPageDTO searchDirectory(
+            final List<String> specialisations, final List<String> languages,
+            final String location, final String after, final Integer limit) {
+        int pageSize = limit == null ? DEFAULT_DIRECTORY_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_DIRECTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and "
+                    + MAX_DIRECTORY_PAGE_SIZE);
+        }
+        Set<String> specialisationLabels = new LinkedHashSet<>();
+        if (specialisations != null) {
+            specialisations.forEach(label -> specialisationLabels.add(
+                    specialisationService.getSpecialisation(label)
+                            .getLabel()));
+        }
+        Set<String> languageLabels = new LinkedHashSet<>();
+        if (languages != null) {
+            languages.forEach(label -> languageLabels.add(
+                    languageService.getLanguage(label).getLabel()));
+        }
+        String locationPattern = null;
+        if (location != null && !location.isBlank()) {
+            locationPattern = location.trim().toLowerCase(Locale.ROOT)
+                    .replaceAll("([%_\\\\])", "\\\\$1") + "%";
+        }
+
+        List<UserSummaryDTO> found = userRepository.searchDirectory(
+                specialisationLabels, specialisationLabels.size(),
+                languageLabels, languageLabels.size(), locationPattern,
+                after == null ? "" : after, UserPhotoService.DEFAULT_SIZE,
+                Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        List<UserSummaryDTO> page = found;
+        if (found.size() > pageSize) {
+            page = found.subList(0, pageSize);
+            nextCursor = page.get(pageSize - 1).getUsername();
+        }
+        for (UserSummaryDTO summary : page) {
+            if (summary.getProfilePhotoHash() != null) {
+                summary.setProfilePhotoUrl(UserPhotoService.photoUrl(
+                        summary.getUsername(),
+                        summary.getProfilePhotoHash()));
+            }
+        }
+        log.debug("Directory search returned {} guardians", page.size());
+        return new UserDirectoryPageDTO(new ArrayList<>(page), nextCursor);
+    }
+
+    /**
+     * Get user email (Keycloak-backed, served from cache or database).
      *
      * @param username the username
-     * @return user email or null if not found
+     * @return user email or null if not known yet
      */
     public String getUserEmail(final String username) {
-        try {
-            return keycloakClientService.getEmailByUsername(username);
-        } catch (Exception e) {
-            log.warn("Could not fetch email from Keycloak for user: {}",
-                    username, e);
-            return null;
-        }
+        return userEmailService.getEmail(normalizeUsername(username));
     }
 
     /**
      * Update user profile.
      *
-     * @param username the username
+     * @param requestedUsername the username, in any case
      * @param updates the updates to apply
      * @return updated user
      */
     @Transactional
-    public User updateUserProfile(final String username,
+    public User updateUserProfile(final String requestedUsername,
             final Map<String, Object> updates) {
+        String username = normalizeUsername(requestedUsername);
         log.info("Updating user profile for: {}", username);
         log.debug("Update payload: {}", updates);
         User user = userRepository.findByUsername(username)
@@ -198,10 +452,9 @@ public class UserService {
                     log.debug("Updated description to: {}", value);
                     break;
                 case "profilePhoto":
-                    user.setProfilePhoto(decodeProfilePhoto(value));
-                    log.debug("Updated profilePhoto ({} bytes)",
-                            user.getProfilePhoto() != null
-                                    ? user.getProfilePhoto().length : 0);
+                    String hash = userPhotoService.storePhoto(username,
+                            decodeProfilePhoto(value));
+                    log.debug("Updated profilePhoto to hash: {}", hash);
                     break;
                 case "identityVerification":
                     user.setIdentityVerification((Boolean) value);
@@ -216,7 +469,11 @@ public class UserService {
                     break;
             }
         });
+        user.setProfileComplete(isComplete(user,
+                userLanguageRepository.existsByUsername(username),
+                userSpecialisationRepository.existsByUsername(username)));
         User savedUser = userRepository.save(user);
+        userProfileEventPublisher.publishAfterCommit(savedUser);
         log.info("User profile updated successfully. Email after save: {}", 
                 savedUser.getEmail());
         return savedUser;
@@ -225,32 +482,37 @@ public class UserService {
     /**
      * Create user profile.
      *
-     * @param username the username
+     * @param requestedUsername the username, in any case
      * @param firstName the first name
      * @param lastName the last name
      * @return created user
      */
     @Transactional
-    public User createUserProfile(final String username,
+    public User createUserProfile(final String requestedUsername,
             final String firstName, final String lastName) {
+        String username = normalizeUsername(requestedUsername);
         log.info("Creating user profile for: {}", username);
         User user = new User();
         user.setUsername(username);
         user.setFirstName(firstName);
         user.setLastName(lastName);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        publishUserCreated(username);
+        userProfileEventPublisher.publishAfterCommit(savedUser);
+        return savedUser;
     }
 
     /**
      * Create user profile from a payload map.
      *
-     * @param username the username
+     * @param requestedUsername the username, in any case
      * @param payload  payload with optional fields
      * @return created user
      */
     @Transactional
-    public User createUserProfile(final String username,
+    public User createUserProfile(final String requestedUsername,
             final Map<String, Object> payload) {
+        String username = normalizeUsername(requestedUsername);
         log.info("Creating user profile (map) for: {}", username);
 
         if (userRepository.findByUsername(username).isPresent()) {
@@ -282,10 +544,7 @@ public class UserService {
         if (payload.containsKey("description")) {
             user.setDescription((String) payload.get("description"));
         }
-        if (payload.containsKey("profilePhoto")) {
-            user.setProfilePhoto(
-                    decodeProfilePhoto(payload.get("profilePhoto")));
-        }
+        byte[] profilePhoto = decodeProfilePhoto(payload.get("profilePhoto"));
         if (payload.containsKey("identityVerification")) {
             Object iv = payload.get("identityVerification");
             if (iv instanceof Boolean) {
@@ -296,103 +555,203 @@ public class UserService {
             user.setPreferences((String) payload.get("preferences"));
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        if (profilePhoto != null) {
+            userPhotoService.storePhoto(username, profilePhoto);
+        }
+        publishUserCreated(username);
+        userProfileEventPublisher.publishAfterCommit(savedUser);
+        return savedUser;
     }
 
     /**
-     * Get user's chosen languages.
+     * Announce a new user to the username index and to other services,
+     * so none keeps a cached "user does not exist" answer. Sent after
+     * commit: a rolled back user is never announced, and consumers
+     * that re-check find the row.
      *
      * @param username the username
+     */
+    private void publishUserCreated(final String username) {
+        usernameIndex.addAfterCommit(username);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendUserCreated(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        sendUserCreated(username);
+                    }
+                });
+    }
+
+    /**
+     * Send the user created lifecycle event.
+     *
+     * @param username the username
+     */
+    private void sendUserCreated(final String username) {
+        kafkaProducerService.sendMessage(USER_LIFECYCLE_TOPIC,
+                "CREATED:" + username);
+    }
+
+    /**
+     * Get user's chosen languages.
+     *
+     * @param requestedUsername the username, in any case
      * @return list of user languages
      */
-    public List<UserLanguageDTO> getUserLanguages(final String username) {
+    public List<UserLanguageDTO> getUserLanguages(
+            final String requestedUsername) {
+        String username = normalizeUsername(requestedUsername);
         log.debug("Fetching languages for user: {}", username);
-        return userLanguageRepository.findByUsername(username).stream()
-                .map(ul -> UserLanguageDTO.fromLanguage(
-                        ul.getLanguage().getLabel()))
+        return userLanguageRepository.findLabelsByUsername(username).stream()
+                .map(UserLanguageDTO::fromLanguage)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Update user's chosen languages.
+     * Update user's chosen languages. Labels are checked against the
+     * in-memory reference data before anything is written, then only
+     * the difference with the stored choice is applied.
      *
-     * @param username the username
+     * @param requestedUsername the username, in any case
      * @param languageLabels the language labels
      * @return list of updated user languages
      */
     @Transactional
-    public List<UserLanguageDTO> updateUserLanguages(final String username,
+    public List<UserLanguageDTO> updateUserLanguages(
+            final String requestedUsername,
             final List<String> languageLabels) {
+        String username = normalizeUsername(requestedUsername);
         log.info(
                 "Updating languages for user: {} with languages: {}",
                 username, languageLabels);
-        userLanguageRepository.deleteByUsername(username);
-
-        List<UserLanguage> newLanguages = languageLabels.stream()
-                .map(label -> languageRepository.findById(label)
-                        .orElseThrow(() -> new IllegalArgumentException(
-                                "Language not found: " + label)))
-                .map(language -> {
-                    UserLanguage ul = new UserLanguage();
-                    ul.setUsername(username);
-                    ul.setLanguage(language);
-                    return ul;
-                })
+        List<String> labels = languageLabels.stream()
+                .map(label -> languageService.getLanguage(label).getLabel())
+                .distinct()
                 .collect(Collectors.toList());
 
-        userLanguageRepository.saveAll(newLanguages);
-        return newLanguages.stream()
-                .map(ul -> UserLanguageDTO.fromLanguage(
-                        ul.getLanguage().getLabel()))
+        List<String> removed = applyLinkDiff(username, labels,
+                userLanguageRepository.findLabelsByUsername(username),
+                INSERT_USER_LANGUAGE_SQL);
+        if (!removed.isEmpty()) {
+            userLanguageRepository.deleteByUsernameAndLabelIn(username,
+                    removed);
+        }
+        userProfileCardService.updateLanguages(username, labels);
+
+        userRepository.findByUsername(username).ifPresent(user ->
+                updateProfileComplete(user, isComplete(user,
+                        !labels.isEmpty(),
+                        userSpecialisationRepository
+                                .existsByUsername(username))));
+        return labels.stream()
+                .map(UserLanguageDTO::fromLanguage)
                 .collect(Collectors.toList());
     }
 
     /**
      * Get user's chosen specialisations.
      *
-     * @param username the username
+     * @param requestedUsername the username, in any case
      * @return list of user specialisations
      */
     public List<UserSpecialisationDTO> getUserSpecialisations(
-            final String username) {
+            final String requestedUsername) {
+        String username = normalizeUsername(requestedUsername);
         log.debug("Fetching specialisations for user: {}", username);
-        return userSpecialisationRepository.findByUsername(username).stream()
-                .map(us -> UserSpecialisationDTO.fromSpecialisation(
-                        us.getSpecialisation().getLabel()))
+        return userSpecialisationRepository.findLabelsByUsername(username)
+                .stream()
+                .map(UserSpecialisationDTO::fromSpecialisation)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Update user's chosen specialisations.
+     * Update user's chosen specialisations. Labels are checked against
+     * the in-memory reference data before anything is written, then
+     * only the difference with the stored choice is applied.
      *
-     * @param username the username
+     * @param requestedUsername the username, in any case
      * @param specialisationLabels the specialisation labels
      * @return list of updated user specialisations
      */
     @Transactional
     public List<UserSpecialisationDTO> updateUserSpecialisations(
-            final String username, final List<String> specialisationLabels) {
+            final String requestedUsername,
+            final List<String> specialisationLabels) {
+        String username = normalizeUsername(requestedUsername);
         log.info("Updating specialisations for user: {}", username);
-        userSpecialisationRepository.deleteByUsername(username);
-
-        List<UserSpecialisation> newSpecialisations =
-                specialisationLabels.stream()
-                .map(label -> specialisationRepository.findById(label)
-                        .orElseThrow(() -> new IllegalArgumentException(
-                                "Specialisation not found: " + label)))
-                .map(specialisation -> {
-                    UserSpecialisation us = new UserSpecialisation();
-                    us.setUsername(username);
-                    us.setSpecialisation(specialisation);
-                    return us;
-                })
+        List<String> labels = specialisationLabels.stream()
+                .map(label -> specialisationService
+                        .getSpecialisation(label).getLabel())
+                .distinct()
+                .collect(Collectors.toList());
+
+        List<String> removed = applyLinkDiff(username, labels,
+                userSpecialisationRepository.findLabelsByUsername(username),
+                INSERT_USER_SPECIALISATION_SQL);
+        if (!removed.isEmpty()) {
+            userSpecialisationRepository.deleteByUsernameAndLabelIn(username,
+                    removed);
+        }
+        userProfileCardService.updateSpecialisations(username, labels);
+
+        userRepository.findByUsername(username).ifPresent(user ->
+                updateProfileComplete(user, isComplete(user,
+                        userLanguageRepository.existsByUsername(username),
+                        !labels.isEmpty())));
+        return labels.stream()
+                .map(UserSpecialisationDTO::fromSpecialisation)
                 .collect(Collectors.toList());
+    }
 
-        userSpecialisationRepository.saveAll(newSpecialisations);
-        return newSpecialisations.stream()
-                .map(us -> UserSpecialisationDTO.fromSpecialisation(
-                        us.getSpecialisation().getLabel()))
+    /**
+     * Store a recomputed completion flag, announcing the profile when it
+     * changes.
+     *
+     * @param user the managed user
+     * @param complete whether the profile is now complete
+     */
+    private void updateProfileComplete(final User user,
+            final boolean complete) {
+        if (user.isProfileComplete() == complete) {
+            return;
+        }
+        user.setProfileComplete(complete);
+        userProfileEventPublisher.publishAfterCommit(user);
+    }
+
+    /**
+     * Insert the missing links of a user's choice in one JDBC batch.
+     *
+     * @param username the username
+     * @param wanted the labels the user should have
+     * @param current the labels currently stored
+     * @param insertSql insert statement taking (username, label)
+     * @return stored labels no longer wanted, for the caller to delete
+     */
+    private List<String> applyLinkDiff(final String username,
+            final List<String> wanted, final List<String> current,
+            final String insertSql) {
+        List<String> added = wanted.stream()
+                .filter(label -> !current.contains(label))
+                .collect(Collectors.toList());
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate(insertSql, added, added.size(),
+                    (ps, label) -> {
+                        ps.setString(1, username);
+                        ps.setString(2, label);
+                    });
+        }
+        List<String> removed = current.stream()
+                .filter(label -> !wanted.contains(label))
                 .collect(Collectors.toList());
+        log.debug("Links of {}: {} added, {} removed",
+                username, added.size(), removed.size());
+        return removed;
     }
 
     /**
@@ -0,0 +1,99 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of existing usernames, so existence checks for known
+ * users never reach the database. Absence from the index is not proof
+ * of absence (users created on another replica), callers confirm
+ * misses with the database and feed the result back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameIndex {
+
+    /**
+     * Number of usernames read per warm-up query.
+     */
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    /**
+     * User repository.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Known usernames.
+     */
+    private final Set<String> usernames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Load every existing username, page by page.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        String after = "";
+        List<String> page;
+        do {
+            page = userRepository.findUsernamesAfter(after,
+                    Limit.of(WARM_UP_PAGE_SIZE));
+            usernames.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == WARM_UP_PAGE_SIZE);
+        log.info("Username index warmed with {} users", usernames.size());
+    }
+
+    /**
+     * Check whether a username is known to exist.
+     *
+     * @param username the username
+     * @return true if it exists, false if unknown
+     */
+    public boolean contains(final String username) {
+        return usernames.contains(username);
+    }
+
+    /**
+     * Record existing usernames.
+     *
+     * @param existing usernames confirmed to exist
+     */
+    public void addAll(final Iterable<String> existing) {
+        existing.forEach(usernames::add);
+    }
+
+    /**
+     * Record a new username once the current transaction commits, so a
+     * rolled back creation is never reported as existing.
+     *
+     * @param username the created username
+     */
+    public void addAfterCommit(final String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            usernames.add(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        usernames.add(username);
+                    }
+                });
+    }
+}
@@ -5,14 +5,21 @@ import com.iwaproject.user.dto.LanguageDTO;
 import com.iwaproject.user.dto.PrivateUserDTO;
 import com.iwaproject.user.dto.PublicUserDTO;
 import com.iwaproject.user.dto.SpecialisationDTO;
+import com.iwaproject.user.dto.UserBatchDTO;
+import com.iwaproject.user.dto.UserDirectoryPageDTO;
 import com.iwaproject.user.dto.UserLanguageDTO;
+import com.iwaproject.user.dto.UserProfileCardDTO;
 import com.iwaproject.user.dto.UserSpecialisationDTO;
+import com.iwaproject.user.dto.UserSummaryDTO;
 import com.iwaproject.user.entities.Language;
 import com.iwaproject.user.entities.Specialisation;
 import com.iwaproject.user.entities.User;
+import com.iwaproject.user.entities.UserPhoto;
 import com.iwaproject.user.services.KafkaLogService;
 import com.iwaproject.user.services.LanguageService;
 import com.iwaproject.user.services.SpecialisationService;
+import com.iwaproject.user.services.UserPhotoService;
+import com.iwaproject.user.services.UserProfileCardService;
 import com.iwaproject.user.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,7 +31,6 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -36,11 +42,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -70,6 +79,10 @@ class UserControllerTest {
     private UserService userService;
     @Mock
     private KafkaLogService kafkaLogService;
+    @Mock
+    private UserPhotoService userPhotoService;
+    @Mock
+    private UserProfileCardService userProfileCardService;
 
     /**
      * Controller under test.
@@ -83,6 +96,7 @@ class UserControllerTest {
     private static final String X_USERNAME_HEADER = "X-Username";
     private static final String TEST_USERNAME = "john";
     private static final String TEST_EMAIL = "john@example.com";
+    private static final String PHOTO_HASH = "abc123";
 
     /**
      * Setup test environment.
@@ -101,12 +115,32 @@ class UserControllerTest {
     void getLanguages_ok() throws Exception {
         Language language = new Language("French");
         given(languageService.getAllLanguages()).willReturn(List.of(language));
+        given(languageService.getETag()).willReturn("\"1a2b\"");
 
         mockMvc.perform(get("/api/languages"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1a2b\""))
+                .andExpect(header().string("Cache-Control",
+                        "max-age=86400, public"))
                 .andExpect(content().string(containsString("French")));
     }
 
+    /**
+     * Test GET /api/languages with a current ETag returns 304.
+     */
+    @Test
+    @DisplayName("GET /api/languages with matching If-None-Match returns 304")
+    void getLanguages_notModified() throws Exception {
+        given(languageService.getETag()).willReturn("\"1a2b\"");
+
+        mockMvc.perform(get("/api/languages")
+                        .header("If-None-Match", "\"1a2b\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1a2b\""));
+
+        verify(languageService, never()).getAllLanguages();
+    }
+
     /**
      * Test GET /api/specialisations returns list.
      */
@@ -116,9 +150,11 @@ class UserControllerTest {
         Specialisation specialisation = new Specialisation("Plumber");
         given(specialisationService.getAllSpecialisations())
                 .willReturn(List.of(specialisation));
+        given(specialisationService.getETag()).willReturn("\"3c4d\"");
 
         mockMvc.perform(get("/api/specialisations"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3c4d\""))
                 .andExpect(content().string(containsString("Plumber")));
     }
 
@@ -223,6 +259,57 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Test GET /api/users/{username}/card returns the card with an ETag.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/card returns card with ETag")
+    void getUserProfileCard_ok() throws Exception {
+        UserProfileCardDTO card = createTestCard();
+        given(userProfileCardService.getCard(TEST_USERNAME))
+                .willReturn(Optional.of(card));
+
+        mockMvc.perform(get("/api/users/john/card"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag",
+                        UserProfileCardService.etag(card)))
+                .andExpect(header().string("Cache-Control",
+                        "no-cache, public"))
+                .andExpect(jsonPath("$.username", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.languages[0]", is("French")))
+                .andExpect(jsonPath("$.ratingCount", is(3)));
+    }
+
+    /**
+     * Test GET /api/users/{username}/card with a current ETag returns 304.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/card with matching If-None-Match returns 304")
+    void getUserProfileCard_notModified() throws Exception {
+        UserProfileCardDTO card = createTestCard();
+        given(userProfileCardService.getCard(TEST_USERNAME))
+                .willReturn(Optional.of(card));
+
+        mockMvc.perform(get("/api/users/john/card")
+                        .header("If-None-Match",
+                                UserProfileCardService.etag(card)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Test GET /api/users/{username}/card when user not found.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/card when user not found")
+    void getUserProfileCard_userNotFound() throws Exception {
+        given(userProfileCardService.getCard("nonexistent"))
+                .willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/users/nonexistent/card"))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Test GET /api/users/me/languages returns list.
      */
@@ -319,6 +406,174 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    /**
+     * Test GET /api/users/{username}/profile-complete reads the flag.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/profile-complete returns flag")
+    void isUserProfileComplete_ok() throws Exception {
+        given(userService.findProfileComplete(TEST_USERNAME))
+                .willReturn(Optional.of(true));
+
+        mockMvc.perform(get("/api/users/" + TEST_USERNAME
+                + "/profile-complete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.complete", is(true)));
+    }
+
+    /**
+     * Test GET /api/users/{username}/profile-complete for unknown user.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/profile-complete when user not found")
+    void isUserProfileComplete_userNotFound() throws Exception {
+        given(userService.findProfileComplete(TEST_USERNAME))
+                .willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/users/" + TEST_USERNAME
+                + "/profile-complete"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test POST /api/users/batch returns summaries and missing users.
+     */
+    @Test
+    @DisplayName("POST /api/users/batch returns summaries")
+    void getUsersBatch_ok() throws Exception {
+        given(userService.getUserSummaries(List.of(TEST_USERNAME, "ghost")))
+                .willReturn(new UserBatchDTO(List.of(new UserSummaryDTO(
+                        TEST_USERNAME, "John", "Doe", false, null)),
+                        List.of("ghost")));
+
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("usernames",
+                        List.of(TEST_USERNAME, "ghost")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].username", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.missing[0]", is("ghost")));
+    }
+
+    /**
+     * Test POST /api/users/batch with too many usernames.
+     */
+    @Test
+    @DisplayName("POST /api/users/batch with too many usernames returns 400")
+    void getUsersBatch_tooMany() throws Exception {
+        given(userService.getUserSummaries(any()))
+                .willThrow(new IllegalArgumentException("too many"));
+
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        Map.of("usernames", List.of(TEST_USERNAME)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test GET /api/users/directory returns a page of guardians.
+     */
+    @Test
+    @DisplayName("GET /api/users/directory returns guardians and cursor")
+    void searchDirectory_ok() throws Exception {
+        given(userService.searchDirectory(List.of("Plumber"),
+                List.of("French", "English"), "Paris", null, 1))
+                .willReturn(new UserDirectoryPageDTO(List.of(
+                        new UserSummaryDTO(TEST_USERNAME, "John", "Doe",
+                                false, null)), TEST_USERNAME));
+
+        mockMvc.perform(get("/api/users/directory")
+                .param("specialisation", "Plumber")
+                .param("language", "French", "English")
+                .param("location", "Paris")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].username", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.nextCursor", is(TEST_USERNAME)));
+    }
+
+    /**
+     * Test GET /api/users/directory with an unknown label.
+     */
+    @Test
+    @DisplayName("GET /api/users/directory with unknown label returns 400")
+    void searchDirectory_unknownLabel() throws Exception {
+        given(userService.searchDirectory(any(), any(), any(), any(), any()))
+                .willThrow(new IllegalArgumentException("unknown"));
+
+        mockMvc.perform(get("/api/users/directory")
+                .param("language", "Klingon"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test GET /api/users/{username}/photo serves a versioned photo.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/photo returns photo with ETag")
+    void getUserPhoto_ok() throws Exception {
+        UserPhoto photo = new UserPhoto(1L, TEST_USERNAME, 64, "image/jpeg",
+                PHOTO_HASH, new byte[] {1, 2, 3}, LocalDateTime.now());
+        given(userPhotoService.isSupportedSize(64)).willReturn(true);
+        given(userPhotoService.getPhoto(TEST_USERNAME, 64))
+                .willReturn(Optional.of(photo));
+
+        mockMvc.perform(get("/api/users/" + TEST_USERNAME + "/photo")
+                .param("size", "64")
+                .param("v", PHOTO_HASH))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag",
+                        "\"" + PHOTO_HASH + "-64\""))
+                .andExpect(header().string("Cache-Control",
+                        containsString("immutable")))
+                .andExpect(content().bytes(new byte[] {1, 2, 3}));
+    }
+
+    /**
+     * Test GET /api/users/{username}/photo answers 304 without loading bytes.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/photo with matching ETag returns 304")
+    void getUserPhoto_notModified() throws Exception {
+        given(userPhotoService.isSupportedSize(256)).willReturn(true);
+        given(userPhotoService.getContentHash(TEST_USERNAME))
+                .willReturn(Optional.of(PHOTO_HASH));
+
+        mockMvc.perform(get("/api/users/" + TEST_USERNAME + "/photo")
+                .header("If-None-Match", "\"" + PHOTO_HASH + "-256\""))
+                .andExpect(status().isNotModified());
+
+        verify(userPhotoService, never()).getPhoto(any(), eq(256));
+    }
+
+    /**
+     * Test GET /api/users/{username}/photo when the user has no photo.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/photo without photo returns 404")
+    void getUserPhoto_notFound() throws Exception {
+        given(userPhotoService.isSupportedSize(256)).willReturn(true);
+        given(userPhotoService.getPhoto(TEST_USERNAME, 256))
+                .willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/users/" + TEST_USERNAME + "/photo"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test GET /api/users/{username}/photo rejects unsupported sizes.
+     */
+    @Test
+    @DisplayName("GET /api/users/{username}/photo with unsupported size returns 400")
+    void getUserPhoto_unsupportedSize() throws Exception {
+        given(userPhotoService.isSupportedSize(1000)).willReturn(false);
+
+        mockMvc.perform(get("/api/users/" + TEST_USERNAME + "/photo")
+                .param("size", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Create a test user.
      *
@@ -332,11 +587,20 @@ class UserControllerTest {
         user.setPhoneNumber("1234567890");
         user.setLocation("Paris");
         user.setDescription("Test user");
-        user.setProfilePhoto("photo.jpg"
-                .getBytes(StandardCharsets.UTF_8));
         user.setIdentityVerification(false);
         user.setPreferences("{}");
         user.setRegistrationDate(LocalDateTime.now());
         return user;
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a test profile card.
+     *
+     * @return test card
+     */
+    private UserProfileCardDTO createTestCard() {
+        return new UserProfileCardDTO(TEST_USERNAME, "John", "Doe", "Paris",
+                "Test user", false, true, LocalDateTime.of(2025, 1, 1, 0, 0),
+                null, "French\nEnglish", "Plumber", 4.5, 3L);
+    }
+}
@@ -75,7 +75,7 @@ class KeycloakClientServiceTest {
 
         when(keycloak.realm(TEST_REALM)).thenReturn(realmResource);
         when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.search(TEST_USERNAME)).thenReturn(List.of(userRep));
+        when(usersResource.searchByUsername(TEST_USERNAME, true)).thenReturn(List.of(userRep));
 
         // When
         String result = keycloakClientService.getEmailByUsername(TEST_USERNAME);
@@ -93,7 +93,7 @@ class KeycloakClientServiceTest {
         // Given
         when(keycloak.realm(TEST_REALM)).thenReturn(realmResource);
         when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.search(TEST_USERNAME)).thenReturn(List.of());
+        when(usersResource.searchByUsername(TEST_USERNAME, true)).thenReturn(List.of());
 
         // When & Then
         assertThrows(ResponseStatusException.class, () -> {
@@ -114,7 +114,7 @@ class KeycloakClientServiceTest {
 
         when(keycloak.realm(TEST_REALM)).thenReturn(realmResource);
         when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.search(TEST_USERNAME)).thenReturn(List.of(userRep));
+        when(usersResource.searchByUsername(TEST_USERNAME, true)).thenReturn(List.of(userRep));
 
         // When
         String result = keycloakClientService.getEmailByUsername(TEST_USERNAME);
@@ -136,7 +136,7 @@ class KeycloakClientServiceTest {
 
         when(keycloak.realm(TEST_REALM)).thenReturn(realmResource);
         when(realmResource.users()).thenReturn(usersResource);
-        when(usersResource.search(TEST_USERNAME)).thenReturn(List.of(userRep));
+        when(usersResource.searchByUsername(TEST_USERNAME, true)).thenReturn(List.of(userRep));
 
         // When & Then
         assertThrows(ResponseStatusException.class, () -> {
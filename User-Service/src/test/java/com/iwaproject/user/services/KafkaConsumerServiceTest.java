@@ -7,12 +7,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,7 +38,9 @@ class KafkaConsumerServiceTest {
     @Mock
     private KeycloakClientService keycloakClientService;
     @Mock
-    private ObjectMapper objectMapper;
+    private UserProfileCardService userProfileCardService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * Service under test.
@@ -49,10 +58,10 @@ class KafkaConsumerServiceTest {
         String invalidMessage = "only-two:parts";
 
         // When
-        kafkaConsumerService.consumeUserExists(invalidMessage);
+        kafkaConsumerService.consumeUserExists(List.of(invalidMessage));
 
         // Then: should not call userService nor kafkaTemplate
-        verify(userService, never()).userExists(anyString());
+        verify(userService, never()).findExistingUsernames(any());
         verify(kafkaTemplate, never()).send(anyString(), anyString());
     }
 
@@ -67,14 +76,33 @@ class KafkaConsumerServiceTest {
         String replyTopic = "reply-topic";
         String username = "john";
         String message = correlationId + ":" + replyTopic + ":" + username;
-        when(userService.userExists(username)).thenReturn(true);
+        when(userService.findExistingUsernames(List.of(username)))
+                .thenReturn(Set.of(username));
 
         // When
-        kafkaConsumerService.consumeUserExists(message);
+        kafkaConsumerService.consumeUserExists(List.of(message));
 
         // Then
-        verify(userService).userExists(username);
         verify(kafkaTemplate).send(eq(replyTopic), eq(correlationId + ":true"));
+        verify(kafkaTemplate).flush();
+    }
+
+    /**
+     * consumeUserExists should match usernames whatever their case.
+     */
+    @Test
+    @DisplayName("consumeUserExists should answer true for mixed-case username")
+    void consumeUserExists_mixedCase_shouldAnswerTrue() {
+        // Given
+        String message = "123:reply-topic:John";
+        when(userService.findExistingUsernames(List.of("John")))
+                .thenReturn(Set.of("john"));
+
+        // When
+        kafkaConsumerService.consumeUserExists(List.of(message));
+
+        // Then
+        verify(kafkaTemplate).send(eq("reply-topic"), eq("123:true"));
     }
 
     /**
@@ -88,14 +116,39 @@ class KafkaConsumerServiceTest {
         String replyTopic = "reply-topic";
         String username = "doe";
         String message = correlationId + ":" + replyTopic + ":" + username;
-        when(userService.userExists(username)).thenReturn(false);
+        when(userService.findExistingUsernames(List.of(username)))
+                .thenReturn(Set.of());
 
         // When
-        kafkaConsumerService.consumeUserExists(message);
+        kafkaConsumerService.consumeUserExists(List.of(message));
 
         // Then
-        verify(userService).userExists(username);
         verify(kafkaTemplate).send(eq(replyTopic), eq(correlationId + ":false"));
+        verify(kafkaTemplate).flush();
+    }
+
+    /**
+     * consumeUserExists should answer a whole batch with one lookup.
+     */
+    @Test
+    @DisplayName("consumeUserExists should answer a batch with one lookup and one flush")
+    void consumeUserExists_shouldAnswerBatch() {
+        // Given
+        List<String> messages = List.of("1:reply:john", "bad", "2:reply:ghost",
+                "3:other:john");
+        when(userService.findExistingUsernames(
+                List.of("john", "ghost", "john")))
+                .thenReturn(Set.of("john"));
+
+        // When
+        kafkaConsumerService.consumeUserExists(messages);
+
+        // Then
+        verify(userService, times(1)).findExistingUsernames(any());
+        verify(kafkaTemplate).send("reply", "1:true");
+        verify(kafkaTemplate).send("reply", "2:false");
+        verify(kafkaTemplate).send("other", "3:true");
+        verify(kafkaTemplate, times(1)).flush();
     }
 
     /**
@@ -111,7 +164,7 @@ class KafkaConsumerServiceTest {
         kafkaConsumerService.consumeUserCompletion(invalidMessage);
 
         // Then
-        verify(userService, never()).userExists(anyString());
+        verify(userService, never()).findProfileComplete(anyString());
         verify(kafkaTemplate, never()).send(anyString(), anyString());
     }
 
@@ -126,13 +179,14 @@ class KafkaConsumerServiceTest {
         String replyTopic = "reply";
         String username = "ghost";
         String message = correlationId + ":" + replyTopic + ":" + username;
-        when(userService.userExists(username)).thenReturn(false);
+        when(userService.findProfileComplete(username))
+                .thenReturn(Optional.empty());
 
         // When
         kafkaConsumerService.consumeUserCompletion(message);
 
         // Then
-        verify(userService).userExists(username);
+        verify(userService).findProfileComplete(username);
         verify(kafkaTemplate).send(eq(replyTopic), eq(correlationId + ":false"));
     }
 
@@ -147,8 +201,8 @@ class KafkaConsumerServiceTest {
         String replyTopic1 = "reply1";
         String username1 = "alice";
         String message1 = correlationId1 + ":" + replyTopic1 + ":" + username1;
-        when(userService.userExists(username1)).thenReturn(true);
-        when(userService.isUserProfileComplete(username1)).thenReturn(true);
+        when(userService.findProfileComplete(username1))
+                .thenReturn(Optional.of(true));
 
         kafkaConsumerService.consumeUserCompletion(message1);
         verify(kafkaTemplate).send(eq(replyTopic1), eq(correlationId1 + ":true"));
@@ -158,10 +212,42 @@ class KafkaConsumerServiceTest {
         String replyTopic2 = "reply2";
         String username2 = "bob";
         String message2 = correlationId2 + ":" + replyTopic2 + ":" + username2;
-        when(userService.userExists(username2)).thenReturn(true);
-        when(userService.isUserProfileComplete(username2)).thenReturn(false);
+        when(userService.findProfileComplete(username2))
+                .thenReturn(Optional.of(false));
 
         kafkaConsumerService.consumeUserCompletion(message2);
         verify(kafkaTemplate).send(eq(replyTopic2), eq(correlationId2 + ":false"));
     }
+
+    /**
+     * consumeRatingSummary should store the summary on the card.
+     */
+    @Test
+    @DisplayName("consumeRatingSummary should update the card rating")
+    void consumeRatingSummary_shouldUpdateCard() {
+        // Given
+        String message = "{\"recipientId\":\"john\",\"average\":4.5,"
+                + "\"count\":2,\"version\":10}";
+
+        // When
+        kafkaConsumerService.consumeRatingSummary(message);
+
+        // Then
+        verify(userProfileCardService).updateRating("john", 4.5, 2L, 10L);
+    }
+
+    /**
+     * consumeRatingSummary should ignore malformed messages.
+     */
+    @Test
+    @DisplayName("consumeRatingSummary should ignore invalid messages")
+    void consumeRatingSummary_shouldIgnoreInvalidMessages() {
+        // When
+        kafkaConsumerService.consumeRatingSummary("not json");
+        kafkaConsumerService.consumeRatingSummary("{\"average\":4.5}");
+
+        // Then
+        verify(userProfileCardService, never())
+                .updateRating(anyString(), any(), any(), any());
+    }
 }
@@ -10,10 +10,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -87,4 +92,60 @@ class LanguageServiceTest {
         assertNotNull(result);
         assertEquals(0, result.size());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test lookups are served from the snapshot.
+     */
+    @Test
+    @DisplayName("getLanguage should resolve labels from memory")
+    void getLanguage_shouldResolveFromSnapshot() {
+        // Given
+        when(languageRepository.findAll()).thenReturn(testLanguages);
+
+        // When
+        Language first = languageService.getLanguage("French");
+        Language second = languageService.getLanguage("French");
+
+        // Then
+        assertEquals("French", first.getLabel());
+        assertEquals("French", second.getLabel());
+        verify(languageRepository, times(1)).findAll();
+    }
+
+    /**
+     * Test an unknown label is rejected.
+     */
+    @Test
+    @DisplayName("getLanguage with unknown label should throw exception")
+    void getLanguage_unknown_shouldThrowException() {
+        // Given
+        when(languageRepository.findAll()).thenReturn(testLanguages);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> languageService.getLanguage("Klingon"));
+    }
+
+    /**
+     * Test the ETag follows the table content.
+     */
+    @Test
+    @DisplayName("getETag should change when the table changes")
+    void getETag_shouldChangeOnRefresh() {
+        // Given
+        List<Language> extended = new ArrayList<>(testLanguages);
+        extended.add(new Language("German"));
+        when(languageRepository.findAll()).thenReturn(testLanguages, testLanguages, extended);
+
+        // When
+        String initial = languageService.getETag();
+        languageService.refresh();
+        String unchanged = languageService.getETag();
+        languageService.refresh();
+        String changed = languageService.getETag();
+
+        // Then
+        assertEquals(initial, unchanged);
+        assertNotEquals(initial, changed);
+    }
+}
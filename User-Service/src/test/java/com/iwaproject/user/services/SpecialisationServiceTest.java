@@ -10,10 +10,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -87,4 +92,60 @@ class SpecialisationServiceTest {
         assertNotNull(result);
         assertEquals(0, result.size());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test lookups are served from the snapshot.
+     */
+    @Test
+    @DisplayName("getSpecialisation should resolve labels from memory")
+    void getSpecialisation_shouldResolveFromSnapshot() {
+        // Given
+        when(specialisationRepository.findAll()).thenReturn(testSpecialisations);
+
+        // When
+        Specialisation first = specialisationService.getSpecialisation("Plumber");
+        Specialisation second = specialisationService.getSpecialisation("Plumber");
+
+        // Then
+        assertEquals("Plumber", first.getLabel());
+        assertEquals("Plumber", second.getLabel());
+        verify(specialisationRepository, times(1)).findAll();
+    }
+
+    /**
+     * Test an unknown label is rejected.
+     */
+    @Test
+    @DisplayName("getSpecialisation with unknown label should throw exception")
+    void getSpecialisation_unknown_shouldThrowException() {
+        // Given
+        when(specialisationRepository.findAll()).thenReturn(testSpecialisations);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> specialisationService.getSpecialisation("Alien"));
+    }
+
+    /**
+     * Test the ETag follows the table content.
+     */
+    @Test
+    @DisplayName("getETag should change when the table changes")
+    void getETag_shouldChangeOnRefresh() {
+        // Given
+        List<Specialisation> extended = new ArrayList<>(testSpecialisations);
+        extended.add(new Specialisation("Gardener"));
+        when(specialisationRepository.findAll()).thenReturn(testSpecialisations, testSpecialisations, extended);
+
+        // When
+        String initial = specialisationService.getETag();
+        specialisationService.refresh();
+        String unchanged = specialisationService.getETag();
+        specialisationService.refresh();
+        String changed = specialisationService.getETag();
+
+        // Then
+        assertEquals(initial, unchanged);
+        assertNotEquals(initial, changed);
+    }
+}
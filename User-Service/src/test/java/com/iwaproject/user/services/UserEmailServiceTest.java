@@ -0,0 +1,203 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.keycloak.KeycloakClientService;
+import com.iwaproject.user.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for UserEmailService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserEmailServiceTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private KeycloakClientService keycloakClientService;
+    @Mock
+    private UserRepository userRepository;
+
+    /**
+     * Refresh tasks queued by the service, run on demand.
+     */
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    /**
+     * Current test time.
+     */
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    /**
+     * Service under test.
+     */
+    private UserEmailService userEmailService;
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_USERNAME = "john";
+    private static final String TEST_EMAIL = "john@example.com";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    /**
+     * Setup service with a controllable clock and executor.
+     */
+    @BeforeEach
+    void setUp() {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(final java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        userEmailService = new UserEmailService(keycloakClientService,
+                userRepository, refreshes::add, clock, TTL, 2);
+    }
+
+    /**
+     * Test a miss is served from the database and refreshed later.
+     */
+    @Test
+    @DisplayName("getEmail on miss should return stored email and refresh in background")
+    void getEmail_miss_shouldReturnStoredEmail() {
+        // Given
+        when(userRepository.findEmailByUsername(TEST_USERNAME))
+                .thenReturn(Optional.of("old@example.com"));
+        when(keycloakClientService.getEmailByUsername(TEST_USERNAME))
+                .thenReturn(TEST_EMAIL);
+
+        // When
+        String first = userEmailService.getEmail(TEST_USERNAME);
+        userEmailService.getEmail(TEST_USERNAME);
+
+        // Then
+        assertEquals("old@example.com", first);
+        verify(keycloakClientService, never()).getEmailByUsername(anyString());
+        assertEquals(1, refreshes.size());
+
+        // When
+        refreshes.remove(0).run();
+
+        // Then
+        assertEquals(TEST_EMAIL, userEmailService.getEmail(TEST_USERNAME));
+        verify(userRepository).updateEmail(TEST_USERNAME, TEST_EMAIL);
+        assertTrue(refreshes.isEmpty());
+    }
+
+    /**
+     * Test entries near expiry are refreshed ahead while still served.
+     */
+    @Test
+    @DisplayName("getEmail near expiry should serve cached email and refresh ahead")
+    void getEmail_nearExpiry_shouldRefreshAhead() {
+        // Given
+        when(keycloakClientService.getEmailByUsername(TEST_USERNAME))
+                .thenReturn(TEST_EMAIL, "new@example.com");
+        userEmailService.getEmail(TEST_USERNAME);
+        refreshes.remove(0).run();
+
+        // When
+        now = now.plus(Duration.ofMinutes(9));
+        String result = userEmailService.getEmail(TEST_USERNAME);
+
+        // Then
+        assertEquals(TEST_EMAIL, result);
+        assertEquals(1, refreshes.size());
+        refreshes.remove(0).run();
+        assertEquals("new@example.com",
+                userEmailService.getEmail(TEST_USERNAME));
+        verify(userRepository, times(1)).findEmailByUsername(TEST_USERNAME);
+    }
+
+    /**
+     * Test the sync job walks Keycloak pages and wraps around.
+     */
+    @Test
+    @DisplayName("syncNextPage should store emails page by page")
+    void syncNextPage_shouldStoreEmailsAndWrap() {
+        // Given
+        when(keycloakClientService.listUsers(0, 2)).thenReturn(List.of(
+                user(TEST_USERNAME, TEST_EMAIL), user("jane", null)));
+        when(keycloakClientService.listUsers(2, 2)).thenReturn(
+                List.of(user("bob", "bob@example.com")));
+
+        // When
+        userEmailService.syncNextPage();
+        userEmailService.syncNextPage();
+        userEmailService.syncNextPage();
+
+        // Then
+        verify(userRepository, times(2)).updateEmail(TEST_USERNAME,
+                TEST_EMAIL);
+        verify(userRepository).updateEmail("bob", "bob@example.com");
+        verify(userRepository, never()).updateEmail("jane", null);
+        verify(keycloakClientService, times(2)).listUsers(0, 2);
+    }
+
+    /**
+     * Test the sync job keeps its position when Keycloak fails.
+     */
+    @Test
+    @DisplayName("syncNextPage should retry the same page after a failure")
+    void syncNextPage_keycloakDown_shouldRetrySamePage() {
+        // Given
+        when(keycloakClientService.listUsers(0, 2))
+                .thenThrow(new RuntimeException("Keycloak down"))
+                .thenReturn(List.of());
+
+        // When
+        userEmailService.syncNextPage();
+        userEmailService.syncNextPage();
+
+        // Then
+        verify(keycloakClientService, times(2)).listUsers(0, 2);
+    }
+
+    /**
+     * Create a Keycloak user.
+     *
+     * @param username the username
+     * @param email the email
+     * @return user representation
+     */
+    private UserRepresentation user(final String username,
+            final String email) {
+        UserRepresentation user = new UserRepresentation();
+        user.setUsername(username);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,148 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.entities.UserPhoto;
+import com.iwaproject.user.repositories.UserPhotoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for UserPhotoService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserPhotoServiceTest {
+
+    /**
+     * Mock repository.
+     */
+    @Mock
+    private UserPhotoRepository userPhotoRepository;
+
+    /**
+     * Service under test.
+     */
+    @InjectMocks
+    private UserPhotoService userPhotoService;
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_USERNAME = "john";
+
+    /**
+     * Test an upload is stored once per avatar size.
+     */
+    @Test
+    @DisplayName("storePhoto should store one resized JPEG per avatar size")
+    void storePhoto_shouldStoreEachSize() throws Exception {
+        // Given
+        byte[] upload = png(1000, 500);
+
+        // When
+        String hash = userPhotoService.storePhoto(TEST_USERNAME, upload);
+
+        // Then
+        ArgumentCaptor<UserPhoto> captor =
+                ArgumentCaptor.forClass(UserPhoto.class);
+        verify(userPhotoRepository).deleteByUsername(TEST_USERNAME);
+        verify(userPhotoRepository, times(2)).save(captor.capture());
+        List<UserPhoto> saved = captor.getAllValues();
+        assertEquals(64, hash.length());
+        for (UserPhoto photo : saved) {
+            BufferedImage image = ImageIO.read(
+                    new ByteArrayInputStream(photo.getData()));
+            assertEquals(photo.getSize(), image.getWidth());
+            assertEquals(photo.getSize() / 2, image.getHeight());
+            assertEquals("image/jpeg", photo.getContentType());
+            assertEquals(hash, photo.getContentHash());
+        }
+    }
+
+    /**
+     * Test small images are not upscaled.
+     */
+    @Test
+    @DisplayName("resize should not upscale small images")
+    void resize_shouldNotUpscale() {
+        // When
+        BufferedImage resized = UserPhotoService.resize(
+                new BufferedImage(40, 20, BufferedImage.TYPE_INT_ARGB), 256);
+
+        // Then
+        assertEquals(40, resized.getWidth());
+        assertEquals(20, resized.getHeight());
+    }
+
+    /**
+     * Test a null upload removes the photo.
+     */
+    @Test
+    @DisplayName("storePhoto with null should remove the photo")
+    void storePhoto_null_shouldRemove() {
+        // When
+        String hash = userPhotoService.storePhoto(TEST_USERNAME, null);
+
+        // Then
+        assertNull(hash);
+        verify(userPhotoRepository).deleteByUsername(TEST_USERNAME);
+        verify(userPhotoRepository, never()).save(any());
+    }
+
+    /**
+     * Test non-image bytes are rejected.
+     */
+    @Test
+    @DisplayName("storePhoto with non-image bytes should throw")
+    void storePhoto_notAnImage_shouldThrow() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () ->
+                userPhotoService.storePhoto(TEST_USERNAME,
+                        "photo.jpg".getBytes(StandardCharsets.UTF_8)));
+        verify(userPhotoRepository, never()).save(any());
+    }
+
+    /**
+     * Test photo URLs carry the content hash.
+     */
+    @Test
+    @DisplayName("photoUrl should include the content hash")
+    void photoUrl_shouldIncludeHash() {
+        assertEquals("/api/users/john/photo?v=abc",
+                UserPhotoService.photoUrl(TEST_USERNAME, "abc"));
+        assertTrue(userPhotoService.isSupportedSize(64));
+    }
+
+    /**
+     * Encode a blank PNG.
+     *
+     * @param width image width
+     * @param height image height
+     * @return PNG bytes
+     */
+    private byte[] png(final int width, final int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,207 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.dto.UserProfileCardDTO;
+import com.iwaproject.user.entities.UserProfileCard;
+import com.iwaproject.user.repositories.UserLanguageRepository;
+import com.iwaproject.user.repositories.UserProfileCardRepository;
+import com.iwaproject.user.repositories.UserSpecialisationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for UserProfileCardService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserProfileCardServiceTest {
+
+    /**
+     * Mock repositories.
+     */
+    @Mock
+    private UserProfileCardRepository userProfileCardRepository;
+    @Mock
+    private UserLanguageRepository userLanguageRepository;
+    @Mock
+    private UserSpecialisationRepository userSpecialisationRepository;
+
+    /**
+     * Service under test.
+     */
+    @InjectMocks
+    private UserProfileCardService userProfileCardService;
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_USERNAME = "john";
+
+    /**
+     * Test getCard normalises the username and fills the photo URL.
+     */
+    @Test
+    @DisplayName("getCard should look up normalised username and set photo URL")
+    void getCard_shouldNormaliseAndSetPhotoUrl() {
+        // Given
+        when(userProfileCardRepository.findCard(TEST_USERNAME,
+                UserPhotoService.DEFAULT_SIZE))
+                .thenReturn(Optional.of(card("abc123", null, null)));
+
+        // When
+        Optional<UserProfileCardDTO> result =
+                userProfileCardService.getCard(" John ");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(UserPhotoService.photoUrl(TEST_USERNAME, "abc123"),
+                result.get().getProfilePhotoUrl());
+        assertEquals(List.of("French", "English"), result.get().getLanguages());
+        assertEquals(0.0, result.get().getRatingAverage());
+        assertEquals(0L, result.get().getRatingCount());
+    }
+
+    /**
+     * Test the ETag follows the card content.
+     */
+    @Test
+    @DisplayName("etag should change with the rating summary")
+    void etag_shouldChangeWithRating() {
+        // Given
+        UserProfileCardDTO unrated = card(null, null, null);
+        UserProfileCardDTO rated = card(null, 4.5, 2L);
+
+        // Then
+        assertEquals(UserProfileCardService.etag(unrated),
+                UserProfileCardService.etag(card(null, null, null)));
+        assertNotEquals(UserProfileCardService.etag(unrated),
+                UserProfileCardService.etag(rated));
+        assertTrue(UserProfileCardService.etag(rated)
+                .matches("\"[0-9a-f]{64}\""));
+    }
+
+    /**
+     * Test updateRating creates the card of a user without one.
+     */
+    @Test
+    @DisplayName("updateRating without card should create it with current labels")
+    void updateRating_noCard_shouldCreateCard() {
+        // Given
+        UserProfileCard created = new UserProfileCard(TEST_USERNAME,
+                "French", "Plumber\nElectrician", null, null, null);
+        when(userProfileCardRepository.findById(TEST_USERNAME))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        when(userLanguageRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of("French"));
+        when(userSpecialisationRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of("Plumber", "Electrician"));
+
+        // When
+        userProfileCardService.updateRating("John", 4.5, 2L, 10L);
+
+        // Then
+        verify(userProfileCardRepository).insertIfMissing(TEST_USERNAME,
+                "French", "Plumber\nElectrician");
+        ArgumentCaptor<UserProfileCard> captor =
+                ArgumentCaptor.forClass(UserProfileCard.class);
+        verify(userProfileCardRepository).save(captor.capture());
+        UserProfileCard saved = captor.getValue();
+        assertEquals(TEST_USERNAME, saved.getUsername());
+        assertEquals("French", saved.getLanguages());
+        assertEquals(4.5, saved.getRatingAverage());
+        assertEquals(2L, saved.getRatingCount());
+        assertEquals(10L, saved.getRatingVersion());
+    }
+
+    /**
+     * Test updateRating ignores a summary older than the stored one.
+     */
+    @Test
+    @DisplayName("updateRating should ignore an outdated summary")
+    void updateRating_outdated_shouldKeepStoredSummary() {
+        // Given
+        UserProfileCard existing = new UserProfileCard(TEST_USERNAME,
+                "French", "Plumber", 4.0, 3L, 20L);
+        when(userProfileCardRepository.findById(TEST_USERNAME))
+                .thenReturn(Optional.of(existing));
+
+        // When
+        userProfileCardService.updateRating(TEST_USERNAME, 4.5, 2L, 10L);
+
+        // Then
+        verify(userProfileCardRepository, never()).save(any());
+        assertEquals(4.0, existing.getRatingAverage());
+        assertEquals(3L, existing.getRatingCount());
+    }
+
+    /**
+     * Test updateLanguages keeps the stored rating.
+     */
+    @Test
+    @DisplayName("updateLanguages should replace labels and keep rating")
+    void updateLanguages_shouldKeepRating() {
+        // Given
+        UserProfileCard existing = new UserProfileCard(TEST_USERNAME,
+                "French", "Plumber", 4.0, 1L, 1L);
+        when(userProfileCardRepository.findById(TEST_USERNAME))
+                .thenReturn(Optional.of(existing));
+
+        // When
+        userProfileCardService.updateLanguages(TEST_USERNAME,
+                List.of("Spanish", "German"));
+
+        // Then
+        verify(userProfileCardRepository).save(existing);
+        assertEquals("Spanish\nGerman", existing.getLanguages());
+        assertEquals(4.0, existing.getRatingAverage());
+        verify(userLanguageRepository, never()).findLabelsByUsername(any());
+    }
+
+    /**
+     * Test createMissingCard leaves existing cards alone.
+     */
+    @Test
+    @DisplayName("createMissingCard should skip users with a card")
+    void createMissingCard_existingCard_shouldSkip() {
+        // Given
+        when(userProfileCardRepository.existsById(TEST_USERNAME))
+                .thenReturn(true);
+
+        // When
+        userProfileCardService.createMissingCard(TEST_USERNAME);
+
+        // Then
+        verify(userProfileCardRepository, never()).insertIfMissing(any(),
+                any(), any());
+    }
+
+    /**
+     * Create a card as returned by the repository projection.
+     *
+     * @param photoHash the photo hash
+     * @param average the rating average
+     * @param count the rating count
+     * @return card
+     */
+    private UserProfileCardDTO card(final String photoHash,
+            final Double average, final Long count) {
+        return new UserProfileCardDTO(TEST_USERNAME, "John", "Doe", "Paris",
+                "Test user", false, true, LocalDateTime.of(2025, 1, 1, 0, 0),
+                photoHash, "French\nEnglish", "Plumber", average, count);
+    }
+}
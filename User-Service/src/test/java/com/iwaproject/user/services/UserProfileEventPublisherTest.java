@@ -0,0 +1,143 @@
+package com.iwaproject.user.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iwaproject.user.entities.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for UserProfileEventPublisher.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserProfileEventPublisherTest {
+
+    /**
+     * Mock dependencies.
+     */
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+    @Mock
+    private UserPhotoService userPhotoService;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Publisher under test.
+     */
+    private UserProfileEventPublisher publisher;
+
+    /**
+     * Test constants.
+     */
+    private static final String TEST_USERNAME = "john";
+    private static final String PHOTO_HASH = "abc123";
+
+    /**
+     * Setup publisher.
+     */
+    @BeforeEach
+    void setUp() {
+        publisher = new UserProfileEventPublisher(kafkaProducerService,
+                userPhotoService, objectMapper);
+    }
+
+    /**
+     * Clear any transaction synchronization left by a test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test the event is keyed by username and carries the summary.
+     */
+    @Test
+    @DisplayName("publishAfterCommit without transaction should send keyed summary")
+    void publishAfterCommit_noTransaction_shouldSendKeyedSummary()
+            throws Exception {
+        // Given
+        when(userPhotoService.getContentHash(TEST_USERNAME))
+                .thenReturn(Optional.of(PHOTO_HASH));
+
+        // When
+        publisher.publishAfterCommit(createTestUser());
+
+        // Then
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducerService).sendMessage(
+                eq(UserProfileEventPublisher.USER_PROFILE_TOPIC),
+                eq(TEST_USERNAME), payload.capture());
+        JsonNode event = objectMapper.readTree((String) payload.getValue());
+        assertEquals(TEST_USERNAME, event.get("username").asText());
+        assertEquals("John", event.get("firstName").asText());
+        assertEquals("Doe", event.get("lastName").asText());
+        assertTrue(event.get("profileComplete").asBoolean());
+        assertEquals(PHOTO_HASH, event.get("profilePhotoHash").asText());
+        assertEquals("/api/users/john/photo?v=" + PHOTO_HASH,
+                event.get("profilePhotoUrl").asText());
+    }
+
+    /**
+     * Test the event waits for the transaction to commit.
+     */
+    @Test
+    @DisplayName("publishAfterCommit in a transaction should send only after commit")
+    void publishAfterCommit_inTransaction_shouldWaitForCommit() {
+        // Given
+        when(userPhotoService.getContentHash(TEST_USERNAME))
+                .thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        publisher.publishAfterCommit(createTestUser());
+
+        // Then
+        verify(kafkaProducerService, never()).sendMessage(anyString(),
+                anyString(), any());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        verify(kafkaProducerService).sendMessage(
+                eq(UserProfileEventPublisher.USER_PROFILE_TOPIC),
+                eq(TEST_USERNAME), any());
+    }
+
+    /**
+     * Create a test user.
+     *
+     * @return test user
+     */
+    private User createTestUser() {
+        User user = new User();
+        user.setUsername(TEST_USERNAME);
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setProfileComplete(true);
+        return user;
+    }
+}
@@ -1,15 +1,13 @@
 package com.iwaproject.user.services;
 
+import com.iwaproject.user.dto.UserBatchDTO;
+import com.iwaproject.user.dto.UserDirectoryPageDTO;
 import com.iwaproject.user.dto.UserLanguageDTO;
 import com.iwaproject.user.dto.UserSpecialisationDTO;
+import com.iwaproject.user.dto.UserSummaryDTO;
 import com.iwaproject.user.entities.Language;
 import com.iwaproject.user.entities.Specialisation;
 import com.iwaproject.user.entities.User;
-import com.iwaproject.user.entities.UserLanguage;
-import com.iwaproject.user.entities.UserSpecialisation;
-import com.iwaproject.user.keycloak.KeycloakClientService;
-import com.iwaproject.user.repositories.LanguageRepository;
-import com.iwaproject.user.repositories.SpecialisationRepository;
 import com.iwaproject.user.repositories.UserLanguageRepository;
 import com.iwaproject.user.repositories.UserRepository;
 import com.iwaproject.user.repositories.UserSpecialisationRepository;
@@ -20,20 +18,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -58,11 +66,23 @@ class UserServiceTest {
     @Mock
     private UserSpecialisationRepository userSpecialisationRepository;
     @Mock
-    private LanguageRepository languageRepository;
+    private LanguageService languageService;
     @Mock
-    private SpecialisationRepository specialisationRepository;
+    private SpecialisationService specialisationService;
     @Mock
-    private KeycloakClientService keycloakClientService;
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private UserEmailService userEmailService;
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+    @Mock
+    private UserPhotoService userPhotoService;
+    @Mock
+    private UsernameIndex usernameIndex;
+    @Mock
+    private UserProfileEventPublisher userProfileEventPublisher;
+    @Mock
+    private UserProfileCardService userProfileCardService;
 
     /**
      * Service under test.
@@ -109,57 +129,66 @@ class UserServiceTest {
     }
 
     /**
-     * Test getUserByUsername when user does not exist.
+     * Test getUserByUsername resolves mixed-case input.
      */
     @Test
-    @DisplayName("getUserByUsername when user does not exist should return empty")
-    void getUserByUsername_userNotExists_shouldReturnEmpty() {
+    @DisplayName("getUserByUsername with mixed case should look up normalised username")
+    void getUserByUsername_mixedCase_shouldNormalise() {
         // Given
         when(userRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(Optional.empty());
+                .thenReturn(Optional.of(testUser));
 
         // When
-        Optional<User> result = userService.getUserByUsername(TEST_USERNAME);
+        Optional<User> result = userService.getUserByUsername(" John ");
 
         // Then
-        assertTrue(result.isEmpty());
+        assertTrue(result.isPresent());
         verify(userRepository).findByUsername(TEST_USERNAME);
     }
 
     /**
-     * Test getUserEmail when email exists in Keycloak.
+     * Test normalizeUsername.
+     */
+    @Test
+    @DisplayName("normalizeUsername should trim and lower-case")
+    void normalizeUsername_shouldTrimAndLowerCase() {
+        assertEquals("john.doe", UserService.normalizeUsername(" John.DOE "));
+        assertNull(UserService.normalizeUsername(null));
+    }
+
+    /**
+     * Test getUserByUsername when user does not exist.
      */
     @Test
-    @DisplayName("getUserEmail when email exists should return email")
-    void getUserEmail_emailExists_shouldReturnEmail() {
+    @DisplayName("getUserByUsername when user does not exist should return empty")
+    void getUserByUsername_userNotExists_shouldReturnEmpty() {
         // Given
-        when(keycloakClientService.getEmailByUsername(TEST_USERNAME))
-                .thenReturn(TEST_EMAIL);
+        when(userRepository.findByUsername(TEST_USERNAME))
+                .thenReturn(Optional.empty());
 
         // When
-        String result = userService.getUserEmail(TEST_USERNAME);
+        Optional<User> result = userService.getUserByUsername(TEST_USERNAME);
 
         // Then
-        assertEquals(TEST_EMAIL, result);
-        verify(keycloakClientService).getEmailByUsername(TEST_USERNAME);
+        assertTrue(result.isEmpty());
+        verify(userRepository).findByUsername(TEST_USERNAME);
     }
 
     /**
-     * Test getUserEmail when Keycloak throws exception.
+     * Test getUserEmail delegates to the email service.
      */
     @Test
-    @DisplayName("getUserEmail when Keycloak throws exception should return null")
-    void getUserEmail_keycloakException_shouldReturnNull() {
+    @DisplayName("getUserEmail should return email from the email service")
+    void getUserEmail_shouldDelegateToEmailService() {
         // Given
-        when(keycloakClientService.getEmailByUsername(TEST_USERNAME))
-                .thenThrow(new RuntimeException("Keycloak error"));
+        when(userEmailService.getEmail(TEST_USERNAME)).thenReturn(TEST_EMAIL);
 
         // When
         String result = userService.getUserEmail(TEST_USERNAME);
 
         // Then
-        assertEquals(null, result);
-        verify(keycloakClientService).getEmailByUsername(TEST_USERNAME);
+        assertEquals(TEST_EMAIL, result);
+        verify(userEmailService).getEmail(TEST_USERNAME);
     }
 
     /**
@@ -188,6 +217,7 @@ class UserServiceTest {
         assertEquals("Smith", result.getLastName());
         verify(userRepository).findByUsername(TEST_USERNAME);
         verify(userRepository).save(testUser);
+        verify(userProfileEventPublisher).publishAfterCommit(testUser);
     }
 
     /**
@@ -218,19 +248,8 @@ class UserServiceTest {
     @DisplayName("getUserLanguages when user has languages should return list")
     void getUserLanguages_userHasLanguages_shouldReturnList() {
         // Given
-        Language french = new Language("French");
-        Language english = new Language("English");
-
-        UserLanguage ul1 = new UserLanguage();
-        ul1.setUsername(TEST_USERNAME);
-        ul1.setLanguage(french);
-
-        UserLanguage ul2 = new UserLanguage();
-        ul2.setUsername(TEST_USERNAME);
-        ul2.setLanguage(english);
-
-        when(userLanguageRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(ul1, ul2));
+        when(userLanguageRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of("French", "English"));
 
         // When
         List<UserLanguageDTO> result = userService.getUserLanguages(TEST_USERNAME);
@@ -240,7 +259,7 @@ class UserServiceTest {
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(dto -> dto.getLanguage().equals("French")));
         assertTrue(result.stream().anyMatch(dto -> dto.getLanguage().equals("English")));
-        verify(userLanguageRepository).findByUsername(TEST_USERNAME);
+        verify(userLanguageRepository).findLabelsByUsername(TEST_USERNAME);
     }
 
     /**
@@ -250,7 +269,7 @@ class UserServiceTest {
     @DisplayName("getUserLanguages when user has no languages should return empty list")
     void getUserLanguages_userHasNoLanguages_shouldReturnEmptyList() {
         // Given
-        when(userLanguageRepository.findByUsername(TEST_USERNAME))
+        when(userLanguageRepository.findLabelsByUsername(TEST_USERNAME))
                 .thenReturn(List.of());
 
         // When
@@ -259,23 +278,21 @@ class UserServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userLanguageRepository).findByUsername(TEST_USERNAME);
+        verify(userLanguageRepository).findLabelsByUsername(TEST_USERNAME);
     }
 
     /**
      * Test updateUserLanguages with valid languages.
      */
     @Test
-    @DisplayName("updateUserLanguages with valid languages should update languages")
+    @DisplayName("updateUserLanguages with valid languages should only apply the difference")
     void updateUserLanguages_validLanguages_shouldUpdateLanguages() {
         // Given
-        List<String> languageLabels = List.of("French", "English");
-        Language french = new Language("French");
-        Language english = new Language("English");
-
-        when(languageRepository.findById("French")).thenReturn(Optional.of(french));
-        when(languageRepository.findById("English")).thenReturn(Optional.of(english));
-        when(userLanguageRepository.saveAll(any())).thenReturn(List.of());
+        List<String> languageLabels = List.of("French", "English", "French");
+        when(languageService.getLanguage("French")).thenReturn(new Language("French"));
+        when(languageService.getLanguage("English")).thenReturn(new Language("English"));
+        when(userLanguageRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of("French", "Spanish"));
 
         // When
         List<UserLanguageDTO> result = userService.updateUserLanguages(TEST_USERNAME, languageLabels);
@@ -283,29 +300,54 @@ class UserServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(userLanguageRepository).deleteByUsername(TEST_USERNAME);
-        verify(languageRepository, times(2)).findById(anyString());
-        verify(userLanguageRepository).saveAll(any());
+        verify(jdbcTemplate).batchUpdate(anyString(), eq(List.of("English")),
+                eq(1), any());
+        verify(userLanguageRepository).deleteByUsernameAndLabelIn(TEST_USERNAME,
+                List.of("Spanish"));
+        verify(userProfileCardService).updateLanguages(TEST_USERNAME,
+                List.of("French", "English"));
+    }
+
+    /**
+     * Test updateUserLanguages with an unchanged choice.
+     */
+    @Test
+    @DisplayName("updateUserLanguages with unchanged languages should write nothing")
+    void updateUserLanguages_unchanged_shouldWriteNothing() {
+        // Given
+        when(languageService.getLanguage("French")).thenReturn(new Language("French"));
+        when(userLanguageRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of("French"));
+
+        // When
+        userService.updateUserLanguages(TEST_USERNAME, List.of("French"));
+
+        // Then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class),
+                anyInt(), any());
+        verify(userLanguageRepository, never()).deleteByUsernameAndLabelIn(any(), any());
     }
 
     /**
      * Test updateUserLanguages when language not found.
      */
     @Test
-    @DisplayName("updateUserLanguages when language not found should throw exception")
+    @DisplayName("updateUserLanguages when language not found should throw before writing")
     void updateUserLanguages_languageNotFound_shouldThrowException() {
         // Given
         List<String> languageLabels = List.of("Klingon");
-        when(languageRepository.findById("Klingon")).thenReturn(Optional.empty());
+        when(languageService.getLanguage("Klingon"))
+                .thenThrow(new IllegalArgumentException("Language not found: Klingon"));
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             userService.updateUserLanguages(TEST_USERNAME, languageLabels);
         });
 
-        verify(userLanguageRepository).deleteByUsername(TEST_USERNAME);
-        verify(languageRepository).findById("Klingon");
-        verify(userLanguageRepository, never()).saveAll(any());
+        verify(userLanguageRepository, never()).findLabelsByUsername(any());
+        verify(userLanguageRepository, never()).deleteByUsernameAndLabelIn(any(), any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class),
+                anyInt(), any());
     }
 
     /**
@@ -315,19 +357,8 @@ class UserServiceTest {
     @DisplayName("getUserSpecialisations when user has specialisations should return list")
     void getUserSpecialisations_userHasSpecialisations_shouldReturnList() {
         // Given
-        Specialisation plumber = new Specialisation("Plumber");
-        Specialisation electrician = new Specialisation("Electrician");
-
-        UserSpecialisation us1 = new UserSpecialisation();
-        us1.setUsername(TEST_USERNAME);
-        us1.setSpecialisation(plumber);
-
-        UserSpecialisation us2 = new UserSpecialisation();
-        us2.setUsername(TEST_USERNAME);
-        us2.setSpecialisation(electrician);
-
-        when(userSpecialisationRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(us1, us2));
+        when(userSpecialisationRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of("Plumber", "Electrician"));
 
         // When
         List<UserSpecialisationDTO> result = userService.getUserSpecialisations(TEST_USERNAME);
@@ -337,7 +368,7 @@ class UserServiceTest {
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(dto -> dto.getSpecialisation().equals("Plumber")));
         assertTrue(result.stream().anyMatch(dto -> dto.getSpecialisation().equals("Electrician")));
-        verify(userSpecialisationRepository).findByUsername(TEST_USERNAME);
+        verify(userSpecialisationRepository).findLabelsByUsername(TEST_USERNAME);
     }
 
     /**
@@ -347,7 +378,7 @@ class UserServiceTest {
     @DisplayName("getUserSpecialisations when user has no specialisations should return empty list")
     void getUserSpecialisations_userHasNoSpecialisations_shouldReturnEmptyList() {
         // Given
-        when(userSpecialisationRepository.findByUsername(TEST_USERNAME))
+        when(userSpecialisationRepository.findLabelsByUsername(TEST_USERNAME))
                 .thenReturn(List.of());
 
         // When
@@ -356,23 +387,23 @@ class UserServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userSpecialisationRepository).findByUsername(TEST_USERNAME);
+        verify(userSpecialisationRepository).findLabelsByUsername(TEST_USERNAME);
     }
 
     /**
      * Test updateUserSpecialisations with valid specialisations.
      */
     @Test
-    @DisplayName("updateUserSpecialisations with valid specialisations should update specialisations")
+    @DisplayName("updateUserSpecialisations with valid specialisations should only apply the difference")
     void updateUserSpecialisations_validSpecialisations_shouldUpdateSpecialisations() {
         // Given
         List<String> specialisationLabels = List.of("Plumber", "Electrician");
-        Specialisation plumber = new Specialisation("Plumber");
-        Specialisation electrician = new Specialisation("Electrician");
-
-        when(specialisationRepository.findById("Plumber")).thenReturn(Optional.of(plumber));
-        when(specialisationRepository.findById("Electrician")).thenReturn(Optional.of(electrician));
-        when(userSpecialisationRepository.saveAll(any())).thenReturn(List.of());
+        when(specialisationService.getSpecialisation("Plumber"))
+                .thenReturn(new Specialisation("Plumber"));
+        when(specialisationService.getSpecialisation("Electrician"))
+                .thenReturn(new Specialisation("Electrician"));
+        when(userSpecialisationRepository.findLabelsByUsername(TEST_USERNAME))
+                .thenReturn(List.of());
 
         // When
         List<UserSpecialisationDTO> result = userService.updateUserSpecialisations(TEST_USERNAME, specialisationLabels);
@@ -380,29 +411,33 @@ class UserServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(userSpecialisationRepository).deleteByUsername(TEST_USERNAME);
-        verify(specialisationRepository, times(2)).findById(anyString());
-        verify(userSpecialisationRepository).saveAll(any());
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                eq(List.of("Plumber", "Electrician")), eq(2), any());
+        verify(userSpecialisationRepository, never()).deleteByUsernameAndLabelIn(any(), any());
+        verify(userProfileCardService).updateSpecialisations(TEST_USERNAME,
+                List.of("Plumber", "Electrician"));
     }
 
     /**
      * Test updateUserSpecialisations when specialisation not found.
      */
     @Test
-    @DisplayName("updateUserSpecialisations when specialisation not found should throw exception")
+    @DisplayName("updateUserSpecialisations when specialisation not found should throw before writing")
     void updateUserSpecialisations_specialisationNotFound_shouldThrowException() {
         // Given
         List<String> specialisationLabels = List.of("Alien");
-        when(specialisationRepository.findById("Alien")).thenReturn(Optional.empty());
+        when(specialisationService.getSpecialisation("Alien"))
+                .thenThrow(new IllegalArgumentException("Specialisation not found: Alien"));
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             userService.updateUserSpecialisations(TEST_USERNAME, specialisationLabels);
         });
 
-        verify(userSpecialisationRepository).deleteByUsername(TEST_USERNAME);
-        verify(specialisationRepository).findById("Alien");
-        verify(userSpecialisationRepository, never()).saveAll(any());
+        verify(userSpecialisationRepository, never()).findLabelsByUsername(any());
+        verify(userSpecialisationRepository, never()).deleteByUsernameAndLabelIn(any(), any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class),
+                anyInt(), any());
     }
 
     /**
@@ -439,6 +474,43 @@ class UserServiceTest {
         verify(userRepository).existsByUsername(TEST_USERNAME);
     }
 
+    /**
+     * Test userExists answers indexed users without a query.
+     */
+    @Test
+    @DisplayName("userExists for an indexed user should not query the database")
+    void userExists_indexedUser_shouldSkipRepository() {
+        // Given
+        when(usernameIndex.contains(TEST_USERNAME)).thenReturn(true);
+
+        // When
+        boolean result = userService.userExists(TEST_USERNAME);
+
+        // Then
+        assertTrue(result);
+        verify(userRepository, never()).existsByUsername(any());
+    }
+
+    /**
+     * Test findExistingUsernames only queries users missing from the index.
+     */
+    @Test
+    @DisplayName("findExistingUsernames should query only unindexed usernames")
+    void findExistingUsernames_shouldQueryOnlyUnknown() {
+        // Given
+        when(usernameIndex.contains(TEST_USERNAME)).thenReturn(true);
+        when(userRepository.findExistingUsernames(Set.of("jane", "ghost")))
+                .thenReturn(List.of("jane"));
+
+        // When
+        Set<String> result = userService.findExistingUsernames(
+                List.of(TEST_USERNAME, "jane", "ghost"));
+
+        // Then
+        assertEquals(Set.of(TEST_USERNAME, "jane"), result);
+        verify(usernameIndex).addAll(List.of("jane"));
+    }
+
     /**
      * Test userExists with null username.
      */
@@ -468,217 +540,226 @@ class UserServiceTest {
     }
 
     /**
-     * Test isUserProfileComplete with complete profile.
+     * Test isUserProfileComplete reads the stored flag.
      */
     @Test
-    @DisplayName("isUserProfileComplete with complete profile should return true")
-    void isUserProfileComplete_completeProfile_shouldReturnTrue() {
+    @DisplayName("isUserProfileComplete should return the stored flag")
+    void isUserProfileComplete_shouldReturnStoredFlag() {
         // Given
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(userLanguageRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserLanguage()));
-        when(userSpecialisationRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserSpecialisation()));
+        when(userRepository.findProfileCompleteByUsername(TEST_USERNAME))
+                .thenReturn(Optional.of(true));
 
         // When
         boolean result = userService.isUserProfileComplete(TEST_USERNAME);
 
         // Then
         assertTrue(result);
-        verify(userRepository).findByUsername(TEST_USERNAME);
-        verify(userLanguageRepository).findByUsername(TEST_USERNAME);
-        verify(userSpecialisationRepository).findByUsername(TEST_USERNAME);
+        verify(userRepository, never()).findByUsername(any());
+        verify(userLanguageRepository, never()).findByUsername(any());
+        verify(userSpecialisationRepository, never()).findByUsername(any());
     }
 
     /**
-     * Test isUserProfileComplete with incomplete profile (no firstName).
+     * Test isComplete with complete profile.
      */
     @Test
-    @DisplayName("isUserProfileComplete with no firstName should return false")
-    void isUserProfileComplete_noFirstName_shouldReturnFalse() {
-        // Given
-        testUser.setFirstName(null);
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(userLanguageRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserLanguage()));
-        when(userSpecialisationRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserSpecialisation()));
-
-        // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
+    @DisplayName("isComplete with complete profile should return true")
+    void isComplete_completeProfile_shouldReturnTrue() {
+        assertTrue(UserService.isComplete(testUser, true, true));
+    }
 
-        // Then
-        assertFalse(result);
+    /**
+     * Test isComplete with incomplete profile (no firstName).
+     */
+    @Test
+    @DisplayName("isComplete with no firstName should return false")
+    void isComplete_noFirstName_shouldReturnFalse() {
+        testUser.setFirstName(null);
+        assertFalse(UserService.isComplete(testUser, true, true));
     }
 
     /**
-     * Test isUserProfileComplete with blank firstName.
+     * Test isComplete with blank firstName.
      */
     @Test
-    @DisplayName("isUserProfileComplete with blank firstName should return false")
-    void isUserProfileComplete_blankFirstName_shouldReturnFalse() {
-        // Given
+    @DisplayName("isComplete with blank firstName should return false")
+    void isComplete_blankFirstName_shouldReturnFalse() {
         testUser.setFirstName("  ");
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(userLanguageRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserLanguage()));
-        when(userSpecialisationRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserSpecialisation()));
-
-        // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
-
-        // Then
-        assertFalse(result);
+        assertFalse(UserService.isComplete(testUser, true, true));
     }
 
     /**
-     * Test isUserProfileComplete with no lastName.
+     * Test isComplete with no lastName.
      */
     @Test
-    @DisplayName("isUserProfileComplete with no lastName should return false")
-    void isUserProfileComplete_noLastName_shouldReturnFalse() {
-        // Given
+    @DisplayName("isComplete with no lastName should return false")
+    void isComplete_noLastName_shouldReturnFalse() {
         testUser.setLastName(null);
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-
-        // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
-
-        // Then
-        assertFalse(result);
+        assertFalse(UserService.isComplete(testUser, true, true));
     }
 
     /**
-     * Test isUserProfileComplete with no phoneNumber.
+     * Test isComplete with no phoneNumber.
      */
     @Test
-    @DisplayName("isUserProfileComplete with no phoneNumber should return false")
-    void isUserProfileComplete_noPhoneNumber_shouldReturnFalse() {
-        // Given
+    @DisplayName("isComplete with no phoneNumber should return false")
+    void isComplete_noPhoneNumber_shouldReturnFalse() {
         testUser.setPhoneNumber(null);
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-
-        // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
-
-        // Then
-        assertFalse(result);
+        assertFalse(UserService.isComplete(testUser, true, true));
     }
 
     /**
-     * Test isUserProfileComplete with blank phoneNumber.
+     * Test isComplete with blank phoneNumber.
      */
     @Test
-    @DisplayName("isUserProfileComplete with blank phoneNumber should return false")
-    void isUserProfileComplete_blankPhoneNumber_shouldReturnFalse() {
-        // Given
+    @DisplayName("isComplete with blank phoneNumber should return false")
+    void isComplete_blankPhoneNumber_shouldReturnFalse() {
         testUser.setPhoneNumber("  ");
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        assertFalse(UserService.isComplete(testUser, true, true));
+    }
 
-        // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
+    /**
+     * Test isComplete with no location.
+     */
+    @Test
+    @DisplayName("isComplete with no location should return false")
+    void isComplete_noLocation_shouldReturnFalse() {
+        testUser.setLocation(null);
+        assertFalse(UserService.isComplete(testUser, true, true));
+    }
 
-        // Then
-        assertFalse(result);
+    /**
+     * Test isComplete with no languages.
+     */
+    @Test
+    @DisplayName("isComplete with no languages should return false")
+    void isComplete_noLanguages_shouldReturnFalse() {
+        assertFalse(UserService.isComplete(testUser, false, true));
     }
 
     /**
-     * Test isUserProfileComplete with no location.
+     * Test isComplete with no specialisations.
      */
     @Test
-    @DisplayName("isUserProfileComplete with no location should return false")
-    void isUserProfileComplete_noLocation_shouldReturnFalse() {
-        // Given
-        testUser.setLocation(null);
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+    @DisplayName("isComplete with no specialisations should return false")
+    void isComplete_noSpecialisations_shouldReturnFalse() {
+        assertFalse(UserService.isComplete(testUser, true, false));
+    }
 
+    /**
+     * Test isUserProfileComplete with null username.
+     */
+    @Test
+    @DisplayName("isUserProfileComplete with null username should return false")
+    void isUserProfileComplete_nullUsername_shouldReturnFalse() {
         // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
+        boolean result = userService.isUserProfileComplete(null);
 
         // Then
         assertFalse(result);
+        verify(userRepository, never()).findProfileCompleteByUsername(any());
     }
 
     /**
-     * Test isUserProfileComplete with no languages.
+     * Test isUserProfileComplete with blank username.
      */
     @Test
-    @DisplayName("isUserProfileComplete with no languages should return false")
-    void isUserProfileComplete_noLanguages_shouldReturnFalse() {
-        // Given
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(userLanguageRepository.findByUsername(TEST_USERNAME)).thenReturn(List.of());
-
+    @DisplayName("isUserProfileComplete with blank username should return false")
+    void isUserProfileComplete_blankUsername_shouldReturnFalse() {
         // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
+        boolean result = userService.isUserProfileComplete("  ");
 
         // Then
         assertFalse(result);
+        verify(userRepository, never()).findProfileCompleteByUsername(any());
     }
 
     /**
-     * Test isUserProfileComplete with no specialisations.
+     * Test isUserProfileComplete when user not found.
      */
     @Test
-    @DisplayName("isUserProfileComplete with no specialisations should return false")
-    void isUserProfileComplete_noSpecialisations_shouldReturnFalse() {
+    @DisplayName("isUserProfileComplete when user not found should return false")
+    void isUserProfileComplete_userNotFound_shouldReturnFalse() {
         // Given
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(userLanguageRepository.findByUsername(TEST_USERNAME))
-                .thenReturn(List.of(new UserLanguage()));
-        when(userSpecialisationRepository.findByUsername(TEST_USERNAME)).thenReturn(List.of());
+        when(userRepository.findProfileCompleteByUsername(TEST_USERNAME))
+                .thenReturn(Optional.empty());
 
         // When
         boolean result = userService.isUserProfileComplete(TEST_USERNAME);
 
         // Then
         assertFalse(result);
+        verify(userRepository).findProfileCompleteByUsername(TEST_USERNAME);
     }
 
     /**
-     * Test isUserProfileComplete with null username.
+     * Test updateUserLanguages recomputes the completion flag.
      */
     @Test
-    @DisplayName("isUserProfileComplete with null username should return false")
-    void isUserProfileComplete_nullUsername_shouldReturnFalse() {
+    @DisplayName("updateUserLanguages should flag the profile complete")
+    void updateUserLanguages_shouldFlagProfileComplete() {
+        // Given
+        when(languageService.getLanguage("French"))
+                .thenReturn(new Language("French"));
+        when(userRepository.findByUsername(TEST_USERNAME))
+                .thenReturn(Optional.of(testUser));
+        when(userSpecialisationRepository.existsByUsername(TEST_USERNAME))
+                .thenReturn(true);
+
         // When
-        boolean result = userService.isUserProfileComplete(null);
+        userService.updateUserLanguages(TEST_USERNAME, List.of("French"));
 
         // Then
-        assertFalse(result);
-        verify(userRepository, never()).findByUsername(any());
+        assertTrue(testUser.isProfileComplete());
+        verify(userProfileEventPublisher).publishAfterCommit(testUser);
     }
 
     /**
-     * Test isUserProfileComplete with blank username.
+     * Test a language change keeping completeness publishes nothing.
      */
     @Test
-    @DisplayName("isUserProfileComplete with blank username should return false")
-    void isUserProfileComplete_blankUsername_shouldReturnFalse() {
+    @DisplayName("updateUserLanguages without completeness change should not publish")
+    void updateUserLanguages_sameCompleteness_shouldNotPublish() {
+        // Given
+        testUser.setProfileComplete(true);
+        when(languageService.getLanguage("French"))
+                .thenReturn(new Language("French"));
+        when(userRepository.findByUsername(TEST_USERNAME))
+                .thenReturn(Optional.of(testUser));
+        when(userSpecialisationRepository.existsByUsername(TEST_USERNAME))
+                .thenReturn(true);
+
         // When
-        boolean result = userService.isUserProfileComplete("  ");
+        userService.updateUserLanguages(TEST_USERNAME, List.of("French"));
 
         // Then
-        assertFalse(result);
-        verify(userRepository, never()).findByUsername(any());
+        assertTrue(testUser.isProfileComplete());
+        verify(userProfileEventPublisher, never()).publishAfterCommit(any());
     }
 
     /**
-     * Test isUserProfileComplete when user not found.
+     * Test updateUserProfile clears the flag when a required field goes.
      */
     @Test
-    @DisplayName("isUserProfileComplete when user not found should return false")
-    void isUserProfileComplete_userNotFound_shouldReturnFalse() {
+    @DisplayName("updateUserProfile should clear the flag of an incomplete profile")
+    void updateUserProfile_shouldClearProfileComplete() {
         // Given
-        when(userRepository.findByUsername(TEST_USERNAME)).thenReturn(Optional.empty());
+        testUser.setProfileComplete(true);
+        when(userRepository.findByUsername(TEST_USERNAME))
+                .thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        when(userLanguageRepository.existsByUsername(TEST_USERNAME))
+                .thenReturn(true);
+        when(userSpecialisationRepository.existsByUsername(TEST_USERNAME))
+                .thenReturn(true);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("location", null);
 
         // When
-        boolean result = userService.isUserProfileComplete(TEST_USERNAME);
+        User result = userService.updateUserProfile(TEST_USERNAME, updates);
 
         // Then
-        assertFalse(result);
-        verify(userRepository).findByUsername(TEST_USERNAME);
+        assertFalse(result.isProfileComplete());
     }
 
     /**
@@ -699,6 +780,51 @@ class UserServiceTest {
         assertEquals("John", result.getFirstName());
         assertEquals("Doe", result.getLastName());
         verify(userRepository).save(any(User.class));
+        verify(kafkaProducerService).sendMessage("user-lifecycle-topic",
+                "CREATED:" + TEST_USERNAME);
+        verify(userProfileEventPublisher).publishAfterCommit(result);
+    }
+
+    /**
+     * Test the lifecycle event waits for the transaction to commit.
+     */
+    @Test
+    @DisplayName("createUserProfile in a transaction should announce the user after commit")
+    void createUserProfile_inTransaction_shouldAnnounceAfterCommit() {
+        // Given
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.createUserProfile(TEST_USERNAME, "John", "Doe");
+
+            // Then
+            verify(kafkaProducerService, never()).sendMessage(
+                    "user-lifecycle-topic", "CREATED:" + TEST_USERNAME);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            verify(kafkaProducerService).sendMessage("user-lifecycle-topic",
+                    "CREATED:" + TEST_USERNAME);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test createUserProfile stores the normalised username.
+     */
+    @Test
+    @DisplayName("createUserProfile with mixed-case username should store it lower-cased")
+    void createUserProfile_mixedCase_shouldNormalise() {
+        // Given
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        User result = userService.createUserProfile("John", "John", "Doe");
+
+        // Then
+        assertEquals(TEST_USERNAME, result.getUsername());
+        verify(usernameIndex).addAfterCommit(TEST_USERNAME);
     }
 
     /**
@@ -717,7 +843,8 @@ class UserServiceTest {
                 "phoneNumber", "1234567890",
                 "location", "Paris",
                 "description", "Test user",
-                "profilePhoto", "photo.jpg",
+                "profilePhoto", Base64.getEncoder().encodeToString(
+                        "photo.jpg".getBytes(StandardCharsets.UTF_8)),
                 "identityVerification", true,
                 "preferences", "{}"
         );
@@ -733,7 +860,8 @@ class UserServiceTest {
         assertEquals("1234567890", result.getPhoneNumber());
         assertEquals("Paris", result.getLocation());
         assertEquals("Test user", result.getDescription());
-        assertEquals("photo.jpg", result.getProfilePhoto());
+        verify(userPhotoService).storePhoto(TEST_USERNAME,
+                "photo.jpg".getBytes(StandardCharsets.UTF_8));
         assertTrue(result.getIdentityVerification());
         assertEquals("{}", result.getPreferences());
         verify(userRepository).save(any(User.class));
@@ -850,6 +978,141 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    /**
+     * Test getUserSummaries keeps request order and reports missing users.
+     */
+    @Test
+    @DisplayName("getUserSummaries should return summaries in order and missing users")
+    void getUserSummaries_shouldReturnSummariesAndMissing() {
+        // Given
+        when(userRepository.findSummaries(any(), eq(256))).thenReturn(List.of(
+                new UserSummaryDTO("jane", "Jane", "Roe", true, "hash"),
+                new UserSummaryDTO(TEST_USERNAME, "John", "Doe", false, null)));
+
+        // When
+        UserBatchDTO result = userService.getUserSummaries(
+                List.of(TEST_USERNAME, "ghost", "jane", TEST_USERNAME, " "));
+
+        // Then
+        assertEquals(List.of(TEST_USERNAME, "jane"), result.getUsers().stream()
+                .map(UserSummaryDTO::getUsername).toList());
+        assertEquals(List.of("ghost"), result.getMissing());
+        assertEquals("/api/users/jane/photo?v=hash",
+                result.getUsers().get(1).getProfilePhotoUrl());
+        verify(userRepository).findSummaries(
+                eq(Set.of(TEST_USERNAME, "ghost", "jane")), eq(256));
+    }
+
+    /**
+     * Test getUserSummaries rejects oversized batches.
+     */
+    @Test
+    @DisplayName("getUserSummaries with too many usernames should throw")
+    void getUserSummaries_tooMany_shouldThrow() {
+        // Given
+        List<String> usernames = IntStream.rangeClosed(0,
+                UserService.MAX_BATCH_SIZE)
+                .mapToObj(i -> "user" + i).toList();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUserSummaries(usernames));
+        verify(userRepository, never()).findSummaries(any(), eq(256));
+    }
+
+    /**
+     * Test directory search canonicalises labels and returns a cursor.
+     */
+    @Test
+    @DisplayName("searchDirectory should query with canonical labels and return next cursor")
+    void searchDirectory_fullPage_shouldReturnNextCursor() {
+        // Given
+        when(specialisationService.getSpecialisation("plumber"))
+                .thenReturn(new Specialisation("Plumber"));
+        when(languageService.getLanguage("French"))
+                .thenReturn(new Language("French"));
+        when(userRepository.searchDirectory(Set.of("Plumber"), 1L,
+                Set.of("French"), 1L, "paris%", "", 256, Limit.of(3)))
+                .thenReturn(List.of(
+                        new UserSummaryDTO("anna", "Anna", "A", true, "h1"),
+                        new UserSummaryDTO("bob", "Bob", "B", false, null),
+                        new UserSummaryDTO("carl", "Carl", "C", false, null)));
+
+        // When
+        UserDirectoryPageDTO page = userService.searchDirectory(
+                List.of("plumber"), List.of("French"), " Paris ", null, 2);
+
+        // Then
+        assertEquals(List.of("anna", "bob"), page.getUsers().stream()
+                .map(UserSummaryDTO::getUsername).toList());
+        assertEquals("bob", page.getNextCursor());
+        assertEquals("/api/users/anna/photo?v=h1",
+                page.getUsers().get(0).getProfilePhotoUrl());
+    }
+
+    /**
+     * Test the last directory page has no cursor.
+     */
+    @Test
+    @DisplayName("searchDirectory on the last page should return no cursor")
+    void searchDirectory_lastPage_shouldReturnNoCursor() {
+        // Given
+        when(userRepository.searchDirectory(Set.of(), 0L, Set.of(), 0L,
+                null, "bob", 256,
+                Limit.of(UserService.DEFAULT_DIRECTORY_PAGE_SIZE + 1)))
+                .thenReturn(List.of(
+                        new UserSummaryDTO("carl", "Carl", "C", false, null)));
+
+        // When
+        UserDirectoryPageDTO page = userService.searchDirectory(
+                null, null, null, "bob", null);
+
+        // Then
+        assertEquals(1, page.getUsers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * Test LIKE wildcards typed in the location are matched literally.
+     */
+    @Test
+    @DisplayName("searchDirectory should escape wildcards in the location")
+    void searchDirectory_wildcardLocation_shouldEscape() {
+        // Given
+        when(userRepository.searchDirectory(Set.of(), 0L, Set.of(), 0L,
+                "st\\_a\\%\\\\b%", "", 256,
+                Limit.of(UserService.DEFAULT_DIRECTORY_PAGE_SIZE + 1)))
+                .thenReturn(List.of());
+
+        // When
+        UserDirectoryPageDTO page = userService.searchDirectory(
+                null, null, "St_a%\\b", null, null);
+
+        // Then
+        assertTrue(page.getUsers().isEmpty());
+    }
+
+    /**
+     * Test directory search rejects unknown labels and bad limits.
+     */
+    @Test
+    @DisplayName("searchDirectory with unknown label or bad limit should throw")
+    void searchDirectory_invalid_shouldThrow() {
+        // Given
+        when(languageService.getLanguage("Klingon"))
+                .thenThrow(new IllegalArgumentException("Language not found: Klingon"));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.searchDirectory(null, List.of("Klingon"),
+                        null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.searchDirectory(null, null, null, null,
+                        UserService.MAX_DIRECTORY_PAGE_SIZE + 1));
+        verify(userRepository, never()).searchDirectory(any(), anyLong(),
+                any(), anyLong(), any(), any(), anyInt(), any());
+    }
+
     /**
      * Create a test user.
      *
@@ -863,8 +1126,6 @@ class UserServiceTest {
         user.setPhoneNumber("1234567890");
         user.setLocation("Paris");
         user.setDescription("Test user");
-        user.setProfilePhoto("photo.jpg"
-                .getBytes(StandardCharsets.UTF_8));
         user.setIdentityVerification(false);
         user.setPreferences("{}");
         user.setRegistrationDate(LocalDateTime.now());
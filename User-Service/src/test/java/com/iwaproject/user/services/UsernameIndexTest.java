@@ -0,0 +1,72 @@
+package com.iwaproject.user.services;
+
+import com.iwaproject.user.repositories.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for UsernameIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class UsernameIndexTest {
+
+    /**
+     * Mock repository.
+     */
+    @Mock
+    private UserRepository userRepository;
+
+    /**
+     * Index under test.
+     */
+    @InjectMocks
+    private UsernameIndex usernameIndex;
+
+    /**
+     * Test warm-up pages through every username.
+     */
+    @Test
+    @DisplayName("warmUp should load usernames page by page")
+    void warmUp_shouldLoadAllPages() {
+        // Given
+        List<String> firstPage = IntStream.range(0, 1000)
+                .mapToObj(i -> String.format("user%04d", i)).toList();
+        when(userRepository.findUsernamesAfter("", Limit.of(1000)))
+                .thenReturn(firstPage);
+        when(userRepository.findUsernamesAfter("user0999", Limit.of(1000)))
+                .thenReturn(List.of("zoe"));
+
+        // When
+        usernameIndex.warmUp();
+
+        // Then
+        assertTrue(usernameIndex.contains("user0000"));
+        assertTrue(usernameIndex.contains("zoe"));
+        assertFalse(usernameIndex.contains("ghost"));
+    }
+
+    /**
+     * Test usernames created outside a transaction are indexed at once.
+     */
+    @Test
+    @DisplayName("addAfterCommit outside a transaction should add immediately")
+    void addAfterCommit_noTransaction_shouldAddImmediately() {
+        // When
+        usernameIndex.addAfterCommit("john");
+
+        // Then
+        assertTrue(usernameIndex.contains("john"));
+    }
+}